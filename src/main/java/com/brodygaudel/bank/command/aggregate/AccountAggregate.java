@@ -1,15 +1,22 @@
 package com.brodygaudel.bank.command.aggregate;
 
+import com.brodygaudel.bank.command.service.CustomerLookupService;
 import com.brodygaudel.bank.common.event.account.*;
+import com.brodygaudel.bank.common.exception.CustomerAlreadyHaveAccountException;
+import com.brodygaudel.bank.common.exception.CustomerNotFoundException;
 import com.brodygaudel.bank.common.exception.InsufficientBalanceException;
 import com.brodygaudel.bank.common.command.account.*;
 import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.util.MinorUnits;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.commandhandling.CommandHandler;
 import org.axonframework.eventsourcing.EventSourcingHandler;
 import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.AggregateLifecycle;
+import org.axonframework.serialization.Revision;
 import org.axonframework.spring.stereotype.Aggregate;
 import org.jetbrains.annotations.NotNull;
 
@@ -23,15 +30,29 @@ import java.time.LocalDateTime;
  * This aggregate captures the state changes of an account, including creation, activation, suspension,
  * credit, and debit events. It applies the events and updates its internal state accordingly.
  * </p>
+ *
+ * <p>
+ * The aggregate is snapshotted every {@code snapshot.account.threshold} events (see
+ * {@link com.brodygaudel.bank.common.configuration.SnapshotConfiguration}). Snapshots are written by the event
+ * serializer straight from the fields, so the {@link Revision} must be bumped whenever the state layout changes;
+ * snapshots of another revision are then ignored and the aggregate is rebuilt from its events.
+ * The balance is held in minor units (see {@link MinorUnits}) so that replaying credits and debits does not allocate.
+ * Loaded accounts are kept in the {@code accountCache} (see
+ * {@link com.brodygaudel.bank.common.configuration.CacheConfiguration}), so commands on hot accounts skip the event store.
+ * </p>
  */
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "accountSnapshotTriggerDefinition", cache = "accountCache")
+@Revision("2")
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
 @Slf4j
 @Getter
 public class AccountAggregate {
 
     @AggregateIdentifier
     private String accountId;
-    private BigDecimal balance;
+    @Getter(AccessLevel.NONE)
+    private long balanceInMinorUnits;
     private AccountStatus status;
     private LocalDateTime creation;
     private LocalDateTime lastUpdate;
@@ -44,17 +65,30 @@ public class AccountAggregate {
         super();
     }
 
+    /**
+     * Returns the balance of the account as a decimal amount.
+     *
+     * @return The decimal balance of the account.
+     */
+    public BigDecimal getBalance() {
+        return MinorUnits.toDecimal(balanceInMinorUnits);
+    }
+
     /**
      * Constructor for handling the {@code CreateAccountCommand} and applying the corresponding event.
      *
-     * @param command The {@code CreateAccountCommand} to handle.
+     * @param command               The {@code CreateAccountCommand} to handle.
+     * @param customerLookupService The service checking that the customer can open an account.
+     * @throws CustomerNotFoundException           if the customer does not exist.
+     * @throws CustomerAlreadyHaveAccountException if the customer already has an account.
      */
     @CommandHandler
-    public AccountAggregate(@NotNull CreateAccountCommand command) {
+    public AccountAggregate(@NotNull CreateAccountCommand command, @NotNull CustomerLookupService customerLookupService) {
         log.info("CreateAccountCommand handled");
+        customerLookupService.checkCanOpenAccount(command.getCustomerId());
         AggregateLifecycle.apply(new AccountCreatedEvent(
                 command.getId(),
-                command.getBalance(),
+                MinorUnits.of(command.getBalance()),
                 command.getStatus(),
                 command.getCreation(),
                 command.getCustomerId()
@@ -70,7 +104,7 @@ public class AccountAggregate {
     public void on(@NotNull AccountCreatedEvent event) {
         log.info("AccountCreatedEvent handled");
         this.accountId = event.getId();
-        this.balance = event.getBalance();
+        this.balanceInMinorUnits = event.getBalanceInMinorUnits();
         this.status = event.getStatus();
         this.customerId = event.getCustomerId();
         this.creation = event.getCreation();
@@ -89,12 +123,15 @@ public class AccountAggregate {
     @CommandHandler
     public void on(DebitAccountCommand command) {
         log.info("DebitAccountCommand handled");
-        if (this.balance.compareTo(BigDecimal.ZERO) > 0 && this.balance.compareTo(command.getAmount()) < 0) {
-            throw new InsufficientBalanceException("Balance not sufficient => " + this.balance);
+        long amount = MinorUnits.of(command.getAmount());
+        if (this.balanceInMinorUnits > 0 && this.balanceInMinorUnits < amount) {
+            throw new InsufficientBalanceException("Balance not sufficient => " + getBalance());
         } else {
+            // rejects the command, before any event is applied, if the balance would overflow
+            Math.subtractExact(this.balanceInMinorUnits, amount);
             AggregateLifecycle.apply(new AccountDebitedEvent(
                     command.getId(),
-                    command.getAmount(),
+                    amount,
                     command.getDescription(),
                     command.getLastUpdate()
             ));
@@ -110,7 +147,7 @@ public class AccountAggregate {
     public void on(@NotNull AccountDebitedEvent event) {
         log.info("AccountDebitedEvent handled");
         this.accountId = event.getId();
-        this.balance = this.balance.subtract(event.getAmount());
+        this.balanceInMinorUnits = Math.subtractExact(this.balanceInMinorUnits, event.getAmountInMinorUnits());
         this.lastUpdate = event.getLastUpdate();
     }
 
@@ -122,9 +159,12 @@ public class AccountAggregate {
     @CommandHandler
     public void on(@NotNull CreditAccountCommand command) {
         log.info("CreditAccountCommand handled");
+        long amount = MinorUnits.of(command.getAmount());
+        // rejects the command, before any event is applied, if the balance would overflow
+        Math.addExact(this.balanceInMinorUnits, amount);
         AggregateLifecycle.apply(new AccountCreditedEvent(
                 command.getId(),
-                command.getAmount(),
+                amount,
                 command.getDescription(),
                 command.getLastUpdate()
         ));
@@ -140,7 +180,7 @@ public class AccountAggregate {
         log.info("AccountCreditedEvent handled");
         this.accountId = event.getId();
         this.lastUpdate = event.getLastUpdate();
-        this.balance = this.balance.add(event.getAmount());
+        this.balanceInMinorUnits = Math.addExact(this.balanceInMinorUnits, event.getAmountInMinorUnits());
     }
 
     /**
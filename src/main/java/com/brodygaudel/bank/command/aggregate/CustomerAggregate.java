@@ -1,5 +1,6 @@
 package com.brodygaudel.bank.command.aggregate;
 
+import com.brodygaudel.bank.command.service.CustomerLookupService;
 import com.brodygaudel.bank.common.command.customer.CreateCustomerCommand;
 import com.brodygaudel.bank.common.command.customer.DeleteCustomerCommand;
 import com.brodygaudel.bank.common.command.customer.UpdateCustomerCommand;
@@ -7,12 +8,15 @@ import com.brodygaudel.bank.common.event.customer.CustomerCreatedEvent;
 import com.brodygaudel.bank.common.event.customer.CustomerDeletedEvent;
 import com.brodygaudel.bank.common.event.customer.CustomerUpdatedEvent;
 import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.common.exception.NicAlreadyExistException;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.commandhandling.CommandHandler;
 import org.axonframework.eventsourcing.EventSourcingHandler;
 import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.AggregateLifecycle;
+import org.axonframework.serialization.Revision;
 import org.axonframework.spring.stereotype.Aggregate;
 import org.jetbrains.annotations.NotNull;
 
@@ -26,8 +30,17 @@ import java.time.LocalDateTime;
  * This aggregate captures the state changes of a customer, including creation, update, and deletion events.
  * It applies the events and updates its internal state accordingly.
  * </p>
+ *
+ * <p>
+ * The aggregate is snapshotted every {@code snapshot.customer.threshold} events (see
+ * {@link com.brodygaudel.bank.common.configuration.SnapshotConfiguration}); bump the {@link Revision} whenever
+ * the state layout changes so that older snapshots are ignored.
+ * </p>
  */
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "customerSnapshotTriggerDefinition", cache = "customerCache")
+@Revision("1")
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
 @Slf4j
 @Getter
 public class CustomerAggregate {
@@ -54,11 +67,14 @@ public class CustomerAggregate {
     /**
      * Constructor for handling the {@link CreateCustomerCommand} and applying the corresponding event.
      *
-     * @param command The {@link CreateCustomerCommand} to handle.
+     * @param command               The {@link CreateCustomerCommand} to handle.
+     * @param customerLookupService The service checking the uniqueness of the NIC.
+     * @throws NicAlreadyExistException if another customer already uses the NIC.
      */
     @CommandHandler
-    public CustomerAggregate(@NotNull CreateCustomerCommand command) {
+    public CustomerAggregate(@NotNull CreateCustomerCommand command, @NotNull CustomerLookupService customerLookupService) {
         log.info("CreateCustomerCommand received");
+        customerLookupService.checkNicAvailable(command.getNic(), command.getId());
         AggregateLifecycle.apply(new CustomerCreatedEvent(
                 command.getId(),
                 command.getNic(),
@@ -94,11 +110,16 @@ public class CustomerAggregate {
     /**
      * Command handler for handling the {@link UpdateCustomerCommand} and applying the corresponding event.
      *
-     * @param command The {@link UpdateCustomerCommand} to handle.
+     * @param command               The {@link UpdateCustomerCommand} to handle.
+     * @param customerLookupService The service checking the uniqueness of the NIC.
+     * @throws NicAlreadyExistException if the NIC changes to one already used by another customer.
      */
     @CommandHandler
-    public void handle(@NotNull UpdateCustomerCommand command) {
+    public void handle(@NotNull UpdateCustomerCommand command, @NotNull CustomerLookupService customerLookupService) {
         log.info("UpdateCustomerCommand received");
+        if (!command.getNic().equals(this.nic)) {
+            customerLookupService.checkNicAvailable(command.getNic(), command.getId());
+        }
         AggregateLifecycle.apply(new CustomerUpdatedEvent(
                 command.getId(), command.getNic(),
                 command.getFirstname(), command.getName(),
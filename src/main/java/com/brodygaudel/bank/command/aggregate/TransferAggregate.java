@@ -0,0 +1,207 @@
+package com.brodygaudel.bank.command.aggregate;
+
+import com.brodygaudel.bank.common.command.transfer.CompleteTransferCommand;
+import com.brodygaudel.bank.common.command.transfer.FailTransferCommand;
+import com.brodygaudel.bank.common.command.transfer.RecordTransferDebitCommand;
+import com.brodygaudel.bank.common.command.transfer.RejectTransferCreditCommand;
+import com.brodygaudel.bank.common.command.transfer.RequestTransferCommand;
+import com.brodygaudel.bank.common.enums.TransferStatus;
+import com.brodygaudel.bank.common.event.transfer.*;
+import com.brodygaudel.bank.common.exception.InvalidTransferException;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.commandhandling.CommandHandler;
+import org.axonframework.eventsourcing.EventSourcingHandler;
+import org.axonframework.modelling.command.AggregateIdentifier;
+import org.axonframework.modelling.command.AggregateLifecycle;
+import org.axonframework.serialization.Revision;
+import org.axonframework.spring.stereotype.Aggregate;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate representing a transfer of funds between two accounts.
+ *
+ * <p>
+ * This aggregate records the request of a transfer and the outcome of each of its steps. The debit of the source
+ * account, the credit of the destination account and, when the credit is rejected, the compensation of the debit are
+ * carried out by the {@link com.brodygaudel.bank.command.saga.TransferSaga}, which reports the outcome of every step
+ * back to this aggregate and moves on to the next step from the event recording it. A step reported again, once the
+ * transfer has moved past it, is ignored.
+ * </p>
+ */
+@Aggregate
+@Revision("1")
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+@Slf4j
+@Getter
+public class TransferAggregate {
+
+    @AggregateIdentifier
+    private String transferId;
+    private String idFrom;
+    private String idTo;
+    private BigDecimal amount;
+    private TransferStatus status;
+    private LocalDateTime creation;
+    private LocalDateTime lastUpdate;
+
+    /**
+     * Default constructor for the TransferAggregate.
+     */
+    public TransferAggregate() {
+        super();
+    }
+
+    /**
+     * Constructor for handling the {@link RequestTransferCommand} and applying the corresponding event.
+     *
+     * @param command The {@link RequestTransferCommand} to handle.
+     * @throws InvalidTransferException if both accounts are the same or the amount is not positive.
+     */
+    @CommandHandler
+    public TransferAggregate(@NotNull RequestTransferCommand command) {
+        log.info("RequestTransferCommand handled");
+        if (command.getIdFrom().equals(command.getIdTo())) {
+            throw new InvalidTransferException("cannot transfer funds from an account to itself");
+        }
+        if (command.getAmount().signum() <= 0) {
+            throw new InvalidTransferException("the amount of a transfer must be positive => " + command.getAmount());
+        }
+        AggregateLifecycle.apply(new TransferRequestedEvent(
+                command.getId(),
+                command.getIdFrom(),
+                command.getIdTo(),
+                command.getAmount(),
+                command.getDescription(),
+                command.getCreation()
+        ));
+    }
+
+    /**
+     * Event sourcing handler for the {@link TransferRequestedEvent}.
+     *
+     * @param event The {@link TransferRequestedEvent} to handle.
+     */
+    @EventSourcingHandler
+    public void on(@NotNull TransferRequestedEvent event) {
+        log.info("TransferRequestedEvent handled");
+        this.transferId = event.getId();
+        this.idFrom = event.getIdFrom();
+        this.idTo = event.getIdTo();
+        this.amount = event.getAmount();
+        this.status = TransferStatus.REQUESTED;
+        this.creation = event.getCreation();
+    }
+
+    /**
+     * Command handler for handling the {@link RecordTransferDebitCommand}. A transfer that is no longer awaiting its
+     * debit is left untouched.
+     *
+     * @param command The {@link RecordTransferDebitCommand} to handle.
+     * @return The status of the transfer once the command is handled.
+     */
+    @CommandHandler
+    public TransferStatus on(@NotNull RecordTransferDebitCommand command) {
+        log.info("RecordTransferDebitCommand handled");
+        if (this.status == TransferStatus.REQUESTED) {
+            AggregateLifecycle.apply(new TransferDebitedEvent(command.getId(), command.getLastUpdate()));
+        }
+        return this.status;
+    }
+
+    /**
+     * Event sourcing handler for the {@link TransferDebitedEvent}.
+     *
+     * @param event The {@link TransferDebitedEvent} to handle.
+     */
+    @EventSourcingHandler
+    public void on(@NotNull TransferDebitedEvent event) {
+        log.info("TransferDebitedEvent handled");
+        this.status = TransferStatus.DEBITED;
+        this.lastUpdate = event.getLastUpdate();
+    }
+
+    /**
+     * Command handler for handling the {@link RejectTransferCreditCommand}. A transfer that is no longer awaiting its
+     * credit is left untouched.
+     *
+     * @param command The {@link RejectTransferCreditCommand} to handle.
+     */
+    @CommandHandler
+    public void on(@NotNull RejectTransferCreditCommand command) {
+        log.info("RejectTransferCreditCommand handled");
+        if (this.status == TransferStatus.DEBITED) {
+            AggregateLifecycle.apply(new TransferCreditRejectedEvent(command.getId(), command.getReason(),
+                    command.getLastUpdate()));
+        }
+    }
+
+    /**
+     * Event sourcing handler for the {@link TransferCreditRejectedEvent}.
+     *
+     * @param event The {@link TransferCreditRejectedEvent} to handle.
+     */
+    @EventSourcingHandler
+    public void on(@NotNull TransferCreditRejectedEvent event) {
+        log.info("TransferCreditRejectedEvent handled");
+        this.status = TransferStatus.REFUNDING;
+        this.lastUpdate = event.getLastUpdate();
+    }
+
+    /**
+     * Command handler for handling the {@link CompleteTransferCommand}. A transfer that is no longer awaiting its
+     * credit is left untouched.
+     *
+     * @param command The {@link CompleteTransferCommand} to handle.
+     */
+    @CommandHandler
+    public void on(@NotNull CompleteTransferCommand command) {
+        log.info("CompleteTransferCommand handled");
+        if (this.status == TransferStatus.DEBITED) {
+            AggregateLifecycle.apply(new TransferCompletedEvent(command.getId(), command.getLastUpdate()));
+        }
+    }
+
+    /**
+     * Event sourcing handler for the {@link TransferCompletedEvent}.
+     *
+     * @param event The {@link TransferCompletedEvent} to handle.
+     */
+    @EventSourcingHandler
+    public void on(@NotNull TransferCompletedEvent event) {
+        log.info("TransferCompletedEvent handled");
+        this.status = TransferStatus.COMPLETED;
+        this.lastUpdate = event.getLastUpdate();
+    }
+
+    /**
+     * Command handler for handling the {@link FailTransferCommand}, once the debit has been rejected or compensated. A
+     * transfer in any other status is left untouched.
+     *
+     * @param command The {@link FailTransferCommand} to handle.
+     */
+    @CommandHandler
+    public void on(@NotNull FailTransferCommand command) {
+        log.info("FailTransferCommand handled");
+        if (this.status == TransferStatus.REQUESTED || this.status == TransferStatus.REFUNDING) {
+            AggregateLifecycle.apply(new TransferFailedEvent(command.getId(), command.getReason(), command.getLastUpdate()));
+        }
+    }
+
+    /**
+     * Event sourcing handler for the {@link TransferFailedEvent}.
+     *
+     * @param event The {@link TransferFailedEvent} to handle.
+     */
+    @EventSourcingHandler
+    public void on(@NotNull TransferFailedEvent event) {
+        log.info("TransferFailedEvent handled");
+        this.status = TransferStatus.FAILED;
+        this.lastUpdate = event.getLastUpdate();
+    }
+}
@@ -0,0 +1,173 @@
+package com.brodygaudel.bank.command.bus;
+
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.commandhandling.CommandBusSpanFactory;
+import org.axonframework.commandhandling.CommandCallback;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.DuplicateCommandHandlerResolver;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.commandhandling.distributed.AnnotationRoutingStrategy;
+import org.axonframework.commandhandling.distributed.RoutingStrategy;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.messaging.MessageHandler;
+import org.axonframework.monitoring.MessageMonitor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command bus handling the commands asynchronously on a fixed set of single-threaded shards.
+ *
+ * <p>
+ * The shard of a command is chosen from its routing key, which by default is the identifier of its target aggregate.
+ * The commands targeting the same aggregate are therefore handled one after the other, in the order in which they
+ * were dispatched, while the commands targeting different aggregates are spread over the shards and handled in
+ * parallel. The thread dispatching a command never runs its handler, and is notified through the callback of the
+ * command.
+ * </p>
+ *
+ * <p>
+ * The queue of every shard is unbounded: callers dispatching large volumes of commands are expected to bound the
+ * number of commands they have in flight.
+ * </p>
+ */
+@Slf4j
+public class ShardedAsynchronousCommandBus extends SimpleCommandBus {
+
+    private final RoutingStrategy routingStrategy;
+    private final ExecutorService[] shards;
+
+    /**
+     * Instantiates a ShardedAsynchronousCommandBus based on the fields contained in the {@link Builder}.
+     *
+     * @param builder The {@link Builder} used to instantiate a ShardedAsynchronousCommandBus.
+     */
+    protected ShardedAsynchronousCommandBus(@NotNull Builder builder) {
+        super(builder);
+        this.routingStrategy = builder.routingStrategy;
+        this.shards = new ExecutorService[builder.shards];
+        for (int i = 0; i < shards.length; i++) {
+            String name = "command-shard-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Instantiates a builder of ShardedAsynchronousCommandBus. The number of shards defaults to the number of
+     * available processors and the routing strategy to {@link AnnotationRoutingStrategy#defaultStrategy()}.
+     *
+     * @return A builder of ShardedAsynchronousCommandBus.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    protected <C, R> void handle(@NotNull CommandMessage<C> command,
+                                 @NotNull MessageHandler<? super CommandMessage<?>> handler,
+                                 @NotNull CommandCallback<? super C, ? super R> callback) {
+        shardOf(command).execute(() -> super.handle(command, handler, callback));
+    }
+
+    /**
+     * Returns the number of shards of this command bus.
+     *
+     * @return The number of shards.
+     */
+    public int getShards() {
+        return shards.length;
+    }
+
+    /**
+     * Stops the shards once the commands already queued are handled.
+     */
+    public void shutdown() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        for (ExecutorService shard : shards) {
+            try {
+                if (!shard.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Command shard not terminated, {} commands dropped", shard.shutdownNow().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                shard.shutdownNow();
+            }
+        }
+    }
+
+    private ExecutorService shardOf(CommandMessage<?> command) {
+        String routingKey = routingStrategy.getRoutingKey(command);
+        return shards[Math.floorMod(routingKey.hashCode(), shards.length)];
+    }
+
+    /**
+     * Builder class to instantiate a {@link ShardedAsynchronousCommandBus}.
+     */
+    public static class Builder extends SimpleCommandBus.Builder {
+
+        private int shards = Runtime.getRuntime().availableProcessors();
+        private RoutingStrategy routingStrategy = AnnotationRoutingStrategy.defaultStrategy();
+
+        @Override
+        public Builder transactionManager(@NotNull TransactionManager transactionManager) {
+            super.transactionManager(transactionManager);
+            return this;
+        }
+
+        @Override
+        public Builder messageMonitor(@NotNull MessageMonitor<? super CommandMessage<?>> messageMonitor) {
+            super.messageMonitor(messageMonitor);
+            return this;
+        }
+
+        @Override
+        public Builder duplicateCommandHandlerResolver(@NotNull DuplicateCommandHandlerResolver duplicateCommandHandlerResolver) {
+            super.duplicateCommandHandlerResolver(duplicateCommandHandlerResolver);
+            return this;
+        }
+
+        @Override
+        public Builder spanFactory(@NotNull CommandBusSpanFactory spanFactory) {
+            super.spanFactory(spanFactory);
+            return this;
+        }
+
+        /**
+         * Sets the number of shards, that is of threads handling the commands.
+         *
+         * @param shards The number of shards, strictly positive.
+         * @return The current Builder instance, for fluent interfacing.
+         */
+        public Builder shards(int shards) {
+            if (shards <= 0) {
+                throw new IllegalArgumentException("the number of shards must be positive => " + shards);
+            }
+            this.shards = shards;
+            return this;
+        }
+
+        /**
+         * Sets the strategy resolving the routing key of a command, from which its shard is chosen.
+         *
+         * @param routingStrategy The routing strategy.
+         * @return The current Builder instance, for fluent interfacing.
+         */
+        public Builder routingStrategy(@NotNull RoutingStrategy routingStrategy) {
+            this.routingStrategy = routingStrategy;
+            return this;
+        }
+
+        @Override
+        public ShardedAsynchronousCommandBus build() {
+            return new ShardedAsynchronousCommandBus(this);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.brodygaudel.bank.command.bus;
+
+import com.brodygaudel.bank.command.entity.TransferStep;
+import com.brodygaudel.bank.command.repository.TransferStepRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Command handler interceptor applying every step of a transfer to an account at most once.
+ *
+ * <p>
+ * The transfer saga sends the commands debiting, crediting or refunding an account with the key of the step in the
+ * {@value #METADATA_KEY} metadata. A command whose step is already recorded in the {@link TransferStep} table is
+ * acknowledged without being handled; otherwise the step is recorded once the command has been handled, in the
+ * transaction of the command, so it is only kept if the command is. Commands without this metadata are handled as
+ * usual.
+ * </p>
+ *
+ * <p>
+ * The step is recorded in the same transaction as the events of the command when the events are stored through JPA.
+ * With Axon Server, a crash between the storage of the events and the commit of the transaction loses the record of
+ * the step, as it would lose the customer lookup of a new customer.
+ * </p>
+ */
+@Component
+@Slf4j
+public class TransferStepInterceptor implements MessageHandlerInterceptor<CommandMessage<?>> {
+
+    /**
+     * The metadata holding the key of the transfer step applied by a command.
+     */
+    public static final String METADATA_KEY = "transferStep";
+
+    private final TransferStepRepository transferStepRepository;
+
+    /**
+     * Constructs a new instance of TransferStepInterceptor.
+     *
+     * @param transferStepRepository The repository of the applied transfer steps.
+     */
+    public TransferStepInterceptor(TransferStepRepository transferStepRepository) {
+        this.transferStepRepository = transferStepRepository;
+    }
+
+    /**
+     * Handles the command unless the transfer step it applies has already been applied.
+     *
+     * @param unitOfWork       The unit of work handling the command.
+     * @param interceptorChain The chain handling the command.
+     * @return The result of the command, or {@code null} if its step has already been applied.
+     * @throws Exception if the command is rejected.
+     */
+    @Override
+    public Object handle(@NotNull UnitOfWork<? extends CommandMessage<?>> unitOfWork,
+                         @NotNull InterceptorChain interceptorChain) throws Exception {
+        Object step = unitOfWork.getMessage().getMetaData().get(METADATA_KEY);
+        if (step == null) {
+            return interceptorChain.proceed();
+        }
+        String key = step.toString();
+        if (transferStepRepository.existsById(key)) {
+            log.info("transfer step {} already applied", key);
+            return null;
+        }
+        Object result = interceptorChain.proceed();
+        transferStepRepository.save(new TransferStep(key, LocalDateTime.now()));
+        return result;
+    }
+}
@@ -0,0 +1,209 @@
+package com.brodygaudel.bank.command.cache;
+
+import com.brodygaudel.bank.common.dto.CacheStatisticsDTO;
+import com.brodygaudel.bank.common.enums.EvictionPolicy;
+import org.axonframework.common.Registration;
+import org.axonframework.common.caching.Cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, weighted in-memory {@link Cache} used by the caching repositories of the aggregates.
+ *
+ * <p>
+ * Every entry is given a weight by the configured weigher and the cache evicts entries, in {@link EvictionPolicy#LRU}
+ * or {@link EvictionPolicy#FIFO} order, as soon as the total weight exceeds the maximum weight. Hits, misses and
+ * evictions are counted and exposed through {@link #statistics()}.
+ * </p>
+ *
+ * <p>
+ * Invalidation is driven by Axon's caching repository: an aggregate is put in the cache when the unit of work of a
+ * command commits, and removed again when that unit of work rolls back, so a failed command never leaves a modified
+ * aggregate behind. A hit restores the aggregate without reading the event store.
+ * </p>
+ */
+public class WeightedAggregateCache implements Cache {
+
+    private final String name;
+    private final long maxWeight;
+    private final ToLongFunction<Object> weigher;
+    private final LinkedHashMap<Object, WeightedValue> entries;
+    private final List<EntryListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long weight;
+
+    /**
+     * Constructs a new WeightedAggregateCache.
+     *
+     * @param name           The name of the cache, used in the statistics.
+     * @param maxWeight      The maximum total weight of the entries kept in the cache.
+     * @param weigher        The function computing the weight of a cached value.
+     * @param evictionPolicy The order in which entries are evicted once the maximum weight is exceeded.
+     */
+    public WeightedAggregateCache(String name, long maxWeight, ToLongFunction<Object> weigher,
+                                  EvictionPolicy evictionPolicy) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("the maximum weight of cache '" + name + "' must be positive");
+        }
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, evictionPolicy == EvictionPolicy.LRU);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <K, V> V get(K key) {
+        WeightedValue entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        listeners.forEach(listener -> listener.onEntryRead(key, entry.value()));
+        return (V) entry.value();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        long valueWeight = Math.max(1, weigher.applyAsLong(value));
+        synchronized (this) {
+            WeightedValue previous = store(key, value, valueWeight);
+            if (previous == null) {
+                listeners.forEach(listener -> listener.onEntryCreated(key, value));
+            } else {
+                listeners.forEach(listener -> listener.onEntryUpdated(key, value));
+            }
+            evictIfNeeded();
+        }
+    }
+
+    @Override
+    public synchronized boolean putIfAbsent(Object key, Object value) {
+        if (entries.containsKey(key)) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T computeIfAbsent(Object key, Supplier<T> valueSupplier) {
+        WeightedValue entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            return (T) entry.value();
+        }
+        misses.increment();
+        T value = valueSupplier.get();
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <V> void computeIfPresent(Object key, UnaryOperator<V> update) {
+        WeightedValue entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        V value = update.apply((V) entry.value());
+        if (value == null) {
+            remove(key);
+        } else {
+            put(key, value);
+        }
+    }
+
+    @Override
+    public synchronized boolean remove(Object key) {
+        WeightedValue removed = entries.remove(key);
+        if (removed == null) {
+            return false;
+        }
+        weight -= removed.weight();
+        listeners.forEach(listener -> listener.onEntryRemoved(key));
+        return true;
+    }
+
+    @Override
+    public synchronized void removeAll() {
+        entries.keySet().forEach(key -> listeners.forEach(listener -> listener.onEntryRemoved(key)));
+        entries.clear();
+        weight = 0;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public Registration registerCacheEntryListener(EntryListener cacheEntryListener) {
+        listeners.add(cacheEntryListener);
+        return () -> listeners.remove(cacheEntryListener);
+    }
+
+    /**
+     * Returns a snapshot of the usage statistics of this cache.
+     *
+     * @return The statistics of the cache.
+     */
+    public synchronized CacheStatisticsDTO statistics() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return new CacheStatisticsDTO(
+                name, entries.size(), weight, maxWeight,
+                hitCount, misses.sum(), evictions.sum(),
+                requests == 0 ? 0.0 : (double) hitCount / requests
+        );
+    }
+
+    /**
+     * Stores a value and updates the total weight of the cache.
+     *
+     * @param key         The key of the entry.
+     * @param value       The value of the entry.
+     * @param valueWeight The weight of the value, computed by the weigher outside the lock of the cache.
+     * @return The entry previously stored under the key, or {@code null} if there was none.
+     */
+    private WeightedValue store(Object key, Object value, long valueWeight) {
+        WeightedValue previous = entries.put(key, new WeightedValue(value, valueWeight));
+        weight += valueWeight - (previous == null ? 0 : previous.weight());
+        return previous;
+    }
+
+    /**
+     * Evicts entries, oldest first in the configured order, until the total weight fits the maximum weight again.
+     */
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Object, WeightedValue>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            Map.Entry<Object, WeightedValue> eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.getValue().weight();
+            evictions.increment();
+            listeners.forEach(listener -> listener.onEntryExpired(eldest.getKey()));
+        }
+    }
+
+    /**
+     * A cached value together with the weight it was given when it was stored.
+     *
+     * @param value  The cached value.
+     * @param weight The weight of the value.
+     */
+    private record WeightedValue(Object value, long weight) {
+    }
+}
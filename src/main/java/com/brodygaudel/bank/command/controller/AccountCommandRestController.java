@@ -1,24 +1,28 @@
 package com.brodygaudel.bank.command.controller;
 
+import com.brodygaudel.bank.command.service.AccountBatchService;
 import com.brodygaudel.bank.common.util.IdGenerator;
+import com.brodygaudel.bank.common.util.IdempotencyStore;
 import com.brodygaudel.bank.common.dto.*;
 import com.brodygaudel.bank.common.command.account.*;
+import com.brodygaudel.bank.common.command.transfer.RequestTransferCommand;
 import com.brodygaudel.bank.common.enums.AccountStatus;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for handling account-related commands.
  *
  * <p>
- * This controller provides endpoints for creating, crediting, debiting, transferring, and updating the status of accounts.
+ * This controller provides endpoints for creating, crediting, debiting, transferring, and updating the status of accounts,
+ * and an endpoint for crediting and debiting accounts in bulk.
  * It uses the Command Gateway to send corresponding commands to the system.
  * </p>
  */
@@ -26,18 +30,27 @@ import java.util.concurrent.CompletableFuture;
 @RequestMapping("/commands/accounts")
 public class AccountCommandRestController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final CommandGateway commandGateway;
     private final IdGenerator idGenerator;
+    private final AccountBatchService accountBatchService;
+    private final IdempotencyStore idempotencyStore;
 
     /**
      * Constructs a new instance of AccountCommandRestController.
      *
-     * @param commandGateway The command gateway used to send commands to the system.
-     * @param idGenerator    The ID generator used to generate unique IDs for account creation.
+     * @param commandGateway      The command gateway used to send commands to the system.
+     * @param idGenerator         The ID generator used to generate unique IDs for account creation.
+     * @param accountBatchService The service handling batches of credits and debits.
+     * @param idempotencyStore    The store deduplicating the commands sent with an idempotency key.
      */
-    public AccountCommandRestController(CommandGateway commandGateway, IdGenerator idGenerator) {
+    public AccountCommandRestController(CommandGateway commandGateway, IdGenerator idGenerator,
+                                        AccountBatchService accountBatchService, IdempotencyStore idempotencyStore) {
         this.commandGateway = commandGateway;
         this.idGenerator = idGenerator;
+        this.accountBatchService = accountBatchService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -62,12 +75,19 @@ public class AccountCommandRestController {
     /**
      * Endpoint for crediting an account.
      *
-     * @param dto The data transfer object containing credit information.
+     * <p>
+     * A request sent again with the same idempotency key returns the result of the first request without crediting
+     * the account a second time.
+     * </p>
+     *
+     * @param idempotencyKey The optional idempotency key of the request.
+     * @param dto            The data transfer object containing credit information.
      * @return A CompletableFuture representing the completion of the command.
      */
     @PostMapping("/credit")
-    public CompletableFuture<String> credit(@RequestBody @NotNull CreditAccountRequestDTO dto) {
-        return commandGateway.send(
+    public CompletableFuture<String> credit(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                            @RequestBody @NotNull CreditAccountRequestDTO dto) {
+        return sendOnce("credit", idempotencyKey,
                 new CreditAccountCommand(
                         dto.id(),
                         dto.amount(),
@@ -80,12 +100,19 @@ public class AccountCommandRestController {
     /**
      * Endpoint for debiting an account.
      *
-     * @param dto The data transfer object containing debit information.
+     * <p>
+     * A request sent again with the same idempotency key returns the result of the first request without debiting
+     * the account a second time.
+     * </p>
+     *
+     * @param idempotencyKey The optional idempotency key of the request.
+     * @param dto            The data transfer object containing debit information.
      * @return A CompletableFuture representing the completion of the command.
      */
     @PostMapping("/debit")
-    public CompletableFuture<String> debit(@RequestBody @NotNull DebitAccountRequestDTO dto) {
-        return commandGateway.send(
+    public CompletableFuture<String> debit(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                           @RequestBody @NotNull DebitAccountRequestDTO dto) {
+        return sendOnce("debit", idempotencyKey,
                 new DebitAccountCommand(
                         dto.id(),
                         dto.amount(),
@@ -95,31 +122,61 @@ public class AccountCommandRestController {
         );
     }
 
+    /**
+     * Endpoint for crediting and debiting accounts in bulk.
+     *
+     * <p>
+     * The body is either a JSON array or newline-delimited JSON of credits and debits. It is read incrementally and
+     * every item is sent as soon as it is read, with a bounded number of commands in flight.
+     * </p>
+     *
+     * @param body The JSON array or newline-delimited JSON of the batch.
+     * @return A CompletableFuture holding the per-item results and the throughput of the batch.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public CompletableFuture<BatchResponseDTO> batch(InputStream body) {
+        return accountBatchService.execute(body);
+    }
+
     /**
      * Endpoint for transferring funds between two accounts.
      *
+     * <p>
+     * The transfer is carried out asynchronously by the transfer saga, which debits the source account, credits the
+     * destination account and compensates the debit if the credit fails.
+     * </p>
+     *
      * @param dto The data transfer object containing transfer information.
-     * @return A list of CompletableFutures representing the completion of debit and credit commands.
+     * @return A CompletableFuture holding the identifier of the requested transfer.
      */
     @PostMapping("/transfer")
-    public List<CompletableFuture<String>> transfer(@RequestBody @NotNull TransferRequestDTO dto) {
-        List<CompletableFuture<String>> completableFutures = new ArrayList<>();
-
-        String messageFrom = dto.description() + "| Transfer to :" + dto.idTo();
-        CompletableFuture<String> debited = debit(new DebitAccountRequestDTO(
-                dto.idFrom(), messageFrom, dto.amount()
-        ));
-        debited.join();
-        completableFutures.add(debited);
-
-        String messageTo = dto.description() + " | Transfer from :" + dto.idFrom();
-        CompletableFuture<String> credited = credit(new CreditAccountRequestDTO(
-                dto.idTo(), messageTo, dto.amount()
-        ));
-        credited.join();
-        completableFutures.add(credited);
+    public CompletableFuture<String> transfer(@RequestBody @NotNull TransferRequestDTO dto) {
+        return commandGateway.send(
+                new RequestTransferCommand(
+                        idGenerator.autoGenerate(),
+                        dto.idFrom(),
+                        dto.idTo(),
+                        dto.amount(),
+                        dto.description(),
+                        LocalDateTime.now()
+                )
+        );
+    }
 
-        return completableFutures;
+    /**
+     * Sends a command, once per idempotency key if a key is given. The keys are scoped by operation, so the same key
+     * used for a credit and for a debit designates two distinct requests.
+     *
+     * @param operation      The operation of the command.
+     * @param idempotencyKey The idempotency key of the request, or {@code null}.
+     * @param command        The command to send.
+     * @return A CompletableFuture representing the completion of the command.
+     */
+    private CompletableFuture<String> sendOnce(String operation, String idempotencyKey, Object command) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return commandGateway.send(command);
+        }
+        return idempotencyStore.execute(operation + ":" + idempotencyKey, () -> commandGateway.send(command));
     }
 
     /**
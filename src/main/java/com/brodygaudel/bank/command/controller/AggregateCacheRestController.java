@@ -0,0 +1,42 @@
+package com.brodygaudel.bank.command.controller;
+
+import com.brodygaudel.bank.command.cache.WeightedAggregateCache;
+import com.brodygaudel.bank.common.dto.CacheStatisticsDTO;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller exposing the statistics of the aggregate caches.
+ *
+ * <p>
+ * This controller provides an endpoint returning the size, weight, hits, misses and evictions of every aggregate cache.
+ * </p>
+ */
+@RestController
+@RequestMapping("/commands/caches")
+public class AggregateCacheRestController {
+
+    private final List<WeightedAggregateCache> caches;
+
+    /**
+     * Constructs a new instance of AggregateCacheRestController.
+     *
+     * @param caches The aggregate caches of the application.
+     */
+    public AggregateCacheRestController(List<WeightedAggregateCache> caches) {
+        this.caches = caches;
+    }
+
+    /**
+     * Endpoint for retrieving the statistics of the aggregate caches.
+     *
+     * @return The statistics of every aggregate cache.
+     */
+    @GetMapping("/statistics")
+    public List<CacheStatisticsDTO> getStatistics() {
+        return caches.stream().map(WeightedAggregateCache::statistics).toList();
+    }
+}
@@ -1,24 +1,34 @@
 package com.brodygaudel.bank.command.controller;
 
+import com.brodygaudel.bank.command.service.CustomerImportService;
+import com.brodygaudel.bank.common.dto.CustomerImportStatusDTO;
 import com.brodygaudel.bank.common.dto.CustomerRequestDTO;
 import com.brodygaudel.bank.common.command.customer.CreateCustomerCommand;
 import com.brodygaudel.bank.common.command.customer.DeleteCustomerCommand;
 import com.brodygaudel.bank.common.command.customer.UpdateCustomerCommand;
+import com.brodygaudel.bank.common.enums.ImportFormat;
+import com.brodygaudel.bank.common.exception.ImportLimitExceededException;
+import com.brodygaudel.bank.common.util.IdGenerator;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for handling customer-related commands.
  *
  * <p>
- * This controller provides endpoints for creating, updating, and deleting customers.
+ * This controller provides endpoints for creating, updating, and deleting customers, and for importing customers in bulk.
  * It uses the Command Gateway to send corresponding commands to the system.
  * </p>
  */
@@ -26,15 +36,25 @@ import java.util.concurrent.CompletableFuture;
 @RequestMapping("/commands/customers")
 public class CustomerCommandRestController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final long NO_TIMEOUT = -1L;
+
     private final CommandGateway commandGateway;
+    private final CustomerImportService customerImportService;
+    private final IdGenerator idGenerator;
 
     /**
      * Constructs a new instance of CustomerCommandRestController.
      *
-     * @param commandGateway The command gateway used to send commands to the system.
+     * @param commandGateway        The command gateway used to send commands to the system.
+     * @param customerImportService The service importing customers in bulk.
+     * @param idGenerator           The time-ordered ID generator used to generate unique IDs for customer creation.
      */
-    public CustomerCommandRestController(CommandGateway commandGateway) {
+    public CustomerCommandRestController(CommandGateway commandGateway, CustomerImportService customerImportService,
+                                         @Qualifier("uuidV7IdGenerator") IdGenerator idGenerator) {
         this.commandGateway = commandGateway;
+        this.customerImportService = customerImportService;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -46,7 +66,7 @@ public class CustomerCommandRestController {
     @PostMapping("/create")
     public CompletableFuture<String> create(@RequestBody @NotNull CustomerRequestDTO dto) {
         return commandGateway.send(new CreateCustomerCommand(
-                UUID.randomUUID().toString(), dto.nic(),
+                idGenerator.autoGenerate(), dto.nic(),
                 dto.firstname(), dto.name(), dto.placeOfBirth(),
                 dto.dateOfBirth(), dto.nationality(), dto.sex(),
                 LocalDateTime.now()
@@ -81,6 +101,69 @@ public class CustomerCommandRestController {
         return commandGateway.send(new DeleteCustomerCommand(id));
     }
 
+    /**
+     * Endpoint for importing customers in bulk.
+     *
+     * <p>
+     * The body is a CSV file with a header row, or newline-delimited JSON. The import is answered with an accepted
+     * status and its status, holding its identifier, as soon as it is registered; the body is then read in place, row
+     * by row, and the response ends once it is read. The rows that fail are written to the result file of the import,
+     * and its progress is available from {@code /import/{id}}.
+     * </p>
+     *
+     * @param contentType The content type of the body.
+     * @param body        The CSV or newline-delimited JSON of the customers.
+     * @return An accepted status with the status of the import, sent before the body is read.
+     * @throws IOException if the result file of the import cannot be created or the status cannot be sent.
+     */
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResponseBodyEmitter> importCustomers(@RequestHeader("Content-Type") String contentType,
+                                                               InputStream body) throws IOException {
+        ImportFormat format = contentType.startsWith(TEXT_CSV_VALUE) ? ImportFormat.CSV : ImportFormat.NDJSON;
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(NO_TIMEOUT);
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        CustomerImportStatusDTO status = customerImportService.importCustomers(body, format,
+                () -> sent.thenRun(emitter::complete));
+        try {
+            emitter.send(status, MediaType.APPLICATION_JSON);
+        } finally {
+            sent.complete(null);
+        }
+        return ResponseEntity.accepted().contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+
+    /**
+     * Endpoint for retrieving the progress of an import.
+     *
+     * @param id The unique identifier of the import.
+     * @return A ResponseEntity with the status of the import, or a 404 status if the import is unknown.
+     */
+    @GetMapping("/import/{id}")
+    public ResponseEntity<CustomerImportStatusDTO> getImportStatus(@PathVariable String id) {
+        return ResponseEntity.of(customerImportService.getStatus(id));
+    }
+
+    /**
+     * Endpoint for retrieving the progress of the running imports and of the last finished imports.
+     *
+     * @return The status of the imports.
+     */
+    @GetMapping("/imports")
+    public List<CustomerImportStatusDTO> getImportStatuses() {
+        return customerImportService.getStatuses();
+    }
+
+    /**
+     * Exception handler for imports refused because too many imports are being read.
+     *
+     * @param exception The exception to handle.
+     * @return A ResponseEntity with the error message and a service unavailable status.
+     */
+    @ExceptionHandler(ImportLimitExceededException.class)
+    public ResponseEntity<String> importLimitExceededHandler(@NotNull ImportLimitExceededException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Exception handler for handling exceptions thrown within this controller.
      *
@@ -1,12 +1,25 @@
 package com.brodygaudel.bank.command.controller;
 
+import com.brodygaudel.bank.command.service.EventArchiveJob;
+import com.brodygaudel.bank.command.service.EventStreamService;
+import com.brodygaudel.bank.command.service.EventTailHub;
+import com.brodygaudel.bank.common.dto.EventArchiveReportDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.eventhandling.DomainEventMessage;
 import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.stream.Stream;
 
@@ -15,7 +28,14 @@ import java.util.stream.Stream;
  *
  * <p>
  * This controller provides an endpoint for retrieving events stored in the event store for a specific aggregate ID.
- * It utilizes the Event Store to read and return the events as a Stream.
+ * It utilizes the Event Store to read and return the events as a Stream. A second endpoint streams a range of the
+ * events as newline-delimited JSON, writing them as they are read, and a third one tails the events of all the
+ * aggregates as Server-Sent Events.
+ * </p>
+ *
+ * <p>
+ * The events preceding the snapshots can be moved to cold storage by the archival job, when the event store supports
+ * it; the audit endpoint then streams the whole history of an aggregate, archived events included.
  * </p>
  */
 @RestController
@@ -24,14 +44,24 @@ import java.util.stream.Stream;
 public class EventStoreRestController {
 
     private final EventStore eventStore;
+    private final EventStreamService eventStreamService;
+    private final EventTailHub eventTailHub;
+    private final ObjectProvider<EventArchiveJob> eventArchiveJob;
 
     /**
      * Constructs a new instance of EventStoreRestController.
      *
-     * @param eventStore The Event Store used for retrieving stored events.
+     * @param eventStore         The Event Store used for retrieving stored events.
+     * @param eventStreamService The service streaming the stored events as newline-delimited JSON.
+     * @param eventTailHub       The service tailing the global event stream.
+     * @param eventArchiveJob    The job archiving the events, absent when the event store does not support it.
      */
-    public EventStoreRestController(EventStore eventStore) {
+    public EventStoreRestController(EventStore eventStore, EventStreamService eventStreamService,
+                                    EventTailHub eventTailHub, ObjectProvider<EventArchiveJob> eventArchiveJob) {
         this.eventStore = eventStore;
+        this.eventStreamService = eventStreamService;
+        this.eventTailHub = eventTailHub;
+        this.eventArchiveJob = eventArchiveJob;
     }
 
     /**
@@ -47,5 +77,79 @@ public class EventStoreRestController {
         log.info("Events found");
         return event;
     }
-}
 
+    /**
+     * Endpoint for streaming the events stored for a specific aggregate ID as newline-delimited JSON.
+     *
+     * <p>
+     * The events are written as they are read from the event store, so the history of an aggregate of any size is
+     * streamed with constant memory. To read the next page, a client passes the sequence number following the last
+     * event it received.
+     * </p>
+     *
+     * @param id           The unique identifier of the aggregate for which events are to be retrieved.
+     * @param fromSequence The sequence number of the first event to return.
+     * @param limit        The maximum number of events to return; all the following events if absent.
+     * @return The streamed events, or a bad request if the range is invalid.
+     */
+    @GetMapping(value = "/stream/{id}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEventStored(@PathVariable String id,
+                                                                   @RequestParam(defaultValue = "0") long fromSequence,
+                                                                   @RequestParam(required = false) Long limit) {
+        if (fromSequence < 0 || (limit != null && limit <= 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        long max = limit == null ? Long.MAX_VALUE : limit;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> eventStreamService.write(id, fromSequence, max, output));
+    }
+
+    /**
+     * Endpoint for tailing the events of all the aggregates as Server-Sent Events.
+     *
+     * <p>
+     * The id of every sent event is its global index in the event store. A client resuming a subscription passes the
+     * id of the last event it received, either as {@code from} or, when reconnecting, as the {@code Last-Event-ID}
+     * header; without either, only the events published from now on are sent. A client lagging too far behind is
+     * disconnected.
+     * </p>
+     *
+     * @param from        The global index of the last event the client already has.
+     * @param lastEventId The id of the last event received by a reconnecting client, which takes precedence.
+     * @return The emitter of the events.
+     */
+    @GetMapping(value = "/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter tailEvents(@RequestParam(required = false) Long from,
+                                 @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return eventTailHub.subscribe(lastEventId != null ? lastEventId : from);
+    }
+
+    /**
+     * Endpoint for streaming the whole history of an aggregate as newline-delimited JSON, for audit: the archived
+     * events are streamed first, followed by the events still in the event store.
+     *
+     * @param id The unique identifier of the aggregate for which events are to be retrieved.
+     * @return The streamed events.
+     */
+    @GetMapping(value = "/audit/{id}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> auditEventStored(@PathVariable String id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> eventStreamService.writeAudit(id, output));
+    }
+
+    /**
+     * Endpoint for archiving the events preceding the latest snapshot of every aggregate.
+     *
+     * @return The report of the archival, or not implemented if the event store does not support it.
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<EventArchiveReportDTO> archiveEvents() {
+        EventArchiveJob job = eventArchiveJob.getIfAvailable();
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        }
+        return ResponseEntity.ok(job.archive());
+    }
+}
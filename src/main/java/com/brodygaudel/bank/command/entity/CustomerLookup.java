@@ -0,0 +1,33 @@
+package com.brodygaudel.bank.command.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Command-side lookup of the National Identity Card (NIC) and of the account of every customer.
+ *
+ * <p>
+ * This table is maintained in the transaction of the command that creates, updates or deletes a customer, or that
+ * creates an account, so its unique constraints on the NIC and on the account are the authoritative checks of NIC
+ * uniqueness and of the single account per customer.
+ * </p>
+ */
+@Entity
+@Table(name = "bank.CUSTOMER_LOOKUP")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@ToString
+public class CustomerLookup {
+
+    @Id
+    private String customerId;
+
+    @Column(nullable = false, unique = true)
+    private String nic;
+
+    @Column(unique = true)
+    private String accountId;
+}
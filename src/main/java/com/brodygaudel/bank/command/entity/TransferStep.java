@@ -0,0 +1,38 @@
+package com.brodygaudel.bank.command.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Command-side record of a step of a transfer applied to an account, that is the debit, the credit or the refund of a
+ * transfer.
+ *
+ * <p>
+ * A step is recorded in the transaction of the command that applies it, so a step sent again by the transfer saga,
+ * after a restart or a retry, is found here and not applied twice. Steps are only ever inserted.
+ * </p>
+ */
+@Entity
+@Table(name = "bank.TRANSFER_STEP")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@ToString
+public class TransferStep implements Persistable<String> {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime dateTime;
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
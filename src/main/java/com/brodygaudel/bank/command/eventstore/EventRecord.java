@@ -0,0 +1,165 @@
+package com.brodygaudel.bank.command.eventstore;
+
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Binary layout of the events and snapshots stored by the {@link MappedFileEventStorageEngine}.
+ *
+ * <p>
+ * A record starts with a fixed header (global index, sequence number, timestamp and whether the event is a domain
+ * event), which is read without decoding the rest of the record, followed by the identifiers, the serialized type and
+ * the serialized payload and metadata of the event. An event that is not a domain event is stored, like the JPA engine
+ * stores it, with its identifier as aggregate identifier and sequence number {@code 0}.
+ * </p>
+ */
+final class EventRecord {
+
+    private static final int SEQUENCE_NUMBER = 8;
+    private static final int EPOCH_SECOND = 16;
+    private static final int NANO = 24;
+    private static final int DOMAIN = 28;
+    private static final int HEADER_SIZE = 29;
+
+    private EventRecord() {
+        super();
+    }
+
+    /**
+     * Encodes an event.
+     *
+     * @param event       The event to encode.
+     * @param serializer  The serializer of the payload and metadata.
+     * @param globalIndex The global index of the event, or {@code -1} for a snapshot.
+     * @return The record of the event.
+     */
+    static byte[] encode(EventMessage<?> event, Serializer serializer, long globalIndex) {
+        SerializedObject<byte[]> payload = event.serializePayload(serializer, byte[].class);
+        SerializedObject<byte[]> metaData = event.serializeMetaData(serializer, byte[].class);
+        DomainEventMessage<?> domainEvent = event instanceof DomainEventMessage<?> message ? message : null;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                HEADER_SIZE + 256 + payload.getData().length + metaData.getData().length);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeLong(globalIndex);
+            output.writeLong(domainEvent == null ? 0 : domainEvent.getSequenceNumber());
+            output.writeLong(event.getTimestamp().getEpochSecond());
+            output.writeInt(event.getTimestamp().getNano());
+            output.writeBoolean(domainEvent != null);
+            writeString(output, event.getIdentifier());
+            writeString(output, domainEvent == null ? null : domainEvent.getType());
+            writeString(output, domainEvent == null ? event.getIdentifier() : domainEvent.getAggregateIdentifier());
+            writeString(output, payload.getType().getName());
+            writeString(output, payload.getType().getRevision());
+            writeBytes(output, payload.getData());
+            writeBytes(output, metaData.getData());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Sets the global index of an encoded event.
+     *
+     * @param record      The record of the event.
+     * @param globalIndex The global index of the event.
+     */
+    static void setGlobalIndex(byte[] record, long globalIndex) {
+        ByteBuffer.wrap(record).putLong(0, globalIndex);
+    }
+
+    /**
+     * Decodes an event.
+     *
+     * @param record The record of the event.
+     * @return The serialized event.
+     */
+    static DomainEventData<byte[]> decode(ByteBuffer record) {
+        ByteBuffer input = record.duplicate().position(HEADER_SIZE);
+        String eventIdentifier = readString(input);
+        String type = readString(input);
+        String aggregateIdentifier = readString(input);
+        String payloadType = readString(input);
+        String payloadRevision = readString(input);
+        byte[] payload = readBytes(input);
+        byte[] metaData = readBytes(input);
+        return new GenericDomainEventEntry<>(type, aggregateIdentifier, sequenceNumber(record), eventIdentifier,
+                timestamp(record), payloadType, payloadRevision, payload, metaData);
+    }
+
+    static long globalIndex(ByteBuffer record) {
+        return record.getLong(0);
+    }
+
+    static long sequenceNumber(ByteBuffer record) {
+        return record.getLong(SEQUENCE_NUMBER);
+    }
+
+    static Instant timestamp(ByteBuffer record) {
+        return Instant.ofEpochSecond(record.getLong(EPOCH_SECOND), record.getInt(NANO));
+    }
+
+    static boolean isDomainEvent(ByteBuffer record) {
+        return record.get(DOMAIN) != 0;
+    }
+
+    /**
+     * Returns the aggregate identifier of an event without decoding its payload.
+     *
+     * @param record The record of the event.
+     * @return The aggregate identifier of the event.
+     */
+    static String aggregateIdentifier(ByteBuffer record) {
+        ByteBuffer input = record.duplicate().position(HEADER_SIZE);
+        skipString(input);
+        skipString(input);
+        return readString(input);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        writeBytes(output, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+        } else {
+            output.writeInt(value.length);
+            output.write(value);
+        }
+    }
+
+    private static String readString(ByteBuffer input) {
+        byte[] value = readBytes(input);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer input) {
+        int length = input.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        input.get(value);
+        return value;
+    }
+
+    private static void skipString(ByteBuffer input) {
+        int length = input.getInt();
+        if (length > 0) {
+            input.position(input.position() + length);
+        }
+    }
+}
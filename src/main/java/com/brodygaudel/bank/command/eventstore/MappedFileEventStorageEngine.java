@@ -0,0 +1,452 @@
+package com.brodygaudel.bank.command.eventstore;
+
+import com.brodygaudel.bank.common.enums.FsyncPolicy;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.jdbc.PersistenceExceptionResolver;
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedDomainEventData;
+import org.axonframework.eventhandling.TrackedEventData;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.AbstractEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.upcasting.event.EventUpcaster;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Event storage engine storing the events in segmented, memory-mapped, append-only files.
+ *
+ * <p>
+ * The events are appended to a {@link SegmentedLog} in the {@code events} directory, in the order of their global
+ * index, and the snapshots to a second log in the {@code snapshots} directory. An in-memory index maps every aggregate
+ * to the addresses of its events in the segments, and every aggregate with a snapshot to the address of its latest
+ * snapshot, so reading an aggregate reads its events directly from the mapped segments. Tracking processors read the
+ * events log sequentially from the global index of their {@link GlobalSequenceTrackingToken}.
+ * </p>
+ *
+ * <p>
+ * Appends are serialized: the sequence numbers of the appended domain events are checked against the index, then the
+ * events are written. Depending on the {@link FsyncPolicy}, an append waits until its events are forced to disk,
+ * together with the events appended meanwhile, and tracking processors only see the events that are on disk. When the
+ * engine is opened, the logs are scanned to rebuild the index, and an incomplete event at the end of a log, left by a
+ * crash, is discarded.
+ * </p>
+ *
+ * <p>
+ * This engine is meant for a single node: the files are owned by one engine at a time. The events are written when the
+ * unit of work prepares its commit and cannot be rolled back, like with the in-memory engine: if the transaction of the
+ * unit of work then fails, its events stay stored while everything else it wrote is rolled back. The engine must
+ * therefore not be used next to stores written in that transaction, such as JPA token, saga or transfer step stores;
+ * {@code EmbeddedEventStoreConfiguration} refuses to start it next to them.
+ * </p>
+ */
+public class MappedFileEventStorageEngine extends AbstractEventStorageEngine implements Closeable {
+
+    private final SegmentedLog events;
+    private final SegmentedLog snapshots;
+    private final Map<String, AggregateIndex> aggregates = new ConcurrentHashMap<>();
+    private final Map<String, SnapshotAddress> latestSnapshots = new ConcurrentHashMap<>();
+    private final Object appendLock = new Object();
+
+    /**
+     * The number of events recovered so far when the engine is opened, which is the global index of the next one.
+     */
+    private long recoveredEvents;
+
+    /**
+     * Opens the engine and recovers its events and snapshots.
+     *
+     * @param builder The builder of the engine.
+     */
+    protected MappedFileEventStorageEngine(Builder builder) {
+        super(builder);
+        Path directory = builder.directory;
+        this.events = new SegmentedLog(directory.resolve("events"), builder.segmentSize, builder.fsyncPolicy,
+                builder.fsyncInterval, "event-store", this::recoverEvent);
+        this.snapshots = new SegmentedLog(directory.resolve("snapshots"), builder.segmentSize, FsyncPolicy.NEVER,
+                builder.fsyncInterval, "snapshot-store", this::recoverSnapshot);
+    }
+
+    /**
+     * Returns a builder of the engine.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    protected void appendEvents(@NotNull List<? extends EventMessage<?>> events, @NotNull Serializer serializer) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<byte[]> records = new ArrayList<>(events.size());
+        for (EventMessage<?> event : events) {
+            records.add(EventRecord.encode(event, serializer, 0));
+        }
+        long written;
+        synchronized (appendLock) {
+            checkSequenceNumbers(events);
+            long globalIndex = this.events.written();
+            for (byte[] record : records) {
+                EventRecord.setGlobalIndex(record, globalIndex++);
+            }
+            long[] addresses = write(this.events, records, events.get(0));
+            for (int i = 0; i < addresses.length; i++) {
+                if (events.get(i) instanceof DomainEventMessage<?> event) {
+                    aggregates.computeIfAbsent(event.getAggregateIdentifier(), id -> new AggregateIndex())
+                            .add(addresses[i]);
+                }
+            }
+            written = globalIndex;
+        }
+        this.events.awaitCommitted(written);
+    }
+
+    /**
+     * Rejects the append if a domain event does not follow the last event of its aggregate, whether it is stored or
+     * appended before it.
+     */
+    private void checkSequenceNumbers(List<? extends EventMessage<?>> events) {
+        Map<String, Long> appended = new HashMap<>();
+        for (EventMessage<?> message : events) {
+            if (message instanceof DomainEventMessage<?> event) {
+                String aggregateIdentifier = event.getAggregateIdentifier();
+                Long last = appended.get(aggregateIdentifier);
+                if (last == null) {
+                    last = lastSequenceNumberFor(aggregateIdentifier).orElse(null);
+                }
+                if (last != null && event.getSequenceNumber() <= last) {
+                    handlePersistenceException(new DuplicateSequenceNumberException(aggregateIdentifier,
+                            event.getSequenceNumber()), event);
+                }
+                appended.put(aggregateIdentifier, event.getSequenceNumber());
+            }
+        }
+    }
+
+    @Override
+    protected void storeSnapshot(@NotNull DomainEventMessage<?> snapshot, @NotNull Serializer serializer) {
+        byte[] record = EventRecord.encode(snapshot, serializer, -1);
+        synchronized (snapshots) {
+            long address = write(snapshots, List.of(record), snapshot)[0];
+            latestSnapshots.merge(snapshot.getAggregateIdentifier(),
+                    new SnapshotAddress(snapshot.getSequenceNumber(), address), SnapshotAddress::latest);
+        }
+    }
+
+    private long[] write(SegmentedLog log, List<byte[]> records, EventMessage<?> firstEvent) {
+        try {
+            return log.write(records);
+        } catch (IllegalArgumentException e) {
+            throw new EventStoreException("an event is larger than a segment of " + log.maxRecordSize() + " bytes", e);
+        } catch (RuntimeException e) {
+            handlePersistenceException(e, firstEvent);
+            throw e;
+        }
+    }
+
+    @Override
+    protected Stream<? extends DomainEventData<?>> readEventData(@NotNull String identifier, long firstSequenceNumber) {
+        AggregateIndex index = aggregates.get(identifier);
+        if (index == null) {
+            return Stream.empty();
+        }
+        long[] addresses = index.addresses();
+        int first = firstAtOrAfter(addresses, firstSequenceNumber);
+        return Arrays.stream(addresses, first, addresses.length)
+                .mapToObj(address -> EventRecord.decode(events.read(address)));
+    }
+
+    /**
+     * Returns the position of the first address of an aggregate holding an event at or after a sequence number.
+     */
+    private int firstAtOrAfter(long[] addresses, long sequenceNumber) {
+        int low = 0;
+        int high = addresses.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (EventRecord.sequenceNumber(events.read(addresses[middle])) < sequenceNumber) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken, boolean mayBlock) {
+        if (trackingToken != null && !(trackingToken instanceof GlobalSequenceTrackingToken)) {
+            throw new IllegalArgumentException("unsupported tracking token " + trackingToken);
+        }
+        long from = trackingToken == null ? 0 : ((GlobalSequenceTrackingToken) trackingToken).getGlobalIndex() + 1;
+        return events.records(from).map(record -> new TrackedDomainEventData<>(
+                new GlobalSequenceTrackingToken(EventRecord.globalIndex(record)), EventRecord.decode(record)));
+    }
+
+    @Override
+    protected Stream<? extends DomainEventData<?>> readSnapshotData(@NotNull String aggregateIdentifier) {
+        SnapshotAddress snapshot = latestSnapshots.get(aggregateIdentifier);
+        return snapshot == null ? Stream.empty() : Stream.of(EventRecord.decode(snapshots.read(snapshot.address())));
+    }
+
+    @Override
+    public Optional<Long> lastSequenceNumberFor(@NotNull String aggregateIdentifier) {
+        AggregateIndex index = aggregates.get(aggregateIdentifier);
+        if (index == null) {
+            return Optional.empty();
+        }
+        return Optional.of(EventRecord.sequenceNumber(events.read(index.last())));
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        return events.committed() == 0 ? null : new GlobalSequenceTrackingToken(-1);
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        long committed = events.committed();
+        return committed == 0 ? null : new GlobalSequenceTrackingToken(committed - 1);
+    }
+
+    /**
+     * Creates a token positioned before the first event stored at or after a point in time. The segments are skipped
+     * by the timestamp of their first event, then the events of the segment are scanned.
+     */
+    @Override
+    public TrackingToken createTokenAt(@NotNull Instant dateTime) {
+        long[] firstRecords = events.segmentFirstRecords();
+        long committed = events.committed();
+        long from = 0;
+        for (long firstRecord : firstRecords) {
+            if (firstRecord >= committed || !timestampOf(firstRecord).isBefore(dateTime)) {
+                break;
+            }
+            from = firstRecord;
+        }
+        try (Stream<ByteBuffer> records = events.records(from)) {
+            Optional<Long> first = records.filter(record -> !EventRecord.timestamp(record).isBefore(dateTime))
+                    .map(EventRecord::globalIndex)
+                    .findFirst();
+            if (first.isEmpty()) {
+                return createHeadToken();
+            }
+            return first.get() == 0 ? createTailToken() : new GlobalSequenceTrackingToken(first.get() - 1);
+        }
+    }
+
+    private Instant timestampOf(long globalIndex) {
+        try (Stream<ByteBuffer> records = events.records(globalIndex)) {
+            return records.findFirst().map(EventRecord::timestamp).orElse(Instant.MAX);
+        }
+    }
+
+    /**
+     * Forces the events and snapshots to disk and closes the files.
+     */
+    @Override
+    public void close() {
+        events.close();
+        snapshots.close();
+    }
+
+    private boolean recoverEvent(long address, ByteBuffer record) {
+        if (EventRecord.globalIndex(record) != recoveredEvents) {
+            return false;
+        }
+        if (EventRecord.isDomainEvent(record)) {
+            aggregates.computeIfAbsent(EventRecord.aggregateIdentifier(record), id -> new AggregateIndex())
+                    .add(address);
+        }
+        recoveredEvents++;
+        return true;
+    }
+
+    private boolean recoverSnapshot(long address, ByteBuffer record) {
+        latestSnapshots.merge(EventRecord.aggregateIdentifier(record),
+                new SnapshotAddress(EventRecord.sequenceNumber(record), address), SnapshotAddress::latest);
+        return true;
+    }
+
+    private static boolean isDuplicate(Exception exception) {
+        return exception instanceof DuplicateSequenceNumberException;
+    }
+
+    /**
+     * The addresses of the events of an aggregate, in sequence order.
+     */
+    private static final class AggregateIndex {
+
+        private long[] addresses = new long[4];
+        private int size;
+
+        synchronized void add(long address) {
+            if (size == addresses.length) {
+                addresses = Arrays.copyOf(addresses, size * 2);
+            }
+            addresses[size++] = address;
+        }
+
+        synchronized long[] addresses() {
+            return Arrays.copyOf(addresses, size);
+        }
+
+        synchronized long last() {
+            return addresses[size - 1];
+        }
+    }
+
+    /**
+     * The address of a snapshot and the sequence number it was taken at.
+     */
+    private record SnapshotAddress(long sequenceNumber, long address) {
+
+        private static SnapshotAddress latest(SnapshotAddress current, SnapshotAddress candidate) {
+            return candidate.sequenceNumber() >= current.sequenceNumber() ? candidate : current;
+        }
+    }
+
+    /**
+     * Signals a domain event whose sequence number is already taken in its aggregate.
+     */
+    private static final class DuplicateSequenceNumberException extends RuntimeException {
+
+        private DuplicateSequenceNumberException(String aggregateIdentifier, long sequenceNumber) {
+            super("aggregate " + aggregateIdentifier + " already has an event at or after sequence number "
+                    + sequenceNumber);
+        }
+    }
+
+    /**
+     * Builder of the {@link MappedFileEventStorageEngine}.
+     *
+     * <p>
+     * The directory is required. The segments hold 64 MiB by default, and the appends wait for their events to be
+     * forced to disk ({@link FsyncPolicy#ALWAYS}) unless another policy is set. A duplicate sequence number of an
+     * aggregate is reported as a concurrency exception unless another persistence exception resolver is set.
+     * </p>
+     */
+    public static class Builder extends AbstractEventStorageEngine.Builder {
+
+        private Path directory;
+        private int segmentSize = 64 * 1024 * 1024;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.ALWAYS;
+        private Duration fsyncInterval = Duration.ofMillis(10);
+
+        /**
+         * Constructs a new Builder, with a persistence exception resolver recognizing the duplicate sequence numbers.
+         */
+        public Builder() {
+            super.persistenceExceptionResolver(MappedFileEventStorageEngine::isDuplicate);
+        }
+
+        @Override
+        public Builder snapshotSerializer(Serializer snapshotSerializer) {
+            super.snapshotSerializer(snapshotSerializer);
+            return this;
+        }
+
+        @Override
+        public Builder upcasterChain(EventUpcaster upcasterChain) {
+            super.upcasterChain(upcasterChain);
+            return this;
+        }
+
+        @Override
+        public Builder persistenceExceptionResolver(PersistenceExceptionResolver persistenceExceptionResolver) {
+            super.persistenceExceptionResolver(persistenceExceptionResolver);
+            return this;
+        }
+
+        @Override
+        public Builder eventSerializer(Serializer eventSerializer) {
+            super.eventSerializer(eventSerializer);
+            return this;
+        }
+
+        @Override
+        public Builder snapshotFilter(SnapshotFilter snapshotFilter) {
+            super.snapshotFilter(snapshotFilter);
+            return this;
+        }
+
+        /**
+         * Sets the directory of the segment files.
+         *
+         * @param directory The directory holding the {@code events} and {@code snapshots} directories.
+         * @return This builder.
+         */
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * Sets the size of a segment file, which is also the largest size of a stored event.
+         *
+         * @param segmentSize The size of a segment in bytes.
+         * @return This builder.
+         */
+        public Builder segmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Sets when the appended events are forced to disk.
+         *
+         * @param fsyncPolicy   The fsync policy of the events.
+         * @param fsyncInterval The interval between two forces with {@link FsyncPolicy#INTERVAL}.
+         * @return This builder.
+         */
+        public Builder fsync(FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+            this.fsyncPolicy = fsyncPolicy;
+            this.fsyncInterval = fsyncInterval;
+            return this;
+        }
+
+        /**
+         * Opens the engine.
+         *
+         * @return The engine.
+         */
+        public MappedFileEventStorageEngine build() {
+            return new MappedFileEventStorageEngine(this);
+        }
+
+        @Override
+        protected void validate() throws AxonConfigurationException {
+            super.validate();
+            if (directory == null) {
+                throw new AxonConfigurationException("the directory of the event store is required");
+            }
+            if (segmentSize < 4096) {
+                throw new AxonConfigurationException("a segment must hold at least 4096 bytes");
+            }
+            if (fsyncPolicy == null || fsyncInterval == null || fsyncInterval.isNegative()) {
+                throw new AxonConfigurationException("the fsync policy and a non-negative interval are required");
+            }
+        }
+    }
+}
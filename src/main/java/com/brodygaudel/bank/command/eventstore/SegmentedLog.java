@@ -0,0 +1,606 @@
+package com.brodygaudel.bank.command.eventstore;
+
+import com.brodygaudel.bank.common.enums.FsyncPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of records stored in memory-mapped segment files of a fixed size.
+ *
+ * <p>
+ * Every record is written as its length, the CRC-32C of its body and its body. A record never spans two segments: a
+ * record that does not fit in the rest of the current segment is written at the start of a new one, and the rest of
+ * the current segment is marked as unused. A record is designated by its address, made of the number of its segment
+ * and its offset in the segment, and by its ordinal, the number of records written before it.
+ * </p>
+ *
+ * <p>
+ * The records written together by {@link #write(List)} form a batch, which is kept or lost as a whole: every record
+ * of a batch but the last has the {@code CONTINUED} bit of its length set, and the checksum covers that bit. A batch
+ * whose writing fails is taken back before the next write.
+ * </p>
+ *
+ * <p>
+ * Writes are serialized by the log, and the records become visible to {@link #records(long)} once they are
+ * committed. With {@link FsyncPolicy#ALWAYS}, a record is committed once it is on disk: the writers wait in
+ * {@link #awaitCommitted(long)} while a single flusher thread forces the segments, and every write made while a force
+ * is running is forced by the next one, so concurrent writers share the cost of a force (group commit). With
+ * {@link FsyncPolicy#INTERVAL} the records are committed as soon as they are written and forced every interval, and
+ * with {@link FsyncPolicy#NEVER} they are left to the operating system until the log is closed.
+ * </p>
+ *
+ * <p>
+ * Opening a log recovers it: the segments are scanned from the start, and the first record that is incomplete, whose
+ * checksum does not match or that the caller rejects ends the log, as does the end of a batch whose last record is
+ * missing; the records of that batch are dropped. What follows the end of the log is erased, so it cannot be taken
+ * for records once new records are written over it.
+ * </p>
+ */
+@Slf4j
+final class SegmentedLog implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final int CONTINUED = 0x8000_0000;
+    private static final int LENGTH_MASK = 0x7FFF_FFFF;
+    private static final String SUFFIX = ".segment";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final Condition forced = lock.newCondition();
+    private final Thread flusher;
+
+    /**
+     * The segments of the log, replaced as a whole when a segment is added so readers never lock.
+     */
+    private volatile Segment[] segments;
+
+    /**
+     * The number of committed records, which are the records readers may read.
+     */
+    private volatile long committed;
+
+    // guarded by lock
+    private long records;
+    private int offset;
+    private long forcedRecords;
+    private int forcedSegment;
+    private int forcedOffset;
+    private IOException flushFailure;
+    private boolean closed;
+
+    /**
+     * Opens a log, creating its directory if needed, and recovers its records.
+     *
+     * @param directory     The directory of the segment files.
+     * @param segmentSize   The size of a segment file, which bounds the size of a record.
+     * @param fsyncPolicy   When the written records are forced to disk.
+     * @param fsyncInterval The interval between two forces with {@link FsyncPolicy#INTERVAL}.
+     * @param name          The name of the log, used for its flusher thread.
+     * @param recovered     Called with the address and body of every recovered record, in order; a record it rejects
+     *                      ends the log.
+     * @throws UncheckedIOException if the segments cannot be opened.
+     */
+    SegmentedLog(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, Duration fsyncInterval, String name,
+                 BiPredicate<Long, ByteBuffer> recovered) {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("a segment must hold at least 4096 bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        try {
+            Files.createDirectories(directory);
+            recover(recovered);
+        } catch (IOException e) {
+            throw new UncheckedIOException("the log of " + directory + " cannot be opened", e);
+        }
+        this.committed = records;
+        this.forcedRecords = records;
+        this.forcedSegment = segments.length - 1;
+        this.forcedOffset = offset;
+        if (fsyncPolicy == FsyncPolicy.NEVER) {
+            this.flusher = null;
+        } else {
+            this.flusher = new Thread(this::flushLoop, name + "-flusher");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        }
+    }
+
+    /**
+     * Returns the address of a record from its segment number and offset.
+     */
+    static long address(int segment, int offset) {
+        return (long) segment << 32 | offset;
+    }
+
+    /**
+     * Returns the largest record body the log accepts.
+     *
+     * @return The maximum size of a record body.
+     */
+    int maxRecordSize() {
+        return segmentSize - HEADER_SIZE;
+    }
+
+    /**
+     * Writes records at the end of the log, as one batch: after a crash, either all of them or none are recovered.
+     *
+     * @param bodies The bodies of the records.
+     * @return The addresses of the records.
+     * @throws IllegalArgumentException if a record is larger than {@link #maxRecordSize()}.
+     * @throws UncheckedIOException     if a new segment cannot be created, in which case none of the records is written.
+     */
+    long[] write(List<byte[]> bodies) {
+        for (byte[] body : bodies) {
+            if (body.length > maxRecordSize()) {
+                throw new IllegalArgumentException("a record of " + body.length + " bytes exceeds the segment size");
+            }
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("the log of " + directory + " is closed");
+            }
+            int startSegments = segments.length;
+            int startOffset = offset;
+            long startRecords = records;
+            long[] addresses = new long[bodies.size()];
+            try {
+                for (int i = 0; i < addresses.length; i++) {
+                    addresses[i] = write(bodies.get(i), i < addresses.length - 1);
+                    records++;
+                }
+            } catch (IOException e) {
+                rollback(startSegments, startOffset, startRecords);
+                throw new UncheckedIOException("a segment of " + directory + " cannot be created", e);
+            }
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                written.signal();
+            } else {
+                committed = records;
+            }
+            return addresses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long write(byte[] body, boolean continued) throws IOException {
+        Segment segment = segments[segments.length - 1];
+        if (offset + HEADER_SIZE + body.length > segmentSize) {
+            if (offset + 4 <= segmentSize) {
+                segment.buffer().putInt(offset, END_OF_SEGMENT);
+            }
+            segment = addSegment(segment.number() + 1, records);
+            offset = 0;
+        }
+        MappedByteBuffer buffer = segment.buffer();
+        buffer.put(offset + HEADER_SIZE, body);
+        buffer.putInt(offset + 4, checksum(ByteBuffer.wrap(body), continued));
+        buffer.putInt(offset, continued ? body.length | CONTINUED : body.length);
+        long address = address(segment.number(), offset);
+        offset += HEADER_SIZE + body.length;
+        return address;
+    }
+
+    /**
+     * Takes back the records of a batch whose writing failed: the segments it added are deleted and what it wrote in
+     * the segment it started in is erased.
+     */
+    private void rollback(int startSegments, int startOffset, long startRecords) {
+        Segment[] current = segments;
+        Segment first = current[startSegments - 1];
+        int end = current.length > startSegments ? segmentSize : offset;
+        for (int position = startOffset; position < end; position++) {
+            first.buffer().put(position, (byte) 0);
+        }
+        for (int index = startSegments; index < current.length; index++) {
+            try {
+                Files.deleteIfExists(directory.resolve(fileName(current[index].number())));
+            } catch (IOException e) {
+                log.warn("segment {} of {} added by a failed write cannot be deleted", index, directory, e);
+            }
+        }
+        segments = Arrays.copyOf(current, startSegments);
+        offset = startOffset;
+        records = startRecords;
+    }
+
+    /**
+     * Returns the number of written records; the ordinal of the next record.
+     *
+     * @return The number of written records.
+     */
+    long written() {
+        lock.lock();
+        try {
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of committed records.
+     *
+     * @return The number of records readers may read.
+     */
+    long committed() {
+        return committed;
+    }
+
+    /**
+     * Waits until the given number of records is committed. Returns at once unless the policy is
+     * {@link FsyncPolicy#ALWAYS}.
+     *
+     * @param count The number of records to wait for.
+     * @throws UncheckedIOException if the segments could not be forced.
+     */
+    void awaitCommitted(long count) {
+        if (committed >= count) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (committed < count) {
+                if (flushFailure != null) {
+                    throw new UncheckedIOException("the log of " + directory + " cannot be forced", flushFailure);
+                }
+                if (closed) {
+                    throw new IllegalStateException("the log of " + directory + " is closed");
+                }
+                forced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the body of the record at an address.
+     *
+     * @param address The address of the record.
+     * @return A read-only buffer over the body of the record.
+     */
+    ByteBuffer read(long address) {
+        ByteBuffer buffer = segments[(int) (address >>> 32)].buffer();
+        int position = (int) address;
+        return buffer.slice(position + HEADER_SIZE, buffer.getInt(position) & LENGTH_MASK).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the committed records from an ordinal, in order. The stream ends at the records committed when it is
+     * created.
+     *
+     * @param from The ordinal of the first record.
+     * @return The bodies of the records.
+     */
+    Stream<ByteBuffer> records(long from) {
+        long limit = committed;
+        if (from >= limit) {
+            return Stream.empty();
+        }
+        Segment[] current = segments;
+        int index = 0;
+        while (index + 1 < current.length && current[index + 1].firstRecord() <= from) {
+            index++;
+        }
+        RecordIterator iterator = new RecordIterator(current, index, limit - current[index].firstRecord());
+        for (long skipped = current[index].firstRecord(); skipped < from; skipped++) {
+            iterator.next();
+        }
+        iterator.remaining = limit - from;
+        Iterable<ByteBuffer> iterable = () -> iterator;
+        return StreamSupport.stream(iterable.spliterator(), false);
+    }
+
+    /**
+     * Returns the ordinal of the first record of every segment, in order.
+     *
+     * @return The ordinals of the first records of the segments.
+     */
+    long[] segmentFirstRecords() {
+        return Arrays.stream(segments).mapToLong(Segment::firstRecord).toArray();
+    }
+
+    /**
+     * Forces the written records to disk, stops the flusher and releases the segments.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            written.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.buffer().force();
+            }
+            committed = records;
+            forced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            int targetSegment;
+            int targetOffset;
+            lock.lock();
+            try {
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    while (!closed && forcedRecords == records) {
+                        written.awaitUninterruptibly();
+                    }
+                } else if (!closed) {
+                    written.awaitNanos(fsyncIntervalNanos);
+                }
+                if (closed) {
+                    return;
+                }
+                target = records;
+                targetSegment = segments.length - 1;
+                targetOffset = offset;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                force(targetSegment, targetOffset);
+            } catch (UncheckedIOException e) {
+                log.error("the log of {} cannot be forced", directory, e);
+                lock.lock();
+                try {
+                    flushFailure = e.getCause();
+                    forced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            lock.lock();
+            try {
+                forcedSegment = targetSegment;
+                forcedOffset = targetOffset;
+                forcedRecords = target;
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    committed = target;
+                }
+                forced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void force(int targetSegment, int targetOffset) {
+        Segment[] current = segments;
+        for (int index = forcedSegment; index <= targetSegment; index++) {
+            int from = index == forcedSegment ? forcedOffset : 0;
+            int to = index == targetSegment ? targetOffset : segmentSize;
+            if (to > from) {
+                current[index].buffer().force(from, to - from);
+            }
+        }
+    }
+
+    private void recover(BiPredicate<Long, ByteBuffer> recovered) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        List<Segment> opened = new ArrayList<>();
+        List<Long> batch = new ArrayList<>();
+        long scanned = 0;
+        long accepted = 0;
+        long end = address(0, 0);
+        boolean ended = false;
+        for (int number = 0; number < files.size() && !ended; number++) {
+            Segment segment = map(files.get(number), number, scanned);
+            opened.add(segment);
+            MappedByteBuffer buffer = segment.buffer();
+            int position = 0;
+            while (position + HEADER_SIZE <= segmentSize) {
+                int header = buffer.getInt(position);
+                if (header == END_OF_SEGMENT) {
+                    break;
+                }
+                int length = header & LENGTH_MASK;
+                boolean continued = (header & CONTINUED) != 0;
+                if (length == 0 || position + HEADER_SIZE + length > segmentSize
+                        || checksum(buffer.slice(position + HEADER_SIZE, length), continued)
+                        != buffer.getInt(position + 4)) {
+                    ended = true;
+                    break;
+                }
+                batch.add(address(number, position));
+                position += HEADER_SIZE + length;
+                scanned++;
+                if (continued) {
+                    continue;
+                }
+                for (long address : batch) {
+                    if (!recovered.test(address, body(opened, address))) {
+                        ended = true;
+                        break;
+                    }
+                    accepted++;
+                    end = address + HEADER_SIZE + length(opened, address);
+                }
+                batch.clear();
+                if (ended) {
+                    break;
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            log.warn("the log of {} ends with an incomplete batch of {} records, which is dropped", directory,
+                    batch.size());
+        }
+        truncate(files, opened, (int) (end >>> 32), (int) end);
+        records = accepted;
+    }
+
+    /**
+     * Ends the log at an offset of a segment: the segments that follow it are deleted and what follows the offset in
+     * the segment is erased, unless the segment ends there.
+     */
+    private void truncate(List<Path> files, List<Segment> opened, int lastSegment, int end) throws IOException {
+        for (int number = files.size() - 1; number > lastSegment; number--) {
+            log.warn("segment {} follows the end of the log and is deleted", files.get(number));
+            Files.delete(files.get(number));
+        }
+        if (opened.isEmpty()) {
+            opened.add(map(directory.resolve(fileName(0)), 0, 0));
+        }
+        segments = opened.subList(0, lastSegment + 1).toArray(Segment[]::new);
+        MappedByteBuffer buffer = segments[lastSegment].buffer();
+        offset = end;
+        if (end + HEADER_SIZE > segmentSize || buffer.getInt(end) == END_OF_SEGMENT) {
+            offset = segmentSize;
+        } else if (buffer.getInt(end) != 0) {
+            log.warn("the log of {} ends with an incomplete record at {} of segment {}, which is erased",
+                    directory, end, lastSegment);
+            for (int position = end; position < segmentSize; position++) {
+                buffer.put(position, (byte) 0);
+            }
+            buffer.force();
+        }
+    }
+
+    private static ByteBuffer body(List<Segment> opened, long address) {
+        ByteBuffer buffer = opened.get((int) (address >>> 32)).buffer();
+        int position = (int) address;
+        return buffer.slice(position + HEADER_SIZE, buffer.getInt(position) & LENGTH_MASK).asReadOnlyBuffer();
+    }
+
+    private static int length(List<Segment> opened, long address) {
+        return opened.get((int) (address >>> 32)).buffer().getInt((int) address) & LENGTH_MASK;
+    }
+
+    /**
+     * Returns the checksum of a record: the CRC-32C of its body, followed by a byte for the records a batch continues
+     * after, so the checksum of the records written before batches existed still matches.
+     */
+    private static int checksum(ByteBuffer body, boolean continued) {
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        if (continued) {
+            crc.update(1);
+        }
+        return (int) crc.getValue();
+    }
+
+    private Segment addSegment(int number, long firstRecord) throws IOException {
+        Segment segment = map(directory.resolve(fileName(number)), number, firstRecord);
+        Segment[] extended = Arrays.copyOf(segments, segments.length + 1);
+        extended[number] = segment;
+        segments = extended;
+        return segment;
+    }
+
+    private Segment map(Path file, int number, long firstRecord) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new Segment(number, firstRecord, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    private static String fileName(int number) {
+        return String.format("%010d%s", number, SUFFIX);
+    }
+
+    /**
+     * A mapped segment file: its number, the ordinal of its first record and its buffer.
+     */
+    private record Segment(int number, long firstRecord, MappedByteBuffer buffer) {
+    }
+
+    /**
+     * Iterator over the records of the log, following the segments.
+     */
+    private final class RecordIterator implements Iterator<ByteBuffer> {
+
+        private final Segment[] snapshot;
+        private int index;
+        private int position;
+        private long remaining;
+
+        private RecordIterator(Segment[] snapshot, int index, long remaining) {
+            this.snapshot = snapshot;
+            this.index = index;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public ByteBuffer next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            MappedByteBuffer buffer = snapshot[index].buffer();
+            if (position + HEADER_SIZE > segmentSize || buffer.getInt(position) == END_OF_SEGMENT) {
+                index++;
+                position = 0;
+                buffer = snapshot[index].buffer();
+            }
+            int length = buffer.getInt(position) & LENGTH_MASK;
+            ByteBuffer body = buffer.slice(position + HEADER_SIZE, length).asReadOnlyBuffer();
+            position += HEADER_SIZE + length;
+            remaining--;
+            return body;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.brodygaudel.bank.command.repository;
+
+import com.brodygaudel.bank.command.entity.CustomerLookup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CustomerLookupRepository extends JpaRepository<CustomerLookup, String> {
+
+    Optional<CustomerLookup> findByNic(String nic);
+
+    @Query("select l.nic from CustomerLookup l where l.nic > :after order by l.nic")
+    List<String> findNicsAfter(@Param("after") String after, Pageable pageable);
+
+    @Modifying
+    @Query("update CustomerLookup l set l.accountId = :accountId where l.customerId = :customerId and l.accountId is null")
+    int assignAccount(@Param("customerId") String customerId, @Param("accountId") String accountId);
+
+    @Modifying
+    @Query("insert into CustomerLookup (customerId, nic) select c.id, c.nic from Customer c")
+    int backfillFromCustomers();
+
+    @Modifying
+    @Query("update CustomerLookup l set l.accountId = " +
+            "(select a.id from Account a where a.customer.id = l.customerId) where l.accountId is null " +
+            "and exists (select 1 from Account a where a.customer.id = l.customerId)")
+    int backfillAccounts();
+}
@@ -0,0 +1,7 @@
+package com.brodygaudel.bank.command.repository;
+
+import com.brodygaudel.bank.command.entity.TransferStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TransferStepRepository extends JpaRepository<TransferStep, String> {
+}
@@ -0,0 +1,304 @@
+package com.brodygaudel.bank.command.saga;
+
+import com.brodygaudel.bank.command.bus.TransferStepInterceptor;
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.command.account.DebitAccountCommand;
+import com.brodygaudel.bank.common.command.transfer.CompleteTransferCommand;
+import com.brodygaudel.bank.common.command.transfer.FailTransferCommand;
+import com.brodygaudel.bank.common.command.transfer.RecordTransferDebitCommand;
+import com.brodygaudel.bank.common.command.transfer.RejectTransferCreditCommand;
+import com.brodygaudel.bank.common.enums.TransferStatus;
+import com.brodygaudel.bank.common.event.transfer.*;
+import com.brodygaudel.bank.common.util.Throwables;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.axonserver.connector.AxonServerException;
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.commandhandling.distributed.CommandDispatchException;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.common.AxonTransientException;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.deadline.annotation.DeadlineHandler;
+import org.axonframework.messaging.Scope;
+import org.axonframework.messaging.ScopeDescriptor;
+import org.axonframework.modelling.saga.EndSaga;
+import org.axonframework.modelling.saga.SagaEventHandler;
+import org.axonframework.modelling.saga.SagaLifecycle;
+import org.axonframework.modelling.saga.StartSaga;
+import org.axonframework.spring.stereotype.Saga;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Saga coordinating a transfer of funds between two accounts.
+ *
+ * <p>
+ * The saga starts on a {@link TransferRequestedEvent} and debits the source account. Every step is sent from the
+ * handler of the event recording the previous one, without waiting for it, and its outcome is recorded on the
+ * {@link com.brodygaudel.bank.command.aggregate.TransferAggregate} once the step is handled: the debit is recorded by
+ * a {@link TransferDebitedEvent}, on which the destination account is credited; the credit completes the transfer,
+ * and its rejection is recorded by a {@link TransferCreditRejectedEvent}, on which the debited amount is credited back
+ * to the source account before the transfer is marked as failed. The saga ends on the {@link TransferCompletedEvent}
+ * or the {@link TransferFailedEvent} only.
+ * </p>
+ *
+ * <p>
+ * Sending a step schedules the {@value #RETRY_DEADLINE} deadline of the transfer, which is cancelled by the event
+ * recording the outcome of the step. A step interrupted by a transient error or a restart is sent again by this
+ * deadline, after a delay doubling from {@link #FIRST_RETRY_DELAY} up to {@link #MAX_RETRY_DELAY}, so a failing
+ * transfer is retried on its own while the event processor moves on to the other transfers (see
+ * {@link TransferSagaRecovery} for the deadlines lost by a restart). The account commands carry the key of their step
+ * (see {@link TransferStepInterceptor}), so a step sent again is applied at most once, and the transfer ignores the
+ * outcome of a step it has moved past.
+ * </p>
+ */
+@Saga
+@Slf4j
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+public class TransferSaga {
+
+    /**
+     * The name of the deadline sending the current step of the transfer again.
+     */
+    public static final String RETRY_DEADLINE = "transfer-step-retry";
+
+    static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(1);
+    static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+
+    private static final String ASSOCIATION_PROPERTY = "id";
+    private static final String OVER_DEADLINE = "transfer-over";
+    private static final String DEBIT = "debit";
+    private static final String CREDIT = "credit";
+    private static final String REFUND = "refund";
+
+    @Autowired
+    @JsonIgnore
+    private transient CommandGateway commandGateway;
+
+    @Autowired
+    @JsonIgnore
+    private transient DeadlineManager deadlineManager;
+
+    private String transferId;
+    private String idFrom;
+    private String idTo;
+    private BigDecimal amount;
+    private String description;
+    private String step;
+    private String reason;
+    private int attempts;
+
+    /**
+     * Default constructor for the TransferSaga.
+     */
+    public TransferSaga() {
+        super();
+    }
+
+    /**
+     * Saga event handler starting the transfer with the debit of the source account. The event handled again once
+     * the saga has started is ignored.
+     *
+     * @param event The {@link TransferRequestedEvent} to handle.
+     */
+    @StartSaga
+    @SagaEventHandler(associationProperty = ASSOCIATION_PROPERTY)
+    public void on(@NotNull TransferRequestedEvent event) {
+        log.info("TransferRequestedEvent handled by TransferSaga");
+        if (this.transferId != null) {
+            return;
+        }
+        this.transferId = event.getId();
+        this.idFrom = event.getIdFrom();
+        this.idTo = event.getIdTo();
+        this.amount = event.getAmount();
+        this.description = event.getDescription();
+        start(DEBIT);
+    }
+
+    /**
+     * Saga event handler crediting the destination account once the source account is debited.
+     *
+     * @param event The {@link TransferDebitedEvent} to handle.
+     */
+    @SagaEventHandler(associationProperty = ASSOCIATION_PROPERTY)
+    public void on(@NotNull TransferDebitedEvent event) {
+        log.info("TransferDebitedEvent handled by TransferSaga");
+        start(CREDIT);
+    }
+
+    /**
+     * Saga event handler crediting the debited amount back to the source account once the credit is rejected, then
+     * marking the transfer as failed.
+     *
+     * @param event The {@link TransferCreditRejectedEvent} to handle.
+     */
+    @SagaEventHandler(associationProperty = ASSOCIATION_PROPERTY)
+    public void on(@NotNull TransferCreditRejectedEvent event) {
+        log.info("TransferCreditRejectedEvent handled by TransferSaga");
+        this.reason = event.getReason();
+        start(REFUND);
+    }
+
+    /**
+     * Saga event handler ending the saga once the transfer is completed.
+     *
+     * @param event The {@link TransferCompletedEvent} to handle.
+     */
+    @EndSaga
+    @SagaEventHandler(associationProperty = ASSOCIATION_PROPERTY)
+    public void on(@NotNull TransferCompletedEvent event) {
+        log.info("TransferCompletedEvent handled by TransferSaga");
+        deadlineManager.cancelAllWithinScope(RETRY_DEADLINE);
+    }
+
+    /**
+     * Saga event handler ending the saga once the transfer has failed.
+     *
+     * @param event The {@link TransferFailedEvent} to handle.
+     */
+    @EndSaga
+    @SagaEventHandler(associationProperty = ASSOCIATION_PROPERTY)
+    public void on(@NotNull TransferFailedEvent event) {
+        log.warn("TransferFailedEvent handled by TransferSaga: {}", event.getReason());
+        deadlineManager.cancelAllWithinScope(RETRY_DEADLINE);
+    }
+
+    /**
+     * Deadline handler sending the current step again, its outcome not being recorded in time.
+     */
+    @DeadlineHandler(deadlineName = RETRY_DEADLINE)
+    public void retry() {
+        if (step == null) {
+            return;
+        }
+        attempts++;
+        log.info("Step {} of transfer {} sent again, attempt {}", step, transferId, attempts + 1);
+        send();
+    }
+
+    /**
+     * Deadline handler ending the saga of a transfer that was over before the saga started, for instance when its
+     * events are replayed.
+     */
+    @DeadlineHandler(deadlineName = OVER_DEADLINE)
+    public void over() {
+        deadlineManager.cancelAllWithinScope(RETRY_DEADLINE);
+        SagaLifecycle.end();
+    }
+
+    /**
+     * Moves the transfer to a step and sends it.
+     *
+     * @param step The step to send.
+     */
+    private void start(String step) {
+        this.step = step;
+        this.attempts = 0;
+        send();
+    }
+
+    /**
+     * Sends the current step, scheduling its retry, and records its outcome on the transfer once it is handled.
+     */
+    private void send() {
+        deadlineManager.cancelAllWithinScope(RETRY_DEADLINE);
+        deadlineManager.schedule(retryDelay(attempts), RETRY_DEADLINE);
+        ScopeDescriptor scope = Scope.describeCurrentScope();
+        String id = transferId;
+        String failure = reason;
+        switch (step) {
+            case DEBIT -> step(DEBIT, new DebitAccountCommand(idFrom, amount,
+                    description + "| Transfer to :" + idTo, LocalDateTime.now()))
+                    .thenCompose(result -> commandGateway.<TransferStatus>send(
+                            new RecordTransferDebitCommand(id, LocalDateTime.now())))
+                    .whenComplete((status, error) -> {
+                        if (error == null && (status == TransferStatus.COMPLETED || status == TransferStatus.FAILED)) {
+                            deadlineManager.schedule(Duration.ZERO, OVER_DEADLINE, null, scope);
+                        }
+                    });
+            case CREDIT -> step(CREDIT, new CreditAccountCommand(idTo, amount,
+                    description + " | Transfer from :" + idFrom, LocalDateTime.now()))
+                    .thenRun(() -> commandGateway.send(new CompleteTransferCommand(id, LocalDateTime.now())));
+            case REFUND -> step(REFUND, new CreditAccountCommand(idFrom, amount,
+                    description + " | Transfer refund :" + idTo, LocalDateTime.now()))
+                    .thenRun(() -> commandGateway.send(new FailTransferCommand(id, failure, LocalDateTime.now())));
+            default -> throw new IllegalStateException("unknown step " + step + " of transfer " + id);
+        }
+    }
+
+    /**
+     * Sends a command moving funds for this transfer. A rejected debit fails the transfer, a rejected credit is
+     * recorded as such and a rejected refund fails the transfer with the reason of the rejection; the future of a
+     * rejected or interrupted step completes exceptionally.
+     *
+     * @param step    The name of the step, unique within the transfer.
+     * @param command The command debiting or crediting an account.
+     * @return A CompletableFuture completing once the step is applied.
+     */
+    private CompletableFuture<Object> step(String step, Object command) {
+        String id = transferId;
+        String account = CREDIT.equals(step) ? idTo : idFrom;
+        String stepReason = reason;
+        CompletableFuture<Object> applied = commandGateway.send(GenericCommandMessage.asCommandMessage(command)
+                .andMetaData(Map.of(TransferStepInterceptor.METADATA_KEY, id + ':' + step)));
+        applied.whenComplete((result, error) -> {
+            if (error == null) {
+                return;
+            }
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (isTransient(cause)) {
+                log.warn("Step {} of transfer {} interrupted, retried later: {}", step, id,
+                        Throwables.rootMessage(cause));
+                return;
+            }
+            String message = step + " of " + account + " failed: " + Throwables.rootMessage(cause);
+            switch (step) {
+                case DEBIT -> commandGateway.send(new FailTransferCommand(id, message, LocalDateTime.now()));
+                case CREDIT -> commandGateway.send(new RejectTransferCreditCommand(id, message, LocalDateTime.now()));
+                default -> {
+                    log.error("Compensation of transfer {} failed, {} remains debited", id, account, cause);
+                    commandGateway.send(new FailTransferCommand(id,
+                            stepReason + ", compensation failed: " + Throwables.rootMessage(cause),
+                            LocalDateTime.now()));
+                }
+            }
+        });
+        return applied;
+    }
+
+    /**
+     * Returns the delay before a step is sent again, doubling with every attempt.
+     *
+     * @param attempts The number of times the step was already sent again.
+     * @return The delay before the next attempt.
+     */
+    static Duration retryDelay(int attempts) {
+        Duration delay = FIRST_RETRY_DELAY.multipliedBy(1L << Math.min(attempts, 16));
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+
+    /**
+     * Tells whether an error does not reject a step, which is then sent again by the retry deadline. A violated
+     * constraint means that the step was recorded at the same time by another attempt, which the next attempt finds.
+     *
+     * @param error The error of the step.
+     * @return Whether the step is to be sent again.
+     */
+    private static boolean isTransient(Throwable error) {
+        return error instanceof AxonTransientException
+                || error instanceof CommandDispatchException
+                || error instanceof AxonServerException
+                || error instanceof DataIntegrityViolationException;
+    }
+}
@@ -0,0 +1,66 @@
+package com.brodygaudel.bank.command.saga;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.modelling.saga.SagaScopeDescriptor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Component sending again the current step of the transfers still running when the application starts.
+ *
+ * <p>
+ * The retry deadlines of the {@link TransferSaga} are kept in memory by the deadline manager, so they are lost when
+ * the node stops. Once the application is ready, the retry deadline of every saga left in the saga store is scheduled
+ * again, after the first retry delay, so a step sent before the node stopped and never recorded is sent again. With
+ * several nodes, every node schedules the deadlines of every saga, which sends some steps once more than needed; the
+ * steps being applied at most once, this only costs their commands.
+ * </p>
+ */
+@Component
+@Slf4j
+public class TransferSagaRecovery {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final DeadlineManager deadlineManager;
+
+    /**
+     * Constructs a new instance of TransferSagaRecovery.
+     *
+     * @param entityManager       The entity manager reading the associations of the sagas.
+     * @param transactionTemplate The template running the query.
+     * @param deadlineManager     The deadline manager scheduling the retries.
+     */
+    public TransferSagaRecovery(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                                DeadlineManager deadlineManager) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.deadlineManager = deadlineManager;
+    }
+
+    /**
+     * Schedules the retry deadline of every running transfer saga.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void retryRunningTransfers() {
+        List<String> sagaIds = transactionTemplate.execute(status -> entityManager
+                .createQuery("select distinct a.sagaId from AssociationValueEntry a where a.sagaType = :type",
+                        String.class)
+                .setParameter("type", TransferSaga.class.getName())
+                .getResultList());
+        if (sagaIds == null || sagaIds.isEmpty()) {
+            return;
+        }
+        log.info("Retrying the current step of {} running transfers", sagaIds.size());
+        for (String sagaId : sagaIds) {
+            deadlineManager.schedule(TransferSaga.FIRST_RETRY_DELAY, TransferSaga.RETRY_DEADLINE, null,
+                    new SagaScopeDescriptor(TransferSaga.class.getSimpleName(), sagaId));
+        }
+    }
+}
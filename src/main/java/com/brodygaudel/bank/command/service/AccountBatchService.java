@@ -0,0 +1,110 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.command.account.DebitAccountCommand;
+import com.brodygaudel.bank.common.dto.BatchCommandRequestDTO;
+import com.brodygaudel.bank.common.dto.BatchCommandResultDTO;
+import com.brodygaudel.bank.common.dto.BatchResponseDTO;
+import com.brodygaudel.bank.common.enums.OperationType;
+import com.brodygaudel.bank.common.util.Throwables;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service handling batches of credits and debits.
+ *
+ * <p>
+ * A batch is read incrementally, either as a JSON array or as newline-delimited JSON, and every item is sent as a
+ * {@link CreditAccountCommand} or a {@link DebitAccountCommand} through the {@link BoundedCommandDispatcher} as soon
+ * as it is read. The returned future completes once every command has completed, with one result per item and the
+ * throughput of the batch.
+ * </p>
+ */
+@Service
+@Slf4j
+public class AccountBatchService {
+
+    private final BoundedCommandDispatcher dispatcher;
+    private final ObjectReader reader;
+
+    /**
+     * Constructs a new instance of AccountBatchService.
+     *
+     * @param dispatcher   The dispatcher used to send the commands of the batch.
+     * @param objectMapper The object mapper used to read the items of the batch.
+     */
+    public AccountBatchService(BoundedCommandDispatcher dispatcher, @NotNull ObjectMapper objectMapper) {
+        this.dispatcher = dispatcher;
+        this.reader = objectMapper.readerFor(BatchCommandRequestDTO.class);
+    }
+
+    /**
+     * Reads a batch of credits and debits and sends one command per item.
+     *
+     * <p>
+     * An item that is incomplete is reported as failed without being sent. If the input becomes unreadable, the
+     * failure is reported at the index of the unreadable item and the rest of the input is ignored; the commands
+     * already sent are not rolled back.
+     * </p>
+     *
+     * @param input The JSON array or newline-delimited JSON of the batch.
+     * @return A CompletableFuture holding the results and the statistics of the batch.
+     */
+    public CompletableFuture<BatchResponseDTO> execute(InputStream input) {
+        long start = System.nanoTime();
+        List<CompletableFuture<BatchCommandResultDTO>> results = new ArrayList<>();
+        try (MappingIterator<BatchCommandRequestDTO> items = reader.readValues(input)) {
+            while (items.hasNextValue()) {
+                results.add(dispatch(results.size(), items.nextValue()));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Batch input unreadable after {} items", results.size(), e);
+            results.add(CompletableFuture.completedFuture(
+                    new BatchCommandResultDTO(results.size(), null, false, "unreadable item: " + e.getMessage())
+            ));
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(done -> summarize(results, System.nanoTime() - start));
+    }
+
+    private CompletableFuture<BatchCommandResultDTO> dispatch(int index, @NotNull BatchCommandRequestDTO item) {
+        if (item.type() == null || item.id() == null || item.amount() == null) {
+            return CompletableFuture.completedFuture(
+                    new BatchCommandResultDTO(index, item.id(), false, "type, id and amount are required")
+            );
+        }
+        Object command = item.type() == OperationType.CREDIT
+                ? new CreditAccountCommand(item.id(), item.amount(), item.description(), LocalDateTime.now())
+                : new DebitAccountCommand(item.id(), item.amount(), item.description(), LocalDateTime.now());
+        return dispatcher.dispatch(command).handle((result, throwable) -> throwable == null
+                ? new BatchCommandResultDTO(index, item.id(), true, null)
+                : new BatchCommandResultDTO(index, item.id(), false, Throwables.rootMessage(throwable))
+        );
+    }
+
+    @NotNull
+    private static BatchResponseDTO summarize(@NotNull List<CompletableFuture<BatchCommandResultDTO>> futures, long elapsedNanos) {
+        List<BatchCommandResultDTO> results = futures.stream().map(CompletableFuture::join).toList();
+        int succeeded = (int) results.stream().filter(BatchCommandResultDTO::success).count();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        return new BatchResponseDTO(
+                results.size(),
+                succeeded,
+                results.size() - succeeded,
+                elapsedNanos / 1_000_000,
+                seconds > 0 ? results.size() / seconds : 0,
+                results
+        );
+    }
+}
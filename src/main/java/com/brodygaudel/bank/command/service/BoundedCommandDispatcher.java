@@ -0,0 +1,82 @@
+package com.brodygaudel.bank.command.service;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Dispatcher sending commands through the {@link CommandGateway} with a bounded number of commands in flight.
+ *
+ * <p>
+ * Bulk operations send their commands through this dispatcher rather than directly through the gateway. Once the
+ * maximum number of commands in flight is reached, {@link #dispatch(Object)} blocks the calling thread until a
+ * command completes, so a large input is read only as fast as the command bus handles it.
+ * </p>
+ */
+@Service
+public class BoundedCommandDispatcher {
+
+    private final CommandGateway commandGateway;
+    private final Semaphore permits;
+    private final int maxInFlight;
+
+    /**
+     * Constructs a new instance of BoundedCommandDispatcher.
+     *
+     * @param commandGateway The command gateway used to send commands to the system.
+     * @param maxInFlight    The maximum number of commands sent and not yet completed.
+     */
+    public BoundedCommandDispatcher(CommandGateway commandGateway, @Value("${batch.max-in-flight}") int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("the maximum number of commands in flight must be positive => " + maxInFlight);
+        }
+        this.commandGateway = commandGateway;
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Sends a command, waiting first for a free slot if the maximum number of commands in flight is reached.
+     *
+     * @param command The command to send.
+     * @param <R>     The type of the result of the command.
+     * @return A CompletableFuture representing the completion of the command.
+     */
+    public <R> CompletableFuture<R> dispatch(Object command) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<R> result;
+        try {
+            result = commandGateway.send(command);
+        } catch (RuntimeException e) {
+            permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((value, throwable) -> permits.release());
+    }
+
+    /**
+     * Returns the number of commands sent and not yet completed.
+     *
+     * @return The number of commands in flight.
+     */
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * Returns the maximum number of commands in flight.
+     *
+     * @return The maximum number of commands in flight.
+     */
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+}
@@ -0,0 +1,310 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.command.customer.CreateCustomerCommand;
+import com.brodygaudel.bank.common.dto.CustomerImportStatusDTO;
+import com.brodygaudel.bank.common.dto.CustomerRequestDTO;
+import com.brodygaudel.bank.common.enums.ImportFormat;
+import com.brodygaudel.bank.common.exception.ImportLimitExceededException;
+import com.brodygaudel.bank.common.util.IdGenerator;
+import com.brodygaudel.bank.common.util.Throwables;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service importing customers in bulk.
+ *
+ * <p>
+ * An import reads a CSV file (with a header row) or newline-delimited JSON row by row and sends one
+ * {@link CreateCustomerCommand} per row through the {@link BoundedCommandDispatcher}, so the input is never held in
+ * memory and is read only as fast as the command bus creates the customers. The rows that fail are written, with
+ * their reason, to a result file named after the import.
+ * </p>
+ *
+ * <p>
+ * An import is read in place on a thread of this service, which is answered with the identifier of the import as soon
+ * as it is registered: the input is never buffered, and the client is held back by the reading of its upload, itself
+ * held back by the dispatcher. At most {@code import.max-concurrent} imports are read at once; a further import is
+ * refused with an {@link ImportLimitExceededException}. The progress of the running imports and of the last finished
+ * imports can be queried while an import runs.
+ * </p>
+ */
+@Service
+@Slf4j
+public class CustomerImportService {
+
+    private static final String RESULT_HEADER = "row,nic,error";
+
+    private final BoundedCommandDispatcher dispatcher;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final Path resultDirectory;
+    private final Map<String, ImportJob> jobs;
+    private final IdGenerator idGenerator;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructs a new instance of CustomerImportService.
+     *
+     * @param dispatcher      The dispatcher used to send the commands of the imports.
+     * @param objectMapper    The object mapper used to read newline-delimited JSON.
+     * @param resultDirectory The directory in which the result files are written.
+     * @param historySize     The number of imports whose progress is kept.
+     * @param maxConcurrent   The maximum number of imports read at once.
+     * @param idGenerator     The time-ordered ID generator used to generate unique IDs for customer creation.
+     */
+    public CustomerImportService(BoundedCommandDispatcher dispatcher, @NotNull ObjectMapper objectMapper,
+                                 @Value("${import.result-directory}") String resultDirectory,
+                                 @Value("${import.history-size}") int historySize,
+                                 @Value("${import.max-concurrent}") int maxConcurrent,
+                                 @Qualifier("uuidV7IdGenerator") IdGenerator idGenerator) {
+        this.dispatcher = dispatcher;
+        this.idGenerator = idGenerator;
+        this.jsonReader = objectMapper.readerFor(CustomerRequestDTO.class);
+        CsvMapper csvMapper = CsvMapper.builder().addModule(new JavaTimeModule()).build();
+        this.csvReader = csvMapper.readerFor(CustomerRequestDTO.class).with(CsvSchema.emptySchema().withHeader());
+        this.resultDirectory = Path.of(resultDirectory);
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+                return size() > historySize && eldest.getValue().finished;
+            }
+        });
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "customer-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts an import of the customers read from the given input.
+     *
+     * <p>
+     * This method returns once the import is registered, and the input is read on a thread of this service. If a row
+     * cannot be read, it is recorded as failed and the rest of the input is ignored; the customers already sent are
+     * kept.
+     * </p>
+     *
+     * @param input  The CSV or newline-delimited JSON of the customers, read until its end.
+     * @param format The format of the input.
+     * @param onRead Called once the input is read and closed, whether or not its commands have completed.
+     * @return The status of the registered import, holding its identifier.
+     * @throws IOException                   if the result file cannot be created.
+     * @throws ImportLimitExceededException if the maximum number of imports are already being read.
+     */
+    public CustomerImportStatusDTO importCustomers(InputStream input, ImportFormat format, Runnable onRead)
+            throws IOException {
+        Files.createDirectories(resultDirectory);
+        String id = UUID.randomUUID().toString();
+        ImportJob job = new ImportJob(id, format, resultDirectory.resolve(id + ".csv"));
+        jobs.put(id, job);
+        try {
+            executor.execute(() -> run(job, input, onRead));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            job.discard();
+            throw new ImportLimitExceededException(executor.getMaximumPoolSize() + " imports are already running");
+        }
+        return job.status();
+    }
+
+    /**
+     * Retrieves the final status of an import.
+     *
+     * @param id The unique identifier of the import.
+     * @return A CompletableFuture holding the final status of the import, completed once every command has completed,
+     * or an empty optional if the import is unknown.
+     */
+    public Optional<CompletableFuture<CustomerImportStatusDTO>> getCompletion(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(job -> job.done);
+    }
+
+    /**
+     * Retrieves the status of an import.
+     *
+     * @param id The unique identifier of the import.
+     * @return The status of the import, or an empty optional if the import is unknown.
+     */
+    public Optional<CustomerImportStatusDTO> getStatus(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(ImportJob::status);
+    }
+
+    /**
+     * Retrieves the status of the running imports and of the last finished imports.
+     *
+     * @return The status of the imports, oldest first.
+     */
+    public List<CustomerImportStatusDTO> getStatuses() {
+        synchronized (jobs) {
+            return jobs.values().stream().map(ImportJob::status).toList();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(@NotNull ImportJob job, InputStream input, Runnable onRead) {
+        ObjectReader reader = job.format == ImportFormat.CSV ? csvReader : jsonReader;
+        try (MappingIterator<CustomerRequestDTO> rows = reader.readValues(input)) {
+            while (rows.hasNextValue()) {
+                dispatch(job, job.read.incrementAndGet(), rows.nextValue());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import {} unreadable after {} rows", job.id, job.read.get(), e);
+            job.fail(job.read.incrementAndGet(), null, "unreadable row: " + e.getMessage());
+        } finally {
+            job.complete();
+            onRead.run();
+        }
+    }
+
+    private void dispatch(@NotNull ImportJob job, long row, @NotNull CustomerRequestDTO dto) {
+        if (dto.nic() == null || dto.firstname() == null || dto.name() == null) {
+            job.fail(row, dto.nic(), "nic, firstname and name are required");
+            return;
+        }
+        job.pending.incrementAndGet();
+        dispatcher.dispatch(new CreateCustomerCommand(
+                idGenerator.autoGenerate(), dto.nic(),
+                dto.firstname(), dto.name(), dto.placeOfBirth(),
+                dto.dateOfBirth(), dto.nationality(), dto.sex(),
+                LocalDateTime.now()
+        )).whenComplete((result, throwable) -> {
+            try {
+                if (throwable == null) {
+                    job.succeeded.incrementAndGet();
+                } else {
+                    job.fail(row, dto.nic(), Throwables.rootMessage(throwable));
+                }
+            } finally {
+                job.complete();
+            }
+        });
+    }
+
+    /**
+     * The progress of one import.
+     *
+     * <p>
+     * {@code pending} counts the commands not yet completed, plus one for the reading of the input, so the import
+     * finishes when the last of them completes.
+     * </p>
+     */
+    private static final class ImportJob {
+
+        private final String id;
+        private final ImportFormat format;
+        private final Path resultFile;
+        private final BufferedWriter writer;
+        private final long start = System.nanoTime();
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong pending = new AtomicLong(1);
+        private final CompletableFuture<CustomerImportStatusDTO> done = new CompletableFuture<>();
+        private volatile boolean finished;
+        private volatile long end;
+
+        private ImportJob(String id, ImportFormat format, Path resultFile) throws IOException {
+            this.id = id;
+            this.format = format;
+            this.resultFile = resultFile;
+            this.writer = Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8);
+            this.writer.write(RESULT_HEADER);
+            this.writer.newLine();
+        }
+
+        /**
+         * Counts a failed row and writes it to the result file. A row that cannot be written is only logged, so the
+         * import still finishes.
+         */
+        private void fail(long row, String nic, String error) {
+            failed.incrementAndGet();
+            synchronized (writer) {
+                try {
+                    writer.write(row + "," + quote(nic) + "," + quote(error));
+                    writer.newLine();
+                } catch (IOException e) {
+                    log.error("Row {} of import {} not written to {}: {}", row, id, resultFile, error, e);
+                }
+            }
+        }
+
+        /**
+         * Closes and deletes the result file of an import that was refused before it started.
+         */
+        private void discard() {
+            try {
+                writer.close();
+                Files.deleteIfExists(resultFile);
+            } catch (IOException e) {
+                log.warn("Result file of import {} not deleted", id, e);
+            }
+        }
+
+        private void complete() {
+            if (pending.decrementAndGet() != 0) {
+                return;
+            }
+            end = System.nanoTime();
+            synchronized (writer) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    log.error("Result file of import {} not closed", id, e);
+                }
+            }
+            finished = true;
+            done.complete(status());
+        }
+
+        private CustomerImportStatusDTO status() {
+            long elapsed = (finished ? end : System.nanoTime()) - start;
+            long rows = succeeded.get() + failed.get();
+            return new CustomerImportStatusDTO(
+                    id,
+                    format.name(),
+                    finished,
+                    read.get(),
+                    succeeded.get(),
+                    failed.get(),
+                    elapsed / 1_000_000,
+                    elapsed > 0 ? rows * 1_000_000_000.0 / elapsed : 0,
+                    resultFile.toString()
+            );
+        }
+
+        private static String quote(String value) {
+            return value == null ? "" : "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.customer.CustomerCreatedEvent;
+import com.brodygaudel.bank.common.event.customer.CustomerDeletedEvent;
+import com.brodygaudel.bank.common.event.customer.CustomerUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Event handler maintaining the command-side customer lookup.
+ *
+ * <p>
+ * This handler belongs to the {@code customer-lookup} processing group, which is a subscribing processor: it runs in
+ * the unit of work, and thus in the transaction, of the command that published the event.
+ * </p>
+ */
+@Component
+@ProcessingGroup(CustomerLookupEventHandler.PROCESSING_GROUP)
+@Slf4j
+public class CustomerLookupEventHandler {
+
+    /**
+     * The name of the processing group of this handler.
+     */
+    public static final String PROCESSING_GROUP = "customer-lookup";
+
+    private final CustomerLookupService customerLookupService;
+
+    /**
+     * Constructs a new instance of CustomerLookupEventHandler.
+     *
+     * @param customerLookupService The service maintaining the customer lookup.
+     */
+    public CustomerLookupEventHandler(CustomerLookupService customerLookupService) {
+        this.customerLookupService = customerLookupService;
+    }
+
+    /**
+     * Handles the {@code CustomerCreatedEvent} by recording the NIC of the new customer.
+     *
+     * @param event The {@code CustomerCreatedEvent} to handle.
+     */
+    @EventHandler
+    public void on(@NotNull CustomerCreatedEvent event) {
+        log.info("CustomerCreatedEvent handled by the customer lookup");
+        customerLookupService.register(event.getId(), event.getNic());
+    }
+
+    /**
+     * Handles the {@code CustomerUpdatedEvent} by recording the possibly changed NIC of the customer.
+     *
+     * @param event The {@code CustomerUpdatedEvent} to handle.
+     */
+    @EventHandler
+    public void on(@NotNull CustomerUpdatedEvent event) {
+        log.info("CustomerUpdatedEvent handled by the customer lookup");
+        customerLookupService.register(event.getId(), event.getNic());
+    }
+
+    /**
+     * Handles the {@code CustomerDeletedEvent} by removing the customer from the lookup.
+     *
+     * @param event The {@code CustomerDeletedEvent} to handle.
+     */
+    @EventHandler
+    public void on(@NotNull CustomerDeletedEvent event) {
+        log.info("CustomerDeletedEvent handled by the customer lookup");
+        customerLookupService.unregister(event.getId());
+    }
+
+    /**
+     * Handles the {@code AccountCreatedEvent} by recording the account of the customer.
+     *
+     * @param event The {@code AccountCreatedEvent} to handle.
+     */
+    @EventHandler
+    public void on(@NotNull AccountCreatedEvent event) {
+        log.info("AccountCreatedEvent handled by the customer lookup");
+        customerLookupService.registerAccount(event.getCustomerId(), event.getId());
+    }
+}
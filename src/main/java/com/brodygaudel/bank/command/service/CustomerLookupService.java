@@ -0,0 +1,178 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.command.entity.CustomerLookup;
+import com.brodygaudel.bank.command.repository.CustomerLookupRepository;
+import com.brodygaudel.bank.common.exception.CustomerAlreadyHaveAccountException;
+import com.brodygaudel.bank.common.exception.CustomerNotFoundException;
+import com.brodygaudel.bank.common.exception.NicAlreadyExistException;
+import com.brodygaudel.bank.common.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service checking the uniqueness of the National Identity Card (NIC) of the customers, and that a customer opens a
+ * single account, on the command side.
+ *
+ * <p>
+ * The NICs of the {@link CustomerLookup} table are mirrored in a {@link BloomFilter}. A NIC the filter has never seen
+ * is accepted without querying the database; only the NICs the filter might contain, that is the NICs in use and a
+ * small share of false positives, are looked up in the table.
+ * </p>
+ *
+ * <p>
+ * The check is a fast path: two commands creating the same NIC at the same time may both pass it, in which case the
+ * unique constraint of the lookup table rejects the second one when its transaction commits.
+ * </p>
+ *
+ * <p>
+ * The account of a customer is checked against the lookup table directly, by primary key. It is recorded with a
+ * conditional update, so two accounts created for the same customer at the same time cannot both be recorded.
+ * </p>
+ */
+@Service
+@Slf4j
+public class CustomerLookupService {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final CustomerLookupRepository customerLookupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BloomFilter nics;
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong filtered = new AtomicLong();
+
+    /**
+     * Constructs a new instance of CustomerLookupService.
+     *
+     * @param customerLookupRepository The repository of the customer lookup table.
+     * @param transactionTemplate      The template used to backfill the lookup table.
+     * @param expectedCustomers        The number of customers the Bloom filter is sized for.
+     * @param falsePositiveRate        The false positive rate the Bloom filter is sized for.
+     */
+    public CustomerLookupService(CustomerLookupRepository customerLookupRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${customer-lookup.expected-customers}") long expectedCustomers,
+                                 @Value("${customer-lookup.false-positive-rate}") double falsePositiveRate) {
+        this.customerLookupRepository = customerLookupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.nics = new BloomFilter(expectedCustomers, falsePositiveRate);
+    }
+
+    /**
+     * Loads the NICs of the lookup table into the Bloom filter. If the lookup table is empty, it is first filled from
+     * the customers of the read model, which were created before the table existed; the accounts of the read model
+     * are then recorded for the customers the table has no account for.
+     */
+    @PostConstruct
+    public void load() {
+        if (customerLookupRepository.count() == 0) {
+            Integer copied = transactionTemplate.execute(status -> customerLookupRepository.backfillFromCustomers());
+            log.info("customer lookup backfilled with {} customers", copied);
+        }
+        Integer accounts = transactionTemplate.execute(status -> customerLookupRepository.backfillAccounts());
+        if (accounts != null && accounts > 0) {
+            log.info("customer lookup backfilled with {} accounts", accounts);
+        }
+        long loaded = 0;
+        String after = "";
+        List<String> page;
+        do {
+            page = customerLookupRepository.findNicsAfter(after, Pageable.ofSize(LOAD_PAGE_SIZE));
+            page.forEach(nics::put);
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        log.info("{} NICs loaded in the customer lookup filter", loaded);
+    }
+
+    /**
+     * Checks that a NIC is not used by another customer.
+     *
+     * @param nic        The NIC to check.
+     * @param customerId The unique identifier of the customer the NIC is meant for.
+     * @throws NicAlreadyExistException if another customer already uses the NIC.
+     */
+    public void checkNicAvailable(String nic, String customerId) {
+        lookups.incrementAndGet();
+        if (!nics.mightContain(nic)) {
+            filtered.incrementAndGet();
+            return;
+        }
+        Optional<CustomerLookup> owner = customerLookupRepository.findByNic(nic);
+        if (owner.isPresent() && !owner.get().getCustomerId().equals(customerId)) {
+            throw new NicAlreadyExistException("national identity card '" + nic + "' already exists");
+        }
+    }
+
+    /**
+     * Checks that a customer exists and has no account yet.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @throws CustomerNotFoundException           if the customer does not exist.
+     * @throws CustomerAlreadyHaveAccountException if the customer already has an account.
+     */
+    public void checkCanOpenAccount(String customerId) {
+        CustomerLookup lookup = customerLookupRepository.findById(customerId)
+                .orElseThrow(() -> new CustomerNotFoundException("customer not found"));
+        if (lookup.getAccountId() != null) {
+            throw new CustomerAlreadyHaveAccountException("this customer already has an account");
+        }
+    }
+
+    /**
+     * Records the NIC of a customer, keeping the account recorded for it if any.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @param nic        The NIC of the customer.
+     */
+    public void register(String customerId, String nic) {
+        CustomerLookup lookup = customerLookupRepository.findById(customerId)
+                .orElseGet(() -> CustomerLookup.builder().customerId(customerId).build());
+        lookup.setNic(nic);
+        customerLookupRepository.save(lookup);
+        nics.put(nic);
+    }
+
+    /**
+     * Records the account of a customer.
+     *
+     * @param customerId The unique identifier of the customer.
+     * @param accountId  The unique identifier of the account.
+     * @throws CustomerAlreadyHaveAccountException if an account is already recorded for the customer.
+     */
+    public void registerAccount(String customerId, String accountId) {
+        if (customerLookupRepository.assignAccount(customerId, accountId) == 0) {
+            throw new CustomerAlreadyHaveAccountException("this customer already has an account");
+        }
+    }
+
+    /**
+     * Removes a customer from the lookup. Its NIC stays in the Bloom filter, which only costs a database lookup if the
+     * NIC is used again.
+     *
+     * @param customerId The unique identifier of the customer.
+     */
+    public void unregister(String customerId) {
+        customerLookupRepository.deleteById(customerId);
+    }
+
+    /**
+     * Returns the share of the checks answered by the Bloom filter alone.
+     *
+     * @return The share of the checks that did not query the database, between 0 and 1.
+     */
+    public double filteredRatio() {
+        long total = lookups.get();
+        return total == 0 ? 0 : (double) filtered.get() / total;
+    }
+}
@@ -0,0 +1,209 @@
+package com.brodygaudel.bank.command.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.eventsourcing.EventStreamUtils;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage of the events moved out of the event store by the {@link EventArchiveJob}.
+ *
+ * <p>
+ * The archived events of an aggregate are kept in a directory of their own, one gzip compressed file of
+ * newline-delimited JSON per archival run, named after the sequence number of its first event. The events are kept in
+ * their serialized form, as they were stored, and go through the upcaster chain when they are read back, like the
+ * events of the event store. A file is written to a temporary file first and then moved into place, and a run that
+ * archives the same events again replaces the file, so the events read back are never duplicated.
+ * </p>
+ */
+@Service
+@Slf4j
+public class EventArchive {
+
+    private static final String EXTENSION = ".ndjson.gz";
+
+    private final Path directory;
+    private final Serializer serializer;
+    private final org.axonframework.config.Configuration configuration;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    /**
+     * Constructs a new instance of EventArchive.
+     *
+     * @param directory     The directory of the archive.
+     * @param serializer    The serializer of the events.
+     * @param configuration The Axon configuration, providing the upcaster chain.
+     * @param objectMapper  The object mapper used to write the archive files.
+     */
+    @Autowired
+    public EventArchive(@Value("${event-archive.directory}") String directory,
+                        @Qualifier("eventSerializer") Serializer serializer,
+                        org.axonframework.config.Configuration configuration,
+                        @NotNull ObjectMapper objectMapper) {
+        this(Path.of(directory), serializer, configuration, objectMapper);
+    }
+
+    EventArchive(Path directory, Serializer serializer, org.axonframework.config.Configuration configuration,
+                 @NotNull ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.serializer = serializer;
+        this.configuration = configuration;
+        this.writer = objectMapper.writerFor(ArchivedEvent.class);
+        this.reader = objectMapper.readerFor(ArchivedEvent.class);
+    }
+
+    /**
+     * Archives consecutive events of an aggregate.
+     *
+     * @param aggregateId The unique identifier of the aggregate.
+     * @param events      The events to archive, ordered by sequence number.
+     * @return The size of the written file, in bytes.
+     * @throws IOException if the events cannot be written.
+     */
+    public long write(String aggregateId, @NotNull List<? extends DomainEventData<byte[]>> events) throws IOException {
+        Path aggregateDirectory = Files.createDirectories(directoryOf(aggregateId));
+        Path file = aggregateDirectory.resolve(fileName(events.get(0).getSequenceNumber()));
+        Path temporary = aggregateDirectory.resolve(file.getFileName() + ".tmp");
+        try (BufferedWriter output = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temporary)), StandardCharsets.UTF_8))) {
+            for (DomainEventData<byte[]> event : events) {
+                output.write(writer.writeValueAsString(ArchivedEvent.of(event)));
+                output.newLine();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(file);
+    }
+
+    /**
+     * Reads the archived events of an aggregate, upcast and deserialized like the events of the event store.
+     *
+     * <p>
+     * The files are read one after the other while the events are consumed, each one being closed once its last event
+     * is read.
+     * </p>
+     *
+     * @param aggregateId The unique identifier of the aggregate.
+     * @return The archived events, ordered by sequence number.
+     */
+    public DomainEventStream read(String aggregateId) {
+        AtomicLong next = new AtomicLong();
+        Stream<DomainEventData<byte[]>> events = files(aggregateId).stream()
+                .flatMap(this::lines)
+                .map(this::toEventData)
+                .filter(event -> event.getSequenceNumber() >= next.get())
+                .peek(event -> next.set(event.getSequenceNumber() + 1));
+        return EventStreamUtils.upcastAndDeserializeDomainEvents(events, serializer, configuration.upcasterChain());
+    }
+
+    /**
+     * Tells whether no event was archived yet.
+     *
+     * @return {@code true} if the archive holds no aggregate.
+     */
+    public boolean isEmpty() {
+        if (!Files.isDirectory(directory)) {
+            return true;
+        }
+        try (Stream<Path> aggregates = Files.list(directory)) {
+            return aggregates.findAny().isEmpty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private @NotNull List<Path> files(String aggregateId) {
+        Path aggregateDirectory = directoryOf(aggregateId);
+        if (!Files.isDirectory(aggregateDirectory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> files = Files.list(aggregateDirectory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(EXTENSION)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private @NotNull Stream<String> lines(Path file) {
+        try {
+            BufferedReader input = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8));
+            return input.lines().onClose(() -> {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close the archive file {}", file, e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private @NotNull DomainEventData<byte[]> toEventData(String line) {
+        try {
+            ArchivedEvent event = reader.readValue(line);
+            return new GenericDomainEventEntry<>(event.type(), event.aggregateId(), event.sequenceNumber(),
+                    event.eventId(), event.timestamp(), event.payloadType(), event.payloadRevision(), event.payload(),
+                    event.metaData());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private @NotNull Path directoryOf(String aggregateId) {
+        return directory.resolve(URLEncoder.encode(aggregateId, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the name of an archive file, padded so the files sort by sequence number.
+     */
+    private static @NotNull String fileName(long firstSequenceNumber) {
+        return String.format("%019d%s", firstSequenceNumber, EXTENSION);
+    }
+
+    /**
+     * An archived event, as stored by the event storage engine. The payload and metadata are written in Base64.
+     */
+    private record ArchivedEvent(String eventId, String type, String aggregateId, long sequenceNumber,
+                                 String timestamp, String payloadType, String payloadRevision, byte[] payload,
+                                 byte[] metaData) {
+
+        static @NotNull ArchivedEvent of(@NotNull DomainEventData<byte[]> event) {
+            SerializedObject<byte[]> payload = event.getPayload();
+            return new ArchivedEvent(event.getEventIdentifier(), event.getType(), event.getAggregateIdentifier(),
+                    event.getSequenceNumber(), event.getTimestamp().toString(), payload.getType().getName(),
+                    payload.getType().getRevision(), payload.getData(), event.getMetaData().getData());
+        }
+    }
+}
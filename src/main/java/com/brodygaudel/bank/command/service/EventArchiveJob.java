@@ -0,0 +1,234 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.dto.EventArchiveReportDTO;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.eventsourcing.eventstore.jpa.DomainEventEntry;
+import org.axonframework.eventsourcing.eventstore.jpa.SnapshotEventEntry;
+import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
+import org.axonframework.serialization.SerializedObject;
+import org.hibernate.jpa.HibernateHints;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Job moving the events that precede the latest snapshot of an aggregate out of the embedded event store.
+ *
+ * <p>
+ * Once an aggregate is snapshotted, the events before its snapshot are never read to load it again, but they still
+ * fill the event store and slow down the scans of the tracking processors. For every aggregate of the configured types
+ * that has a snapshot, this job writes the events older than the snapshot and than the configured minimum age to the
+ * {@link EventArchive}, then deletes them from the event store. The event the snapshot was taken at is kept, so the
+ * last sequence number of the aggregate stays known to the event store. The archived events remain available for
+ * audit, through {@link EventStreamService#writeAudit}.
+ * </p>
+ *
+ * <p>
+ * Only the snapshots the snapshot filter of the Axon configuration accepts are followed: a snapshot of an older
+ * revision of the aggregate is ignored when the aggregate is loaded, which then needs every event since the first
+ * one, so the events behind it are kept.
+ * </p>
+ *
+ * <p>
+ * A replay of the tracking processors no longer sees the archived events, so the minimum age must exceed the time any
+ * processor may lag behind, and a projection must not be rebuilt from the start of an archived event store.
+ * </p>
+ *
+ * <p>
+ * The job is only available with the JPA engine of the {@code embedded} profile: Axon Server does not delete events.
+ * </p>
+ */
+@Service
+@Profile("embedded")
+@ConditionalOnProperty(name = "embedded.event-store.engine", havingValue = "jpa", matchIfMissing = true)
+@Slf4j
+public class EventArchiveJob {
+
+    private static final String CANDIDATES = """
+            select s.aggregateIdentifier from SnapshotEventEntry s
+            where s.type in :types and s.aggregateIdentifier > :after
+            and exists (select e.globalIndex from DomainEventEntry e
+                        where e.aggregateIdentifier = s.aggregateIdentifier and e.sequenceNumber < s.sequenceNumber)
+            group by s.aggregateIdentifier order by s.aggregateIdentifier""";
+
+    private static final String SNAPSHOTS = """
+            select s from SnapshotEventEntry s
+            where s.aggregateIdentifier = :aggregateId
+            order by s.sequenceNumber desc""";
+
+    private static final String EVENTS = """
+            select e from DomainEventEntry e
+            where e.aggregateIdentifier = :aggregateId and e.sequenceNumber < :sequenceNumber
+            order by e.sequenceNumber""";
+
+    private static final String DELETE = """
+            delete from DomainEventEntry e
+            where e.aggregateIdentifier = :aggregateId and e.sequenceNumber <= :sequenceNumber""";
+
+    /** Stored size of the global index and sequence number of an event, next to its serialized fields. */
+    private static final int FIXED_SIZE = 2 * Long.BYTES;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EventArchive eventArchive;
+    private final SnapshotFilter snapshotFilter;
+    private final List<String> aggregateTypes;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Clock clock;
+
+    /**
+     * Constructs a new instance of EventArchiveJob.
+     *
+     * @param entityManager       The entity manager of the event store.
+     * @param transactionTemplate The template archiving the events of an aggregate in one transaction.
+     * @param eventArchive        The archive the events are written to.
+     * @param configuration       The Axon configuration, providing the snapshot filter.
+     * @param aggregateTypes      The types of the aggregates whose events are archived.
+     * @param minAge              The age under which events are never archived.
+     * @param batchSize           The number of snapshotted aggregates read per query.
+     */
+    @Autowired
+    public EventArchiveJob(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                           EventArchive eventArchive, org.axonframework.config.Configuration configuration,
+                           @Value("${event-archive.aggregate-types}") List<String> aggregateTypes,
+                           @Value("${event-archive.min-age}") Duration minAge,
+                           @Value("${event-archive.batch-size}") int batchSize) {
+        this(entityManager, transactionTemplate, eventArchive, configuration.snapshotFilter(), aggregateTypes, minAge,
+                batchSize, Clock.systemUTC());
+    }
+
+    EventArchiveJob(EntityManager entityManager, TransactionTemplate transactionTemplate, EventArchive eventArchive,
+                    SnapshotFilter snapshotFilter, List<String> aggregateTypes, Duration minAge, int batchSize,
+                    Clock clock) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventArchive = eventArchive;
+        this.snapshotFilter = snapshotFilter;
+        this.aggregateTypes = aggregateTypes;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Archives the events preceding the latest snapshot of every aggregate. Each aggregate is archived in a transaction
+     * of its own, after its archive file is written, so an interrupted run leaves no event both deleted and
+     * unarchived.
+     *
+     * @return The report of the run.
+     */
+    public synchronized EventArchiveReportDTO archive() {
+        long start = System.nanoTime();
+        Instant before = clock.instant().minus(minAge);
+        int aggregates = 0;
+        long events = 0;
+        long reclaimedBytes = 0;
+        long archivedBytes = 0;
+        String after = "";
+        List<String> candidates;
+        do {
+            candidates = entityManager.createQuery(CANDIDATES, String.class)
+                    .setParameter("types", aggregateTypes)
+                    .setParameter("after", after)
+                    .setMaxResults(batchSize)
+                    .getResultList();
+            for (String aggregateId : candidates) {
+                after = aggregateId;
+                Archived archived = transactionTemplate.execute(status -> archive(aggregateId, before));
+                if (archived != null && archived.events() > 0) {
+                    aggregates++;
+                    events += archived.events();
+                    reclaimedBytes += archived.reclaimedBytes();
+                    archivedBytes += archived.archivedBytes();
+                }
+            }
+        } while (candidates.size() == batchSize);
+        EventArchiveReportDTO report = new EventArchiveReportDTO(aggregates, events, reclaimedBytes, archivedBytes,
+                (System.nanoTime() - start) / 1_000_000);
+        log.info("{} events of {} aggregates archived: {} bytes reclaimed, {} bytes archived", events, aggregates,
+                reclaimedBytes, archivedBytes);
+        return report;
+    }
+
+    /**
+     * Archives the events of an aggregate that precede its latest usable snapshot and the given instant.
+     */
+    private @NotNull Archived archive(String aggregateId, Instant before) {
+        Long snapshotSequenceNumber = entityManager.createQuery(SNAPSHOTS, SnapshotEventEntry.class)
+                .setParameter("aggregateId", aggregateId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList()
+                .stream()
+                .filter(snapshotFilter::allow)
+                .findFirst()
+                .map(SnapshotEventEntry::getSequenceNumber)
+                .orElse(null);
+        if (snapshotSequenceNumber == null) {
+            log.warn("no snapshot of {} matches the current revision of its aggregate, its events are kept",
+                    aggregateId);
+            return new Archived(0, 0, 0);
+        }
+        List<DomainEventEntry> entries = entityManager.createQuery(EVENTS, DomainEventEntry.class)
+                .setParameter("aggregateId", aggregateId)
+                .setParameter("sequenceNumber", snapshotSequenceNumber)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+        int count = 0;
+        long reclaimedBytes = 0;
+        while (count < entries.size() && entries.get(count).getTimestamp().isBefore(before)) {
+            reclaimedBytes += storedSize(entries.get(count++));
+        }
+        if (count == 0) {
+            return new Archived(0, 0, 0);
+        }
+        List<DomainEventEntry> archived = entries.subList(0, count);
+        long archivedBytes;
+        try {
+            archivedBytes = eventArchive.write(aggregateId, archived);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entityManager.createQuery(DELETE)
+                .setParameter("aggregateId", aggregateId)
+                .setParameter("sequenceNumber", archived.get(count - 1).getSequenceNumber())
+                .executeUpdate();
+        return new Archived(count, reclaimedBytes, archivedBytes);
+    }
+
+    /**
+     * Returns the number of bytes an event takes in the event store, without the overhead of the database.
+     */
+    private static long storedSize(@NotNull DomainEventEntry entry) {
+        SerializedObject<byte[]> payload = entry.getPayload();
+        return FIXED_SIZE
+                + length(entry.getEventIdentifier())
+                + length(entry.getType())
+                + length(entry.getAggregateIdentifier())
+                + length(entry.getTimestamp().toString())
+                + length(payload.getType().getName())
+                + length(payload.getType().getRevision())
+                + payload.getData().length
+                + entry.getMetaData().getData().length;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private record Archived(int events, long reclaimedBytes, long archivedBytes) {
+    }
+}
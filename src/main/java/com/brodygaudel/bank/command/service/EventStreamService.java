@@ -0,0 +1,141 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.dto.StoredEventDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service writing the events of an aggregate as newline-delimited JSON.
+ *
+ * <p>
+ * The events are read from the event store starting at the requested sequence number and written one by one as they
+ * are read, so the memory used does not depend on the size of the history of the aggregate. The output is flushed
+ * every {@value #FLUSH_INTERVAL} events, so the client receives the events while the history is still being read.
+ * </p>
+ *
+ * <p>
+ * For audit, the events moved to the {@link EventArchive} are written first, followed by those still in the event
+ * store, so the whole history of the aggregate is written.
+ * </p>
+ */
+@Service
+@Slf4j
+public class EventStreamService {
+
+    private static final int FLUSH_INTERVAL = 256;
+
+    private final EventStore eventStore;
+    private final EventArchive eventArchive;
+    private final ObjectWriter writer;
+
+    /**
+     * Constructs a new instance of EventStreamService.
+     *
+     * @param eventStore   The event store the events are read from.
+     * @param eventArchive The archive the events moved out of the event store are read from.
+     * @param objectMapper The object mapper used to write the events.
+     */
+    public EventStreamService(EventStore eventStore, EventArchive eventArchive, @NotNull ObjectMapper objectMapper) {
+        this.eventStore = eventStore;
+        this.eventArchive = eventArchive;
+        this.writer = objectMapper.writerFor(StoredEventDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes the events of an aggregate, one JSON object per line.
+     *
+     * @param aggregateId  The unique identifier of the aggregate.
+     * @param fromSequence The sequence number of the first event to write.
+     * @param limit        The maximum number of events to write.
+     * @param output       The stream the events are written to, which is left open.
+     * @return The number of events written.
+     * @throws IOException if the events cannot be written.
+     */
+    public long write(String aggregateId, long fromSequence, long limit, OutputStream output) throws IOException {
+        long written;
+        try (JsonGenerator generator = createGenerator(output)) {
+            written = write(eventStore.readEvents(aggregateId, fromSequence), limit, generator);
+        }
+        log.info("{} events of aggregate {} streamed from sequence {}", written, aggregateId, fromSequence);
+        return written;
+    }
+
+    /**
+     * Writes the whole history of an aggregate, archived events included, one JSON object per line.
+     *
+     * @param aggregateId The unique identifier of the aggregate.
+     * @param output      The stream the events are written to, which is left open.
+     * @return The number of events written.
+     * @throws IOException if the events cannot be written.
+     */
+    public long writeAudit(String aggregateId, OutputStream output) throws IOException {
+        long written;
+        try (JsonGenerator generator = createGenerator(output)) {
+            DomainEventStream archived = eventArchive.read(aggregateId);
+            written = write(archived, Long.MAX_VALUE, generator);
+            Long lastArchived = archived.getLastSequenceNumber();
+            written += write(eventStore.readEvents(aggregateId, lastArchived == null ? 0 : lastArchived + 1),
+                    Long.MAX_VALUE, generator);
+        }
+        log.info("{} events of aggregate {} streamed for audit", written, aggregateId);
+        return written;
+    }
+
+    private @NotNull JsonGenerator createGenerator(OutputStream output) throws IOException {
+        JsonGenerator generator = writer.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private long write(@NotNull DomainEventStream events, long limit, JsonGenerator generator) throws IOException {
+        long written = 0;
+        try (Stream<? extends DomainEventMessage<?>> stream = events.asStream()) {
+            Iterator<? extends DomainEventMessage<?>> iterator = stream.limit(limit).iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, toDto(iterator.next()));
+                generator.writeRaw('\n');
+                if (++written % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Converts an event to its JSON representation. Events not published by an aggregate have no aggregate and a
+     * sequence number of {@code -1}.
+     *
+     * @param event The event to convert.
+     * @return The representation of the event.
+     */
+    static @NotNull StoredEventDTO toDto(@NotNull EventMessage<?> event) {
+        DomainEventMessage<?> domainEvent = event instanceof DomainEventMessage<?> message ? message : null;
+        return new StoredEventDTO(
+                event.getIdentifier(),
+                domainEvent == null ? null : domainEvent.getType(),
+                domainEvent == null ? null : domainEvent.getAggregateIdentifier(),
+                domainEvent == null ? -1 : domainEvent.getSequenceNumber(),
+                event.getPayloadType().getName(),
+                event.getTimestamp(),
+                event.getPayload(),
+                event.getMetaData()
+        );
+    }
+}
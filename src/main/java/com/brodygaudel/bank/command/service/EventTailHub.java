@@ -0,0 +1,556 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.dto.StoredEventDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service tailing the global event stream for the Server-Sent Events subscribers.
+ *
+ * <p>
+ * A single reader thread tails the event store, whatever the number of subscribers, and writes every event once to
+ * JSON into a ring buffer of {@code event-tail.buffer-size} events. Each subscriber keeps a cursor into the ring and
+ * is sent the events following it by a small pool of sender threads. The ring bounds the backlog of every subscriber:
+ * a subscriber lagging so far behind that the ring overwrote an event it has not been sent yet is dropped, without
+ * slowing down the reader or the other subscribers. A dropped subscriber may reconnect from the last event it received.
+ * </p>
+ *
+ * <p>
+ * Writing to a client blocks until the client accepts the data, so the sender threads never write: they hand the next
+ * batch of a subscriber to a pool of {@code event-tail.writer-threads} writer threads and move on. A subscriber has at
+ * most one batch being written, and its pending events are only read from the ring once that batch is written, so a
+ * slow client only holds back its own subscriber. A subscriber whose client does not accept a batch within
+ * {@code event-tail.write-timeout} is dropped as well, and its writer thread is interrupted; a write ignoring the
+ * interrupt keeps its thread until the server times out the connection, so the writer threads should outnumber the
+ * clients expected to stall at the same time.
+ * </p>
+ *
+ * <p>
+ * Subscribers give their starting point as the global index of an event: the id of every sent event is its global
+ * index, so the {@code Last-Event-ID} of a reconnecting client is a valid starting point. A subscriber starting before
+ * the oldest event of the ring first catches up from the event store on its own stream; at most
+ * {@code event-tail.max-catch-ups} subscribers catch up at the same time.
+ * </p>
+ */
+@Service
+@Slf4j
+public class EventTailHub {
+
+    private static final int SEND_BATCH_SIZE = 64;
+
+    private final EventStore eventStore;
+    private final ObjectWriter writer;
+    private final TailEvent[] ring;
+    private final ExecutorService senders;
+    private final ExecutorService writers;
+    private final ScheduledThreadPoolExecutor writeTimer;
+    private final ExecutorService catchUpExecutor;
+    private final Semaphore catchUps;
+    private final long timeoutMillis;
+    private final long writeTimeoutMillis;
+    private final Object lock = new Object();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * The ring sequence of the next published event, guarded by {@link #lock}.
+     */
+    private long published;
+
+    /**
+     * The global index after which every event is in the ring or still to be read, guarded by {@link #lock}.
+     */
+    private long coveredFrom;
+
+    /**
+     * A token of the event store, telling which kind of token the catch-up streams are opened with.
+     */
+    private volatile TrackingToken sampleToken;
+
+    private Thread reader;
+    private volatile boolean running;
+
+    /**
+     * Constructs a new instance of EventTailHub.
+     *
+     * @param eventStore    The event store to tail.
+     * @param objectMapper  The object mapper used to write the events.
+     * @param bufferSize    The number of events of the ring, which is the largest backlog of a subscriber.
+     * @param senderThreads The number of threads handing the events to the writer threads.
+     * @param writerThreads The number of threads writing the events to the clients of the subscribers.
+     * @param maxCatchUps   The maximum number of subscribers catching up from the event store at the same time.
+     * @param timeout       The time after which a subscription ends.
+     * @param writeTimeout  The time after which a subscriber not accepting the events sent to it is dropped.
+     */
+    public EventTailHub(EventStore eventStore,
+                        @NotNull ObjectMapper objectMapper,
+                        @Value("${event-tail.buffer-size}") int bufferSize,
+                        @Value("${event-tail.sender-threads}") int senderThreads,
+                        @Value("${event-tail.writer-threads}") int writerThreads,
+                        @Value("${event-tail.max-catch-ups}") int maxCatchUps,
+                        @Value("${event-tail.timeout}") Duration timeout,
+                        @Value("${event-tail.write-timeout}") Duration writeTimeout) {
+        if (bufferSize <= 0 || senderThreads <= 0 || writerThreads <= 0 || maxCatchUps <= 0) {
+            throw new IllegalArgumentException("the buffer size, threads and catch-ups must be positive");
+        }
+        if (writeTimeout.isNegative() || writeTimeout.isZero()) {
+            throw new IllegalArgumentException("the write timeout must be positive");
+        }
+        this.eventStore = eventStore;
+        this.writer = objectMapper.writerFor(StoredEventDTO.class);
+        this.ring = new TailEvent[bufferSize];
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemonThreads("event-tail-sender-"));
+        this.writers = Executors.newFixedThreadPool(writerThreads, daemonThreads("event-tail-writer-"));
+        this.writeTimer = new ScheduledThreadPoolExecutor(1, daemonThreads("event-tail-write-timer-"));
+        this.writeTimer.setRemoveOnCancelPolicy(true);
+        this.catchUpExecutor = Executors.newFixedThreadPool(maxCatchUps, daemonThreads("event-tail-catch-up-"));
+        this.catchUps = new Semaphore(maxCatchUps);
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutMillis = writeTimeout.toMillis();
+    }
+
+    /**
+     * Subscribes to the global event stream.
+     *
+     * @param from The global index of the last event the subscriber already has, or {@code null} to receive only the
+     *             events published from now on.
+     * @return The emitter of the events of the subscription.
+     * @throws ResponseStatusException with status 503 if the subscriber must catch up from the event store and too
+     *                                 many subscribers already do.
+     */
+    public SseEmitter subscribe(Long from) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribe(from, emitter);
+        return emitter;
+    }
+
+    /**
+     * Subscribes an emitter to the global event stream.
+     *
+     * @param from    The global index of the last event the subscriber already has, or {@code null} for none.
+     * @param emitter The emitter the events are sent to.
+     */
+    void subscribe(Long from, @NotNull SseEmitter emitter) {
+        start();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        synchronized (lock) {
+            if (from == null || from >= coveredFrom) {
+                subscriber.cursor = from == null ? published : firstAfter(from);
+                subscribers.add(subscriber);
+                subscriber.wake();
+                return;
+            }
+        }
+        if (!catchUps.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "too many subscribers are catching up");
+        }
+        catchUpExecutor.execute(() -> catchUp(subscriber, from));
+    }
+
+    /**
+     * Returns the number of subscribers following the ring.
+     *
+     * @return The number of live subscribers.
+     */
+    public int subscribers() {
+        synchronized (lock) {
+            return subscribers.size();
+        }
+    }
+
+    /**
+     * Returns the number of subscribers dropped for lagging behind the ring or for not accepting the events in time.
+     *
+     * @return The number of dropped subscribers.
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops the reader thread and ends every subscription.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (reader != null) {
+            reader.interrupt();
+        }
+        senders.shutdownNow();
+        writers.shutdownNow();
+        writeTimer.shutdownNow();
+        catchUpExecutor.shutdownNow();
+        List<Subscriber> remaining;
+        synchronized (lock) {
+            remaining = new ArrayList<>(subscribers);
+            subscribers.clear();
+        }
+        remaining.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Starts the reader thread at the head of the event store, on the first subscription.
+     */
+    private void start() {
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            TrackingToken head = eventStore.createHeadToken();
+            coveredFrom = position(head);
+            sampleToken = head;
+            running = true;
+            reader = new Thread(() -> tail(head), "event-tail-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    private void tail(TrackingToken start) {
+        TrackingToken token = start;
+        while (running) {
+            try (BlockingStream<TrackedEventMessage<?>> stream = eventStore.openStream(token)) {
+                while (running) {
+                    if (stream.hasNextAvailable(1, TimeUnit.SECONDS)) {
+                        TrackedEventMessage<?> event = stream.nextAvailable();
+                        publish(toTailEvent(event));
+                        token = event.trackingToken();
+                        sampleToken = token;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("event tail interrupted, reopening the stream", e);
+                pause();
+            }
+        }
+    }
+
+    private void publish(TailEvent event) {
+        List<Subscriber> toWake;
+        synchronized (lock) {
+            int slot = (int) (published % ring.length);
+            if (ring[slot] != null) {
+                coveredFrom = ring[slot].index();
+            }
+            ring[slot] = event;
+            published++;
+            toWake = new ArrayList<>(subscribers);
+        }
+        toWake.forEach(Subscriber::wake);
+    }
+
+    /**
+     * Sends the events from the event store until the subscriber reaches the events of the ring, then moves it to the
+     * ring.
+     */
+    private void catchUp(Subscriber subscriber, long from) {
+        try (BlockingStream<TrackedEventMessage<?>> stream =
+                     eventStore.openStream(tokenAt(from))) {
+            long last = from;
+            while (running && !subscriber.closed) {
+                synchronized (lock) {
+                    if (last >= coveredFrom) {
+                        subscriber.cursor = firstAfter(last);
+                        subscribers.add(subscriber);
+                        break;
+                    }
+                }
+                if (stream.hasNextAvailable(1, TimeUnit.SECONDS)) {
+                    TailEvent event = toTailEvent(stream.nextAvailable());
+                    if (!subscriber.write(List.of(event))) {
+                        return;
+                    }
+                    last = event.index();
+                }
+            }
+            subscriber.wake();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            subscriber.close();
+        } catch (IOException | RuntimeException e) {
+            log.debug("subscriber lost while catching up", e);
+            subscriber.close();
+        } finally {
+            catchUps.release();
+        }
+    }
+
+    /**
+     * Returns the ring sequence of the first event of the ring following a global index, guarded by {@link #lock}.
+     */
+    private long firstAfter(long index) {
+        long sequence = Math.max(0, published - ring.length);
+        while (sequence < published && ring[(int) (sequence % ring.length)].index() <= index) {
+            sequence++;
+        }
+        return sequence;
+    }
+
+    /**
+     * Returns the token of the event store positioned at a global index: the JPA and JDBC engines track the gaps of the
+     * global index, while the other engines only use the index.
+     */
+    private TrackingToken tokenAt(long index) {
+        if (index < 0) {
+            return null;
+        }
+        if (sampleToken instanceof GapAwareTrackingToken) {
+            return GapAwareTrackingToken.newInstance(index, Collections.emptySet());
+        }
+        return new GlobalSequenceTrackingToken(index);
+    }
+
+    private TailEvent toTailEvent(TrackedEventMessage<?> event) {
+        try {
+            return new TailEvent(position(event.trackingToken()), writer.writeValueAsString(EventStreamService.toDto(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("event " + event.getIdentifier() + " cannot be written", e);
+        }
+    }
+
+    private static long position(TrackingToken token) {
+        if (token == null) {
+            return -1;
+        }
+        return token.position().orElseThrow(
+                () -> new IllegalStateException("the tracking tokens of the event store have no position"));
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * An event of the ring: its global index and its JSON representation.
+     */
+    private record TailEvent(long index, String json) {
+    }
+
+    /**
+     * A subscriber following the ring.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        /**
+         * The ring sequence of the next event to send, guarded by {@link #lock}.
+         */
+        private long cursor;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Schedules the sending of the pending events, unless it is already scheduled.
+         */
+        private void wake() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        /**
+         * Hands the next batch of pending events to a writer thread, which drains the subscriber again once the batch
+         * is written; the subscriber stays scheduled until no event is pending.
+         */
+        private void drain() {
+            if (closed) {
+                return;
+            }
+            List<TailEvent> batch = nextBatch();
+            if (batch == null) {
+                drop();
+                return;
+            }
+            if (batch.isEmpty()) {
+                scheduled.set(false);
+                if (hasPending()) {
+                    wake();
+                }
+                return;
+            }
+            try {
+                writers.execute(() -> {
+                    try {
+                        if (write(batch)) {
+                            drain();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("subscriber lost", e);
+                        close();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        /**
+         * Returns the next events to send, or {@code null} if the ring overwrote some of them.
+         */
+        private List<TailEvent> nextBatch() {
+            synchronized (lock) {
+                if (cursor < published - ring.length) {
+                    return null;
+                }
+                int size = (int) Math.min(published - cursor, SEND_BATCH_SIZE);
+                List<TailEvent> batch = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    batch.add(ring[(int) ((cursor + i) % ring.length)]);
+                }
+                cursor += size;
+                return batch;
+            }
+        }
+
+        private boolean hasPending() {
+            synchronized (lock) {
+                return cursor < published;
+            }
+        }
+
+        /**
+         * Writes events on the current thread, dropping the subscriber if its client does not accept them in time.
+         *
+         * @return Whether the events were written; if not, the subscriber is dropped.
+         */
+        private boolean write(List<TailEvent> events) throws IOException {
+            WriteTimeout timeout = new WriteTimeout(this, Thread.currentThread());
+            ScheduledFuture<?> expiry = writeTimer.schedule(timeout, writeTimeoutMillis, TimeUnit.MILLISECONDS);
+            boolean expired;
+            try {
+                for (TailEvent event : events) {
+                    if (closed) {
+                        break;
+                    }
+                    emitter.send(SseEmitter.event().id(Long.toString(event.index())).name("event").data(event.json()));
+                }
+            } finally {
+                expiry.cancel(false);
+                expired = timeout.finish();
+            }
+            if (expired) {
+                emitter.complete();
+                return false;
+            }
+            return !closed;
+        }
+
+        /**
+         * Drops the subscriber whose client did not accept a batch in time; the emitter is locked by the blocked write,
+         * so it is completed by the writer once the write returns.
+         */
+        private void expire() {
+            dropped.incrementAndGet();
+            log.info("event tail subscriber dropped for not accepting events within {} ms", writeTimeoutMillis);
+            close();
+        }
+
+        private void drop() {
+            dropped.incrementAndGet();
+            log.info("event tail subscriber dropped for lagging more than {} events behind", ring.length);
+            close();
+            emitter.complete();
+        }
+
+        private void close() {
+            closed = true;
+            synchronized (lock) {
+                subscribers.remove(this);
+            }
+        }
+    }
+
+    /**
+     * The timeout of a write, interrupting the writing thread unless the write finished first.
+     */
+    private static final class WriteTimeout implements Runnable {
+
+        private final Subscriber subscriber;
+        private final Thread thread;
+        private boolean finished;
+        private boolean expired;
+
+        private WriteTimeout(Subscriber subscriber, Thread thread) {
+            this.subscriber = subscriber;
+            this.thread = thread;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!finished) {
+                expired = true;
+                subscriber.expire();
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Marks the write as finished, clearing the interrupt of an expired write so the thread can be reused.
+         *
+         * @return Whether the write expired.
+         */
+        private synchronized boolean finish() {
+            finished = true;
+            if (expired) {
+                Thread.interrupted();
+            }
+            return expired;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.brodygaudel.bank.common.command.account;
 
 import com.brodygaudel.bank.common.command.BaseCommand;
 import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
@@ -36,6 +37,7 @@ public class ActiveAccountCommand extends BaseCommand<String> {
      * @param status      The status to set the account to after activation.
      * @param lastUpdate  The timestamp of the last update associated with the activation.
      */
+    @JsonCreator
     public ActiveAccountCommand(String id, AccountStatus status, LocalDateTime lastUpdate) {
         super(id);
         this.status = status;
@@ -2,6 +2,7 @@ package com.brodygaudel.bank.common.command.account;
 
 import com.brodygaudel.bank.common.command.BaseCommand;
 import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.Getter;
 
 import java.math.BigDecimal;
@@ -49,6 +50,7 @@ public class CreateAccountCommand extends BaseCommand<String> {
      * @param creation    The timestamp indicating when the account is created.
      * @param customerId  The unique identifier of the customer associated with the new account.
      */
+    @JsonCreator
     public CreateAccountCommand(String id, BigDecimal balance, AccountStatus status, LocalDateTime creation, String customerId) {
         super(id);
         this.balance = balance;
@@ -1,6 +1,7 @@
 package com.brodygaudel.bank.common.command.account;
 
 import com.brodygaudel.bank.common.command.BaseCommand;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.Getter;
 
 import java.math.BigDecimal;
@@ -42,6 +43,7 @@ public class CreditAccountCommand extends BaseCommand<String> {
      * @param description  A description of the credit transaction.
      * @param lastUpdate   The timestamp indicating when the credit operation occurred.
      */
+    @JsonCreator
     public CreditAccountCommand(String id, BigDecimal amount, String description, LocalDateTime lastUpdate) {
         super(id);
         this.amount = amount;
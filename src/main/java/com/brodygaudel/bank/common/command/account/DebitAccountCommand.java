@@ -1,6 +1,7 @@
 package com.brodygaudel.bank.common.command.account;
 
 import com.brodygaudel.bank.common.command.BaseCommand;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.Getter;
 
 import java.math.BigDecimal;
@@ -42,6 +43,7 @@ public class DebitAccountCommand extends BaseCommand<String> {
      * @param description  A description of the debit transaction.
      * @param lastUpdate   The timestamp indicating when the debit operation occurred.
      */
+    @JsonCreator
     public DebitAccountCommand(String id, BigDecimal amount, String description, LocalDateTime lastUpdate) {
         super(id);
         this.amount = amount;
@@ -2,6 +2,7 @@ package com.brodygaudel.bank.common.command.account;
 
 import com.brodygaudel.bank.common.command.BaseCommand;
 import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
@@ -36,6 +37,7 @@ public class SuspendAccountCommand extends BaseCommand<String> {
      * @param status     The new status of the account after suspension (AccountStatus.SUSPENDED).
      * @param lastUpdate The timestamp indicating when the account suspension operation occurred.
      */
+    @JsonCreator
     public SuspendAccountCommand(String id, AccountStatus status, LocalDateTime lastUpdate) {
         super(id);
         this.status = status;
@@ -2,6 +2,7 @@ package com.brodygaudel.bank.common.command.customer;
 
 import com.brodygaudel.bank.common.command.BaseCommand;
 import com.brodygaudel.bank.common.enums.Sex;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.Getter;
 
 import java.time.LocalDate;
@@ -75,6 +76,7 @@ public class CreateCustomerCommand extends BaseCommand<String> {
      * @param sex      The sex of the customer.
      * @param creation The timestamp indicating when the customer was created.
      */
+    @JsonCreator
     public CreateCustomerCommand(String id, String nic, String firstname, String name, String placeOfBirth,
                                  LocalDate dateOfBirth, String nationality, Sex sex, LocalDateTime creation) {
         super(id);
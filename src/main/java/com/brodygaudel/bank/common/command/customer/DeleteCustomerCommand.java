@@ -1,6 +1,7 @@
 package com.brodygaudel.bank.common.command.customer;
 
 import com.brodygaudel.bank.common.command.BaseCommand;
+import com.fasterxml.jackson.annotation.JsonCreator;
 
 /**
  * Command to delete a customer.
@@ -19,6 +20,7 @@ public class DeleteCustomerCommand extends BaseCommand<String> {
      *
      * @param id The unique identifier for the customer to be deleted.
      */
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
     public DeleteCustomerCommand(String id) {
         super(id);
     }
@@ -2,6 +2,7 @@ package com.brodygaudel.bank.common.command.customer;
 
 import com.brodygaudel.bank.common.command.BaseCommand;
 import com.brodygaudel.bank.common.enums.Sex;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.Getter;
 
 import java.time.LocalDate;
@@ -74,6 +75,7 @@ public class UpdateCustomerCommand extends BaseCommand<String> {
      * @param sex        The sex of the customer.
      * @param lastUpdate The timestamp indicating when the customer was last updated.
      */
+    @JsonCreator
     public UpdateCustomerCommand(String id, String nic, String firstname, String name, String placeOfBirth,
                                  LocalDate dateOfBirth, String nationality, Sex sex, LocalDateTime lastUpdate) {
         super(id);
@@ -0,0 +1,33 @@
+package com.brodygaudel.bank.common.command.transfer;
+
+import com.brodygaudel.bank.common.command.BaseCommand;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Command to mark a transfer as completed, once both the debit and the credit have succeeded.
+ *
+ * @see BaseCommand
+ */
+@Getter
+public class CompleteTransferCommand extends BaseCommand<String> {
+
+    /**
+     * The timestamp indicating when the transfer was completed.
+     */
+    private final LocalDateTime lastUpdate;
+
+    /**
+     * Constructs a new instance of CompleteTransferCommand with the specified parameters.
+     *
+     * @param id         The unique identifier of the transfer.
+     * @param lastUpdate The timestamp indicating when the transfer was completed.
+     */
+    @JsonCreator
+    public CompleteTransferCommand(String id, LocalDateTime lastUpdate) {
+        super(id);
+        this.lastUpdate = lastUpdate;
+    }
+}
@@ -0,0 +1,41 @@
+package com.brodygaudel.bank.common.command.transfer;
+
+import com.brodygaudel.bank.common.command.BaseCommand;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Command to mark a transfer as failed, once the debit has failed or the credit has failed and the debit has been
+ * compensated.
+ *
+ * @see BaseCommand
+ */
+@Getter
+public class FailTransferCommand extends BaseCommand<String> {
+
+    /**
+     * The reason of the failure.
+     */
+    private final String reason;
+
+    /**
+     * The timestamp indicating when the transfer failed.
+     */
+    private final LocalDateTime lastUpdate;
+
+    /**
+     * Constructs a new instance of FailTransferCommand with the specified parameters.
+     *
+     * @param id         The unique identifier of the transfer.
+     * @param reason     The reason of the failure.
+     * @param lastUpdate The timestamp indicating when the transfer failed.
+     */
+    @JsonCreator
+    public FailTransferCommand(String id, String reason, LocalDateTime lastUpdate) {
+        super(id);
+        this.reason = reason;
+        this.lastUpdate = lastUpdate;
+    }
+}
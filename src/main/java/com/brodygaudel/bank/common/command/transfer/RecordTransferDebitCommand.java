@@ -0,0 +1,33 @@
+package com.brodygaudel.bank.common.command.transfer;
+
+import com.brodygaudel.bank.common.command.BaseCommand;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Command to record that the source account of a transfer has been debited.
+ *
+ * @see BaseCommand
+ */
+@Getter
+public class RecordTransferDebitCommand extends BaseCommand<String> {
+
+    /**
+     * The timestamp indicating when the source account was debited.
+     */
+    private final LocalDateTime lastUpdate;
+
+    /**
+     * Constructs a new instance of RecordTransferDebitCommand with the specified parameters.
+     *
+     * @param id         The unique identifier of the transfer.
+     * @param lastUpdate The timestamp indicating when the source account was debited.
+     */
+    @JsonCreator
+    public RecordTransferDebitCommand(String id, LocalDateTime lastUpdate) {
+        super(id);
+        this.lastUpdate = lastUpdate;
+    }
+}
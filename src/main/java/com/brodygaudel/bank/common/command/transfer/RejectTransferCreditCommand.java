@@ -0,0 +1,41 @@
+package com.brodygaudel.bank.common.command.transfer;
+
+import com.brodygaudel.bank.common.command.BaseCommand;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Command to record that the credit of the destination account of a transfer has been rejected, so the debit of the
+ * source account must be compensated.
+ *
+ * @see BaseCommand
+ */
+@Getter
+public class RejectTransferCreditCommand extends BaseCommand<String> {
+
+    /**
+     * The reason of the rejection.
+     */
+    private final String reason;
+
+    /**
+     * The timestamp indicating when the credit was rejected.
+     */
+    private final LocalDateTime lastUpdate;
+
+    /**
+     * Constructs a new instance of RejectTransferCreditCommand with the specified parameters.
+     *
+     * @param id         The unique identifier of the transfer.
+     * @param reason     The reason of the rejection.
+     * @param lastUpdate The timestamp indicating when the credit was rejected.
+     */
+    @JsonCreator
+    public RejectTransferCreditCommand(String id, String reason, LocalDateTime lastUpdate) {
+        super(id);
+        this.reason = reason;
+        this.lastUpdate = lastUpdate;
+    }
+}
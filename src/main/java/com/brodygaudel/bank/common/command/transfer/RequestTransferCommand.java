@@ -0,0 +1,69 @@
+package com.brodygaudel.bank.common.command.transfer;
+
+import com.brodygaudel.bank.common.command.BaseCommand;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Command to request a transfer of funds between two accounts.
+ *
+ * <p>
+ * This command creates a new transfer. It includes the unique identifier of the transfer, inherited from the
+ * BaseCommand class, the accounts to debit and to credit, the amount, a description and the creation timestamp.
+ * The debit and the credit are then carried out by the transfer saga.
+ * </p>
+ *
+ * @see BaseCommand
+ */
+@Getter
+public class RequestTransferCommand extends BaseCommand<String> {
+
+    /**
+     * The unique identifier of the account to debit.
+     */
+    private final String idFrom;
+
+    /**
+     * The unique identifier of the account to credit.
+     */
+    private final String idTo;
+
+    /**
+     * The amount to transfer.
+     */
+    private final BigDecimal amount;
+
+    /**
+     * A description of the transfer.
+     */
+    private final String description;
+
+    /**
+     * The timestamp indicating when the transfer was requested.
+     */
+    private final LocalDateTime creation;
+
+    /**
+     * Constructs a new instance of RequestTransferCommand with the specified parameters.
+     *
+     * @param id          The unique identifier of the transfer.
+     * @param idFrom      The unique identifier of the account to debit.
+     * @param idTo        The unique identifier of the account to credit.
+     * @param amount      The amount to transfer.
+     * @param description A description of the transfer.
+     * @param creation    The timestamp indicating when the transfer was requested.
+     */
+    @JsonCreator
+    public RequestTransferCommand(String id, String idFrom, String idTo, BigDecimal amount, String description,
+                                  LocalDateTime creation) {
+        super(id);
+        this.idFrom = idFrom;
+        this.idTo = idTo;
+        this.amount = amount;
+        this.description = description;
+        this.creation = creation;
+    }
+}
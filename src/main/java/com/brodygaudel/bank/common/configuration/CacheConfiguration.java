@@ -0,0 +1,64 @@
+package com.brodygaudel.bank.common.configuration;
+
+import com.brodygaudel.bank.command.cache.WeightedAggregateCache;
+import com.brodygaudel.bank.common.enums.EvictionPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the aggregate caches.
+ *
+ * <p>
+ * This class defines one bounded, weighted cache per aggregate type. The caches are used by the caching repositories
+ * of the {@code AccountAggregate} and the {@code CustomerAggregate}, so a command on a cached aggregate does not read
+ * its events from the event store. Every cached aggregate weighs the configured estimate, in bytes, of the size of an
+ * aggregate of its type, and the least recently used (or oldest, with the {@code FIFO} policy) aggregates are evicted
+ * once the maximum weight is reached.
+ * </p>
+ *
+ * <p>
+ * The aggregates of a type hold the same fields, so their sizes barely differ: a fixed weight per type bounds the
+ * memory of a cache as well as measuring every aggregate would, without serializing it each time a command commits.
+ * </p>
+ *
+ * <p>
+ * The caches are local to the node: this relies on commands for a given aggregate always being routed to the same
+ * node, which is what Axon Server does.
+ * </p>
+ *
+ * @see Configuration
+ */
+@Configuration
+public class CacheConfiguration {
+
+    /**
+     * Creates the cache used by the repository of the {@code AccountAggregate}.
+     *
+     * @param maxWeight      The maximum total size, in bytes, of the cached accounts.
+     * @param entryWeight    The estimated size, in bytes, of one cached account.
+     * @param evictionPolicy The eviction policy of the cache.
+     * @return The account aggregate cache.
+     */
+    @Bean
+    public WeightedAggregateCache accountCache(@Value("${cache.account.max-weight}") long maxWeight,
+                                               @Value("${cache.account.entry-weight}") long entryWeight,
+                                               @Value("${cache.account.eviction}") EvictionPolicy evictionPolicy) {
+        return new WeightedAggregateCache("accountCache", maxWeight, value -> entryWeight, evictionPolicy);
+    }
+
+    /**
+     * Creates the cache used by the repository of the {@code CustomerAggregate}.
+     *
+     * @param maxWeight      The maximum total size, in bytes, of the cached customers.
+     * @param entryWeight    The estimated size, in bytes, of one cached customer.
+     * @param evictionPolicy The eviction policy of the cache.
+     * @return The customer aggregate cache.
+     */
+    @Bean
+    public WeightedAggregateCache customerCache(@Value("${cache.customer.max-weight}") long maxWeight,
+                                                @Value("${cache.customer.entry-weight}") long entryWeight,
+                                                @Value("${cache.customer.eviction}") EvictionPolicy evictionPolicy) {
+        return new WeightedAggregateCache("customerCache", maxWeight, value -> entryWeight, evictionPolicy);
+    }
+}
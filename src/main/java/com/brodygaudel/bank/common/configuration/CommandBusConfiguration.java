@@ -0,0 +1,61 @@
+package com.brodygaudel.bank.common.configuration;
+
+import com.brodygaudel.bank.command.bus.ShardedAsynchronousCommandBus;
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.CommandBusSpanFactory;
+import org.axonframework.commandhandling.DuplicateCommandHandlerResolver;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.messaging.interceptors.CorrelationDataInterceptor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the local command bus.
+ *
+ * <p>
+ * With {@code command-bus.mode=sharded}, the commands received by this node are handled by a
+ * {@link ShardedAsynchronousCommandBus} instead of the default command bus, which handles every command on the
+ * thread dispatching it. The sharded bus keeps the commands of an aggregate in order while handling the commands of
+ * distinct aggregates in parallel. With any other mode, the command bus configured by Axon is used.
+ * </p>
+ *
+ * <p>
+ * The handlers of a shard wait on the event store for every command, so more shards than processors pay off when
+ * the event store is remote.
+ * </p>
+ *
+ * @see Configuration
+ */
+@Configuration
+public class CommandBusConfiguration {
+
+    /**
+     * Creates the sharded command bus used as local segment of the command bus.
+     *
+     * @param transactionManager              The transaction manager in which the commands are handled.
+     * @param axonConfiguration               The Axon configuration, providing the monitors and correlation data providers.
+     * @param duplicateCommandHandlerResolver The resolver of duplicate command handlers.
+     * @param shards                          The number of shards, or {@code 0} for one per available processor.
+     * @return The sharded command bus.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @Qualifier("localSegment")
+    @ConditionalOnProperty(name = "command-bus.mode", havingValue = "sharded")
+    public ShardedAsynchronousCommandBus shardedCommandBus(TransactionManager transactionManager,
+                                                          org.axonframework.config.Configuration axonConfiguration,
+                                                          DuplicateCommandHandlerResolver duplicateCommandHandlerResolver,
+                                                          @Value("${command-bus.shards}") int shards) {
+        ShardedAsynchronousCommandBus commandBus = ShardedAsynchronousCommandBus.builder()
+                .transactionManager(transactionManager)
+                .duplicateCommandHandlerResolver(duplicateCommandHandlerResolver)
+                .spanFactory(axonConfiguration.getComponent(CommandBusSpanFactory.class))
+                .messageMonitor(axonConfiguration.messageMonitor(CommandBus.class, "commandBus"))
+                .shards(shards > 0 ? shards : Runtime.getRuntime().availableProcessors())
+                .build();
+        commandBus.registerHandlerInterceptor(new CorrelationDataInterceptor<>(axonConfiguration.correlationDataProviders()));
+        return commandBus;
+    }
+}
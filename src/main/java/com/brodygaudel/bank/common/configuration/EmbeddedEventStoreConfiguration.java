@@ -0,0 +1,168 @@
+package com.brodygaudel.bank.common.configuration;
+
+import com.brodygaudel.bank.command.eventstore.MappedFileEventStorageEngine;
+import com.brodygaudel.bank.command.repository.TransferStepRepository;
+import com.brodygaudel.bank.common.enums.FsyncPolicy;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.jdbc.PersistenceExceptionResolver;
+import org.axonframework.common.jpa.EntityManagerProvider;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventhandling.tokenstore.jpa.JpaTokenStore;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jpa.JpaEventStorageEngine;
+import org.axonframework.modelling.saga.repository.SagaStore;
+import org.axonframework.modelling.saga.repository.jpa.JpaSagaStore;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.springboot.util.RegisterDefaultEntities;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration class for the embedded event store, used with the {@code embedded} profile.
+ *
+ * <p>
+ * With this profile the application runs without Axon Server: the events and snapshots are stored by a
+ * {@link JpaEventStorageEngine} in the application datasource, an H2 file database by default, next to the tracking
+ * tokens and sagas that Axon already stores through JPA. The whole command to projection pipeline then runs on a
+ * single machine, for local work and benchmarks.
+ * </p>
+ *
+ * <p>
+ * With {@code embedded.event-store.engine=mapped}, the events and snapshots are stored by a
+ * {@link MappedFileEventStorageEngine} in memory-mapped files instead, for single-node deployments where the database
+ * is the bottleneck of the event store. Its appends cannot be rolled back with the JPA transaction of a unit of work,
+ * so it refuses to start next to the JPA-backed transfer steps, tracking tokens or sagas, which this application
+ * stores in the same unit of work as the events; it is left for deployments storing nothing else transactionally.
+ * </p>
+ *
+ * <p>
+ * The engine reads the events by batches of {@code embedded.event-store.batch-size}, so a tracking processor catching
+ * up or a replay issues one query per batch rather than per hundred events. The events appended by a unit of work are
+ * inserted as one JDBC batch, as configured by the {@code hibernate.jdbc.batch_size} property of the profile.
+ * </p>
+ *
+ * @see Configuration
+ */
+@Configuration
+@Profile("embedded")
+@RegisterDefaultEntities(packages = "org.axonframework.eventsourcing.eventstore.jpa")
+public class EmbeddedEventStoreConfiguration {
+
+    /**
+     * Creates the storage engine of the embedded event store.
+     *
+     * @param eventSerializer              The serializer of the events.
+     * @param snapshotSerializer           The serializer of the snapshots.
+     * @param persistenceExceptionResolver The resolver detecting the concurrent appends to an aggregate.
+     * @param configuration                The Axon configuration, providing the upcaster chain and snapshot filter.
+     * @param entityManagerProvider        The provider of the entity manager.
+     * @param transactionManager           The transaction manager.
+     * @param batchSize                    The number of events read per query.
+     * @param gapTimeout                   The time in milliseconds after which a gap in the global index is
+     *                                     considered as never to be filled.
+     * @param maxGapOffset                 The largest distance from the last read event at which gaps are tracked.
+     * @return The event storage engine.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "embedded.event-store.engine", havingValue = "jpa", matchIfMissing = true)
+    public EventStorageEngine eventStorageEngine(@Qualifier("eventSerializer") Serializer eventSerializer,
+                                                 Serializer snapshotSerializer,
+                                                 PersistenceExceptionResolver persistenceExceptionResolver,
+                                                 org.axonframework.config.Configuration configuration,
+                                                 EntityManagerProvider entityManagerProvider,
+                                                 TransactionManager transactionManager,
+                                                 @Value("${embedded.event-store.batch-size}") int batchSize,
+                                                 @Value("${embedded.event-store.gap-timeout}") int gapTimeout,
+                                                 @Value("${embedded.event-store.max-gap-offset}") int maxGapOffset) {
+        return JpaEventStorageEngine.builder()
+                .eventSerializer(eventSerializer)
+                .snapshotSerializer(snapshotSerializer)
+                .upcasterChain(configuration.upcasterChain())
+                .snapshotFilter(configuration.snapshotFilter())
+                .persistenceExceptionResolver(persistenceExceptionResolver)
+                .entityManagerProvider(entityManagerProvider)
+                .transactionManager(transactionManager)
+                .batchSize(batchSize)
+                .gapTimeout(gapTimeout)
+                .maxGapOffset(maxGapOffset)
+                .build();
+    }
+
+    /**
+     * Creates the storage engine of the embedded event store writing to memory-mapped files.
+     *
+     * @param eventSerializer    The serializer of the events.
+     * @param snapshotSerializer The serializer of the snapshots.
+     * @param configuration      The Axon configuration, providing the upcaster chain and snapshot filter.
+     * @param directory          The directory of the segment files.
+     * @param segmentSize        The size of a segment file.
+     * @param fsyncPolicy        When the appended events are forced to disk.
+     * @param fsyncInterval      The interval between two forces with {@link FsyncPolicy#INTERVAL}.
+     * @return The event storage engine.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "embedded.event-store.engine", havingValue = "mapped")
+    public EventStorageEngine mappedFileEventStorageEngine(@Qualifier("eventSerializer") Serializer eventSerializer,
+                                                           Serializer snapshotSerializer,
+                                                           org.axonframework.config.Configuration configuration,
+                                                           @Value("${embedded.event-store.directory}") Path directory,
+                                                           @Value("${embedded.event-store.segment-size}") DataSize segmentSize,
+                                                           @Value("${embedded.event-store.fsync}") FsyncPolicy fsyncPolicy,
+                                                           @Value("${embedded.event-store.fsync-interval}") Duration fsyncInterval) {
+        return MappedFileEventStorageEngine.builder()
+                .eventSerializer(eventSerializer)
+                .snapshotSerializer(snapshotSerializer)
+                .upcasterChain(configuration.upcasterChain())
+                .snapshotFilter(configuration.snapshotFilter())
+                .directory(directory)
+                .segmentSize(Math.toIntExact(segmentSize.toBytes()))
+                .fsync(fsyncPolicy, fsyncInterval)
+                .build();
+    }
+
+    /**
+     * Refuses to start the memory-mapped engine next to stores written in the JPA transaction of the units of work:
+     * a unit of work failing once its events are appended would roll those stores back but keep its events.
+     *
+     * @param tokenStores   The token stores of the tracking processors.
+     * @param sagaStores    The saga stores.
+     * @param transferSteps The repository of the transfer steps recorded by the transfer commands.
+     * @return The check, run once every singleton is created.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "embedded.event-store.engine", havingValue = "mapped")
+    public SmartInitializingSingleton mappedEngineCheck(ObjectProvider<TokenStore> tokenStores,
+                                                        ObjectProvider<SagaStore<?>> sagaStores,
+                                                        ObjectProvider<TransferStepRepository> transferSteps) {
+        return () -> {
+            List<String> stores = new ArrayList<>();
+            if (transferSteps.getIfAvailable() != null) {
+                stores.add("transfer steps");
+            }
+            if (tokenStores.stream().anyMatch(JpaTokenStore.class::isInstance)) {
+                stores.add("tracking tokens");
+            }
+            if (sagaStores.stream().anyMatch(JpaSagaStore.class::isInstance)) {
+                stores.add("sagas");
+            }
+            if (!stores.isEmpty()) {
+                throw new AxonConfigurationException("embedded.event-store.engine=mapped cannot roll back its events "
+                        + "with the JPA transaction storing the " + String.join(", ", stores)
+                        + "; use embedded.event-store.engine=jpa");
+            }
+        };
+    }
+}
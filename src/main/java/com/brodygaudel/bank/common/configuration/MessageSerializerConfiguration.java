@@ -0,0 +1,93 @@
+package com.brodygaudel.bank.common.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import org.axonframework.serialization.RevisionResolver;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Configuration class for the serializer of the command and query messages.
+ *
+ * <p>
+ * With {@code axon.serializer.messages=jackson}, the commands, queries and query responses are serialized by a
+ * {@link JacksonSerializer} built from the application {@link ObjectMapper}, instead of XStream. The serializer:
+ * </p>
+ * <ul>
+ *     <li>accepts the queries without properties, such as {@code GetAllAccountsQuery};</li>
+ *     <li>records the type of the elements of the collections, so a list of query responses is read back as a list of
+ *     response DTOs rather than a list of maps; only the application classes and the JDK collection and value classes
+ *     are accepted as recorded types;</li>
+ *     <li>resolves the serializers and deserializers of every command and query class when it is created, so the first
+ *     messages do not pay for introspecting their class.</li>
+ * </ul>
+ *
+ * @see Configuration
+ */
+@Configuration
+@ConditionalOnProperty(name = "axon.serializer.messages", havingValue = "jackson")
+public class MessageSerializerConfiguration {
+
+    /**
+     * The packages holding the command and query classes.
+     */
+    private static final String[] MESSAGE_PACKAGES = {
+            "com.brodygaudel.bank.common.command",
+            "com.brodygaudel.bank.common.query"
+    };
+
+    /**
+     * Creates the serializer of the command and query messages.
+     *
+     * @param objectMapper     The object mapper of the application, which is copied rather than modified.
+     * @param revisionResolver The resolver of the revision of the serialized classes.
+     * @return The message serializer.
+     */
+    @Bean
+    @Qualifier("messageSerializer")
+    public Serializer messageSerializer(ObjectMapper objectMapper, RevisionResolver revisionResolver) {
+        ObjectMapper messageMapper = objectMapper.copy().disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        messageMapper.setPolymorphicTypeValidator(BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.brodygaudel.bank.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType("java.math.")
+                .allowIfSubType("java.lang.")
+                .build());
+        JacksonSerializer serializer = JacksonSerializer.builder()
+                .objectMapper(messageMapper)
+                .revisionResolver(revisionResolver)
+                .defaultTyping()
+                .build();
+        messageTypes().forEach(type -> {
+            messageMapper.writerFor(type);
+            messageMapper.readerFor(type);
+        });
+        return serializer;
+    }
+
+    /**
+     * Returns the command and query classes of the application.
+     *
+     * @return The concrete classes of the command and query packages.
+     */
+    static List<Class<?>> messageTypes() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        ClassLoader classLoader = MessageSerializerConfiguration.class.getClassLoader();
+        return Stream.of(MESSAGE_PACKAGES)
+                .flatMap(basePackage -> scanner.findCandidateComponents(basePackage).stream())
+                .<Class<?>>map(candidate -> ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader))
+                .toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.brodygaudel.bank.common.configuration;
+
+import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.NoSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for aggregate snapshotting.
+ *
+ * <p>
+ * This class defines one snapshot trigger per aggregate type. A snapshot is taken once the number of events applied
+ * since the last snapshot (or since the creation of the aggregate) reaches the configured threshold, so loading an
+ * aggregate only replays the events that follow its latest snapshot. A threshold of {@code 0} or less disables
+ * snapshotting for that aggregate type.
+ * </p>
+ *
+ * @see Configuration
+ */
+@Configuration
+public class SnapshotConfiguration {
+
+    /**
+     * The number of events after which an {@code AccountAggregate} is snapshotted.
+     */
+    @Value("${snapshot.account.threshold}")
+    private int accountThreshold;
+
+    /**
+     * The number of events after which a {@code CustomerAggregate} is snapshotted.
+     */
+    @Value("${snapshot.customer.threshold}")
+    private int customerThreshold;
+
+    /**
+     * Creates the snapshot trigger used by the {@code AccountAggregate}.
+     *
+     * @param snapshotter The snapshotter creating and storing the snapshots.
+     * @return The snapshot trigger definition of the account aggregate.
+     */
+    @Bean
+    public SnapshotTriggerDefinition accountSnapshotTriggerDefinition(Snapshotter snapshotter) {
+        return snapshotTriggerDefinition(snapshotter, accountThreshold);
+    }
+
+    /**
+     * Creates the snapshot trigger used by the {@code CustomerAggregate}.
+     *
+     * @param snapshotter The snapshotter creating and storing the snapshots.
+     * @return The snapshot trigger definition of the customer aggregate.
+     */
+    @Bean
+    public SnapshotTriggerDefinition customerSnapshotTriggerDefinition(Snapshotter snapshotter) {
+        return snapshotTriggerDefinition(snapshotter, customerThreshold);
+    }
+
+    /**
+     * Builds an event count based snapshot trigger, or a trigger that never fires when the threshold is not positive.
+     *
+     * @param snapshotter The snapshotter creating and storing the snapshots.
+     * @param threshold   The number of events after which a snapshot is taken.
+     * @return The snapshot trigger definition.
+     */
+    private static SnapshotTriggerDefinition snapshotTriggerDefinition(Snapshotter snapshotter, int threshold) {
+        if (threshold <= 0) {
+            return NoSnapshotTriggerDefinition.INSTANCE;
+        }
+        return new EventCountSnapshotTriggerDefinition(snapshotter, threshold);
+    }
+}
@@ -0,0 +1,64 @@
+package com.brodygaudel.bank.common.configuration;
+
+import com.brodygaudel.bank.command.bus.TransferStepInterceptor;
+import com.brodygaudel.bank.command.saga.TransferSaga;
+import com.brodygaudel.bank.command.saga.TransferSagaRecovery;
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.ConfigurationScopeAwareProvider;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.deadline.SimpleDeadlineManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the transfer saga.
+ *
+ * <p>
+ * The saga sends every step of a transfer from the handler of the event recording the previous step, without waiting
+ * for it, and a step interrupted by an error is sent again by a deadline of its own transfer (see
+ * {@link TransferSaga}), so the event processor of the saga never waits for nor retries a single transfer. The
+ * processor is a pooled streaming processor whose segments and threads are set in {@code application.properties}. The
+ * steps are recorded by the {@link TransferStepInterceptor}, so a step sent again is not applied twice.
+ * </p>
+ *
+ * @see Configuration
+ */
+@Configuration
+public class TransferSagaConfiguration {
+
+    /**
+     * The name of the processing group of the transfer saga.
+     */
+    public static final String PROCESSING_GROUP = "TransferSagaProcessor";
+
+    /**
+     * Registers the interceptor applying every transfer step at most once on the command bus.
+     *
+     * @param commandBus              The command bus handling the commands of this node.
+     * @param transferStepInterceptor The interceptor recording the transfer steps.
+     */
+    @Autowired
+    public void registerTransferStepInterceptor(CommandBus commandBus,
+                                                TransferStepInterceptor transferStepInterceptor) {
+        commandBus.registerHandlerInterceptor(transferStepInterceptor);
+    }
+
+    /**
+     * Creates the deadline manager scheduling the retries of the transfer steps. The deadlines are kept in memory; the
+     * retries lost by a restart are scheduled again by the {@link TransferSagaRecovery}.
+     *
+     * @param configuration      The Axon configuration, resolving the sagas the deadlines belong to.
+     * @param transactionManager The transaction manager running the deadline handlers.
+     * @return The deadline manager.
+     */
+    @Bean
+    public DeadlineManager deadlineManager(org.axonframework.config.Configuration configuration,
+                                           TransactionManager transactionManager) {
+        return SimpleDeadlineManager.builder()
+                .scopeAwareProvider(new ConfigurationScopeAwareProvider(configuration))
+                .transactionManager(transactionManager)
+                .build();
+    }
+}
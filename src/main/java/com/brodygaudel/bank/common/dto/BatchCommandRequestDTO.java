@@ -0,0 +1,8 @@
+package com.brodygaudel.bank.common.dto;
+
+import com.brodygaudel.bank.common.enums.OperationType;
+
+import java.math.BigDecimal;
+
+public record BatchCommandRequestDTO(OperationType type, String id, String description, BigDecimal amount) {
+}
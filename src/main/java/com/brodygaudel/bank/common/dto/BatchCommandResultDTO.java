@@ -0,0 +1,4 @@
+package com.brodygaudel.bank.common.dto;
+
+public record BatchCommandResultDTO(int index, String id, boolean success, String error) {
+}
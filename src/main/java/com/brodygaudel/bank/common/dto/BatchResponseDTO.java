@@ -0,0 +1,7 @@
+package com.brodygaudel.bank.common.dto;
+
+import java.util.List;
+
+public record BatchResponseDTO(int total, int succeeded, int failed, long elapsedMillis, double commandsPerSecond,
+                               List<BatchCommandResultDTO> results) {
+}
@@ -0,0 +1,5 @@
+package com.brodygaudel.bank.common.dto;
+
+public record CacheStatisticsDTO(String name, int size, long weight, long maxWeight,
+                                 long hits, long misses, long evictions, double hitRatio) {
+}
@@ -0,0 +1,5 @@
+package com.brodygaudel.bank.common.dto;
+
+public record CustomerImportStatusDTO(String id, String format, boolean finished, long read, long succeeded,
+                                      long failed, long elapsedMillis, double rowsPerSecond, String resultFile) {
+}
@@ -0,0 +1,5 @@
+package com.brodygaudel.bank.common.dto;
+
+public record EventArchiveReportDTO(int aggregates, long events, long reclaimedBytes, long archivedBytes,
+                                    long elapsedMillis) {
+}
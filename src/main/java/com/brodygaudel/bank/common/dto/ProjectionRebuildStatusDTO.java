@@ -0,0 +1,8 @@
+package com.brodygaudel.bank.common.dto;
+
+import com.brodygaudel.bank.common.enums.ProjectionRebuildPhase;
+
+public record ProjectionRebuildStatusDTO(ProjectionRebuildPhase phase, long events, long customers, long accounts,
+                                         long operations, long position, long headPosition, double progress,
+                                         double eventsPerSecond, Long etaSeconds, long elapsedMillis, String error) {
+}
@@ -0,0 +1,8 @@
+package com.brodygaudel.bank.common.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record StoredEventDTO(String eventId, String aggregateType, String aggregateId, long sequenceNumber,
+                             String payloadType, Instant timestamp, Object payload, Map<String, Object> metaData) {
+}
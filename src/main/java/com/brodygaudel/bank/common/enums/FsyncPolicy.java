@@ -0,0 +1,5 @@
+package com.brodygaudel.bank.common.enums;
+
+public enum FsyncPolicy {
+    ALWAYS, INTERVAL, NEVER
+}
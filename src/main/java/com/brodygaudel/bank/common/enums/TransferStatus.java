@@ -0,0 +1,5 @@
+package com.brodygaudel.bank.common.enums;
+
+public enum TransferStatus {
+    REQUESTED, DEBITED, REFUNDING, COMPLETED, FAILED
+}
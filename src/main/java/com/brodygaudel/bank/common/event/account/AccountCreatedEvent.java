@@ -2,7 +2,11 @@ package com.brodygaudel.bank.common.event.account;
 
 import com.brodygaudel.bank.common.event.BaseEvent;
 import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.util.MinorUnits;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
+import org.axonframework.serialization.Revision;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,15 +19,21 @@ import java.time.LocalDateTime;
  * the initial balance, the status, the timestamp of creation, and the associated customer's identifier.
  * </p>
  *
+ * <p>
+ * Revision {@code 1} carries the initial balance in minor units; events stored before it carried a decimal
+ * {@code balance} and are converted by the {@code AccountAmountMinorUnitsUpcaster}.
+ * </p>
+ *
  * @see BaseEvent
  */
 @Getter
+@Revision("1")
 public class AccountCreatedEvent extends BaseEvent<String> {
 
     /**
-     * The initial balance of the newly created account.
+     * The initial balance of the newly created account, in minor units.
      */
-    private final BigDecimal balance;
+    private final long balanceInMinorUnits;
 
     /**
      * The status of the account after creation.
@@ -44,17 +54,42 @@ public class AccountCreatedEvent extends BaseEvent<String> {
      * Constructs a new AccountCreatedEvent with the specified details.
      *
      * @param id The unique identifier associated with the event, representing the newly created account.
-     * @param balance The initial balance of the account.
+     * @param balanceInMinorUnits The initial balance of the account, in minor units.
      * @param status The status of the account after creation.
      * @param creation The timestamp of the account creation.
      * @param customerId The unique identifier of the associated customer.
      */
-    public AccountCreatedEvent(String id, BigDecimal balance, AccountStatus status, LocalDateTime creation, String customerId) {
+    @JsonCreator
+    public AccountCreatedEvent(String id, long balanceInMinorUnits, AccountStatus status, LocalDateTime creation, String customerId) {
         super(id);
-        this.balance = balance;
+        this.balanceInMinorUnits = balanceInMinorUnits;
         this.status = status;
         this.creation = creation;
         this.customerId = customerId;
     }
+
+    /**
+     * Constructs a new AccountCreatedEvent from a decimal initial balance.
+     *
+     * @param id The unique identifier associated with the event, representing the newly created account.
+     * @param balance The initial decimal balance of the account.
+     * @param status The status of the account after creation.
+     * @param creation The timestamp of the account creation.
+     * @param customerId The unique identifier of the associated customer.
+     * @throws IllegalArgumentException if the balance cannot be represented exactly in minor units.
+     */
+    public AccountCreatedEvent(String id, BigDecimal balance, AccountStatus status, LocalDateTime creation, String customerId) {
+        this(id, MinorUnits.of(balance), status, creation, customerId);
+    }
+
+    /**
+     * Returns the initial balance of the account as a decimal amount.
+     *
+     * @return The decimal initial balance.
+     */
+    @JsonIgnore
+    public BigDecimal getBalance() {
+        return MinorUnits.toDecimal(balanceInMinorUnits);
+    }
 }
 
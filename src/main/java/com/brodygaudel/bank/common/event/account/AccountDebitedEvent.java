@@ -1,7 +1,11 @@
 package com.brodygaudel.bank.common.event.account;
 
 import com.brodygaudel.bank.common.event.BaseEvent;
+import com.brodygaudel.bank.common.util.MinorUnits;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
+import org.axonframework.serialization.Revision;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,15 +18,21 @@ import java.time.LocalDateTime;
  * of the account, the debited amount, a description of the debit operation, and the timestamp of the last update.
  * </p>
  *
+ * <p>
+ * Revision {@code 1} carries the amount in minor units; events stored before it carried a decimal {@code amount} and
+ * are converted by the {@code AccountAmountMinorUnitsUpcaster}.
+ * </p>
+ *
  * @see BaseEvent
  */
 @Getter
+@Revision("1")
 public class AccountDebitedEvent extends BaseEvent<String> {
 
     /**
-     * The amount debited from the account.
+     * The amount debited from the account, in minor units.
      */
-    private final BigDecimal amount;
+    private final long amountInMinorUnits;
 
     /**
      * A description of the debit operation.
@@ -38,15 +48,38 @@ public class AccountDebitedEvent extends BaseEvent<String> {
      * Constructs a new AccountDebitedEvent with the specified details.
      *
      * @param id The unique identifier associated with the event, representing the debited account.
-     * @param amount The amount debited from the account.
+     * @param amountInMinorUnits The amount debited from the account, in minor units.
      * @param description A description of the debit operation.
      * @param lastUpdate The timestamp of the last update, indicating when the debit operation occurred.
      */
-    public AccountDebitedEvent(String id, BigDecimal amount, String description, LocalDateTime lastUpdate) {
+    @JsonCreator
+    public AccountDebitedEvent(String id, long amountInMinorUnits, String description, LocalDateTime lastUpdate) {
         super(id);
-        this.amount = amount;
+        this.amountInMinorUnits = amountInMinorUnits;
         this.description = description;
         this.lastUpdate = lastUpdate;
     }
-}
 
+    /**
+     * Constructs a new AccountDebitedEvent from a decimal amount.
+     *
+     * @param id The unique identifier associated with the event.
+     * @param amount The decimal amount debited from the account.
+     * @param description A description of the operation.
+     * @param lastUpdate The timestamp of the last update.
+     * @throws IllegalArgumentException if the amount cannot be represented exactly in minor units.
+     */
+    public AccountDebitedEvent(String id, BigDecimal amount, String description, LocalDateTime lastUpdate) {
+        this(id, MinorUnits.of(amount), description, lastUpdate);
+    }
+
+    /**
+     * Returns the amount debited from the account as a decimal amount.
+     *
+     * @return The decimal amount.
+     */
+    @JsonIgnore
+    public BigDecimal getAmount() {
+        return MinorUnits.toDecimal(amountInMinorUnits);
+    }
+}
@@ -1,6 +1,7 @@
 package com.brodygaudel.bank.common.event.customer;
 
 import com.brodygaudel.bank.common.event.BaseEvent;
+import com.fasterxml.jackson.annotation.JsonCreator;
 
 /**
  * Event representing the deletion of a customer in the system.
@@ -19,6 +20,7 @@ public class CustomerDeletedEvent extends BaseEvent<String> {
      *
      * @param id The unique identifier associated with the event, representing the customer whose information has been deleted.
      */
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
     public CustomerDeletedEvent(String id) {
         super(id);
     }
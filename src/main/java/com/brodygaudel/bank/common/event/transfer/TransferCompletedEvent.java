@@ -0,0 +1,31 @@
+package com.brodygaudel.bank.common.event.transfer;
+
+import com.brodygaudel.bank.common.event.BaseEvent;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event representing the completion of a transfer, once both the debit and the credit have succeeded.
+ *
+ * @see BaseEvent
+ */
+@Getter
+public class TransferCompletedEvent extends BaseEvent<String> {
+
+    /**
+     * The timestamp indicating when the transfer was completed.
+     */
+    private final LocalDateTime lastUpdate;
+
+    /**
+     * Constructs a new TransferCompletedEvent with the specified details.
+     *
+     * @param id The unique identifier of the transfer.
+     * @param lastUpdate The timestamp indicating when the transfer was completed.
+     */
+    public TransferCompletedEvent(String id, LocalDateTime lastUpdate) {
+        super(id);
+        this.lastUpdate = lastUpdate;
+    }
+}
@@ -0,0 +1,39 @@
+package com.brodygaudel.bank.common.event.transfer;
+
+import com.brodygaudel.bank.common.event.BaseEvent;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event representing the rejection of the credit of the destination account of a transfer. The source account, which
+ * has been debited, is credited back next.
+ *
+ * @see BaseEvent
+ */
+@Getter
+public class TransferCreditRejectedEvent extends BaseEvent<String> {
+
+    /**
+     * The reason of the rejection.
+     */
+    private final String reason;
+
+    /**
+     * The timestamp indicating when the credit was rejected.
+     */
+    private final LocalDateTime lastUpdate;
+
+    /**
+     * Constructs a new TransferCreditRejectedEvent with the specified details.
+     *
+     * @param id The unique identifier of the transfer.
+     * @param reason The reason of the rejection.
+     * @param lastUpdate The timestamp indicating when the credit was rejected.
+     */
+    public TransferCreditRejectedEvent(String id, String reason, LocalDateTime lastUpdate) {
+        super(id);
+        this.reason = reason;
+        this.lastUpdate = lastUpdate;
+    }
+}
@@ -0,0 +1,31 @@
+package com.brodygaudel.bank.common.event.transfer;
+
+import com.brodygaudel.bank.common.event.BaseEvent;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event representing the debit of the source account of a transfer. The destination account is credited next.
+ *
+ * @see BaseEvent
+ */
+@Getter
+public class TransferDebitedEvent extends BaseEvent<String> {
+
+    /**
+     * The timestamp indicating when the source account was debited.
+     */
+    private final LocalDateTime lastUpdate;
+
+    /**
+     * Constructs a new TransferDebitedEvent with the specified details.
+     *
+     * @param id The unique identifier of the transfer.
+     * @param lastUpdate The timestamp indicating when the source account was debited.
+     */
+    public TransferDebitedEvent(String id, LocalDateTime lastUpdate) {
+        super(id);
+        this.lastUpdate = lastUpdate;
+    }
+}
@@ -0,0 +1,39 @@
+package com.brodygaudel.bank.common.event.transfer;
+
+import com.brodygaudel.bank.common.event.BaseEvent;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event representing the failure of a transfer. When it is published, no funds have left the debited account: either
+ * the debit failed, or the credit failed and the debit was compensated.
+ *
+ * @see BaseEvent
+ */
+@Getter
+public class TransferFailedEvent extends BaseEvent<String> {
+
+    /**
+     * The reason of the failure.
+     */
+    private final String reason;
+
+    /**
+     * The timestamp indicating when the transfer failed.
+     */
+    private final LocalDateTime lastUpdate;
+
+    /**
+     * Constructs a new TransferFailedEvent with the specified details.
+     *
+     * @param id The unique identifier of the transfer.
+     * @param reason The reason of the failure.
+     * @param lastUpdate The timestamp indicating when the transfer failed.
+     */
+    public TransferFailedEvent(String id, String reason, LocalDateTime lastUpdate) {
+        super(id);
+        this.reason = reason;
+        this.lastUpdate = lastUpdate;
+    }
+}
@@ -0,0 +1,66 @@
+package com.brodygaudel.bank.common.event.transfer;
+
+import com.brodygaudel.bank.common.event.BaseEvent;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Event representing the request of a transfer of funds between two accounts.
+ *
+ * <p>
+ * This event starts the transfer saga. It includes the unique identifier of the transfer, the accounts to debit and
+ * to credit, the amount, a description and the creation timestamp.
+ * </p>
+ *
+ * @see BaseEvent
+ */
+@Getter
+public class TransferRequestedEvent extends BaseEvent<String> {
+
+    /**
+     * The unique identifier of the account to debit.
+     */
+    private final String idFrom;
+
+    /**
+     * The unique identifier of the account to credit.
+     */
+    private final String idTo;
+
+    /**
+     * The amount to transfer.
+     */
+    private final BigDecimal amount;
+
+    /**
+     * A description of the transfer.
+     */
+    private final String description;
+
+    /**
+     * The timestamp of the transfer request.
+     */
+    private final LocalDateTime creation;
+
+    /**
+     * Constructs a new TransferRequestedEvent with the specified details.
+     *
+     * @param id The unique identifier of the transfer.
+     * @param idFrom The unique identifier of the account to debit.
+     * @param idTo The unique identifier of the account to credit.
+     * @param amount The amount to transfer.
+     * @param description A description of the transfer.
+     * @param creation The timestamp of the transfer request.
+     */
+    public TransferRequestedEvent(String id, String idFrom, String idTo, BigDecimal amount, String description,
+                                  LocalDateTime creation) {
+        super(id);
+        this.idFrom = idFrom;
+        this.idTo = idTo;
+        this.amount = amount;
+        this.description = description;
+        this.creation = creation;
+    }
+}
@@ -0,0 +1,51 @@
+package com.brodygaudel.bank.common.upcaster;
+
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.brodygaudel.bank.common.event.account.AccountDebitedEvent;
+import com.brodygaudel.bank.common.util.MinorUnits;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Upcaster converting the decimal amounts of the account events stored before revision {@code 1} to minor units.
+ *
+ * <p>
+ * Events without a revision carry their amount as a decimal {@code amount} (or {@code balance} for the
+ * {@link AccountCreatedEvent}). This upcaster replaces that field by its exact value in minor units, so the events
+ * stored before the switch to minor units still load.
+ * </p>
+ */
+@Component
+@Order(0)
+public class AccountAmountMinorUnitsUpcaster extends JsonEventUpcaster {
+
+    /**
+     * The legacy decimal field of every upcasted event type, and the minor units field replacing it.
+     */
+    private static final Map<String, String[]> FIELDS = Map.of(
+            AccountCreatedEvent.class.getName(), new String[]{"balance", "balanceInMinorUnits"},
+            AccountCreditedEvent.class.getName(), new String[]{"amount", "amountInMinorUnits"},
+            AccountDebitedEvent.class.getName(), new String[]{"amount", "amountInMinorUnits"}
+    );
+
+    /**
+     * Constructs a new instance of AccountAmountMinorUnitsUpcaster.
+     */
+    public AccountAmountMinorUnitsUpcaster() {
+        super(null, "1", AccountCreatedEvent.class, AccountCreditedEvent.class, AccountDebitedEvent.class);
+    }
+
+    @Override
+    protected void upcast(String type, ObjectNode event) {
+        String[] fields = FIELDS.get(type);
+        JsonNode decimal = event.remove(fields[0]);
+        BigDecimal amount = decimal.isNumber() ? decimal.decimalValue() : new BigDecimal(decimal.asText());
+        event.put(fields[1], MinorUnits.of(amount));
+    }
+}
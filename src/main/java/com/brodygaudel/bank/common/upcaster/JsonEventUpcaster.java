@@ -0,0 +1,76 @@
+package com.brodygaudel.bank.common.upcaster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.axonframework.serialization.SimpleSerializedType;
+import org.axonframework.serialization.upcasting.event.IntermediateEventRepresentation;
+import org.axonframework.serialization.upcasting.event.SingleEventUpcaster;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Base class of the upcasters moving events of the {@code common.event} package from one revision to the next.
+ *
+ * <p>
+ * An upcaster declares the event types it applies to, the revision it reads and the revision it produces, and
+ * implements {@link #upcast(String, ObjectNode)} on the tree of the serialized payload. The types and revisions are
+ * checked on the serialized type only, and the payload change is registered lazily: it runs when the payload is
+ * read, on the Jackson tree shared by the whole chain, so an event is parsed once however many upcasters apply to it
+ * and is never deserialized to an intermediate class.
+ * </p>
+ *
+ * <p>
+ * Upcasters are Spring components ordered by {@link org.springframework.core.annotation.Order}, one per revision step,
+ * so that an event stored at any past revision goes through every following step.
+ * </p>
+ */
+public abstract class JsonEventUpcaster extends SingleEventUpcaster {
+
+    private final Set<String> eventTypes;
+    private final String sourceRevision;
+    private final String targetRevision;
+
+    /**
+     * Constructs a new instance of JsonEventUpcaster.
+     *
+     * @param sourceRevision The revision of the events this upcaster reads, {@code null} for events without revision.
+     * @param targetRevision The revision of the events this upcaster produces.
+     * @param eventTypes     The event classes this upcaster applies to.
+     */
+    protected JsonEventUpcaster(String sourceRevision, String targetRevision, Class<?>... eventTypes) {
+        this.sourceRevision = sourceRevision;
+        this.targetRevision = Objects.requireNonNull(targetRevision, "the target revision is required");
+        this.eventTypes = Arrays.stream(eventTypes).map(Class::getName).collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    protected boolean canUpcast(@NotNull IntermediateEventRepresentation intermediateRepresentation) {
+        return Objects.equals(intermediateRepresentation.getType().getRevision(), sourceRevision)
+                && eventTypes.contains(intermediateRepresentation.getType().getName());
+    }
+
+    @Override
+    protected IntermediateEventRepresentation doUpcast(@NotNull IntermediateEventRepresentation intermediateRepresentation) {
+        String type = intermediateRepresentation.getType().getName();
+        return intermediateRepresentation.upcastPayload(
+                new SimpleSerializedType(type, targetRevision),
+                JsonNode.class,
+                payload -> {
+                    upcast(type, (ObjectNode) payload);
+                    return payload;
+                }
+        );
+    }
+
+    /**
+     * Changes the payload of an event from the source revision to the target revision, in place.
+     *
+     * @param type  The class name of the event.
+     * @param event The tree of the payload of the event.
+     */
+    protected abstract void upcast(String type, ObjectNode event);
+}
@@ -0,0 +1,121 @@
+package com.brodygaudel.bank.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter of strings.
+ *
+ * <p>
+ * The filter answers whether a value <em>might</em> have been added: a negative answer is always right, while a
+ * positive answer is wrong with a probability close to the false positive rate the filter was sized for, as long as
+ * no more values than expected are added. Values cannot be removed.
+ * </p>
+ *
+ * <p>
+ * The bits are set by compare-and-set on an {@link AtomicLongArray}, so values can be added and looked up
+ * concurrently without locking.
+ * </p>
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a Bloom filter sized for the given number of values and false positive rate.
+     *
+     * @param expectedInsertions The number of values expected to be added.
+     * @param falsePositiveRate  The accepted false positive rate, between 0 and 1 exclusive.
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("the expected number of insertions must be positive => " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("the false positive rate must be between 0 and 1 => " + falsePositiveRate);
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Adds a value to the filter.
+     *
+     * @param value The value to add.
+     */
+    public void put(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = index(first + i * second);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Tells whether a value might have been added to the filter.
+     *
+     * @param value The value to look up.
+     * @return {@code false} if the value has certainly not been added, {@code true} if it might have been.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = index(first + i * second);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bits of the filter.
+     *
+     * @return The number of bits.
+     */
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Returns the number of hash functions of the filter.
+     *
+     * @return The number of hash functions.
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private long index(int combinedHash) {
+        return Math.floorMod((long) combinedHash * 0x9E3779B97F4A7C15L, bitCount);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 bytes of the value, finished with the mixer of SplitMix64.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,60 @@
+package com.brodygaudel.bank.common.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Identifiers derived from the event a row is projected from.
+ *
+ * <p>
+ * Unlike the identifiers of an {@link IdGenerator}, the same event always yields the same identifier: a row projected
+ * twice from one event keeps its primary key, whether the event is handled by the projection processor, handled again
+ * after a retry, or replayed by a rebuild of the projections.
+ * </p>
+ *
+ * <p>
+ * The identifiers have the layout of the time-ordered UUIDs (version 7) of the
+ * {@link com.brodygaudel.bank.common.util.implementation.UuidV7IdGenerator}: the timestamp of the event in
+ * milliseconds, then the MD5 digest of the identifier and sequence number of the event in place of the counter and
+ * random bits. Rows projected from consecutive events therefore still land next to each other in a B-tree index.
+ * </p>
+ */
+public final class DeterministicIds {
+
+    private static final long VERSION = 7L << 12;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long COUNTER_MASK = 0x0FFFL;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private DeterministicIds() {
+        super();
+    }
+
+    /**
+     * Derives a time-ordered UUID from the identifier, the aggregate sequence number and the timestamp of an event.
+     *
+     * @param messageIdentifier The identifier of the event message.
+     * @param sequenceNumber    The sequence number of the event in its aggregate.
+     * @param timestamp         The timestamp of the event.
+     * @return The identifier of the row projected from the event.
+     */
+    public static String of(String messageIdentifier, long sequenceNumber, Instant timestamp) {
+        ByteBuffer digest = ByteBuffer.wrap(md5((messageIdentifier + '#' + sequenceNumber)
+                .getBytes(StandardCharsets.UTF_8)));
+        long mostSignificantBits = (timestamp.toEpochMilli() << 16) | VERSION | (digest.getLong() & COUNTER_MASK);
+        long leastSignificantBits = VARIANT | (digest.getLong() & RANDOM_MASK);
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    private static byte[] md5(byte[] name) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(name);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not supported by this JVM", e);
+        }
+    }
+}
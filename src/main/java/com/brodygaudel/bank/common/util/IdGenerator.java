@@ -1,12 +1,12 @@
 package com.brodygaudel.bank.common.util;
 
 /**
- * An interface for generating unique IDs based on the current date, time, and a counter.
+ * An interface for generating unique IDs.
  */
 public interface IdGenerator {
 
     /**
-     * Generates a unique ID based on the current date, time, and a counter.
+     * Generates a unique ID.
      *
      * @return A unique ID.
      */
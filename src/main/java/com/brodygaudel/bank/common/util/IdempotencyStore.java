@@ -0,0 +1,25 @@
+package com.brodygaudel.bank.common.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * An interface for deduplicating commands sent with an idempotency key.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Executes an action once per idempotency key.
+     *
+     * <p>
+     * The first call for a key executes the action. Until the key expires, any later call for the same key returns
+     * the result of that first execution, or waits for it if it is still running, without executing the action again.
+     * An action that fails is not remembered, so it can be retried with the same key.
+     * </p>
+     *
+     * @param key    The idempotency key.
+     * @param action The action to execute.
+     * @return A CompletableFuture holding the result of the first execution of the action.
+     */
+    CompletableFuture<String> execute(String key, Supplier<CompletableFuture<String>> action);
+}
@@ -0,0 +1,49 @@
+package com.brodygaudel.bank.common.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversions between decimal amounts and amounts expressed in minor units (cents).
+ *
+ * <p>
+ * Balances are kept as {@code long} minor units on the command side so that replaying credits and debits does not
+ * allocate. The conversions are exact: an amount with more than {@link #SCALE} decimal places, or one that does not fit
+ * in a {@code long}, is rejected instead of being rounded.
+ * </p>
+ */
+public final class MinorUnits {
+
+    /**
+     * The number of decimal places of an amount.
+     */
+    public static final int SCALE = 2;
+
+    private MinorUnits() {
+        super();
+    }
+
+    /**
+     * Converts a decimal amount to minor units.
+     *
+     * @param amount The decimal amount.
+     * @return The amount in minor units.
+     * @throws IllegalArgumentException if the amount has more than {@link #SCALE} decimal places or overflows a {@code long}.
+     */
+    public static long of(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException exception) {
+            throw new IllegalArgumentException("amount '" + amount + "' cannot be represented in minor units", exception);
+        }
+    }
+
+    /**
+     * Converts an amount in minor units to a decimal amount.
+     *
+     * @param minorUnits The amount in minor units.
+     * @return The decimal amount, with a scale of {@link #SCALE}.
+     */
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
@@ -0,0 +1,26 @@
+package com.brodygaudel.bank.common.util;
+
+/**
+ * Helpers for the errors reported back to the clients, whose messages are carried by the innermost cause once the
+ * error has been wrapped by the command gateway or a {@link java.util.concurrent.CompletableFuture}.
+ */
+public final class Throwables {
+
+    private Throwables() {
+        super();
+    }
+
+    /**
+     * Returns the message of the innermost cause of an error.
+     *
+     * @param throwable The error.
+     * @return The message of the root cause of the error, or of the error itself if it has no cause.
+     */
+    public static String rootMessage(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+}
@@ -1,7 +1,6 @@
 package com.brodygaudel.bank.common.util.implementation;
 
 import com.brodygaudel.bank.common.util.IdGenerator;
-import org.springframework.stereotype.Service;
 
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
@@ -13,9 +12,11 @@ import java.util.concurrent.locks.ReentrantLock;
 /**
  * Implementation of the {@link IdGenerator} interface that generates unique IDs
  * based on the current date, time, and a counter. The counter is reset to 0 every hour.
+ *
+ * @deprecated This generator serializes every call on a global lock, repeats IDs across nodes and once the counter
+ * passes 999999 within an hour. Use {@link SnowflakeIdGenerator} instead.
  */
-
-@Service
+@Deprecated(since = "0.0.1")
 public class IdGeneratorImpl implements IdGenerator {
 
     /** Atomic counter for generating unique IDs. */
@@ -0,0 +1,371 @@
+package com.brodygaudel.bank.common.util.implementation;
+
+import com.brodygaudel.bank.common.util.IdempotencyStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of the {@link IdempotencyStore} interface keeping the results in a bounded, time-expiring map.
+ *
+ * <p>
+ * Keys expire after the configured time to live, and the oldest completed keys are evicted once the maximum number of
+ * keys is reached. A key whose command is still running is never evicted, since a retry would then run the command a
+ * second time: once every remembered key is running, a new key is refused with a 503 status until one completes.
+ * </p>
+ *
+ * <p>
+ * Every successful result is appended to a log file, which is read back on startup so the keys survive a restart. The
+ * log is written by a thread of its own, which appends the results completed meanwhile with one flush and only then
+ * hands them to their callers, so no file is written while the map is locked. The log is rewritten by the same thread
+ * with the live keys only once it holds twice as many lines as there are live keys.
+ * </p>
+ */
+@Slf4j
+@Service
+public class IdempotencyStoreImpl implements IdempotencyStore {
+
+    /** Number of lines the log may hold before it is worth compacting, whatever the number of live keys. */
+    private static final int MIN_COMPACTION_LINES = 1024;
+
+    /** Marker of a {@code null} result in the log, never produced by URL encoding. */
+    private static final String NULL_RESULT = "=";
+
+    /** Marker of the end of the appends, compared by identity. */
+    private static final Append STOP = new Append(null, null, null);
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+    private final Duration timeToLive;
+    private final int maxEntries;
+    private final Path logFile;
+    private final Clock clock;
+    private final Thread logWriter;
+
+    /** Whether the store is closed, guarded by {@code entries}. */
+    private boolean closed;
+
+    /** Writer appending to the log, only used by the log writer thread once the store is constructed. */
+    private BufferedWriter writer;
+
+    /** Number of lines in the log, only used by the log writer thread once the store is constructed. */
+    private long logLines;
+
+    /**
+     * Constructs a new instance of IdempotencyStoreImpl.
+     *
+     * @param timeToLive The time during which a key is remembered.
+     * @param maxEntries The maximum number of keys remembered.
+     * @param logFile    The log file in which the results are persisted.
+     */
+    @Autowired
+    public IdempotencyStoreImpl(@Value("${idempotency.time-to-live}") Duration timeToLive,
+                                @Value("${idempotency.max-entries}") int maxEntries,
+                                @Value("${idempotency.log-file}") String logFile) {
+        this(timeToLive, maxEntries, Path.of(logFile), Clock.systemUTC());
+    }
+
+    IdempotencyStoreImpl(Duration timeToLive, int maxEntries, Path logFile, Clock clock) {
+        this.timeToLive = timeToLive;
+        this.maxEntries = maxEntries;
+        this.logFile = logFile;
+        this.clock = clock;
+        load();
+        this.logWriter = new Thread(this::writeLoop, "idempotency-log-writer");
+        this.logWriter.setDaemon(true);
+        this.logWriter.start();
+    }
+
+    @Override
+    public CompletableFuture<String> execute(String key, Supplier<CompletableFuture<String>> action) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Entry entry;
+        synchronized (entries) {
+            long now = clock.millis();
+            evictExpired(now);
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                return existing.result;
+            }
+            entry = new Entry(result, now + timeToLive.toMillis());
+            if (!put(key, entry)) {
+                return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "too many requests with an idempotency key are running"));
+            }
+        }
+        CompletableFuture<String> executed;
+        try {
+            executed = action.get();
+        } catch (RuntimeException e) {
+            executed = CompletableFuture.failedFuture(e);
+        }
+        executed.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                persist(key, entry, value);
+            } else {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                result.completeExceptionally(throwable);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Writes the pending results and closes the log file.
+     */
+    @PreDestroy
+    public void close() {
+        synchronized (entries) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            appends.add(STOP);
+        }
+        try {
+            logWriter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of keys remembered.
+     *
+     * @return The number of keys remembered.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Remembers a key, evicting the oldest completed key if the store is full.
+     *
+     * @return false if the store is full of running keys, in which case the key is not remembered.
+     */
+    private boolean put(String key, Entry entry) {
+        if (entries.size() >= maxEntries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (true) {
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+                if (iterator.next().result.isDone()) {
+                    iterator.remove();
+                    break;
+                }
+            }
+        }
+        entries.put(key, entry);
+        return true;
+    }
+
+    /**
+     * Removes the expired keys whose command completed. The keys share the same time to live, so the map, kept in
+     * insertion order, is also in expiration order.
+     */
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.expiresAt > now) {
+                return;
+            }
+            if (entry.result.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Hands a successful result to the log writer, which completes it once it is written.
+     */
+    private void persist(String key, Entry entry, String value) {
+        synchronized (entries) {
+            if (!closed) {
+                appends.add(new Append(line(key, entry.expiresAt, value), entry.result, value));
+                return;
+            }
+        }
+        entry.result.complete(value);
+    }
+
+    /**
+     * Appends the pending results to the log, as many as are queued with each flush, and completes them once written.
+     */
+    private void writeLoop() {
+        List<Append> batch = new ArrayList<>();
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                batch.add(appends.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            appends.drainTo(batch);
+            stopped = batch.remove(STOP);
+            write(batch);
+            batch.forEach(append -> append.result.complete(append.value));
+            batch.clear();
+            compactIfNeeded();
+        }
+        closeWriter();
+    }
+
+    private void write(List<Append> batch) {
+        if (batch.isEmpty() || writer == null) {
+            return;
+        }
+        try {
+            for (Append append : batch) {
+                writer.write(append.line);
+                writer.newLine();
+            }
+            writer.flush();
+            logLines += batch.size();
+        } catch (IOException e) {
+            log.error("{} idempotency keys not persisted", batch.size(), e);
+        }
+    }
+
+    private void compactIfNeeded() {
+        int live;
+        synchronized (entries) {
+            live = entries.size();
+        }
+        if (writer == null || logLines <= Math.max(MIN_COMPACTION_LINES, 2L * live)) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException e) {
+            log.error("Idempotency log {} not compacted", logFile, e);
+        }
+    }
+
+    /**
+     * Reads the log back into the map, then compacts it.
+     */
+    private void load() {
+        try {
+            Path parent = logFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            if (Files.exists(logFile)) {
+                long now = clock.millis();
+                List<String> lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+                for (String line : lines) {
+                    String[] fields = line.split("\t", -1);
+                    if (fields.length != 3) {
+                        continue;
+                    }
+                    long expiresAt = Long.parseLong(fields[1]);
+                    if (expiresAt > now) {
+                        String value = NULL_RESULT.equals(fields[2]) ? null : decode(fields[2]);
+                        put(decode(fields[0]), new Entry(CompletableFuture.completedFuture(value), expiresAt));
+                    }
+                }
+            }
+            compact();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Idempotency log " + logFile + " not readable", e);
+        }
+    }
+
+    /**
+     * Rewrites the log with the completed live keys only, and reopens it for appending. The live keys are copied under
+     * the lock, and written without it; a key completed meanwhile is appended after the rewritten log.
+     */
+    private void compact() throws IOException {
+        closeWriter();
+        List<String> live = new ArrayList<>();
+        synchronized (entries) {
+            evictExpired(clock.millis());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                CompletableFuture<String> result = entry.getValue().result;
+                if (result.isDone() && !result.isCompletedExceptionally()) {
+                    live.add(line(entry.getKey(), entry.getValue().expiresAt, result.join()));
+                }
+            }
+        }
+        Path compacted = logFile.resolveSibling(logFile.getFileName() + ".compact");
+        long lines = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (String line : live) {
+                out.write(line);
+                out.newLine();
+                lines++;
+            }
+        }
+        Files.move(compacted, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        logLines = lines;
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Idempotency log {} not closed", logFile, e);
+            }
+            writer = null;
+        }
+    }
+
+    @NotNull
+    private static String line(String key, long expiresAt, String value) {
+        return encode(key) + "\t" + expiresAt + "\t" + (value == null ? NULL_RESULT : encode(value));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The result of the first execution for a key, and the time at which the key expires.
+     */
+    private record Entry(CompletableFuture<String> result, long expiresAt) {
+    }
+
+    /**
+     * A successful result waiting to be appended to the log: its line, and the future it completes once written.
+     */
+    private record Append(String line, CompletableFuture<String> result, String value) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.brodygaudel.bank.common.util.implementation;
+
+import com.brodygaudel.bank.common.util.IdGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementation of the {@link IdGenerator} interface that generates unique, increasing numeric IDs without locking.
+ *
+ * <p>
+ * An ID is a positive 63-bit number made of the milliseconds elapsed since {@link #EPOCH} (41 bits, enough for 69
+ * years), the identifier of the node (10 bits) and a sequence within the millisecond (12 bits). Two nodes configured
+ * with distinct node identifiers therefore never generate the same ID.
+ * </p>
+ *
+ * <p>
+ * The last timestamp and sequence are packed in a single {@link AtomicLong} updated by compare-and-set. When the
+ * 4096 IDs of a millisecond are used, or when the system clock goes backwards, the generator moves on to the next
+ * millisecond of its own clock instead of waiting, so IDs stay unique and increasing; its clock catches up with the
+ * system clock as soon as the load drops.
+ * </p>
+ *
+ * <p>
+ * This is the default {@link IdGenerator}, used for the account IDs.
+ * </p>
+ */
+@Service
+@Primary
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    /** Start of the timestamps of the IDs, 2024-01-01T00:00:00Z. */
+    static final long EPOCH = 1_704_067_200_000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /** Timestamp (shifted by {@link #SEQUENCE_BITS}) and sequence of the last generated ID. */
+    private final AtomicLong state = new AtomicLong();
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    /**
+     * Constructs a new instance of SnowflakeIdGenerator.
+     *
+     * @param nodeId The identifier of this node, between 0 and 1023, distinct on every node.
+     */
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${id-generator.node-id}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("the node id must be between 0 and " + MAX_NODE_ID + " => " + nodeId);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * Generates a unique ID, greater than every ID previously generated by this instance.
+     *
+     * @return A unique ID.
+     */
+    @Override
+    public String autoGenerate() {
+        return Long.toString(nextId());
+    }
+
+    /**
+     * Generates a unique ID, greater than every ID previously generated by this instance.
+     *
+     * @return A unique ID.
+     */
+    long nextId() {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+            // a new millisecond restarts the sequence, otherwise the sequence goes on and may roll over to the next
+            // millisecond of the generator's own clock
+            next = now > current ? now : current + 1;
+        } while (!state.compareAndSet(current, next));
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+}
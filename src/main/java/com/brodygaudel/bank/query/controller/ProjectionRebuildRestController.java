@@ -0,0 +1,54 @@
+package com.brodygaudel.bank.query.controller;
+
+import com.brodygaudel.bank.common.dto.ProjectionRebuildStatusDTO;
+import com.brodygaudel.bank.query.service.ProjectionRebuildService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for rebuilding the projections of the query side.
+ *
+ * <p>
+ * This controller provides an endpoint starting a rebuild of the customers, accounts and operations from the event
+ * store, and an endpoint returning its progress and the estimated time left.
+ * </p>
+ */
+@RestController
+@RequestMapping("/queries/projections")
+public class ProjectionRebuildRestController {
+
+    private final ProjectionRebuildService projectionRebuildService;
+
+    /**
+     * Constructs a new instance of ProjectionRebuildRestController.
+     *
+     * @param projectionRebuildService The service rebuilding the projections.
+     */
+    public ProjectionRebuildRestController(ProjectionRebuildService projectionRebuildService) {
+        this.projectionRebuildService = projectionRebuildService;
+    }
+
+    /**
+     * Endpoint for starting a rebuild of the projections. A rebuild already running is not started again.
+     *
+     * @return An accepted status with the progress of the rebuild.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<ProjectionRebuildStatusDTO> rebuild() {
+        projectionRebuildService.start();
+        return ResponseEntity.accepted().body(projectionRebuildService.getStatus().orElseThrow());
+    }
+
+    /**
+     * Endpoint for retrieving the progress of the running or last rebuild.
+     *
+     * @return A ResponseEntity with the status of the rebuild, or a 404 status if no rebuild was started.
+     */
+    @GetMapping("/rebuild")
+    public ResponseEntity<ProjectionRebuildStatusDTO> getRebuildStatus() {
+        return ResponseEntity.of(projectionRebuildService.getStatus());
+    }
+}
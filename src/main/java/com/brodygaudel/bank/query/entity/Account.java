@@ -3,6 +3,7 @@ package com.brodygaudel.bank.query.entity;
 import com.brodygaudel.bank.common.enums.AccountStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -16,7 +17,7 @@ import java.util.List;
 @Setter
 @Builder
 @ToString
-public class Account {
+public class Account implements Persistable<String> {
 
     @Id
     private String id;
@@ -33,10 +34,36 @@ public class Account {
 
     private LocalDateTime lastUpdate;
 
+    /**
+     * The sequence number of the last event of the account applied to this row, or null for a row projected before
+     * the sequence numbers were recorded. A redelivered event, whose sequence number is not above it, is ignored.
+     */
+    private Long lastSequence;
+
     @OneToOne
     @JoinColumn(name = "customer_id", unique = true, nullable = false)
     private Customer customer;
 
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Operation> operations;
+
+    /**
+     * Whether this account is built from its creation event and not yet stored, in which case saving it inserts it
+     * without first looking it up.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean created;
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        this.created = false;
+    }
 }
@@ -3,6 +3,7 @@ package com.brodygaudel.bank.query.entity;
 import com.brodygaudel.bank.common.enums.OperationType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
 @Setter
 @Builder
 @ToString
-public class Operation {
+public class Operation implements Persistable<String> {
     @Id
     private String id;
 
@@ -35,4 +36,24 @@ public class Operation {
     @ManyToOne
     @JoinColumn(name = "account_id", nullable = false)
     private Account account;
+
+    /**
+     * Whether this operation is built from its event and not yet stored, in which case saving it inserts it without
+     * first looking it up, so the inserts of a unit of work are sent as one JDBC batch.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean created;
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        this.created = false;
+    }
 }
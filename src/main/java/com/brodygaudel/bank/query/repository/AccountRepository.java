@@ -1,11 +1,30 @@
 package com.brodygaudel.bank.query.repository;
 
+import com.brodygaudel.bank.common.enums.AccountStatus;
 import com.brodygaudel.bank.query.entity.Account;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public interface AccountRepository extends JpaRepository<Account, String> {
 
     @Query("select a from Account a where a.customer.id =?1")
     Account findByCustomerId(String customerId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("update Account a set a.balance = :balance, a.status = :status, a.lastUpdate = :lastUpdate, " +
+            "a.lastSequence = :lastSequence where a.id = :id and a.balance = :storedBalance " +
+            "and coalesce(a.lastSequence, -1) = :storedSequence")
+    int updateBalance(@Param("id") String id, @Param("balance") BigDecimal balance,
+                      @Param("status") AccountStatus status, @Param("lastUpdate") LocalDateTime lastUpdate,
+                      @Param("lastSequence") long lastSequence, @Param("storedBalance") BigDecimal storedBalance,
+                      @Param("storedSequence") long storedSequence);
 }
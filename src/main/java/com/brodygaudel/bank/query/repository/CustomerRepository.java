@@ -10,7 +10,4 @@ import org.springframework.data.repository.query.Param;
 public interface CustomerRepository extends JpaRepository<Customer, String> {
     @Query("SELECT c FROM Customer c WHERE c.name LIKE :keyword OR c.firstname LIKE :keyword OR c.nic LIKE :keyword ORDER BY c.firstname DESC")
     Page<Customer> search(@Param("keyword") String keyword, Pageable pageable);
-
-    @Query("select case when count(c)>0 then true else false END from Customer c where c.nic=?1")
-    Boolean checkIfNicExists(String nic);
 }
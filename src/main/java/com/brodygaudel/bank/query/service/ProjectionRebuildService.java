@@ -0,0 +1,580 @@
+package com.brodygaudel.bank.query.service;
+
+import com.brodygaudel.bank.command.service.EventArchive;
+import com.brodygaudel.bank.common.dto.ProjectionRebuildStatusDTO;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.OperationType;
+import com.brodygaudel.bank.common.enums.ProjectionRebuildPhase;
+import com.brodygaudel.bank.common.event.account.*;
+import com.brodygaudel.bank.common.event.customer.CustomerCreatedEvent;
+import com.brodygaudel.bank.common.event.customer.CustomerDeletedEvent;
+import com.brodygaudel.bank.common.event.customer.CustomerUpdatedEvent;
+import com.brodygaudel.bank.common.util.DeterministicIds;
+import com.brodygaudel.bank.query.entity.Account;
+import com.brodygaudel.bank.query.entity.Customer;
+import com.brodygaudel.bank.query.entity.Operation;
+import com.brodygaudel.bank.query.service.account.AccountBalanceCache;
+import com.brodygaudel.bank.query.service.account.AccountEventHandlerService;
+import com.brodygaudel.bank.query.service.customer.CustomerEventHandlerService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Service rebuilding the {@code CUSTOMER}, {@code ACCOUNT} and {@code OPERATION} tables from the event store.
+ *
+ * <p>
+ * Replaying the events through the {@link AccountEventHandlerService} and {@link CustomerEventHandlerService} reads
+ * and writes an account or a customer for every event. A rebuild applies the events to the same entities as these
+ * handlers do, but bulk-loads the tables instead:
+ * </p>
+ * <ol>
+ *     <li>the projection processors of this node are stopped, the rebuild is refused if another node still claims a
+ *     segment of them, and the head of the event store is taken;</li>
+ *     <li>{@link ProjectionRebuildPhase#STAGING STAGING}: the events up to the head are read once, and the final state
+ *     of every customer and account is kept in memory, along with the credits and debits the handlers would reject;
+ *     the tables are left as they are and keep answering the queries;</li>
+ *     <li>{@link ProjectionRebuildPhase#LOADING LOADING}: the rows of the customers no longer staged are deleted, then
+ *     every staged customer is replaced in one transaction with its account and its operations, read from the events
+ *     of the account with the identifier the handler gives them; the customers are replaced in transactions of about
+ *     {@code projection-rebuild.chunk-size} rows, inserted as JDBC batches, so a query sees either the former or the
+ *     rebuilt rows of an account, never a partial account;</li>
+ *     <li>the {@link AccountBalanceCache} is emptied, the tokens of the processors are reset to the head and the
+ *     processors are started again, catching up with the events published during the rebuild.</li>
+ * </ol>
+ *
+ * <p>
+ * The staging pass reads at most {@code projection-rebuild.max-events-per-second} events per second, and the short
+ * transactions of the load leave room for the queries and commands handled meanwhile. The progress of the running or
+ * last rebuild, with an estimate of the time left, can be queried while it runs.
+ * </p>
+ *
+ * <p>
+ * The rebuild only stops the processors of the node it runs on, so it requires the projections to be processed by
+ * that node alone: the processors of the other nodes must be stopped first, or the rebuild is refused. A failed
+ * rebuild leaves the processors stopped, since the tables no longer match their tokens, until a rebuild succeeds. A
+ * rebuild is refused once events were archived, as they are no longer read from the event store.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ProjectionRebuildService {
+
+    private static final List<String> PROCESSING_GROUPS = List.of(
+            CustomerEventHandlerService.PROCESSING_GROUP, AccountEventHandlerService.PROCESSING_GROUP);
+
+    private final EventStore eventStore;
+    private final EventProcessingConfiguration eventProcessingConfiguration;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EventArchive eventArchive;
+    private final AccountBalanceCache accountBalanceCache;
+    private final int maxEventsPerSecond;
+    private final int chunkSize;
+    private final long idleTimeoutMillis;
+    private final ExecutorService executor;
+    private volatile Rebuild current;
+
+    /**
+     * Constructs a new instance of ProjectionRebuildService.
+     *
+     * @param eventStore                   The event store the projections are rebuilt from.
+     * @param eventProcessingConfiguration The configuration holding the processors of the projections.
+     * @param entityManager                The entity manager writing the tables.
+     * @param transactionTemplate          The template running the transactions of the load.
+     * @param eventArchive                 The archive of the events, which must be empty.
+     * @param accountBalanceCache          The cache of the balances, emptied once the accounts are rebuilt.
+     * @param maxEventsPerSecond           The maximum number of events read per second, or 0 for no limit.
+     * @param chunkSize                    The number of rows replaced per transaction.
+     * @param idleTimeout                  The time after which an event stream without new events is considered read.
+     */
+    public ProjectionRebuildService(EventStore eventStore, EventProcessingConfiguration eventProcessingConfiguration,
+                                    EntityManager entityManager, TransactionTemplate transactionTemplate,
+                                    EventArchive eventArchive, AccountBalanceCache accountBalanceCache,
+                                    @Value("${projection-rebuild.max-events-per-second}") int maxEventsPerSecond,
+                                    @Value("${projection-rebuild.chunk-size}") int chunkSize,
+                                    @Value("${projection-rebuild.idle-timeout}") Duration idleTimeout) {
+        if (maxEventsPerSecond < 0 || chunkSize <= 0 || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("the rebuild needs a positive chunk size and idle timeout");
+        }
+        this.eventStore = eventStore;
+        this.eventProcessingConfiguration = eventProcessingConfiguration;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventArchive = eventArchive;
+        this.accountBalanceCache = accountBalanceCache;
+        this.maxEventsPerSecond = maxEventsPerSecond;
+        this.chunkSize = chunkSize;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "projection-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a rebuild of the projections, unless one is already running.
+     *
+     * @return A CompletableFuture holding the final status of the started rebuild, or of the one already running.
+     */
+    public synchronized CompletableFuture<ProjectionRebuildStatusDTO> start() {
+        if (current != null && !current.finished()) {
+            return current.done;
+        }
+        Rebuild rebuild = new Rebuild();
+        current = rebuild;
+        executor.execute(() -> run(rebuild));
+        return rebuild.done;
+    }
+
+    /**
+     * Retrieves the status of the running or last rebuild.
+     *
+     * @return The status of the rebuild, or an empty optional if no rebuild was started.
+     */
+    public Optional<ProjectionRebuildStatusDTO> getStatus() {
+        return Optional.ofNullable(current).map(Rebuild::status);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(@NotNull Rebuild rebuild) {
+        try {
+            if (!eventArchive.isEmpty()) {
+                throw new IllegalStateException("events were archived and can no longer be replayed");
+            }
+            List<StreamingEventProcessor> processors = PROCESSING_GROUPS.stream()
+                    .map(group -> eventProcessingConfiguration.eventProcessor(group, StreamingEventProcessor.class)
+                            .orElseThrow(() -> new IllegalStateException("no streaming processor for " + group)))
+                    .toList();
+            List<StreamingEventProcessor> running = processors.stream().filter(StreamingEventProcessor::isRunning)
+                    .toList();
+            processors.forEach(processor -> processor.shutdownAsync().join());
+            String claimed = claimedElsewhere(processors);
+            if (claimed != null) {
+                running.forEach(StreamingEventProcessor::start);
+                throw new IllegalStateException("the processor " + claimed + " runs on another node, which must be "
+                        + "stopped before rebuilding the projections");
+            }
+            TrackingToken head = eventStore.createHeadToken();
+            rebuild.headPosition = head == null ? -1 : position(head);
+            log.info("Rebuilding the projections up to position {}", rebuild.headPosition);
+
+            Staging staging = new Staging();
+            replay(rebuild, staging::apply);
+            rebuild.enter(ProjectionRebuildPhase.LOADING);
+            load(rebuild, staging);
+            accountBalanceCache.clear();
+
+            for (StreamingEventProcessor processor : processors) {
+                if (head != null) {
+                    processor.resetTokens(head);
+                }
+                processor.start();
+            }
+            rebuild.finish(ProjectionRebuildPhase.COMPLETED, null);
+            log.info("Projections rebuilt: {}", rebuild.status());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rebuild.finish(ProjectionRebuildPhase.FAILED, "interrupted");
+        } catch (RuntimeException e) {
+            log.error("Rebuild of the projections failed", e);
+            rebuild.finish(ProjectionRebuildPhase.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the events of the event store up to the head of the rebuild, at the configured rate.
+     */
+    private void replay(@NotNull Rebuild rebuild, Consumer<TrackedEventMessage<?>> handler) throws InterruptedException {
+        if (rebuild.headPosition < 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        long read = 0;
+        try (BlockingStream<TrackedEventMessage<?>> events = eventStore.openStream(null)) {
+            while (rebuild.position < rebuild.headPosition
+                    && events.hasNextAvailable((int) idleTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                TrackedEventMessage<?> event = events.nextAvailable();
+                rebuild.position = position(event.trackingToken());
+                if (rebuild.position > rebuild.headPosition) {
+                    break;
+                }
+                handler.accept(event);
+                rebuild.events++;
+                rebuild.read = rebuild.position + 1;
+                read++;
+                if (maxEventsPerSecond > 0) {
+                    long ahead = TimeUnit.SECONDS.toNanos(read) / maxEventsPerSecond - (System.nanoTime() - start);
+                    if (ahead > 0) {
+                        TimeUnit.NANOSECONDS.sleep(ahead);
+                    }
+                }
+            }
+        }
+        rebuild.position = rebuild.headPosition;
+        rebuild.read = rebuild.headPosition + 1;
+    }
+
+    /**
+     * Returns the name of a processor with a segment claimed by another node, or {@code null} if there is none, once
+     * the processors of this node released their claims.
+     */
+    private String claimedElsewhere(@NotNull List<StreamingEventProcessor> processors) {
+        for (StreamingEventProcessor processor : processors) {
+            TokenStore tokenStore = eventProcessingConfiguration.tokenStore(processor.getName());
+            Boolean claimed = transactionTemplate.execute(status -> tokenStore.fetchAvailableSegments(
+                    processor.getName()).size() < tokenStore.fetchSegments(processor.getName()).length);
+            if (Boolean.TRUE.equals(claimed)) {
+                return processor.getName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the customers no longer staged, then replaces every staged customer with its account and operations.
+     */
+    private void load(@NotNull Rebuild rebuild, @NotNull Staging staging) {
+        List<String> removed = transactionTemplate.execute(status -> entityManager
+                .createQuery("select c.id from Customer c", String.class)
+                .getResultList());
+        removed = removed.stream().filter(id -> !staging.customers.containsKey(id)).toList();
+        for (int from = 0; from < removed.size(); from += chunkSize) {
+            List<String> chunk = removed.subList(from, Math.min(from + chunkSize, removed.size()));
+            transactionTemplate.executeWithoutResult(status -> delete(chunk));
+        }
+        List<Customer> customers = new ArrayList<>(staging.customers.values());
+        rebuild.customersToLoad = customers.size();
+        int from = 0;
+        while (from < customers.size()) {
+            int to = from;
+            long rows = 0;
+            while (to < customers.size() && rows < chunkSize) {
+                rows += staging.rowsOf(customers.get(to++));
+            }
+            List<Customer> chunk = customers.subList(from, to);
+            transactionTemplate.executeWithoutResult(status -> replace(rebuild, staging, chunk));
+            from = to;
+        }
+    }
+
+    /**
+     * Replaces customers with their staged state, with their account and its operations, leaving none of them in the
+     * persistence context.
+     */
+    private void replace(@NotNull Rebuild rebuild, @NotNull Staging staging, @NotNull List<Customer> customers) {
+        delete(customers.stream().map(Customer::getId).toList());
+        for (Customer customer : customers) {
+            entityManager.persist(customer);
+            Account account = staging.accountOf(customer);
+            if (account != null) {
+                account.setCustomer(customer);
+                entityManager.persist(account);
+                rebuild.accounts++;
+                insertOperations(rebuild, staging, account);
+            }
+            rebuild.customers++;
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Inserts the operations of an account, read from its events up to the last one staged.
+     */
+    private void insertOperations(@NotNull Rebuild rebuild, @NotNull Staging staging, @NotNull Account account) {
+        long last = staging.lastSequenceOf(account.getId());
+        DomainEventStream events = eventStore.readEvents(account.getId(), 0);
+        while (events.hasNext() && events.peek().getSequenceNumber() <= last) {
+            Operation operation = staging.operationOf(events.next());
+            if (operation != null) {
+                operation.setAccount(account);
+                entityManager.persist(operation);
+                rebuild.operations++;
+            }
+        }
+    }
+
+    /**
+     * Deletes customers with their account and its operations.
+     */
+    private void delete(@NotNull List<String> customerIds) {
+        entityManager.createQuery("delete from Operation o where o.account.id in "
+                        + "(select a.id from Account a where a.customer.id in :ids)")
+                .setParameter("ids", customerIds)
+                .executeUpdate();
+        entityManager.createQuery("delete from Account a where a.customer.id in :ids")
+                .setParameter("ids", customerIds)
+                .executeUpdate();
+        entityManager.createQuery("delete from Customer c where c.id in :ids")
+                .setParameter("ids", customerIds)
+                .executeUpdate();
+    }
+
+    /**
+     * Returns the sequence number of an event in its aggregate, the events of the accounts being domain events.
+     */
+    private static long sequenceNumber(@NotNull EventMessage<?> message) {
+        return message instanceof DomainEventMessage<?> domainEvent ? domainEvent.getSequenceNumber() : 0;
+    }
+
+    private static long position(@NotNull TrackingToken token) {
+        return token.position().orElseThrow(
+                () -> new IllegalStateException("the tracking tokens of the event store have no position"));
+    }
+
+    /**
+     * The final state of the customers and accounts, built from the events as the projection handlers build it.
+     *
+     * <p>
+     * The accounts refer to their customer by a customer holding only its identifier. The credits and debits the
+     * handlers reject, those of a missing or not activated account and the debits exceeding the balance, are
+     * recorded, so that no operation is inserted for them, and the operations of the accepted ones are counted.
+     * </p>
+     */
+    private final class Staging {
+
+        private final Map<String, Customer> customers = new LinkedHashMap<>();
+        private final Map<String, Account> accounts = new LinkedHashMap<>();
+        private final Map<String, String> accountIdsByCustomerId = new HashMap<>();
+        private final Set<String> rejectedEventIds = new HashSet<>();
+        private final Map<String, Long> lastSequences = new HashMap<>();
+        private final Map<String, Integer> operationCounts = new HashMap<>();
+
+        private void apply(@NotNull TrackedEventMessage<?> message) {
+            if (message instanceof DomainEventMessage<?> domainEvent) {
+                lastSequences.put(domainEvent.getAggregateIdentifier(), domainEvent.getSequenceNumber());
+            }
+            Object payload = message.getPayload();
+            if (payload instanceof CustomerCreatedEvent event) {
+                customers.put(event.getId(), Customer.builder()
+                        .id(event.getId())
+                        .nic(event.getNic())
+                        .firstname(event.getFirstname())
+                        .name(event.getName())
+                        .placeOfBirth(event.getPlaceOfBirth())
+                        .dateOfBirth(event.getDateOfBirth())
+                        .nationality(event.getNationality())
+                        .sex(event.getSex())
+                        .creation(event.getCreation())
+                        .build());
+            } else if (payload instanceof CustomerUpdatedEvent event) {
+                Customer customer = customers.get(event.getId());
+                if (customer != null) {
+                    customer.setNic(event.getNic());
+                    customer.setFirstname(event.getFirstname());
+                    customer.setName(event.getName());
+                    customer.setPlaceOfBirth(event.getPlaceOfBirth());
+                    customer.setDateOfBirth(event.getDateOfBirth());
+                    customer.setNationality(event.getNationality());
+                    customer.setSex(event.getSex());
+                    customer.setLastUpdate(event.getLastUpdate());
+                }
+            } else if (payload instanceof CustomerDeletedEvent event) {
+                customers.remove(event.getId());
+                String accountId = accountIdsByCustomerId.remove(event.getId());
+                if (accountId != null) {
+                    accounts.remove(accountId);
+                }
+            } else if (payload instanceof AccountCreatedEvent event) {
+                accounts.put(event.getId(), Account.builder()
+                        .id(event.getId())
+                        .balance(event.getBalance())
+                        .creation(event.getCreation())
+                        .status(event.getStatus())
+                        .lastSequence(sequenceNumber(message))
+                        .customer(Customer.builder().id(event.getCustomerId()).build())
+                        .build());
+                accountIdsByCustomerId.put(event.getCustomerId(), event.getId());
+            } else if (payload instanceof AccountActivatedEvent event) {
+                updateStatus(event.getId(), event.getStatus(), event.getLastUpdate(), message);
+            } else if (payload instanceof AccountSuspendedEvent event) {
+                updateStatus(event.getId(), event.getStatus(), event.getLastUpdate(), message);
+            } else if (payload instanceof AccountCreditedEvent event) {
+                Account account = activated(event.getId(), message);
+                if (account != null) {
+                    account.setBalance(account.getBalance().add(event.getAmount()));
+                    account.setLastUpdate(event.getLastUpdate());
+                    account.setLastSequence(sequenceNumber(message));
+                    operationCounts.merge(event.getId(), 1, Integer::sum);
+                }
+            } else if (payload instanceof AccountDebitedEvent event) {
+                Account account = activated(event.getId(), message);
+                if (account != null && account.getBalance().compareTo(event.getAmount()) < 0) {
+                    rejectedEventIds.add(message.getIdentifier());
+                } else if (account != null) {
+                    account.setBalance(account.getBalance().subtract(event.getAmount()));
+                    account.setLastUpdate(event.getLastUpdate());
+                    account.setLastSequence(sequenceNumber(message));
+                    operationCounts.merge(event.getId(), 1, Integer::sum);
+                }
+            }
+        }
+
+        private void updateStatus(String accountId, AccountStatus status, LocalDateTime lastUpdate,
+                                  @NotNull TrackedEventMessage<?> message) {
+            Account account = accounts.get(accountId);
+            if (account != null) {
+                account.setStatus(status);
+                account.setLastUpdate(lastUpdate);
+                account.setLastSequence(sequenceNumber(message));
+            }
+        }
+
+        private Account activated(String accountId, @NotNull TrackedEventMessage<?> message) {
+            Account account = accounts.get(accountId);
+            if (account == null || account.getStatus() != AccountStatus.ACTIVATED) {
+                rejectedEventIds.add(message.getIdentifier());
+                return null;
+            }
+            return account;
+        }
+
+        private Account accountOf(@NotNull Customer customer) {
+            String accountId = accountIdsByCustomerId.get(customer.getId());
+            return accountId == null ? null : accounts.get(accountId);
+        }
+
+        private long lastSequenceOf(String accountId) {
+            return lastSequences.getOrDefault(accountId, -1L);
+        }
+
+        /**
+         * Returns the number of rows of a customer: the customer, its account and the operations of the account.
+         */
+        private long rowsOf(@NotNull Customer customer) {
+            Account account = accountOf(customer);
+            return account == null ? 1 : 2 + operationCounts.getOrDefault(account.getId(), 0);
+        }
+
+        /**
+         * Returns the operation recorded by a credit or debit the handlers accept, or null for any other event.
+         */
+        private Operation operationOf(@NotNull EventMessage<?> message) {
+            Object payload = message.getPayload();
+            if (payload instanceof AccountCreditedEvent event) {
+                return operation(message, event.getId(), OperationType.CREDIT, event.getAmount(),
+                        event.getDescription(), event.getLastUpdate());
+            } else if (payload instanceof AccountDebitedEvent event) {
+                return operation(message, event.getId(), OperationType.DEBIT, event.getAmount(),
+                        event.getDescription(), event.getLastUpdate());
+            }
+            return null;
+        }
+
+        private Operation operation(@NotNull EventMessage<?> message, String accountId, OperationType type,
+                                    BigDecimal amount, String description, LocalDateTime dateTime) {
+            if (rejectedEventIds.contains(message.getIdentifier()) || !accounts.containsKey(accountId)) {
+                return null;
+            }
+            return Operation.builder()
+                    .id(DeterministicIds.of(message.getIdentifier(), sequenceNumber(message), message.getTimestamp()))
+                    .account(Account.builder().id(accountId).build())
+                    .amount(amount)
+                    .dateTime(dateTime)
+                    .type(type)
+                    .description(description)
+                    .build();
+        }
+    }
+
+    /**
+     * The progress of one rebuild, written by the rebuild thread only.
+     */
+    private static final class Rebuild {
+
+        private final long start = System.nanoTime();
+        private final CompletableFuture<ProjectionRebuildStatusDTO> done = new CompletableFuture<>();
+        private volatile ProjectionRebuildPhase phase = ProjectionRebuildPhase.STAGING;
+        private volatile long events;
+        private volatile long customers;
+        private volatile long accounts;
+        private volatile long operations;
+        private volatile long customersToLoad;
+        private volatile long position = -1;
+        private volatile long read;
+        private volatile long headPosition = -1;
+        private volatile String error;
+        private volatile long end;
+
+        private boolean finished() {
+            return phase == ProjectionRebuildPhase.COMPLETED || phase == ProjectionRebuildPhase.FAILED;
+        }
+
+        private void enter(ProjectionRebuildPhase phase) {
+            this.phase = phase;
+        }
+
+        private void finish(ProjectionRebuildPhase phase, String error) {
+            this.error = error;
+            this.end = System.nanoTime();
+            this.phase = phase;
+            done.complete(status());
+        }
+
+        /**
+         * Returns the status of the rebuild. Its progress counts the staging pass, as the share of the positions of the
+         * event store already read, for one half, and the load, as the share of the customers already replaced, for
+         * the other; the time left is estimated at the rate of the progress so far.
+         */
+        private ProjectionRebuildStatusDTO status() {
+            ProjectionRebuildPhase phase = this.phase;
+            long elapsed = (finished() ? end : System.nanoTime()) - start;
+            double progress;
+            if (phase == ProjectionRebuildPhase.COMPLETED || headPosition < 0) {
+                progress = 1;
+            } else if (phase == ProjectionRebuildPhase.LOADING) {
+                progress = customersToLoad == 0 ? 1 : 0.5 + 0.5 * customers / customersToLoad;
+            } else {
+                progress = 0.5 * read / (headPosition + 1);
+            }
+            Long eta = null;
+            if (!finished() && progress > 0) {
+                eta = (long) ((1 - progress) * elapsed / progress / 1_000_000_000L);
+            }
+            return new ProjectionRebuildStatusDTO(
+                    phase,
+                    events,
+                    customers,
+                    accounts,
+                    operations,
+                    position,
+                    headPosition,
+                    progress,
+                    elapsed > 0 ? events * 1_000_000_000.0 / elapsed : 0,
+                    eta,
+                    elapsed / 1_000_000,
+                    error
+            );
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.brodygaudel.bank.query.service.account;
+
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.exception.AccountNotFoundException;
+import com.brodygaudel.bank.query.entity.Account;
+import com.brodygaudel.bank.query.repository.AccountRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Write-behind cache of the balance and status of the accounts, for the {@link AccountEventHandlerService}.
+ *
+ * <p>
+ * A transaction works on its own copy of the balances it touches, taken from the cache, or read from the
+ * {@code ACCOUNT} table on a miss. The changed balances are written just before the transaction commits, one update
+ * per account whatever the number of its events, and enter the cache once it committed; a rolled back transaction
+ * evicts them instead. Since the projection stores its tracking token in the same transaction, the table and the
+ * token never disagree, whether the processor stops or restarts: the balances are written at the commit of every
+ * batch of the processor, so its batch size sets how many events a write covers.
+ * </p>
+ *
+ * <p>
+ * Along with the balance, the cache keeps the sequence number of the last event applied to the account, so a
+ * redelivered event is recognised and ignored without reading anything.
+ * </p>
+ *
+ * <p>
+ * An update only applies if the row still holds the balance and sequence number the cache last read or wrote;
+ * otherwise the account was changed outside this cache, for instance by another node that claimed its segment, the
+ * transaction fails with an {@link OptimisticLockingFailureException} and the processor retries it with the balance
+ * read again.
+ * </p>
+ *
+ * <p>
+ * The cache keeps the {@code account-balance-cache.max-entries} accounts used last.
+ * </p>
+ */
+@Component
+@Slf4j
+public class AccountBalanceCache {
+
+    private final AccountRepository accountRepository;
+    private final Map<String, Balance> balances;
+
+    /**
+     * Constructs a new instance of AccountBalanceCache.
+     *
+     * @param accountRepository The repository for managing account data.
+     * @param maxEntries        The maximum number of accounts kept in the cache.
+     */
+    public AccountBalanceCache(AccountRepository accountRepository,
+                               @Value("${account-balance-cache.max-entries}") int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("the balance cache needs a positive number of entries");
+        }
+        this.accountRepository = accountRepository;
+        this.balances = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Balance> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Retrieves the balance of an account as seen by the current transaction.
+     *
+     * @param accountId The unique identifier of the account.
+     * @return The balance of the account, to be changed by the transaction.
+     * @throws AccountNotFoundException if the account is neither cached nor stored.
+     */
+    public Balance get(String accountId) {
+        return find(accountId).orElseThrow(() -> new AccountNotFoundException("account not found"));
+    }
+
+    /**
+     * Retrieves the balance of an account as seen by the current transaction, if the account exists.
+     *
+     * @param accountId The unique identifier of the account.
+     * @return An Optional holding the balance of the account, or an empty Optional if it is neither cached nor stored.
+     */
+    public Optional<Balance> find(String accountId) {
+        Map<String, Balance> pending = pending();
+        Balance balance = pending.get(accountId);
+        if (balance == null) {
+            Balance cached = balances.get(accountId);
+            balance = cached != null ? cached.copy() : accountRepository.findById(accountId)
+                    .map(Balance::of)
+                    .orElse(null);
+            if (balance != null) {
+                pending.put(accountId, balance);
+            }
+        }
+        return Optional.ofNullable(balance);
+    }
+
+    /**
+     * Adds an account inserted by the current transaction, so its following events are handled without reading it.
+     *
+     * @param account The inserted account.
+     */
+    public void put(@NotNull Account account) {
+        pending().put(account.getId(), Balance.of(account));
+    }
+
+    /**
+     * Evicts every account, for instance once the {@code ACCOUNT} table was rebuilt.
+     */
+    public void clear() {
+        balances.clear();
+    }
+
+    /**
+     * Returns the number of accounts in the cache.
+     *
+     * @return The number of cached accounts.
+     */
+    public int size() {
+        return balances.size();
+    }
+
+    private Map<String, Balance> pending() {
+        @SuppressWarnings("unchecked")
+        Map<String, Balance> pending = (Map<String, Balance>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new HashMap<>();
+            TransactionSynchronizationManager.registerSynchronization(new Flush(pending));
+            TransactionSynchronizationManager.bindResource(this, pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Writes the balances changed by a transaction before it commits, and publishes or evicts them once it completed.
+     */
+    private final class Flush implements TransactionSynchronization {
+
+        private final Map<String, Balance> pending;
+
+        private Flush(Map<String, Balance> pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (pending.values().stream().noneMatch(balance -> balance.dirty)) {
+                return;
+            }
+            accountRepository.flush();
+            for (Balance balance : pending.values()) {
+                if (!balance.dirty) {
+                    continue;
+                }
+                int updated = accountRepository.updateBalance(balance.accountId, balance.balance, balance.status,
+                        balance.lastUpdate, balance.sequence, balance.storedBalance, balance.storedSequence);
+                if (updated == 0) {
+                    throw new OptimisticLockingFailureException(
+                            "account " + balance.accountId + " was changed outside the balance cache");
+                }
+                balance.storedBalance = balance.balance;
+                balance.storedSequence = balance.sequence;
+                balance.dirty = false;
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AccountBalanceCache.this);
+            if (status == STATUS_COMMITTED) {
+                balances.putAll(pending);
+            } else {
+                balances.keySet().removeAll(pending.keySet());
+                log.debug("Evicted {} account balances of a rolled back transaction", pending.size());
+            }
+        }
+    }
+
+    /**
+     * The balance, status, last update and last applied sequence number of an account, with the balance and sequence
+     * number its row holds. A sequence number of -1 stands for none.
+     */
+    @Getter
+    public static final class Balance {
+
+        private final String accountId;
+        private BigDecimal balance;
+        private AccountStatus status;
+        private LocalDateTime lastUpdate;
+        private long sequence;
+        private BigDecimal storedBalance;
+        private long storedSequence;
+        private boolean dirty;
+
+        private Balance(String accountId, BigDecimal balance, AccountStatus status, LocalDateTime lastUpdate,
+                        long sequence, BigDecimal storedBalance, long storedSequence, boolean dirty) {
+            this.accountId = accountId;
+            this.balance = balance;
+            this.status = status;
+            this.lastUpdate = lastUpdate;
+            this.sequence = sequence;
+            this.storedBalance = storedBalance;
+            this.storedSequence = storedSequence;
+            this.dirty = dirty;
+        }
+
+        private static @NotNull Balance of(@NotNull Account account) {
+            long sequence = account.getLastSequence() == null ? -1 : account.getLastSequence();
+            return new Balance(account.getId(), account.getBalance(), account.getStatus(), account.getLastUpdate(),
+                    sequence, account.getBalance(), sequence, false);
+        }
+
+        private @NotNull Balance copy() {
+            return new Balance(accountId, balance, status, lastUpdate, sequence, storedBalance, storedSequence, dirty);
+        }
+
+        /**
+         * Checks whether an event of the account was already applied, in which case it is a redelivery.
+         *
+         * @param sequenceNumber The sequence number of the event.
+         * @return true if the sequence number is not above the last one applied.
+         */
+        public boolean isApplied(long sequenceNumber) {
+            return sequenceNumber <= sequence;
+        }
+
+        /**
+         * Adds an amount to the balance.
+         *
+         * @param amount         The amount credited.
+         * @param lastUpdate     The timestamp of the credit.
+         * @param sequenceNumber The sequence number of the event.
+         */
+        public void credit(@NotNull BigDecimal amount, LocalDateTime lastUpdate, long sequenceNumber) {
+            this.balance = balance.add(amount);
+            this.lastUpdate = lastUpdate;
+            this.sequence = sequenceNumber;
+            this.dirty = true;
+        }
+
+        /**
+         * Subtracts an amount from the balance.
+         *
+         * @param amount         The amount debited.
+         * @param lastUpdate     The timestamp of the debit.
+         * @param sequenceNumber The sequence number of the event.
+         */
+        public void debit(@NotNull BigDecimal amount, LocalDateTime lastUpdate, long sequenceNumber) {
+            this.balance = balance.subtract(amount);
+            this.lastUpdate = lastUpdate;
+            this.sequence = sequenceNumber;
+            this.dirty = true;
+        }
+
+        /**
+         * Changes the status of the account.
+         *
+         * @param status         The new status.
+         * @param lastUpdate     The timestamp of the change.
+         * @param sequenceNumber The sequence number of the event.
+         */
+        public void changeStatus(AccountStatus status, LocalDateTime lastUpdate, long sequenceNumber) {
+            this.status = status;
+            this.lastUpdate = lastUpdate;
+            this.sequence = sequenceNumber;
+            this.dirty = true;
+        }
+    }
+}
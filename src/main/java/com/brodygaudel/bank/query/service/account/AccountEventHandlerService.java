@@ -8,32 +8,66 @@ import com.brodygaudel.bank.query.entity.Operation;
 import com.brodygaudel.bank.common.enums.AccountStatus;
 import com.brodygaudel.bank.common.enums.OperationType;
 import com.brodygaudel.bank.common.exception.AccountNotActivatedException;
-import com.brodygaudel.bank.common.exception.AccountNotFoundException;
-import com.brodygaudel.bank.common.exception.CustomerAlreadyHaveAccountException;
-import com.brodygaudel.bank.common.exception.CustomerNotFoundException;
 import com.brodygaudel.bank.query.repository.AccountRepository;
 import com.brodygaudel.bank.query.repository.CustomerRepository;
 import com.brodygaudel.bank.query.repository.OperationRepository;
+import com.brodygaudel.bank.common.util.DeterministicIds;
 import lombok.extern.slf4j.Slf4j;
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ReplayStatus;
+import org.axonframework.eventhandling.SequenceNumber;
+import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.messaging.annotation.MessageIdentifier;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.UUID;
+import java.time.Instant;
 
 /**
  * Service class for handling events related to accounts, such as creation, activation, suspension,
  * crediting, and debiting.
+ *
+ * <p>
+ * The events are handled by a pooled streaming processor split into segments by aggregate: the events of an account
+ * are handled in order, by one thread at a time, while distinct accounts are handled in parallel.
+ * </p>
+ *
+ * <p>
+ * With a processor batch size above one, the events of a batch are handled in one transaction, and the operations,
+ * which are inserted without being looked up first, are sent as JDBC batches.
+ * </p>
+ *
+ * <p>
+ * The balances and statuses of the accounts are kept in the {@link AccountBalanceCache}: an account is only read on a
+ * cache miss, and its row is written once per transaction, just before it commits along with the tracking token.
+ * </p>
+ *
+ * <p>
+ * The handlers are idempotent, so that an event may be delivered more than once, for instance when a batch is retried
+ * or the tokens are reset: an account records the sequence number of its last applied event, and an event whose
+ * sequence number is not above it is ignored. A retried batch was rolled back along with its tracking token, so only
+ * a replay may deliver the creation of an account already stored. An operation is identified by {@link DeterministicIds} from the event
+ * it records, so the same event always yields the same row.
+ * </p>
  */
 @Service
 @Transactional
+@ProcessingGroup(AccountEventHandlerService.PROCESSING_GROUP)
 @Slf4j
 public class AccountEventHandlerService {
 
+    /**
+     * The name of the processing group of this handler. It is the name of its package, which Axon used by default,
+     * so the tokens its processor already stored are kept.
+     */
+    public static final String PROCESSING_GROUP = "com.brodygaudel.bank.query.service.account";
+
     private final AccountRepository accountRepository;
     private final OperationRepository operationRepository;
     private final CustomerRepository customerRepository;
+    private final AccountBalanceCache accountBalanceCache;
 
     /**
      * Constructs an {@code AccountEventHandlerService} with the specified repositories.
@@ -41,97 +75,120 @@ public class AccountEventHandlerService {
      * @param accountRepository    The repository for managing account data.
      * @param operationRepository  The repository for managing operation data.
      * @param customerRepository   The repository for managing customer data.
+     * @param accountBalanceCache  The write-behind cache of the balances of the accounts.
      */
-    public AccountEventHandlerService(AccountRepository accountRepository, OperationRepository operationRepository, CustomerRepository customerRepository) {
+    public AccountEventHandlerService(AccountRepository accountRepository, OperationRepository operationRepository,
+                                      CustomerRepository customerRepository, AccountBalanceCache accountBalanceCache) {
         this.accountRepository = accountRepository;
         this.operationRepository = operationRepository;
         this.customerRepository = customerRepository;
+        this.accountBalanceCache = accountBalanceCache;
     }
 
     /**
      * Handles the {@code AccountCreatedEvent} by creating a new account and associating it with a customer.
      *
-     * @param event The {@code AccountCreatedEvent} to handle.
+     * <p>
+     * The customer and its single account are checked on the command side before the event is stored, so the
+     * account is inserted with a reference to the customer, without reading either of them. Only an event replayed
+     * after a reset of the tokens looks the account up first, and is ignored if the account is already projected.
+     * </p>
+     *
+     * @param event          The {@code AccountCreatedEvent} to handle.
+     * @param sequenceNumber The sequence number of the event.
+     * @param replayStatus   Whether the event is replayed.
      */
     @EventHandler
-    public void on(@NotNull AccountCreatedEvent event){
+    public void on(@NotNull AccountCreatedEvent event, @SequenceNumber long sequenceNumber,
+                   ReplayStatus replayStatus){
         log.info("# AccountCreatedEvent handled");
-        Customer customer = customerRepository.findById(event.getCustomerId())
-                .orElseThrow(() -> new CustomerNotFoundException("customer not found"));
-        if(customer.getAccount() != null){
-            throw new CustomerAlreadyHaveAccountException("this customer already has an account");
+        if (replayStatus.isReplay() && accountBalanceCache.find(event.getId()).isPresent()) {
+            log.info("# account already projected, event ignored");
+            return;
         }
+        Customer customer = customerRepository.getReferenceById(event.getCustomerId());
         Account account = Account.builder()
                 .id(event.getId())
                 .balance(event.getBalance())
                 .creation(event.getCreation())
                 .status(event.getStatus())
                 .lastUpdate(null)
+                .lastSequence(sequenceNumber)
                 .customer(customer)
+                .created(true)
                 .build();
         Account accountSaved = accountRepository.save(account);
+        accountBalanceCache.put(accountSaved);
         log.info("# account saved at "+accountSaved.getCreation());
     }
 
     /**
      * Handles the {@code AccountActivatedEvent} by updating the status of an existing account to activate.
      *
-     * @param event The {@code AccountActivatedEvent} to handle.
+     * @param event          The {@code AccountActivatedEvent} to handle.
+     * @param sequenceNumber The sequence number of the event.
      */
     @EventHandler
-    public void on(@NotNull AccountActivatedEvent event){
+    public void on(@NotNull AccountActivatedEvent event, @SequenceNumber long sequenceNumber){
         log.info("# AccountActivatedEvent handled");
-        Account account = accountRepository.findById(event.getId())
-                .orElseThrow(() -> new AccountNotFoundException("account not found."));
-        account.setStatus(event.getStatus());
-        account.setLastUpdate(event.getLastUpdate());
-        Account accountActivated = accountRepository.save(account);
-        log.info("# account activated at "+accountActivated.getCreation());
+        AccountBalanceCache.Balance balance = accountBalanceCache.get(event.getId());
+        if (balance.isApplied(sequenceNumber)) {
+            log.info("# event already applied, ignored");
+            return;
+        }
+        balance.changeStatus(event.getStatus(), event.getLastUpdate(), sequenceNumber);
+        log.info("# account activated at "+balance.getLastUpdate());
     }
 
     /**
      * Handles the {@code AccountSuspendedEvent} by updating the status of an existing account to suspended.
      *
-     * @param event The {@code AccountSuspendedEvent} to handle.
+     * @param event          The {@code AccountSuspendedEvent} to handle.
+     * @param sequenceNumber The sequence number of the event.
      */
     @EventHandler
-    public void on(@NotNull AccountSuspendedEvent event){
+    public void on(@NotNull AccountSuspendedEvent event, @SequenceNumber long sequenceNumber){
         log.info("# AccountSuspendedEvent handled");
-        Account account = accountRepository.findById(event.getId())
-                .orElseThrow(() -> new AccountNotFoundException("account not found."));
-        account.setStatus(event.getStatus());
-        account.setLastUpdate(event.getLastUpdate());
-        Account accountSuspended = accountRepository.save(account);
-        log.info("# account suspended at "+accountSuspended.getCreation());
+        AccountBalanceCache.Balance balance = accountBalanceCache.get(event.getId());
+        if (balance.isApplied(sequenceNumber)) {
+            log.info("# event already applied, ignored");
+            return;
+        }
+        balance.changeStatus(event.getStatus(), event.getLastUpdate(), sequenceNumber);
+        log.info("# account suspended at "+balance.getLastUpdate());
     }
 
     /**
      * Handles the {@code AccountCreditedEvent} by updating the balance of an existing account and recording a credit operation.
      *
-     * @param event The {@code AccountCreditedEvent} to handle.
+     * @param event             The {@code AccountCreditedEvent} to handle.
+     * @param messageIdentifier The identifier of the event message.
+     * @param sequenceNumber    The sequence number of the event.
+     * @param timestamp         The timestamp of the event.
      */
     @EventHandler
-    public void on(@NotNull AccountCreditedEvent event){
+    public void on(@NotNull AccountCreditedEvent event, @MessageIdentifier String messageIdentifier,
+                   @SequenceNumber long sequenceNumber, @Timestamp Instant timestamp){
         log.info("# AccountCreditedEvent handled");
-        Account account = accountRepository.findById(event.getId())
-                .orElseThrow(() -> new AccountNotFoundException("account not found"));
-        if(!account.getStatus().equals(AccountStatus.ACTIVATED)){
-            throw new AccountNotActivatedException("account not activated => "+account.getStatus());
+        AccountBalanceCache.Balance balance = accountBalanceCache.get(event.getId());
+        if (balance.isApplied(sequenceNumber)) {
+            log.info("# event already applied, ignored");
+        } else if(!balance.getStatus().equals(AccountStatus.ACTIVATED)){
+            throw new AccountNotActivatedException("account not activated => "+balance.getStatus());
         }else{
-            account.setBalance(account.getBalance().add(event.getAmount()));
-            account.setLastUpdate(event.getLastUpdate());
+            balance.credit(event.getAmount(), event.getLastUpdate(), sequenceNumber);
             Operation operation = Operation.builder()
-                    .account(account)
+                    .account(accountRepository.getReferenceById(event.getId()))
                     .amount(event.getAmount())
                     .dateTime(event.getLastUpdate())
                     .type(OperationType.CREDIT)
                     .description(event.getDescription())
-                    .id(UUID.randomUUID().toString())
+                    .id(DeterministicIds.of(messageIdentifier, sequenceNumber, timestamp))
+                    .created(true)
                     .build();
             Operation operationSaved = operationRepository.save(operation);
             log.info("# credit operation saved at : "+operationSaved.getDateTime());
-            Account accountSaved = accountRepository.save(account);
-            log.info("# account credited at : "+accountSaved.getLastUpdate());
+            log.info("# account credited at : "+balance.getLastUpdate());
         }
     }
 
@@ -139,32 +196,36 @@ public class AccountEventHandlerService {
      * Handles the {@code AccountDebitedEvent} by updating the balance of an existing account,
      * recording a debit operation, and checking for sufficient balance.
      *
-     * @param event The {@code AccountDebitedEvent} to handle.
+     * @param event             The {@code AccountDebitedEvent} to handle.
+     * @param messageIdentifier The identifier of the event message.
+     * @param sequenceNumber    The sequence number of the event.
+     * @param timestamp         The timestamp of the event.
      */
     @EventHandler
-    public void on(@NotNull AccountDebitedEvent event) {
+    public void on(@NotNull AccountDebitedEvent event, @MessageIdentifier String messageIdentifier,
+                   @SequenceNumber long sequenceNumber, @Timestamp Instant timestamp) {
         log.info("# AccountDebitedEvent handled");
-        Account account = accountRepository.findById(event.getId())
-                .orElseThrow(() -> new AccountNotFoundException("account not found"));
-        if(!account.getStatus().equals(AccountStatus.ACTIVATED)){
-            throw new AccountNotActivatedException("account not activated => "+account.getStatus());
-        } else if (account.getBalance().compareTo(event.getAmount()) < 0) {
+        AccountBalanceCache.Balance balance = accountBalanceCache.get(event.getId());
+        if (balance.isApplied(sequenceNumber)) {
+            log.info("# event already applied, ignored");
+        } else if(!balance.getStatus().equals(AccountStatus.ACTIVATED)){
+            throw new AccountNotActivatedException("account not activated => "+balance.getStatus());
+        } else if (balance.getBalance().compareTo(event.getAmount()) < 0) {
             throw new InsufficientBalanceException("Balance not sufficient");
         }else{
-            account.setBalance(account.getBalance().subtract(event.getAmount()));
-            account.setLastUpdate(event.getLastUpdate());
+            balance.debit(event.getAmount(), event.getLastUpdate(), sequenceNumber);
             Operation operation = Operation.builder()
-                    .account(account)
+                    .account(accountRepository.getReferenceById(event.getId()))
                     .amount(event.getAmount())
                     .dateTime(event.getLastUpdate())
                     .type(OperationType.DEBIT)
                     .description(event.getDescription())
-                    .id(UUID.randomUUID().toString())
+                    .id(DeterministicIds.of(messageIdentifier, sequenceNumber, timestamp))
+                    .created(true)
                     .build();
             Operation operationSaved = operationRepository.save(operation);
             log.info("# debit operation saved at : "+operationSaved.getDateTime());
-            Account accountSaved = accountRepository.save(account);
-            log.info("# account debited at : "+accountSaved.getLastUpdate());
+            log.info("# account debited at : "+balance.getLastUpdate());
         }
     }
 }
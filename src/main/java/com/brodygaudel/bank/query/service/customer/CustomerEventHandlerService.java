@@ -5,9 +5,9 @@ import com.brodygaudel.bank.common.event.customer.CustomerDeletedEvent;
 import com.brodygaudel.bank.common.event.customer.CustomerUpdatedEvent;
 import com.brodygaudel.bank.query.entity.Customer;
 import com.brodygaudel.bank.common.exception.CustomerNotFoundException;
-import com.brodygaudel.bank.common.exception.NicAlreadyExistException;
 import com.brodygaudel.bank.query.repository.CustomerRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
@@ -15,12 +15,29 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service class for handling customer-related events, such as creation, update, and deletion.
+ *
+ * <p>
+ * The uniqueness of the National Identity Card is checked on the command side, before the events are stored, by the
+ * {@link com.brodygaudel.bank.command.service.CustomerLookupService}.
+ * </p>
+ *
+ * <p>
+ * Like the accounts, the customers are projected by a pooled streaming processor that handles the events of a
+ * customer in order and distinct customers in parallel.
+ * </p>
  */
 @Service
 @Transactional
+@ProcessingGroup(CustomerEventHandlerService.PROCESSING_GROUP)
 @Slf4j
 public class CustomerEventHandlerService {
 
+    /**
+     * The name of the processing group of this handler. It is the name of its package, which Axon used by default,
+     * so the tokens its processor already stored are kept.
+     */
+    public static final String PROCESSING_GROUP = "com.brodygaudel.bank.query.service.customer";
+
     private final CustomerRepository customerRepository;
 
     /**
@@ -40,7 +57,6 @@ public class CustomerEventHandlerService {
     @EventHandler
     public void on(@NotNull CustomerCreatedEvent event){
         log.info("CustomerCreatedEvent handled");
-        checkIfNicAlreadyExist(event.getNic());
         Customer customer = Customer.builder()
                 .id(event.getId())
                 .nic(event.getNic())
@@ -66,9 +82,6 @@ public class CustomerEventHandlerService {
     public void on(@NotNull CustomerUpdatedEvent event) {
         log.info("CustomerUpdatedEvent handled");
         Customer customer = getCustomerById(event.getId());
-        if(!customer.getNic().equals(event.getNic())){
-            checkIfNicAlreadyExist(event.getNic());
-        }
         setNewItemsValue(customer, event);
         Customer customerUpdated = customerRepository.save(customer);
         log.info("customer updated at :"+customerUpdated.getLastUpdate());
@@ -86,19 +99,6 @@ public class CustomerEventHandlerService {
         log.info("customer deleted");
     }
 
-    /**
-     * Checks if a National Identity Card (NIC) already exists in the customer repository.
-     *
-     * @param nic The National Identity Card (NIC) to check for existence.
-     * @throws NicAlreadyExistException if a customer with the given NIC already exists.
-     */
-    private void checkIfNicAlreadyExist(String nic){
-        Boolean exist = customerRepository.checkIfNicExists(nic);
-        if(Boolean.TRUE.equals(exist)){
-            throw new NicAlreadyExistException("national identity card '"+nic+"' already exists");
-        }
-    }
-
     /**
      * Retrieves a {@link Customer} entity by its unique identifier.
      *
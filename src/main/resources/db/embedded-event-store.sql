@@ -0,0 +1,7 @@
+-- Indexes of the embedded event store, created after the tables of the Axon entities.
+-- The reads of an aggregate (aggregate_identifier = ? and sequence_number >= ? order by sequence_number) use the unique
+-- index of domain_event_entry on (aggregate_identifier, sequence_number), the tracking reads (global_index > ?) use its
+-- primary key, and the snapshot reads use the primary key of snapshot_event_entry: all are declared by the entities.
+
+-- Tokens created at a point in time (reset of a processor to a date, replay from a date) look events up by timestamp.
+create index if not exists domain_event_entry_time_stamp on domain_event_entry (time_stamp);
@@ -0,0 +1,138 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.command.aggregate.AccountAggregate;
+import com.brodygaudel.bank.common.command.account.DebitAccountCommand;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.event.account.AccountActivatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import org.axonframework.config.AggregateConfigurer;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.NoSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures how long a debit takes on an {@link AccountAggregate} as its history grows, with and without snapshots.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AccountRehydrationBenchmark {
+
+    private static final int[] HISTORY_SIZES = {1_000, 10_000, 100_000};
+    private static final int SNAPSHOT_THRESHOLD = 100;
+    private static final int WARMUP_DEBITS = 5;
+    private static final int MEASURED_DEBITS = 20;
+    private static final String ACCOUNT_ID = "account";
+
+    @Test
+    void debitLatencyAsHistoryGrows() {
+        BenchmarkSupport.quietLogging();
+        BenchmarkSupport.printHeader("Debit latency by history size (ms per debit)");
+        System.out.printf("%10s %15s %15s%n", "events", "no snapshot", "snapshot");
+        for (int historySize : HISTORY_SIZES) {
+            double withoutSnapshot = measure(historySize, false);
+            double withSnapshot = measure(historySize, true);
+            System.out.printf("%10d %15.3f %15.3f%n", historySize, withoutSnapshot, withSnapshot);
+        }
+    }
+
+    private double measure(int historySize, boolean snapshotting) {
+        Serializer serializer = BenchmarkSupport.jacksonSerializer();
+        AggregateConfigurer<AccountAggregate> aggregate = AggregateConfigurer.defaultConfiguration(AccountAggregate.class)
+                .configureSnapshotTrigger(c -> snapshotting
+                        ? new EventCountSnapshotTriggerDefinition(c.snapshotter(), SNAPSHOT_THRESHOLD)
+                        : NoSnapshotTriggerDefinition.INSTANCE);
+        Configuration configuration = DefaultConfigurer.defaultConfiguration(false)
+                .configureSerializer(c -> serializer)
+                .configureEmbeddedEventStore(c -> new SnapshotSerializingEventStorageEngine(serializer))
+                .configureAggregate(aggregate)
+                .buildConfiguration();
+        configuration.start();
+        try {
+            seedHistory(configuration, historySize);
+            if (snapshotting) {
+                configuration.snapshotter().scheduleSnapshot(AccountAggregate.class, ACCOUNT_ID);
+            }
+            for (int i = 0; i < WARMUP_DEBITS; i++) {
+                debit(configuration);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_DEBITS; i++) {
+                debit(configuration);
+            }
+            return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_DEBITS;
+        } finally {
+            configuration.shutdown();
+        }
+    }
+
+    private static void seedHistory(Configuration configuration, int historySize) {
+        String type = AccountAggregate.class.getSimpleName();
+        List<EventMessage<?>> events = new ArrayList<>(historySize);
+        events.add(new GenericDomainEventMessage<>(type, ACCOUNT_ID, 0, new AccountCreatedEvent(
+                ACCOUNT_ID, BigDecimal.ZERO, AccountStatus.CREATED, LocalDateTime.now(), "customer")));
+        events.add(new GenericDomainEventMessage<>(type, ACCOUNT_ID, 1, new AccountActivatedEvent(
+                ACCOUNT_ID, AccountStatus.ACTIVATED, LocalDateTime.now())));
+        for (int sequence = 2; sequence < historySize; sequence++) {
+            events.add(new GenericDomainEventMessage<>(type, ACCOUNT_ID, sequence, new AccountCreditedEvent(
+                    ACCOUNT_ID, BigDecimal.TEN, "credit", LocalDateTime.now())));
+        }
+        configuration.eventStore().publish(events);
+    }
+
+    private static void debit(Configuration configuration) {
+        configuration.commandGateway().sendAndWait(
+                new DebitAccountCommand(ACCOUNT_ID, BigDecimal.ONE, "debit", LocalDateTime.now())
+        );
+    }
+
+    /**
+     * In-memory storage engine that keeps snapshots in their serialized form, so that loading a snapshot pays the
+     * same deserialization cost as with a real event store and never hands out a shared aggregate instance.
+     */
+    private static class SnapshotSerializingEventStorageEngine extends InMemoryEventStorageEngine {
+
+        private final Serializer serializer;
+        private final Map<String, SerializedSnapshot> snapshots = new ConcurrentHashMap<>();
+
+        SnapshotSerializingEventStorageEngine(Serializer serializer) {
+            this.serializer = serializer;
+        }
+
+        @Override
+        public void storeSnapshot(DomainEventMessage<?> snapshot) {
+            snapshots.put(snapshot.getAggregateIdentifier(), new SerializedSnapshot(
+                    snapshot.getType(), snapshot.getSequenceNumber(),
+                    serializer.serialize(snapshot.getPayload(), byte[].class)
+            ));
+        }
+
+        @Override
+        public Optional<DomainEventMessage<?>> readSnapshot(String aggregateIdentifier) {
+            return Optional.ofNullable(snapshots.get(aggregateIdentifier))
+                    .map(snapshot -> new GenericDomainEventMessage<>(
+                            snapshot.type(), aggregateIdentifier, snapshot.sequenceNumber(),
+                            serializer.deserialize(snapshot.payload())
+                    ));
+        }
+
+        private record SerializedSnapshot(String type, long sequenceNumber, SerializedObject<byte[]> payload) {
+        }
+    }
+}
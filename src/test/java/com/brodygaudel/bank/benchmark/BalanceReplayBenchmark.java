@@ -0,0 +1,91 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.command.aggregate.AccountAggregate;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.brodygaudel.bank.common.event.account.AccountDebitedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compares the replay throughput of the minor units balance of the {@link AccountAggregate} with the previous
+ * {@link BigDecimal} balance, which allocated a new instance for every sourced credit or debit.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BalanceReplayBenchmark {
+
+    private static final int EVENTS = 1_000_000;
+    private static final int ROUNDS = 10;
+
+    @Test
+    void replayThroughput() {
+        BenchmarkSupport.quietLogging();
+        Object[] events = new Object[EVENTS];
+        BigDecimal[] decimalAmounts = new BigDecimal[EVENTS];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < EVENTS; i++) {
+            BigDecimal amount = BigDecimal.valueOf(100 + i % 1_000, 2);
+            events[i] = i % 3 == 0
+                    ? new AccountDebitedEvent("id", amount, "debit", now)
+                    : new AccountCreditedEvent("id", amount, "credit", now);
+            decimalAmounts[i] = i % 3 == 0 ? amount.negate() : amount;
+        }
+
+        BenchmarkSupport.printHeader("Balance replay over " + EVENTS + " events");
+        System.out.printf("%-12s %15s %15s%n", "path", "events/s", "bytes/event");
+        Result decimal = null;
+        Result minorUnits = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            decimal = measure(() -> replayDecimal(decimalAmounts));
+            minorUnits = measure(() -> replayMinorUnits(events));
+        }
+        System.out.printf("%-12s %15.0f %15.1f%n", "BigDecimal", decimal.eventsPerSecond(), decimal.bytesPerEvent());
+        System.out.printf("%-12s %15.0f %15.1f%n", "long", minorUnits.eventsPerSecond(), minorUnits.bytesPerEvent());
+    }
+
+    /**
+     * The previous sourcing path: one {@code add} (or {@code subtract}) per event.
+     */
+    private static Object replayDecimal(BigDecimal[] amounts) {
+        BigDecimal balance = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            balance = balance.add(amount);
+        }
+        return balance;
+    }
+
+    /**
+     * The current sourcing path, through the event sourcing handlers of the aggregate.
+     */
+    private static Object replayMinorUnits(Object[] events) {
+        AccountAggregate aggregate = new AccountAggregate();
+        for (Object event : events) {
+            if (event instanceof AccountCreditedEvent credited) {
+                aggregate.on(credited);
+            } else {
+                aggregate.on((AccountDebitedEvent) event);
+            }
+        }
+        return aggregate;
+    }
+
+    private static Result measure(java.util.function.Supplier<Object> replay) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        Object result = replay.get();
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (result == null) {
+            throw new IllegalStateException("replay produced no state");
+        }
+        return new Result(EVENTS * 1_000_000_000.0 / elapsed, (double) allocated / EVENTS);
+    }
+
+    private record Result(double eventsPerSecond, double bytesPerEvent) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.brodygaudel.bank.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helpers shared by the benchmarks of this package.
+ *
+ * <p>
+ * Benchmarks are regular JUnit classes that only run when the {@code benchmark} system property is {@code true}:
+ * {@code mvn test -Dtest='*Benchmark' -Dbenchmark=true}. They print their results to the standard output.
+ * </p>
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+        super();
+    }
+
+    /**
+     * Raises the root log level to {@code WARN} so that the per-message {@code INFO} logs of the aggregates and
+     * handlers do not dominate the measurements.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    /**
+     * Builds a Jackson serializer configured like the one of the application (Java time and parameter names modules).
+     *
+     * @return The Jackson serializer.
+     */
+    static JacksonSerializer jacksonSerializer() {
+        return JacksonSerializer.builder()
+                .objectMapper(new ObjectMapper().findAndRegisterModules())
+                .build();
+    }
+
+    /**
+     * Prints a header line followed by an underline of the same length.
+     *
+     * @param title The title of the benchmark.
+     */
+    static void printHeader(String title) {
+        System.out.println();
+        System.out.println(title);
+        System.out.println("-".repeat(title.length()));
+    }
+}
@@ -0,0 +1,156 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.command.aggregate.AccountAggregate;
+import com.brodygaudel.bank.command.bus.ShardedAsynchronousCommandBus;
+import com.brodygaudel.bank.command.cache.WeightedAggregateCache;
+import com.brodygaudel.bank.command.service.CustomerLookupService;
+import com.brodygaudel.bank.common.command.account.CreateAccountCommand;
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.EvictionPolicy;
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.config.AggregateConfigurer;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the credit throughput of the default command bus with the {@link ShardedAsynchronousCommandBus}. The accounts
+ * are cached, as in the application, so a credit does not read the history of its account.
+ *
+ * <p>
+ * Every append to the event store waits {@link #APPEND_LATENCY_MICROS} microseconds, standing for the round trip to
+ * the event store, so the figures reflect how well each setup overlaps that latency rather than the speed of the
+ * in-memory store.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CommandBusBenchmark {
+
+    private static final int ACCOUNTS = 64;
+    private static final int CREDITS = 20_000;
+    private static final int MAX_IN_FLIGHT = 1_024;
+    private static final long APPEND_LATENCY_MICROS = 200;
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    @Test
+    void creditThroughput() throws InterruptedException {
+        BenchmarkSupport.quietLogging();
+        BenchmarkSupport.printHeader("Credits per second over " + ACCOUNTS + " accounts ("
+                + APPEND_LATENCY_MICROS + " us per append, " + CORES + " cores)");
+        System.out.printf("%-40s %15s%n", "setup", "credits/s");
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            report(print, "simple bus, 1 blocking client",
+                    measure(c -> SimpleCommandBus.builder().build(), 1, false));
+            report(print, "simple bus, 16 blocking clients",
+                    measure(c -> SimpleCommandBus.builder().build(), 16, false));
+            report(print, "sharded bus (" + CORES + " shards), 1 async client",
+                    measure(c -> ShardedAsynchronousCommandBus.builder().shards(CORES).build(), 1, true));
+            report(print, "sharded bus (16 shards), 1 async client",
+                    measure(c -> ShardedAsynchronousCommandBus.builder().shards(16).build(), 1, true));
+        }
+    }
+
+    private static void report(boolean print, String setup, double creditsPerSecond) {
+        if (print) {
+            System.out.printf("%-40s %15.0f%n", setup, creditsPerSecond);
+        }
+    }
+
+    private double measure(Function<Configuration, CommandBus> commandBus, int clients, boolean async)
+            throws InterruptedException {
+        Configuration configuration = DefaultConfigurer.defaultConfiguration(false)
+                .configureCommandBus(commandBus)
+                .registerComponent(CustomerLookupService.class, c -> mock(CustomerLookupService.class))
+                .configureEmbeddedEventStore(c -> new SlowAppendEventStorageEngine())
+                .configureAggregate(AggregateConfigurer.defaultConfiguration(AccountAggregate.class)
+                        .configureCache(c -> new WeightedAggregateCache("accountCache", ACCOUNTS, value -> 1, EvictionPolicy.LRU)))
+                .buildConfiguration();
+        configuration.start();
+        try {
+            CommandGateway gateway = configuration.commandGateway();
+            List<CompletableFuture<Object>> created = new ArrayList<>();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                created.add(gateway.send(new CreateAccountCommand("account-" + i, BigDecimal.ZERO,
+                        AccountStatus.ACTIVATED, LocalDateTime.now(), "customer")));
+            }
+            created.forEach(CompletableFuture::join);
+
+            long start = System.nanoTime();
+            if (async) {
+                sendAsync(gateway);
+            } else {
+                sendBlocking(gateway, clients);
+            }
+            return CREDITS * 1_000_000_000.0 / (System.nanoTime() - start);
+        } finally {
+            configuration.shutdown();
+            if (configuration.commandBus() instanceof ShardedAsynchronousCommandBus sharded) {
+                sharded.shutdown();
+            }
+        }
+    }
+
+    private static void sendAsync(CommandGateway gateway) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        for (int i = 0; i < CREDITS; i++) {
+            inFlight.acquire();
+            gateway.send(credit(i)).whenComplete((result, throwable) -> inFlight.release());
+        }
+        inFlight.acquire(MAX_IN_FLIGHT);
+    }
+
+    private static void sendBlocking(CommandGateway gateway, int clients) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        int perClient = CREDITS / clients;
+        for (int client = 0; client < clients; client++) {
+            int first = client * perClient;
+            executor.execute(() -> {
+                for (int i = first; i < first + perClient; i++) {
+                    gateway.sendAndWait(credit(i));
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("blocking clients did not finish");
+        }
+    }
+
+    private static CreditAccountCommand credit(int i) {
+        return new CreditAccountCommand("account-" + (i % ACCOUNTS), BigDecimal.ONE, "credit", LocalDateTime.now());
+    }
+
+    /**
+     * In-memory storage engine waiting a fixed time on every append.
+     */
+    private static final class SlowAppendEventStorageEngine extends InMemoryEventStorageEngine {
+
+        @Override
+        public void appendEvents(@NotNull List<? extends EventMessage<?>> events) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(APPEND_LATENCY_MICROS));
+            super.appendEvents(events);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.common.command.account.CreateAccountCommand;
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.command.customer.CreateCustomerCommand;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.query.repository.OperationRepository;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Measures the whole command to projection pipeline of the {@code embedded} profile: credits are sent through the
+ * command gateway, stored by the JPA event storage engine on H2 and projected by the tracking processors of the query
+ * side, on a single machine and without Axon Server.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bank-pipeline;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS bank",
+        "snapshot.account.threshold=100"
+})
+@ActiveProfiles("embedded")
+class EmbeddedPipelineBenchmark {
+
+    private static final int ACCOUNTS = 100;
+    private static final int CREDITS = 20_000;
+    private static final int MAX_IN_FLIGHT = 256;
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @Test
+    void pipelineThroughput() throws InterruptedException {
+        BenchmarkSupport.quietLogging();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            commandGateway.sendAndWait(new CreateCustomerCommand("customer-" + i, "nic-" + i, "John", "Doe", "Paris",
+                    LocalDate.of(1990, 1, 1), "French", Sex.M, now));
+            commandGateway.sendAndWait(new CreateAccountCommand("account-" + i, BigDecimal.ZERO,
+                    AccountStatus.ACTIVATED, now, "customer-" + i));
+        }
+
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        long start = System.nanoTime();
+        for (int i = 0; i < CREDITS; i++) {
+            inFlight.acquire();
+            commandGateway.send(new CreditAccountCommand("account-" + i % ACCOUNTS, BigDecimal.ONE, "credit", now))
+                    .whenComplete((result, error) -> inFlight.release());
+        }
+        inFlight.acquire(MAX_IN_FLIGHT);
+        long stored = System.nanoTime() - start;
+        while (operationRepository.count() < CREDITS) {
+            Thread.sleep(10);
+        }
+        long projected = System.nanoTime() - start;
+
+        BenchmarkSupport.printHeader("Embedded pipeline over " + CREDITS + " credits on " + ACCOUNTS + " accounts");
+        System.out.printf("%-12s %15s %15s%n", "stage", "commands/s", "elapsed ms");
+        System.out.printf("%-12s %15.0f %15d%n", "stored", CREDITS * 1e9 / stored, stored / 1_000_000);
+        System.out.printf("%-12s %15.0f %15d%n", "projected", CREDITS * 1e9 / projected, projected / 1_000_000);
+    }
+}
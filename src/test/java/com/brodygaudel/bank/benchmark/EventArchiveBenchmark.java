@@ -0,0 +1,166 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.command.aggregate.AccountAggregate;
+import com.brodygaudel.bank.command.service.EventArchiveJob;
+import com.brodygaudel.bank.command.service.EventStreamService;
+import com.brodygaudel.bank.common.dto.EventArchiveReportDTO;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Measures the event store of the {@code embedded} profile before and after the {@link EventArchiveJob} moved the
+ * events preceding the snapshots to the archive: the space taken by the events table, the time to load an aggregate
+ * (its snapshot and following events), the time of a full scan by a tracking processor, and the time to read the whole
+ * history of an aggregate for audit.
+ *
+ * <p>
+ * The events are appended to the storage engine directly, and the query side handlers are subscribing, so the
+ * projections do not compete with the measurements.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "snapshot.account.threshold=0",
+        "event-archive.min-age=0s",
+        "axon.eventhandling.processors[com.brodygaudel.bank.query.service.account].mode=subscribing",
+        "axon.eventhandling.processors[com.brodygaudel.bank.query.service.customer].mode=subscribing",
+        "axon.eventhandling.processors.TransferSagaProcessor.mode=subscribing"
+})
+@ActiveProfiles("embedded")
+class EventArchiveBenchmark {
+
+    private static final int ACCOUNTS = 200;
+    private static final int EVENTS_PER_ACCOUNT = 500;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private EventStorageEngine eventStorageEngine;
+
+    @Autowired
+    private EventStore eventStore;
+
+    @Autowired
+    private TransactionManager transactionManager;
+
+    @Autowired
+    private Snapshotter snapshotter;
+
+    @Autowired
+    private EventArchiveJob eventArchiveJob;
+
+    @Autowired
+    private EventStreamService eventStreamService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void directories(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("bank-archive-benchmark");
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + directory.resolve("db")
+                + ";INIT=CREATE SCHEMA IF NOT EXISTS bank");
+        registry.add("event-archive.directory", () -> directory.resolve("archive").toString());
+    }
+
+    @Test
+    void archiveSpaceAndReadLatency() throws Exception {
+        BenchmarkSupport.quietLogging();
+        LocalDateTime now = LocalDateTime.now();
+        for (int account = 0; account < ACCOUNTS; account++) {
+            String id = "account-" + account;
+            List<EventMessage<?>> events = new ArrayList<>(EVENTS_PER_ACCOUNT);
+            events.add(new GenericDomainEventMessage<>("AccountAggregate", id, 0,
+                    new AccountCreatedEvent(id, 0L, AccountStatus.ACTIVATED, now, "customer-" + account)));
+            for (int sequence = 1; sequence < EVENTS_PER_ACCOUNT; sequence++) {
+                events.add(new GenericDomainEventMessage<>("AccountAggregate", id, sequence,
+                        new AccountCreditedEvent(id, BigDecimal.ONE, "credit", now)));
+            }
+            transactionManager.executeInTransaction(() -> eventStorageEngine.appendEvents(events));
+            transactionManager.executeInTransaction(() -> snapshotter.scheduleSnapshot(AccountAggregate.class, id));
+        }
+
+        while (snapshots() < ACCOUNTS) {
+            Thread.sleep(10);
+        }
+
+        Measures before = measure();
+        EventArchiveReportDTO report = eventArchiveJob.archive();
+        Measures after = measure();
+
+        BenchmarkSupport.printHeader("Event archive over " + ACCOUNTS + " accounts of " + EVENTS_PER_ACCOUNT
+                + " events");
+        System.out.printf("archived %d events of %d aggregates in %d ms: %d bytes reclaimed, %d bytes archived%n",
+                report.events(), report.aggregates(), report.elapsedMillis(), report.reclaimedBytes(),
+                report.archivedBytes());
+        System.out.printf("%-8s %12s %12s %15s %12s %15s%n",
+                "store", "rows", "table KiB", "load us/aggr", "scan ms", "audit us/aggr");
+        before.print("before");
+        after.print("after");
+    }
+
+    private long snapshots() {
+        Long snapshots = jdbcTemplate.queryForObject("select count(*) from snapshot_event_entry", Long.class);
+        return snapshots == null ? 0 : snapshots;
+    }
+
+    private Measures measure() throws IOException {
+        Long rows = jdbcTemplate.queryForObject("select count(*) from domain_event_entry", Long.class);
+        Long bytes = jdbcTemplate.queryForObject("select disk_space_used('DOMAIN_EVENT_ENTRY')", Long.class);
+        double load = 0;
+        double scan = 0;
+        double audit = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int account = 0; account < ACCOUNTS; account++) {
+                eventStore.readEvents("account-" + account).asStream().count();
+            }
+            long loaded = System.nanoTime();
+            try (Stream<? extends EventMessage<?>> events = eventStorageEngine.readEvents(null, false)) {
+                events.count();
+            }
+            long scanned = System.nanoTime();
+            for (int account = 0; account < ACCOUNTS; account++) {
+                eventStreamService.writeAudit("account-" + account, OutputStream.nullOutputStream());
+            }
+            long audited = System.nanoTime();
+            if (round > 0) {
+                load += (loaded - start) / 1e3 / ACCOUNTS / ROUNDS;
+                scan += (scanned - loaded) / 1e6 / ROUNDS;
+                audit += (audited - scanned) / 1e3 / ACCOUNTS / ROUNDS;
+            }
+        }
+        return new Measures(rows == null ? 0 : rows, bytes == null ? 0 : bytes / 1024, load, scan, audit);
+    }
+
+    private record Measures(long rows, long kibibytes, double load, double scan, double audit) {
+
+        void print(String store) {
+            System.out.printf("%-8s %12d %12d %15.0f %12.0f %15.0f%n", store, rows, kibibytes, load, scan, audit);
+        }
+    }
+}
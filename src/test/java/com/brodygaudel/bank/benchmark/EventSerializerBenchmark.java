@@ -0,0 +1,109 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.brodygaudel.bank.common.event.account.AccountDebitedEvent;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.thoughtworks.xstream.XStream;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the size and the throughput of the event serializers selectable by {@code axon.serializer.events}: the
+ * JSON serializer in use, the XStream serializer in use for messages, and the CBOR serializer.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EventSerializerBenchmark {
+
+    private static final int EVENTS = 200_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void serializerComparison() {
+        BenchmarkSupport.quietLogging();
+        List<Object> events = accountHistory();
+        Map<String, Serializer> serializers = new LinkedHashMap<>();
+        serializers.put("jackson", BenchmarkSupport.jacksonSerializer());
+        serializers.put("xstream", xStreamSerializer());
+        serializers.put("cbor", JacksonSerializer.builder()
+                .objectMapper(new CBORMapper().findAndRegisterModules())
+                .build());
+
+        BenchmarkSupport.printHeader("Event serializers over " + EVENTS + " account events");
+        System.out.printf("%-10s %12s %18s %18s%n", "serializer", "bytes/event", "serialize/s", "deserialize/s");
+        serializers.forEach((name, serializer) -> {
+            Result result = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                result = measure(serializer, events);
+            }
+            System.out.printf("%-10s %12.1f %18.0f %18.0f%n", name, result.bytesPerEvent(),
+                    result.serializedPerSecond(), result.deserializedPerSecond());
+        });
+    }
+
+    /**
+     * The history of busy accounts: a creation followed by mostly debits and credits, as stored by the application.
+     */
+    private static List<Object> accountHistory() {
+        List<Object> events = new ArrayList<>(EVENTS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < EVENTS; i++) {
+            String id = "01HZX3V8Q0K7" + (i / 1_000);
+            if (i % 1_000 == 0) {
+                events.add(new AccountCreatedEvent(id, 0L, AccountStatus.CREATED, now, "customer-" + i));
+            } else if (i % 3 == 0) {
+                events.add(new AccountCreditedEvent(id, 10_000L + i, "salary", now.plusSeconds(i)));
+            } else {
+                events.add(new AccountDebitedEvent(id, 100L + i % 5_000, "card payment", now.plusSeconds(i)));
+            }
+        }
+        return events;
+    }
+
+    private static Serializer xStreamSerializer() {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[]{"com.brodygaudel.**"});
+        return XStreamSerializer.builder().xStream(xStream).build();
+    }
+
+    private static Result measure(Serializer serializer, List<Object> events) {
+        List<SerializedObject<byte[]>> serialized = new ArrayList<>(events.size());
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (Object event : events) {
+            SerializedObject<byte[]> object = serializer.serialize(event, byte[].class);
+            bytes += object.getData().length;
+            serialized.add(object);
+        }
+        long serializeNanos = System.nanoTime() - start;
+
+        int deserialized = 0;
+        start = System.nanoTime();
+        for (SerializedObject<byte[]> object : serialized) {
+            if (serializer.deserialize(object) != null) {
+                deserialized++;
+            }
+        }
+        long deserializeNanos = System.nanoTime() - start;
+        if (deserialized != events.size()) {
+            throw new IllegalStateException("events were lost by the serializer");
+        }
+        return new Result((double) bytes / events.size(),
+                events.size() * 1_000_000_000.0 / serializeNanos,
+                events.size() * 1_000_000_000.0 / deserializeNanos);
+    }
+
+    private record Result(double bytesPerEvent, double serializedPerSecond, double deserializedPerSecond) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.common.util.IdGenerator;
+import com.brodygaudel.bank.common.util.implementation.IdGeneratorImpl;
+import com.brodygaudel.bank.common.util.implementation.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the throughput of the deprecated {@link IdGeneratorImpl} with the {@link SnowflakeIdGenerator}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IdGeneratorBenchmark {
+
+    private static final int IDS_PER_THREAD = 500_000;
+    private static final int[] THREADS = {1, 4, 16};
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void generationThroughput() throws InterruptedException {
+        BenchmarkSupport.quietLogging();
+        BenchmarkSupport.printHeader("Generated IDs per second");
+        System.out.printf("%8s %18s %18s%n", "threads", "IdGeneratorImpl", "Snowflake");
+        for (int round = 0; round < 2; round++) {
+            for (int threads : THREADS) {
+                double legacy = measure(IdGeneratorImpl::new, threads);
+                double snowflake = measure(() -> new SnowflakeIdGenerator(0), threads);
+                if (round == 1) {
+                    System.out.printf("%8d %18.0f %18.0f%n", threads, legacy, snowflake);
+                }
+            }
+        }
+    }
+
+    private static double measure(Supplier<IdGenerator> factory, int threads) throws InterruptedException {
+        IdGenerator generator = factory.get();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    int length = 0;
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        length += generator.autoGenerate().length();
+                    }
+                    if (length == 0) {
+                        throw new IllegalStateException("no id generated");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+        return (double) threads * IDS_PER_THREAD * 1_000_000_000.0 / elapsed;
+    }
+}
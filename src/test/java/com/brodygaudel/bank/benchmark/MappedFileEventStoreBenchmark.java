@@ -0,0 +1,144 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.command.eventstore.MappedFileEventStorageEngine;
+import com.brodygaudel.bank.common.enums.FsyncPolicy;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import org.axonframework.common.jdbc.DataSourceConnectionProvider;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.PostgresEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Compares the append and read throughput of the {@link MappedFileEventStorageEngine} with Axon's JDBC engine on a
+ * file-based H2 database, standing for an RDBMS event store.
+ *
+ * <p>
+ * Every append is a single event, as appended by a command on one aggregate. The appends are made by one writer,
+ * then by {@value #WRITERS} concurrent writers, which share the forces of the {@link FsyncPolicy#ALWAYS} policy.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MappedFileEventStoreBenchmark {
+
+    private static final int AGGREGATES = 1_000;
+    private static final int EVENTS_PER_AGGREGATE = 20;
+    private static final int WRITERS = 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendAndReadThroughput() throws Exception {
+        BenchmarkSupport.quietLogging();
+        JacksonSerializer serializer = BenchmarkSupport.jacksonSerializer();
+        BenchmarkSupport.printHeader("Event store throughput (" + AGGREGATES * EVENTS_PER_AGGREGATE + " events)");
+        System.out.printf("%-18s %14s %14s %14s %14s%n",
+                "engine", "append 1 w/s", "append " + WRITERS + " w/s", "aggregate/s", "tracking/s");
+        run("jdbc h2", name -> jdbc(name, serializer));
+        run("mapped always", name -> mapped(name, serializer, FsyncPolicy.ALWAYS));
+        run("mapped interval", name -> mapped(name, serializer, FsyncPolicy.INTERVAL));
+        run("mapped never", name -> mapped(name, serializer, FsyncPolicy.NEVER));
+    }
+
+    private void run(String label, Function<String, EventStorageEngine> factory) throws Exception {
+        EventStorageEngine single = factory.apply(label.replace(' ', '-') + "-1");
+        double singleWriter = append(single, 1);
+        close(single);
+        EventStorageEngine engine = factory.apply(label.replace(' ', '-') + "-n");
+        double concurrentWriters = append(engine, WRITERS);
+        long events = (long) AGGREGATES * EVENTS_PER_AGGREGATE;
+
+        long start = System.nanoTime();
+        long read = 0;
+        for (int aggregate = 0; aggregate < AGGREGATES; aggregate++) {
+            read += engine.readEvents("account-" + aggregate).asStream().count();
+        }
+        double aggregateReads = read * 1e9 / (System.nanoTime() - start);
+
+        start = System.nanoTime();
+        long tracked = engine.readEvents(null, false).count();
+        double trackingReads = tracked * 1e9 / (System.nanoTime() - start);
+        if (read != events || tracked != events) {
+            throw new IllegalStateException(label + " read " + read + " and tracked " + tracked + " events");
+        }
+        close(engine);
+        System.out.printf("%-18s %14.0f %14.0f %14.0f %14.0f%n",
+                label, singleWriter, concurrentWriters, aggregateReads, trackingReads);
+    }
+
+    /**
+     * Appends every event of the aggregates one by one, the aggregates being split between the writers.
+     */
+    private static double append(EventStorageEngine engine, int writers) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                int first = writer;
+                appends.add(executor.submit(() -> {
+                    for (int sequence = 0; sequence < EVENTS_PER_AGGREGATE; sequence++) {
+                        for (int aggregate = first; aggregate < AGGREGATES; aggregate += writers) {
+                            String id = "account-" + aggregate;
+                            engine.appendEvents(new GenericDomainEventMessage<>("AccountAggregate", id, sequence,
+                                    new AccountCreditedEvent(id, BigDecimal.TEN, "credit", now)));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return (double) AGGREGATES * EVENTS_PER_AGGREGATE * 1e9 / (System.nanoTime() - start);
+    }
+
+    private EventStorageEngine mapped(String name, JacksonSerializer serializer, FsyncPolicy fsyncPolicy) {
+        return MappedFileEventStorageEngine.builder()
+                .eventSerializer(serializer)
+                .snapshotSerializer(serializer)
+                .directory(directory.resolve(name))
+                .fsync(fsyncPolicy, Duration.ofMillis(10))
+                .build();
+    }
+
+    private EventStorageEngine jdbc(String name, JacksonSerializer serializer) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:file:" + directory.resolve(name).toAbsolutePath() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        JdbcEventStorageEngine engine = JdbcEventStorageEngine.builder()
+                .eventSerializer(serializer)
+                .snapshotSerializer(serializer)
+                .connectionProvider(new DataSourceConnectionProvider(dataSource))
+                .transactionManager(NoTransactionManager.INSTANCE)
+                .build();
+        engine.createSchema(PostgresEventTableFactory.INSTANCE);
+        return engine;
+    }
+
+    private static void close(EventStorageEngine engine) {
+        if (engine instanceof MappedFileEventStorageEngine mapped) {
+            mapped.close();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.common.command.account.DebitAccountCommand;
+import com.brodygaudel.bank.common.configuration.MessageSerializerConfiguration;
+import com.brodygaudel.bank.common.dto.AccountResponseDTO;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.query.GetAccountByIdQuery;
+import com.thoughtworks.xstream.XStream;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.serialization.AnnotationRevisionResolver;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compares the latency added by the message serializer to a command and a query round trip, as paid when the messages
+ * go through Axon Server: the payload and the metadata of the request are serialized and read back, the handler runs,
+ * and its result is serialized and read back.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MessageSerializerBenchmark {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void roundTripLatency() {
+        BenchmarkSupport.quietLogging();
+        Map<String, Serializer> serializers = new LinkedHashMap<>();
+        serializers.put("xstream", xStreamSerializer());
+        serializers.put("jackson", new MessageSerializerConfiguration()
+                .messageSerializer(Jackson2ObjectMapperBuilder.json().build(), new AnnotationRevisionResolver()));
+        MetaData metaData = MetaData.with("traceId", "3f2a9c1e").and("correlationId", "8d1b0e77");
+        LocalDateTime now = LocalDateTime.now();
+        AccountResponseDTO account = AccountResponseDTO.builder().id("01HZX3V8Q0K7").balance(new BigDecimal("1250.75"))
+                .status(AccountStatus.ACTIVATED).customerId("01HZX3V8Q0K8").creation(now).lastUpdate(now).build();
+
+        BenchmarkSupport.printHeader("Message round trips over " + ITERATIONS + " iterations (microseconds)");
+        System.out.printf("%-10s %-22s %10s %10s %10s%n", "serializer", "message", "p50", "p99", "mean");
+        serializers.forEach((name, serializer) -> {
+            print(name, "GetAccountByIdQuery", measure(serializer, new GetAccountByIdQuery("01HZX3V8Q0K7"), metaData,
+                    query -> account));
+            print(name, "DebitAccountCommand", measure(serializer,
+                    new DebitAccountCommand("01HZX3V8Q0K7", new BigDecimal("12.50"), "card payment", now), metaData,
+                    command -> null));
+        });
+    }
+
+    private static Serializer xStreamSerializer() {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[]{"com.brodygaudel.**"});
+        return XStreamSerializer.builder().xStream(xStream).build();
+    }
+
+    private static <T> long[] measure(Serializer serializer, T request, MetaData metaData, Function<T, Object> handler) {
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+            long start = System.nanoTime();
+            T received = serializer.deserialize(serializer.serialize(request, byte[].class));
+            serializer.deserialize(serializer.serialize(metaData, byte[].class));
+            Object result = handler.apply(received);
+            if (result != null) {
+                SerializedObject<byte[]> response = serializer.serialize(result, byte[].class);
+                serializer.deserialize(response);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (i >= WARMUP) {
+                latencies[i - WARMUP] = elapsed;
+            }
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void print(String serializer, String message, long[] latencies) {
+        double mean = Arrays.stream(latencies).average().orElse(0);
+        System.out.printf("%-10s %-22s %10.1f %10.1f %10.1f%n", serializer, message,
+                latencies[latencies.length / 2] / 1_000.0,
+                latencies[latencies.length * 99 / 100] / 1_000.0,
+                mean / 1_000.0);
+    }
+}
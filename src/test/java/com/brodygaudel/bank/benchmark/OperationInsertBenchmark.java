@@ -0,0 +1,70 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.common.util.IdGenerator;
+import com.brodygaudel.bank.common.util.implementation.UuidV7IdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Compares the insert throughput of the {@code OPERATION} table keyed by random UUIDs with the same table keyed by
+ * time-ordered UUIDs, on a file-based H2 database standing for the Oracle read model.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OperationInsertBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void insertThroughput() throws SQLException {
+        BenchmarkSupport.quietLogging();
+        BenchmarkSupport.printHeader("Rows inserted per second into OPERATION (" + ROWS + " rows)");
+        System.out.printf("%-16s %15s%n", "primary key", "rows/s");
+        System.out.printf("%-16s %15.0f%n", "random UUID", measure("random", () -> UUID.randomUUID().toString()));
+        System.out.printf("%-16s %15.0f%n", "UUIDv7", measure("v7", new UuidV7IdGenerator()));
+    }
+
+    private double measure(String name, IdGenerator idGenerator) throws SQLException {
+        String url = "jdbc:h2:file:" + directory.resolve(name).toAbsolutePath() + ";CACHE_SIZE=8192";
+        try (Connection connection = DriverManager.getConnection(url)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE OPERATION (ID VARCHAR(255) PRIMARY KEY, TYPE VARCHAR(255) NOT NULL,"
+                        + " AMOUNT NUMERIC(38, 2) NOT NULL, DATE_TIME TIMESTAMP NOT NULL,"
+                        + " DESCRIPTION VARCHAR(255) NOT NULL, ACCOUNT_ID VARCHAR(255) NOT NULL)");
+            }
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO OPERATION VALUES (?, ?, ?, ?, ?, ?)")) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                for (int i = 1; i <= ROWS; i++) {
+                    insert.setString(1, idGenerator.autoGenerate());
+                    insert.setString(2, "CREDIT");
+                    insert.setBigDecimal(3, BigDecimal.TEN);
+                    insert.setTimestamp(4, now);
+                    insert.setString(5, "credit");
+                    insert.setString(6, "account-" + i % 1_000);
+                    insert.addBatch();
+                    if (i % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            return ROWS * 1_000_000_000.0 / (System.nanoTime() - start);
+        }
+    }
+}
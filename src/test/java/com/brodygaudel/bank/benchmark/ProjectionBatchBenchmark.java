@@ -0,0 +1,170 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.brodygaudel.bank.query.entity.Customer;
+import com.brodygaudel.bank.query.repository.CustomerRepository;
+import com.brodygaudel.bank.query.service.account.AccountEventHandlerService;
+import jakarta.persistence.EntityManagerFactory;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.ReplayStatus;
+import org.axonframework.eventhandling.SimpleEventHandlerInvoker;
+import org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the projection of credits by the {@link AccountEventHandlerService} one event per unit of work, the current
+ * path, with batches of events per unit of work, on an H2 file database standing for the read model.
+ *
+ * <p>
+ * The credits are read by a pooled streaming processor with one segment, as configured for the account projection,
+ * from an in-memory event store; the processors of the application are subscribing, so they do not compete with it.
+ * The number of JDBC statements per event is taken from the Hibernate statistics. The credits of the largest batch
+ * size are then delivered a second time, and ignored by the projection.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "axon.eventhandling.processors[com.brodygaudel.bank.query.service.account].mode=subscribing",
+        "axon.eventhandling.processors[com.brodygaudel.bank.query.service.customer].mode=subscribing",
+        "axon.eventhandling.processors.TransferSagaProcessor.mode=subscribing"
+})
+@ActiveProfiles("embedded")
+class ProjectionBatchBenchmark {
+
+    private static final int ACCOUNTS = 100;
+    private static final int EVENTS = 20_000;
+    private static final int[] BATCH_SIZES = {1, 16, 64};
+
+    @Autowired
+    private AccountEventHandlerService accountEventHandlerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("bank-projection-benchmark").toString();
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + directory
+                + "/db;INIT=CREATE SCHEMA IF NOT EXISTS bank");
+    }
+
+    @Test
+    void projectionThroughput() throws InterruptedException {
+        BenchmarkSupport.quietLogging();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            customerRepository.save(Customer.builder().id("customer-" + i).nic("nic-" + i).firstname("John")
+                    .name("Doe").placeOfBirth("Paris").dateOfBirth(LocalDate.of(1990, 1, 1)).nationality("French")
+                    .sex(Sex.M).creation(now).build());
+            accountEventHandlerService.on(new AccountCreatedEvent("account-" + i, BigDecimal.ZERO,
+                    AccountStatus.ACTIVATED, now, "customer-" + i), 0, ReplayStatus.REGULAR);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        int run = 0;
+        project(credits(run++, now), BATCH_SIZES[BATCH_SIZES.length - 1]);
+
+        BenchmarkSupport.printHeader("Account projection of " + EVENTS + " credits on " + ACCOUNTS + " accounts");
+        System.out.printf("%-12s %15s %18s%n", "batch size", "events/s", "statements/event");
+        List<DomainEventMessage<?>> events = null;
+        for (int batchSize : BATCH_SIZES) {
+            events = credits(run++, now);
+            statistics.clear();
+            double eventsPerSecond = project(events, batchSize);
+            System.out.printf("%-12d %15.0f %18.2f%n", batchSize, eventsPerSecond,
+                    (double) statistics.getPrepareStatementCount() / EVENTS);
+        }
+        statistics.clear();
+        double eventsPerSecond = project(events, BATCH_SIZES[BATCH_SIZES.length - 1]);
+        System.out.printf("%-12s %15.0f %18.2f%n", "redelivered", eventsPerSecond,
+                (double) statistics.getPrepareStatementCount() / EVENTS);
+    }
+
+    /**
+     * Returns the credits of a run, following the sequence numbers of the credits of the previous runs, since the
+     * projection ignores the events it already applied.
+     */
+    private static List<DomainEventMessage<?>> credits(int run, LocalDateTime now) {
+        List<DomainEventMessage<?>> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            String id = "account-" + i % ACCOUNTS;
+            events.add(new GenericDomainEventMessage<>("AccountAggregate", id,
+                    (long) run * (EVENTS / ACCOUNTS) + i / ACCOUNTS + 1,
+                    new AccountCreditedEvent(id, BigDecimal.ONE, "credit", now)));
+        }
+        return events;
+    }
+
+    private double project(List<DomainEventMessage<?>> events, int batchSize) throws InterruptedException {
+        EmbeddedEventStore eventStore = EmbeddedEventStore.builder()
+                .storageEngine(new InMemoryEventStorageEngine())
+                .build();
+        eventStore.publish(events);
+        AtomicLong handled = new AtomicLong();
+        ScheduledExecutorService coordinator = Executors.newSingleThreadScheduledExecutor();
+        ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor();
+        PooledStreamingEventProcessor processor = PooledStreamingEventProcessor.builder()
+                .name("projection-" + batchSize)
+                .eventHandlerInvoker(SimpleEventHandlerInvoker.builder()
+                        .eventHandlers(accountEventHandlerService)
+                        .build())
+                .messageSource(eventStore)
+                .tokenStore(new InMemoryTokenStore())
+                .transactionManager(transactionManager)
+                .coordinatorExecutor(coordinator)
+                .workerExecutor(worker)
+                .initialSegmentCount(1)
+                .batchSize(batchSize)
+                .initialToken(StreamableMessageSource::createTailToken)
+                .build();
+        processor.registerHandlerInterceptor((unitOfWork, chain) -> {
+            unitOfWork.afterCommit(committed -> handled.addAndGet(1));
+            return chain.proceed();
+        });
+        long start = System.nanoTime();
+        processor.start();
+        while (handled.get() < EVENTS) {
+            Thread.sleep(1);
+        }
+        long elapsed = System.nanoTime() - start;
+        processor.shutDown();
+        coordinator.shutdown();
+        worker.shutdown();
+        eventStore.shutDown();
+        return EVENTS * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,137 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.SimpleEventHandlerInvoker;
+import org.axonframework.eventhandling.async.SequentialPerAggregatePolicy;
+import org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the throughput of a pooled streaming processor projecting account credits with 1, 4 and 16 segments, one
+ * thread per segment, as configured for the projections of the query side.
+ *
+ * <p>
+ * The projection handler either only updates an in-memory balance, or also waits for a simulated round trip to the
+ * database of the read model, which is what the segments overlap. The handler checks that the events of every account
+ * are received in sequence order.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProjectionProcessorBenchmark {
+
+    private static final int ACCOUNTS = 256;
+    private static final int EVENTS = 20_000;
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(250);
+    private static final int[] SEGMENTS = {1, 4, 16};
+
+    @Test
+    void projectionThroughput() throws InterruptedException {
+        BenchmarkSupport.quietLogging();
+        EmbeddedEventStore eventStore = EmbeddedEventStore.builder()
+                .storageEngine(new InMemoryEventStorageEngine())
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        List<DomainEventMessage<?>> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            String id = "account-" + i % ACCOUNTS;
+            events.add(new GenericDomainEventMessage<>("AccountAggregate", id, i / ACCOUNTS,
+                    new AccountCreditedEvent(id, BigDecimal.ONE, "credit", now)));
+        }
+        eventStore.publish(events);
+        project(eventStore, 1, 0);
+
+        BenchmarkSupport.printHeader("Pooled projection of " + EVENTS + " credits on " + ACCOUNTS + " accounts");
+        System.out.printf("%-10s %18s %18s %18s%n", "segments", "in-memory ev/s", "round trip ev/s", "out of order");
+        for (int segments : SEGMENTS) {
+            Result inMemory = project(eventStore, segments, 0);
+            Result roundTrip = project(eventStore, segments, ROUND_TRIP_NANOS);
+            System.out.printf("%-10d %18.0f %18.0f %18d%n", segments, inMemory.eventsPerSecond(),
+                    roundTrip.eventsPerSecond(), inMemory.outOfOrder() + roundTrip.outOfOrder());
+        }
+        eventStore.shutDown();
+    }
+
+    private static Result project(EmbeddedEventStore eventStore, int segments, long roundTripNanos)
+            throws InterruptedException {
+        Projection projection = new Projection(roundTripNanos);
+        ScheduledExecutorService coordinator = Executors.newSingleThreadScheduledExecutor();
+        ScheduledExecutorService workers = Executors.newScheduledThreadPool(segments);
+        PooledStreamingEventProcessor processor = PooledStreamingEventProcessor.builder()
+                .name("projection-" + segments)
+                .eventHandlerInvoker(SimpleEventHandlerInvoker.builder()
+                        .eventHandlers(projection)
+                        .sequencingPolicy(SequentialPerAggregatePolicy.instance())
+                        .build())
+                .messageSource(eventStore)
+                .tokenStore(new InMemoryTokenStore())
+                .transactionManager(NoTransactionManager.INSTANCE)
+                .coordinatorExecutor(coordinator)
+                .workerExecutor(workers)
+                .initialSegmentCount(segments)
+                .initialToken(StreamableMessageSource::createTailToken)
+                .build();
+        long start = System.nanoTime();
+        processor.start();
+        while (projection.handled.get() < EVENTS) {
+            Thread.sleep(1);
+        }
+        long elapsed = System.nanoTime() - start;
+        processor.shutDown();
+        coordinator.shutdown();
+        workers.shutdown();
+        return new Result(EVENTS * 1e9 / elapsed, projection.outOfOrder.get());
+    }
+
+    private record Result(double eventsPerSecond, long outOfOrder) {
+    }
+
+    /**
+     * Projects the balances of the accounts.
+     */
+    public static class Projection {
+
+        private final Map<String, Long> balances = new ConcurrentHashMap<>();
+        private final Map<String, Long> sequenceNumbers = new ConcurrentHashMap<>();
+        private final AtomicLong handled = new AtomicLong();
+        private final AtomicLong outOfOrder = new AtomicLong();
+        private final long roundTripNanos;
+
+        Projection(long roundTripNanos) {
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        @EventHandler
+        public void on(AccountCreditedEvent event, DomainEventMessage<?> message) {
+            Long previous = sequenceNumbers.put(event.getId(), message.getSequenceNumber());
+            if (previous != null && previous != message.getSequenceNumber() - 1) {
+                outOfOrder.incrementAndGet();
+            }
+            balances.merge(event.getId(), event.getAmountInMinorUnits(), Long::sum);
+            if (roundTripNanos > 0) {
+                LockSupport.parkNanos(roundTripNanos);
+            }
+            handled.incrementAndGet();
+        }
+    }
+}
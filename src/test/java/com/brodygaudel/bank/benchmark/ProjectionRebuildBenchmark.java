@@ -0,0 +1,186 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.command.service.EventArchive;
+import com.brodygaudel.bank.common.dto.ProjectionRebuildStatusDTO;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.brodygaudel.bank.common.event.customer.CustomerCreatedEvent;
+import com.brodygaudel.bank.query.repository.AccountRepository;
+import com.brodygaudel.bank.query.repository.CustomerRepository;
+import com.brodygaudel.bank.query.repository.OperationRepository;
+import com.brodygaudel.bank.query.service.ProjectionRebuildService;
+import com.brodygaudel.bank.query.service.account.AccountBalanceCache;
+import com.brodygaudel.bank.query.service.account.AccountEventHandlerService;
+import com.brodygaudel.bank.query.service.customer.CustomerEventHandlerService;
+import jakarta.persistence.EntityManager;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the rebuild of the projections by the {@link ProjectionRebuildService} with a replay of the events through
+ * the projection handlers, the tokens of their processors being reset to the start of the event store, on an H2 file
+ * database. The rebuild is measured without limit, then limited to half the rate it read the events at.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "projection-rebuild.max-events-per-second=0",
+        "projection-rebuild.idle-timeout=1s"
+})
+@ActiveProfiles("embedded")
+class ProjectionRebuildBenchmark {
+
+    private static final int ACCOUNTS = 200;
+    private static final int CREDITS_PER_ACCOUNT = 100;
+    private static final long OPERATIONS = (long) ACCOUNTS * CREDITS_PER_ACCOUNT;
+    private static final long EVENTS = OPERATIONS + 2L * ACCOUNTS;
+    private static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private EventStorageEngine eventStorageEngine;
+
+    @Autowired
+    private EventStore eventStore;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EventArchive eventArchive;
+
+    @Autowired
+    private AccountBalanceCache accountBalanceCache;
+
+    @Autowired
+    private TransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EventProcessingConfiguration eventProcessingConfiguration;
+
+    @Autowired
+    private ProjectionRebuildService projectionRebuildService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @DynamicPropertySource
+    static void directories(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("bank-rebuild-benchmark");
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + directory.resolve("db")
+                + ";INIT=CREATE SCHEMA IF NOT EXISTS bank");
+        registry.add("event-archive.directory", () -> directory.resolve("archive").toString());
+    }
+
+    @Test
+    void rebuildThroughput() throws Exception {
+        BenchmarkSupport.quietLogging();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String customerId = "customer-" + i;
+            String accountId = "account-" + i;
+            List<EventMessage<?>> events = new ArrayList<>(CREDITS_PER_ACCOUNT + 2);
+            events.add(new GenericDomainEventMessage<>("CustomerAggregate", customerId, 0,
+                    new CustomerCreatedEvent(customerId, "nic-" + i, "John", "Doe", "Paris",
+                            LocalDate.of(1990, 1, 1), "French", Sex.M, now)));
+            events.add(new GenericDomainEventMessage<>("AccountAggregate", accountId, 0,
+                    new AccountCreatedEvent(accountId, 0L, AccountStatus.ACTIVATED, now, customerId)));
+            for (int sequence = 1; sequence <= CREDITS_PER_ACCOUNT; sequence++) {
+                events.add(new GenericDomainEventMessage<>("AccountAggregate", accountId, sequence,
+                        new AccountCreditedEvent(accountId, BigDecimal.ONE, "credit", now)));
+            }
+            transactionManager.executeInTransaction(() -> eventStorageEngine.appendEvents(events));
+        }
+        awaitOperations();
+
+        BenchmarkSupport.printHeader("Projection rebuild of " + EVENTS + " events on " + ACCOUNTS + " accounts");
+        System.out.printf("%-24s %12s %12s%n", "mode", "seconds", "events/s");
+        long start = System.nanoTime();
+        replayThroughHandlers();
+        print("handler replay", System.nanoTime() - start);
+
+        ProjectionRebuildStatusDTO unlimited = projectionRebuildService.start().get(10, TimeUnit.MINUTES);
+        print("rebuild", TimeUnit.MILLISECONDS.toNanos(unlimited.elapsedMillis()));
+        verify();
+
+        int limit = (int) (EVENTS * 1000 / unlimited.elapsedMillis());
+        ProjectionRebuildService limitedService = new ProjectionRebuildService(eventStore, eventProcessingConfiguration,
+                entityManager, transactionTemplate, eventArchive, accountBalanceCache, limit, CHUNK_SIZE,
+                Duration.ofSeconds(1));
+        ProjectionRebuildStatusDTO limited = limitedService.start().get(10, TimeUnit.MINUTES);
+        print("rebuild, " + limit + " ev/s max", TimeUnit.MILLISECONDS.toNanos(limited.elapsedMillis()));
+        verify();
+    }
+
+    private void replayThroughHandlers() throws InterruptedException {
+        List<StreamingEventProcessor> processors = List.of(
+                processor(CustomerEventHandlerService.PROCESSING_GROUP),
+                processor(AccountEventHandlerService.PROCESSING_GROUP));
+        processors.forEach(processor -> processor.shutdownAsync().join());
+        transactionTemplate.executeWithoutResult(status -> {
+            operationRepository.deleteAllInBatch();
+            accountRepository.deleteAllInBatch();
+            customerRepository.deleteAllInBatch();
+        });
+        for (StreamingEventProcessor processor : processors) {
+            processor.resetTokens();
+            processor.start();
+        }
+        awaitOperations();
+    }
+
+    private StreamingEventProcessor processor(String processingGroup) {
+        return eventProcessingConfiguration.eventProcessor(processingGroup, StreamingEventProcessor.class)
+                .orElseThrow();
+    }
+
+    private void awaitOperations() throws InterruptedException {
+        while (operationRepository.count() < OPERATIONS) {
+            Thread.sleep(20);
+        }
+    }
+
+    private void verify() {
+        if (customerRepository.count() != ACCOUNTS || accountRepository.count() != ACCOUNTS
+                || operationRepository.count() != OPERATIONS) {
+            throw new IllegalStateException("the projections were not rebuilt");
+        }
+    }
+
+    private static void print(String mode, long nanos) {
+        System.out.printf("%-24s %12.1f %12.0f%n", mode, nanos / 1e9, EVENTS * 1e9 / nanos);
+    }
+}
@@ -0,0 +1,179 @@
+package com.brodygaudel.bank.benchmark;
+
+import com.brodygaudel.bank.common.event.account.AccountDebitedEvent;
+import com.brodygaudel.bank.common.upcaster.JsonEventUpcaster;
+import com.brodygaudel.bank.common.util.MinorUnits;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.upcasting.event.EventUpcasterChain;
+import org.axonframework.serialization.upcasting.event.InitialEventRepresentation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Measures the replay overhead of a chain of three {@link JsonEventUpcaster}s moving an {@link AccountDebitedEvent} from
+ * a legacy layout to the current revision, against events already at the current revision, against the same three
+ * steps applied eagerly (each step parsing and writing the payload), and against a replay that only reads the types.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UpcasterChainBenchmark {
+
+    private static final int EVENTS = 200_000;
+    private static final int ROUNDS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final JacksonSerializer serializer = JacksonSerializer.builder().objectMapper(objectMapper).build();
+    private final List<JsonEventUpcaster> steps = List.of(new LabelUpcaster(), new AmountTextUpcaster(), new MinorUnitsUpcaster());
+    private final EventUpcasterChain chain = new EventUpcasterChain(steps);
+
+    @Test
+    void replayOverhead() {
+        BenchmarkSupport.quietLogging();
+        List<DomainEventData<byte[]>> current = new ArrayList<>(EVENTS);
+        List<DomainEventData<byte[]>> legacy = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            current.add(entry(i, "1", "{\"id\":\"id\",\"amountInMinorUnits\":" + (1_000 + i % 5_000)
+                    + ",\"description\":\"card payment\",\"lastUpdate\":\"2024-01-01T10:00:00\"}"));
+            legacy.add(entry(i, null, "{\"id\":\"id\",\"amount\":\"" + BigDecimal.valueOf(1_000 + i % 5_000, 2)
+                    + "\",\"label\":\"card payment\",\"lastUpdate\":\"2024-01-01T10:00:00\"}"));
+        }
+
+        BenchmarkSupport.printHeader("Replay of " + EVENTS + " AccountDebitedEvent through a chain of three upcasters");
+        System.out.printf("%-28s %15s%n", "replay", "events/s");
+        double[] results = new double[4];
+        for (int round = 0; round < ROUNDS; round++) {
+            results[0] = measure(current, this::replayThroughChain);
+            results[1] = measure(legacy, this::replayThroughChain);
+            results[2] = measure(legacy, this::replayEagerly);
+            results[3] = measure(legacy, this::replayTypesOnly);
+        }
+        System.out.printf("%-28s %15.0f%n", "current revision", results[0]);
+        System.out.printf("%-28s %15.0f%n", "legacy, lazy chain", results[1]);
+        System.out.printf("%-28s %15.0f%n", "legacy, eager steps", results[2]);
+        System.out.printf("%-28s %15.0f%n", "legacy, types only", results[3]);
+    }
+
+    private long replayThroughChain(List<DomainEventData<byte[]>> events) {
+        return chain.upcast(events.stream().map(event -> new InitialEventRepresentation(event, serializer)))
+                .mapToLong(event -> ((AccountDebitedEvent) serializer.deserialize(event.getData())).getAmountInMinorUnits())
+                .sum();
+    }
+
+    private long replayTypesOnly(List<DomainEventData<byte[]>> events) {
+        return chain.upcast(events.stream().map(event -> new InitialEventRepresentation(event, serializer)))
+                .filter(event -> "1".equals(event.getType().getRevision()))
+                .count();
+    }
+
+    /**
+     * The three steps as they would run without a shared tree: each parses the payload and writes it back.
+     */
+    private long replayEagerly(List<DomainEventData<byte[]>> events) {
+        long sum = 0;
+        for (DomainEventData<byte[]> event : events) {
+            byte[] payload = event.getPayload().getData();
+            for (JsonEventUpcaster step : steps) {
+                try {
+                    ObjectNode tree = (ObjectNode) objectMapper.readTree(payload);
+                    ((ThreeStepUpcaster) step).apply(tree);
+                    payload = objectMapper.writeValueAsBytes(tree);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            try {
+                sum += objectMapper.readValue(payload, AccountDebitedEvent.class).getAmountInMinorUnits();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return sum;
+    }
+
+    private static double measure(List<DomainEventData<byte[]>> events, ToLongFunction<List<DomainEventData<byte[]>>> replay) {
+        long start = System.nanoTime();
+        if (replay.applyAsLong(events) <= 0) {
+            throw new IllegalStateException("replay produced no result");
+        }
+        return events.size() * 1_000_000_000.0 / (System.nanoTime() - start);
+    }
+
+    private static DomainEventData<byte[]> entry(long sequence, String revision, String json) {
+        return new GenericDomainEventEntry<>("AccountAggregate", "id", sequence, "event-" + sequence, Instant.EPOCH,
+                AccountDebitedEvent.class.getName(), revision, json.getBytes(StandardCharsets.UTF_8),
+                "{}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private abstract static class ThreeStepUpcaster extends JsonEventUpcaster {
+
+        ThreeStepUpcaster(String sourceRevision, String targetRevision) {
+            super(sourceRevision, targetRevision, AccountDebitedEvent.class);
+        }
+
+        @Override
+        protected void upcast(String type, ObjectNode event) {
+            apply(event);
+        }
+
+        abstract void apply(ObjectNode event);
+    }
+
+    /**
+     * Step 1: the {@code label} of the legacy events became the {@code description}.
+     */
+    private static class LabelUpcaster extends ThreeStepUpcaster {
+
+        LabelUpcaster() {
+            super(null, "0.1");
+        }
+
+        @Override
+        void apply(ObjectNode event) {
+            event.set("description", event.remove("label"));
+        }
+    }
+
+    /**
+     * Step 2: the amount, stored as text, became a number.
+     */
+    private static class AmountTextUpcaster extends ThreeStepUpcaster {
+
+        AmountTextUpcaster() {
+            super("0.1", "0.2");
+        }
+
+        @Override
+        void apply(ObjectNode event) {
+            event.put("amount", new BigDecimal(event.get("amount").asText()));
+        }
+    }
+
+    /**
+     * Step 3: the decimal amount became an amount in minor units.
+     */
+    private static class MinorUnitsUpcaster extends ThreeStepUpcaster {
+
+        MinorUnitsUpcaster() {
+            super("0.2", "1");
+        }
+
+        @Override
+        void apply(ObjectNode event) {
+            JsonNode amount = event.remove("amount");
+            event.put("amountInMinorUnits", MinorUnits.of(amount.decimalValue()));
+        }
+    }
+}
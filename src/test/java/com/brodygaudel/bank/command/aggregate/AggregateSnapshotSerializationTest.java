@@ -0,0 +1,77 @@
+package com.brodygaudel.bank.command.aggregate;
+
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AggregateSnapshotSerializationTest {
+
+    private JacksonSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        serializer = JacksonSerializer.builder()
+                .objectMapper(new ObjectMapper().findAndRegisterModules())
+                .build();
+    }
+
+    @Test
+    void accountAggregateSnapshotRoundTrip() {
+        AccountAggregate aggregate = new AccountAggregate();
+        ReflectionTestUtils.setField(aggregate, "accountId", "id");
+        ReflectionTestUtils.setField(aggregate, "balanceInMinorUnits", 125075L);
+        ReflectionTestUtils.setField(aggregate, "status", AccountStatus.ACTIVATED);
+        ReflectionTestUtils.setField(aggregate, "creation", LocalDateTime.now());
+        ReflectionTestUtils.setField(aggregate, "lastUpdate", LocalDateTime.now());
+        ReflectionTestUtils.setField(aggregate, "customerId", "customerId");
+
+        SerializedObject<byte[]> snapshot = serializer.serialize(aggregate, byte[].class);
+        AccountAggregate restored = serializer.deserialize(snapshot);
+
+        assertEquals("2", snapshot.getType().getRevision());
+        assertEquals(aggregate.getAccountId(), restored.getAccountId());
+        assertEquals(new BigDecimal("1250.75"), restored.getBalance());
+        assertEquals(aggregate.getStatus(), restored.getStatus());
+        assertEquals(aggregate.getCreation(), restored.getCreation());
+        assertEquals(aggregate.getLastUpdate(), restored.getLastUpdate());
+        assertEquals(aggregate.getCustomerId(), restored.getCustomerId());
+    }
+
+    @Test
+    void customerAggregateSnapshotRoundTrip() {
+        CustomerAggregate aggregate = new CustomerAggregate();
+        ReflectionTestUtils.setField(aggregate, "customerId", "id");
+        ReflectionTestUtils.setField(aggregate, "nic", "nic");
+        ReflectionTestUtils.setField(aggregate, "firstname", "john");
+        ReflectionTestUtils.setField(aggregate, "name", "doe");
+        ReflectionTestUtils.setField(aggregate, "placeOfBirth", "Gabon");
+        ReflectionTestUtils.setField(aggregate, "dateOfBirth", LocalDate.now());
+        ReflectionTestUtils.setField(aggregate, "nationality", "Gabon");
+        ReflectionTestUtils.setField(aggregate, "sex", Sex.M);
+        ReflectionTestUtils.setField(aggregate, "creation", LocalDateTime.now());
+
+        SerializedObject<byte[]> snapshot = serializer.serialize(aggregate, byte[].class);
+        CustomerAggregate restored = serializer.deserialize(snapshot);
+
+        assertEquals("1", snapshot.getType().getRevision());
+        assertEquals(aggregate.getCustomerId(), restored.getCustomerId());
+        assertEquals(aggregate.getNic(), restored.getNic());
+        assertEquals(aggregate.getFirstname(), restored.getFirstname());
+        assertEquals(aggregate.getName(), restored.getName());
+        assertEquals(aggregate.getDateOfBirth(), restored.getDateOfBirth());
+        assertEquals(aggregate.getSex(), restored.getSex());
+        assertEquals(aggregate.getCreation(), restored.getCreation());
+        assertNull(restored.getLastUpdate());
+    }
+}
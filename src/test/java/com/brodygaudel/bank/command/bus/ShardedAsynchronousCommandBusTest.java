@@ -0,0 +1,99 @@
+package com.brodygaudel.bank.command.bus;
+
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedAsynchronousCommandBusTest {
+
+    private static final int ACCOUNTS = 16;
+    private static final int COMMANDS_PER_ACCOUNT = 200;
+
+    private ShardedAsynchronousCommandBus commandBus;
+
+    @BeforeEach
+    void setUp() {
+        commandBus = ShardedAsynchronousCommandBus.builder().shards(4).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        commandBus.shutdown();
+    }
+
+    @Test
+    void testCommandsOfAnAccountKeepTheirOrder() throws InterruptedException {
+        Map<String, List<Integer>> handled = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(ACCOUNTS * COMMANDS_PER_ACCOUNT);
+        commandBus.subscribe(CreditAccountCommand.class.getName(), message -> {
+            CreditAccountCommand command = (CreditAccountCommand) message.getPayload();
+            handled.computeIfAbsent(command.getId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(Integer.parseInt(command.getDescription()));
+            threads.add(Thread.currentThread().getName());
+            return null;
+        });
+
+        for (int sequence = 0; sequence < COMMANDS_PER_ACCOUNT; sequence++) {
+            for (int account = 0; account < ACCOUNTS; account++) {
+                commandBus.dispatch(credit("account-" + account, sequence), (message, result) -> done.countDown());
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(ACCOUNTS, handled.size());
+        for (List<Integer> sequences : handled.values()) {
+            List<Integer> expected = new ArrayList<>();
+            for (int sequence = 0; sequence < COMMANDS_PER_ACCOUNT; sequence++) {
+                expected.add(sequence);
+            }
+            assertEquals(expected, sequences);
+        }
+        assertTrue(threads.size() > 1, "handled on " + threads);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("command-shard-")));
+    }
+
+    @Test
+    void testHandlerRunsOffTheDispatchingThread() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        String[] handlingThread = new String[1];
+        commandBus.subscribe(CreditAccountCommand.class.getName(), message -> {
+            handlingThread[0] = Thread.currentThread().getName();
+            return "handled";
+        });
+        Object[] result = new Object[1];
+
+        commandBus.dispatch(credit("account", 0), (message, resultMessage) -> {
+            result[0] = resultMessage.getPayload();
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("handled", result[0]);
+        assertNotEquals(Thread.currentThread().getName(), handlingThread[0]);
+    }
+
+    @Test
+    void testShardsMustBePositive() {
+        ShardedAsynchronousCommandBus.Builder builder = ShardedAsynchronousCommandBus.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.shards(0));
+    }
+
+    private static CommandMessage<CreditAccountCommand> credit(String accountId, int sequence) {
+        return GenericCommandMessage.asCommandMessage(
+                new CreditAccountCommand(accountId, BigDecimal.ONE, String.valueOf(sequence), LocalDateTime.now())
+        );
+    }
+}
@@ -0,0 +1,124 @@
+package com.brodygaudel.bank.command.cache;
+
+import com.brodygaudel.bank.command.aggregate.AccountAggregate;
+import com.brodygaudel.bank.command.service.CustomerLookupService;
+import com.brodygaudel.bank.common.command.account.CreateAccountCommand;
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.command.account.DebitAccountCommand;
+import com.brodygaudel.bank.common.dto.CacheStatisticsDTO;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.EvictionPolicy;
+import com.brodygaudel.bank.common.exception.InsufficientBalanceException;
+import org.axonframework.config.AggregateConfigurer;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventsourcing.AggregateCacheEntry;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class WeightedAggregateCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesBeyondMaxWeight() {
+        WeightedAggregateCache cache = new WeightedAggregateCache("cache", 4, value -> 2, EvictionPolicy.LRU);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals("A", cache.get("a"));
+        cache.put("c", "C");
+
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+        CacheStatisticsDTO statistics = cache.statistics();
+        assertEquals(2, statistics.size());
+        assertEquals(4, statistics.weight());
+        assertEquals(1, statistics.evictions());
+    }
+
+    @Test
+    void evictsOldestEntriesFirstWithFifoPolicy() {
+        WeightedAggregateCache cache = new WeightedAggregateCache("cache", 2, value -> 1, EvictionPolicy.FIFO);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertFalse(cache.containsKey("a"));
+        assertTrue(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        WeightedAggregateCache cache = new WeightedAggregateCache("cache", 10, value -> 1, EvictionPolicy.LRU);
+        cache.put("a", "A");
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+
+        CacheStatisticsDTO statistics = cache.statistics();
+        assertEquals(2, statistics.hits());
+        assertEquals(1, statistics.misses());
+        assertEquals(2.0 / 3, statistics.hitRatio(), 1e-9);
+    }
+
+    @Test
+    void cachedAggregatesKeepTheirWeightAcrossCommands() {
+        WeightedAggregateCache cache = new WeightedAggregateCache("accountCache", 1_000, value -> 256,
+                EvictionPolicy.LRU);
+        Configuration configuration = DefaultConfigurer.defaultConfiguration(false)
+                .registerComponent(CustomerLookupService.class, c -> mock(CustomerLookupService.class))
+                .configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine())
+                .configureAggregate(AggregateConfigurer.defaultConfiguration(AccountAggregate.class)
+                        .configureCache(c -> cache))
+                .buildConfiguration();
+        configuration.start();
+        try {
+            for (String id : new String[]{"a", "b", "c", "d"}) {
+                configuration.commandGateway().sendAndWait(new CreateAccountCommand(
+                        id, BigDecimal.ZERO, AccountStatus.ACTIVATED, LocalDateTime.now(), "customer-" + id));
+            }
+            configuration.commandGateway().sendAndWait(new CreditAccountCommand(
+                    "b", BigDecimal.TEN, "credit", LocalDateTime.now()));
+
+            assertInstanceOf(AggregateCacheEntry.class, cache.get("b"));
+            CacheStatisticsDTO statistics = cache.statistics();
+            assertEquals(3, statistics.size());
+            assertEquals(768, statistics.weight());
+            assertFalse(cache.containsKey("a"));
+        } finally {
+            configuration.shutdown();
+        }
+    }
+
+    @Test
+    void failedCommandInvalidatesCachedAggregate() {
+        WeightedAggregateCache cache = new WeightedAggregateCache("accountCache", 10, value -> 1, EvictionPolicy.LRU);
+        Configuration configuration = DefaultConfigurer.defaultConfiguration(false)
+                .registerComponent(CustomerLookupService.class, c -> mock(CustomerLookupService.class))
+                .configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine())
+                .configureAggregate(AggregateConfigurer.defaultConfiguration(AccountAggregate.class)
+                        .configureCache(c -> cache))
+                .buildConfiguration();
+        configuration.start();
+        try {
+            configuration.commandGateway().sendAndWait(new CreateAccountCommand(
+                    "id", BigDecimal.ZERO, AccountStatus.CREATED, LocalDateTime.now(), "customerId"));
+            configuration.commandGateway().sendAndWait(new CreditAccountCommand(
+                    "id", BigDecimal.TEN, "credit", LocalDateTime.now()));
+            assertTrue(cache.containsKey("id"));
+
+            DebitAccountCommand debit = new DebitAccountCommand("id", BigDecimal.valueOf(100), "debit", LocalDateTime.now());
+            assertThrows(InsufficientBalanceException.class, () -> configuration.commandGateway().sendAndWait(debit));
+            assertFalse(cache.containsKey("id"));
+        } finally {
+            configuration.shutdown();
+        }
+    }
+}
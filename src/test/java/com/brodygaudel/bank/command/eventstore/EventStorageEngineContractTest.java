@@ -0,0 +1,145 @@
+package com.brodygaudel.bank.command.eventstore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behavior shared by every event storage engine of the application, checked against Axon's in-memory engine and
+ * against the {@link MappedFileEventStorageEngine}.
+ */
+abstract class EventStorageEngineContractTest {
+
+    protected static final Serializer SERIALIZER = JacksonSerializer.builder()
+            .objectMapper(new ObjectMapper().findAndRegisterModules())
+            .build();
+    protected static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    protected EventStorageEngine engine;
+
+    /**
+     * Creates the engine under test, empty.
+     */
+    protected abstract EventStorageEngine createEngine() throws Exception;
+
+    @BeforeEach
+    void setUpEngine() throws Exception {
+        engine = createEngine();
+    }
+
+    @AfterEach
+    void closeEngine() throws Exception {
+        if (engine instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Test
+    void testEventsOfAnAggregateAreReadInSequenceOrder() {
+        engine.appendEvents(event("a", 0), event("b", 0), event("a", 1));
+        engine.appendEvents(event("a", 2));
+
+        assertEquals(List.of("a-0", "a-1", "a-2"), payloads(engine.readEvents("a").asStream().toList()));
+        assertEquals(List.of("b-0"), payloads(engine.readEvents("b").asStream().toList()));
+        assertEquals(MetaData.with("key", "a-2"), engine.readEvents("a", 2).next().getMetaData());
+    }
+
+    @Test
+    void testEventsOfAnAggregateAreReadFromASequenceNumber() {
+        for (int sequence = 0; sequence < 10; sequence++) {
+            engine.appendEvents(event("a", sequence));
+        }
+
+        assertEquals(List.of("a-7", "a-8", "a-9"), payloads(engine.readEvents("a", 7).asStream().toList()));
+        assertEquals(List.of(), engine.readEvents("a", 10).asStream().toList());
+        assertEquals(9L, engine.lastSequenceNumberFor("a").orElseThrow());
+    }
+
+    @Test
+    void testUnknownAggregateHasNoEvents() {
+        engine.appendEvents(event("a", 0));
+
+        assertFalse(engine.readEvents("unknown").hasNext());
+        assertTrue(engine.lastSequenceNumberFor("unknown").isEmpty());
+    }
+
+    @Test
+    void testTrackingReadsFollowTheAppendOrder() {
+        engine.appendEvents(event("a", 0), event("b", 0));
+        engine.appendEvents(GenericEventMessage.asEventMessage("notification"));
+        engine.appendEvents(event("a", 1));
+
+        List<? extends TrackedEventMessage<?>> all = engine.readEvents(null, false).toList();
+        assertEquals(List.of("a-0", "b-0", "notification", "a-1"), payloads(all));
+
+        List<? extends TrackedEventMessage<?>> following = engine.readEvents(all.get(1).trackingToken(), false).toList();
+        assertEquals(List.of("notification", "a-1"), payloads(following));
+        assertTrue(all.get(3).trackingToken().covers(all.get(2).trackingToken()));
+    }
+
+    @Test
+    void testHeadAndTailTokens() {
+        engine.appendEvents(event("a", 0), event("a", 1), event("a", 2));
+
+        assertEquals(3, engine.readEvents(engine.createTailToken(), false).count());
+        TrackingToken head = engine.createHeadToken();
+        assertEquals(0, engine.readEvents(head, false).count());
+        engine.appendEvents(event("a", 3));
+        assertEquals(List.of("a-3"), payloads(engine.readEvents(head, false).toList()));
+    }
+
+    @Test
+    void testTokenAtAPointInTime() {
+        for (int sequence = 0; sequence < 5; sequence++) {
+            engine.appendEvents(event("a", sequence));
+        }
+
+        TrackingToken token = engine.createTokenAt(START.plusSeconds(3));
+        assertEquals(List.of("a-3", "a-4"), payloads(engine.readEvents(token, false).toList()));
+    }
+
+    @Test
+    void testLatestSnapshotIsRead() {
+        engine.appendEvents(event("a", 0), event("a", 1), event("a", 2));
+        engine.storeSnapshot(snapshot("a", 1));
+        engine.storeSnapshot(snapshot("a", 2));
+
+        DomainEventMessage<?> snapshot = engine.readSnapshot("a").orElseThrow();
+        assertEquals(2, snapshot.getSequenceNumber());
+        assertEquals("snapshot-a-2", snapshot.getPayload());
+        assertTrue(engine.readSnapshot("b").isEmpty());
+    }
+
+    protected static DomainEventMessage<String> event(String aggregateIdentifier, long sequenceNumber) {
+        String payload = aggregateIdentifier + "-" + sequenceNumber;
+        return new GenericDomainEventMessage<>("Aggregate", aggregateIdentifier, sequenceNumber, payload,
+                MetaData.with("key", payload), UUID.randomUUID().toString(), START.plusSeconds(sequenceNumber));
+    }
+
+    protected static DomainEventMessage<String> snapshot(String aggregateIdentifier, long sequenceNumber) {
+        return new GenericDomainEventMessage<>("Aggregate", aggregateIdentifier, sequenceNumber,
+                "snapshot-" + aggregateIdentifier + "-" + sequenceNumber);
+    }
+
+    protected static List<Object> payloads(List<? extends EventMessage<?>> events) {
+        return events.stream().map(EventMessage::getPayload).collect(Collectors.toList());
+    }
+}
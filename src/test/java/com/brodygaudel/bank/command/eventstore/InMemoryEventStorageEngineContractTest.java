@@ -0,0 +1,15 @@
+package com.brodygaudel.bank.command.eventstore;
+
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+
+/**
+ * Runs the contract against Axon's in-memory engine, the reference of the expected behavior.
+ */
+class InMemoryEventStorageEngineContractTest extends EventStorageEngineContractTest {
+
+    @Override
+    protected EventStorageEngine createEngine() {
+        return new InMemoryEventStorageEngine();
+    }
+}
@@ -0,0 +1,213 @@
+package com.brodygaudel.bank.command.eventstore;
+
+import com.brodygaudel.bank.common.enums.FsyncPolicy;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+import org.axonframework.modelling.command.AggregateStreamCreationException;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileEventStorageEngineTest extends EventStorageEngineContractTest {
+
+    @TempDir
+    Path directory;
+
+    @Override
+    protected EventStorageEngine createEngine() {
+        return open(4096, FsyncPolicy.ALWAYS);
+    }
+
+    private MappedFileEventStorageEngine open(int segmentSize, FsyncPolicy fsyncPolicy) {
+        return MappedFileEventStorageEngine.builder()
+                .eventSerializer(SERIALIZER)
+                .snapshotSerializer(SERIALIZER)
+                .directory(directory)
+                .segmentSize(segmentSize)
+                .fsync(fsyncPolicy, Duration.ofMillis(5))
+                .build();
+    }
+
+    private void reopen() {
+        ((MappedFileEventStorageEngine) engine).close();
+        engine = open(4096, FsyncPolicy.ALWAYS);
+    }
+
+    @Test
+    void testEventsAndSnapshotsSurviveAReopen() {
+        engine.appendEvents(event("a", 0), event("b", 0), event("a", 1));
+        engine.storeSnapshot(snapshot("a", 1));
+
+        reopen();
+
+        assertEquals(List.of("a-0", "a-1"), payloads(engine.readEvents("a").asStream().toList()));
+        assertEquals(1, engine.readSnapshot("a").orElseThrow().getSequenceNumber());
+        engine.appendEvents(event("a", 2));
+        List<? extends TrackedEventMessage<?>> all = engine.readEvents(null, false).toList();
+        assertEquals(List.of("a-0", "b-0", "a-1", "a-2"), payloads(all));
+        assertEquals(3, all.get(3).trackingToken().position().orElseThrow());
+    }
+
+    @Test
+    void testEventsSpanManySegments() throws IOException {
+        for (int sequence = 0; sequence < 500; sequence++) {
+            engine.appendEvents(event("a", sequence), event("b", sequence));
+        }
+
+        try (Stream<Path> segments = Files.list(directory.resolve("events"))) {
+            assertTrue(segments.count() > 10);
+        }
+        reopen();
+        assertEquals(500, engine.readEvents("a").asStream().count());
+        assertEquals(List.of("b-498", "b-499"), payloads(engine.readEvents("b", 498).asStream().toList()));
+        List<Long> positions = engine.readEvents(null, false)
+                .map(event -> event.trackingToken().position().orElseThrow())
+                .toList();
+        assertEquals(LongStream.range(0, 1_000).boxed().toList(), positions);
+    }
+
+    @Test
+    void testIncompleteTailIsDiscardedOnReopen() throws IOException {
+        engine.appendEvents(event("a", 0), event("a", 1));
+        ((MappedFileEventStorageEngine) engine).close();
+        Path segment = directory.resolve("events").resolve("0000000000.segment");
+        long end = endOfRecords(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12).putInt(200).putInt(42).putInt(7).flip(), end);
+        }
+
+        engine = open(4096, FsyncPolicy.ALWAYS);
+        engine.appendEvents(event("a", 2));
+        reopen();
+
+        assertEquals(List.of("a-0", "a-1", "a-2"), payloads(engine.readEvents("a").asStream().toList()));
+        assertEquals(3, engine.readEvents(null, false).count());
+    }
+
+    @Test
+    void testTornAppendIsDroppedAsAWholeOnReopen() throws IOException {
+        engine.appendEvents(event("b", 0));
+        engine.appendEvents(event("a", 0), event("a", 1), event("a", 2));
+        ((MappedFileEventStorageEngine) engine).close();
+        Path segment = directory.resolve("events").resolve("0000000000.segment");
+        List<Integer> offsets = recordOffsets(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            int last = offsets.get(offsets.size() - 2);
+            channel.write(ByteBuffer.allocate(offsets.get(offsets.size() - 1) - last), last);
+        }
+
+        engine = open(4096, FsyncPolicy.ALWAYS);
+
+        assertFalse(engine.readEvents("a").hasNext());
+        assertEquals(List.of("b-0"), payloads(engine.readEvents(null, false).toList()));
+        engine.appendEvents(event("a", 0));
+        reopen();
+        List<? extends TrackedEventMessage<?>> all = engine.readEvents(null, false).toList();
+        assertEquals(List.of("b-0", "a-0"), payloads(all));
+        assertEquals(1, all.get(1).trackingToken().position().orElseThrow());
+    }
+
+    @Test
+    void testDuplicateSequenceNumberIsAConcurrencyConflict() {
+        engine.appendEvents(event("a", 0), event("a", 1));
+
+        assertThrows(ConcurrencyException.class, () -> engine.appendEvents(event("b", 0), event("a", 1)));
+        assertThrows(AggregateStreamCreationException.class, () -> engine.appendEvents(event("a", 0)));
+        assertThrows(AggregateStreamCreationException.class,
+                () -> engine.appendEvents(event("c", 0), event("c", 0)));
+        assertFalse(engine.readEvents("b").hasNext());
+        assertEquals(2, engine.readEvents(null, false).count());
+    }
+
+    @Test
+    void testEventLargerThanASegmentIsRejected() {
+        String payload = "x".repeat(5_000);
+
+        assertThrows(EventStoreException.class,
+                () -> engine.appendEvents(new GenericDomainEventMessage<>("Aggregate", "a", 0, payload)));
+        assertEquals(0, engine.readEvents(null, false).count());
+    }
+
+    @Test
+    void testConcurrentAppendsAreAllCommitted() throws Exception {
+        ((MappedFileEventStorageEngine) engine).close();
+        engine = open(64 * 1024, FsyncPolicy.ALWAYS);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int writer = 0; writer < 8; writer++) {
+                String aggregateIdentifier = "writer-" + writer;
+                appends.add(executor.submit(() -> {
+                    for (int sequence = 0; sequence < 100; sequence++) {
+                        engine.appendEvents(event(aggregateIdentifier, sequence));
+                    }
+                }));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(800, engine.readEvents(null, false).count());
+        for (int writer = 0; writer < 8; writer++) {
+            assertEquals(99L, engine.lastSequenceNumberFor("writer-" + writer).orElseThrow());
+        }
+    }
+
+    @Test
+    void testEventsAreReadableWithEveryFsyncPolicy() {
+        for (FsyncPolicy fsyncPolicy : FsyncPolicy.values()) {
+            ((MappedFileEventStorageEngine) engine).close();
+            engine = open(4096, fsyncPolicy);
+            long sequence = engine.lastSequenceNumberFor("a").map(last -> last + 1).orElse(0L);
+            engine.appendEvents(event("a", sequence));
+            assertEquals(sequence + 1, engine.readEvents(null, false).count());
+        }
+    }
+
+    /**
+     * Returns the offset following the last record of a segment.
+     */
+    private static long endOfRecords(Path segment) throws IOException {
+        List<Integer> offsets = recordOffsets(segment);
+        return offsets.get(offsets.size() - 1);
+    }
+
+    /**
+     * Returns the offsets of the records of a segment, followed by the offset following the last one.
+     */
+    private static List<Integer> recordOffsets(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<Integer> offsets = new ArrayList<>();
+            int offset = 0;
+            while (buffer.getInt(offset) != 0 && buffer.getInt(offset) != -1) {
+                offsets.add(offset);
+                offset += 8 + (buffer.getInt(offset) & 0x7FFF_FFFF);
+            }
+            offsets.add(offset);
+            return offsets;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.brodygaudel.bank.command.saga;
+
+import com.brodygaudel.bank.command.aggregate.AccountAggregate;
+import com.brodygaudel.bank.command.aggregate.TransferAggregate;
+import com.brodygaudel.bank.command.bus.TransferStepInterceptor;
+import com.brodygaudel.bank.command.entity.TransferStep;
+import com.brodygaudel.bank.command.repository.TransferStepRepository;
+import com.brodygaudel.bank.command.service.CustomerLookupService;
+import com.brodygaudel.bank.common.command.account.CreateAccountCommand;
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.command.account.DebitAccountCommand;
+import com.brodygaudel.bank.common.command.transfer.RequestTransferCommand;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.brodygaudel.bank.common.event.account.AccountDebitedEvent;
+import com.brodygaudel.bank.common.event.transfer.*;
+import com.brodygaudel.bank.common.exception.InvalidTransferException;
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.commandhandling.distributed.CommandDispatchException;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransferSagaTest {
+
+    private Configuration configuration;
+    private CommandGateway commandGateway;
+
+    @BeforeEach
+    void setUp() {
+        configuration = DefaultConfigurer.defaultConfiguration(false)
+                .registerComponent(CustomerLookupService.class, c -> mock(CustomerLookupService.class))
+                .configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine())
+                .configureAggregate(AccountAggregate.class)
+                .configureAggregate(TransferAggregate.class)
+                .configureResourceInjector(c -> saga -> {
+                    ReflectionTestUtils.setField(saga, "commandGateway", c.commandGateway());
+                    ReflectionTestUtils.setField(saga, "deadlineManager", c.deadlineManager());
+                })
+                .eventProcessing(ep -> ep.registerSaga(TransferSaga.class).usingSubscribingEventProcessors())
+                .buildConfiguration();
+        configuration.start();
+        configuration.commandBus().registerHandlerInterceptor(new TransferStepInterceptor(transferStepRepository()));
+        commandGateway = configuration.commandGateway();
+        createAccount("from", "100.00");
+        createAccount("to", "0");
+    }
+
+    @AfterEach
+    void tearDown() {
+        configuration.shutdown();
+    }
+
+    @Test
+    void transferDebitsThenCreditsThenCompletes() {
+        String transferId = commandGateway.<String>send(transfer("from", "to", "40.00")).join();
+
+        assertEquals("t1", transferId);
+        assertEquals(List.of(AccountDebitedEvent.class), operations("from"));
+        assertEquals(List.of(AccountCreditedEvent.class), operations("to"));
+        assertEquals(List.of(TransferRequestedEvent.class, TransferDebitedEvent.class, TransferCompletedEvent.class),
+                payloadTypes("t1"));
+    }
+
+    @Test
+    void failedCreditIsCompensated() {
+        commandGateway.send(transfer("from", "unknown", "40.00")).join();
+
+        assertEquals(List.of(AccountDebitedEvent.class, AccountCreditedEvent.class), operations("from"));
+        assertEquals(List.of(TransferRequestedEvent.class, TransferDebitedEvent.class,
+                TransferCreditRejectedEvent.class, TransferFailedEvent.class), payloadTypes("t1"));
+    }
+
+    @Test
+    void rejectedDebitFailsTheTransfer() {
+        commandGateway.send(transfer("from", "to", "140.00")).join();
+
+        assertEquals(List.of(), operations("from"));
+        assertEquals(List.of(), operations("to"));
+        assertEquals(List.of(TransferRequestedEvent.class, TransferFailedEvent.class), payloadTypes("t1"));
+    }
+
+    @Test
+    void stepAppliedBeforeARestartIsNotAppliedAgain() {
+        // the debit of the transfer was applied, then the node stopped before the saga recorded it
+        commandGateway.send(GenericCommandMessage.asCommandMessage(
+                        new DebitAccountCommand("from", new BigDecimal("40.00"), "rent", LocalDateTime.now()))
+                .andMetaData(Map.of(TransferStepInterceptor.METADATA_KEY, "t1:debit"))).join();
+
+        commandGateway.send(transfer("from", "to", "40.00")).join();
+
+        assertEquals(List.of(AccountDebitedEvent.class), operations("from"));
+        assertEquals(List.of(AccountCreditedEvent.class), operations("to"));
+        assertEquals(TransferCompletedEvent.class, payloadTypes("t1").get(2));
+    }
+
+    @Test
+    void redeliveredTransferRequestIsIgnored() {
+        commandGateway.send(transfer("from", "to", "40.00")).join();
+        EventMessage<?> requested = configuration.eventStore().readEvents("t1").next();
+
+        configuration.eventBus().publish(GenericEventMessage.asEventMessage(requested.getPayload()));
+
+        assertEquals(List.of(AccountDebitedEvent.class), operations("from"));
+        assertEquals(List.of(AccountCreditedEvent.class), operations("to"));
+        assertEquals(3, payloadTypes("t1").size());
+    }
+
+    @Test
+    void interruptedStepIsRetriedByTheTransferDeadline() throws InterruptedException {
+        AtomicInteger interruptions = new AtomicInteger(1);
+        configuration.commandBus().registerHandlerInterceptor((unitOfWork, chain) -> {
+            if (unitOfWork.getMessage().getPayload() instanceof CreditAccountCommand
+                    && interruptions.getAndDecrement() > 0) {
+                throw new CommandDispatchException("connection lost");
+            }
+            return chain.proceed();
+        });
+
+        commandGateway.send(transfer("from", "to", "40.00")).join();
+
+        assertEquals(List.of(), operations("to"));
+        assertEquals(List.of(TransferRequestedEvent.class, TransferDebitedEvent.class), payloadTypes("t1"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (payloadTypes("t1").size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(List.of(AccountCreditedEvent.class), operations("to"));
+        assertEquals(TransferCompletedEvent.class, payloadTypes("t1").get(2));
+    }
+
+    @Test
+    void transferToTheSameAccountIsRejected() {
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> commandGateway.send(transfer("from", "from", "40.00")).join());
+        assertInstanceOf(InvalidTransferException.class, exception.getCause());
+    }
+
+    private static TransferStepRepository transferStepRepository() {
+        Set<String> steps = new HashSet<>();
+        TransferStepRepository repository = mock(TransferStepRepository.class);
+        when(repository.existsById(anyString()))
+                .thenAnswer(invocation -> steps.contains(invocation.<String>getArgument(0)));
+        when(repository.save(any(TransferStep.class))).thenAnswer(invocation -> {
+            steps.add(invocation.<TransferStep>getArgument(0).getId());
+            return invocation.getArgument(0);
+        });
+        return repository;
+    }
+
+    private void createAccount(String id, String balance) {
+        commandGateway.send(new CreateAccountCommand(id, new BigDecimal(balance), AccountStatus.ACTIVATED,
+                LocalDateTime.now(), "customerId")).join();
+    }
+
+    private RequestTransferCommand transfer(String from, String to, String amount) {
+        return new RequestTransferCommand("t1", from, to, new BigDecimal(amount), "rent", LocalDateTime.now());
+    }
+
+    private List<Class<?>> operations(String accountId) {
+        return payloadTypes(accountId).stream()
+                .filter(type -> type == AccountDebitedEvent.class || type == AccountCreditedEvent.class)
+                .toList();
+    }
+
+    private List<Class<?>> payloadTypes(String aggregateId) {
+        return configuration.eventStore().readEvents(aggregateId).asStream()
+                .<Class<?>>map(EventMessage::getPayloadType)
+                .toList();
+    }
+}
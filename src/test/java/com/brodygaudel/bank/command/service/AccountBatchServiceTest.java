@@ -0,0 +1,120 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.command.account.DebitAccountCommand;
+import com.brodygaudel.bank.common.dto.BatchCommandResultDTO;
+import com.brodygaudel.bank.common.dto.BatchResponseDTO;
+import com.brodygaudel.bank.common.exception.InsufficientBalanceException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AccountBatchServiceTest {
+
+    @Mock
+    private CommandGateway commandGateway;
+
+    private AccountBatchService accountBatchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        accountBatchService = new AccountBatchService(
+                new BoundedCommandDispatcher(commandGateway, 4), new ObjectMapper().findAndRegisterModules()
+        );
+    }
+
+    @Test
+    void testExecuteJsonArray() {
+        when(commandGateway.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        String body = """
+                [{"type":"CREDIT","id":"a","description":"salary","amount":1500.50},
+                 {"type":"DEBIT","id":"b","description":"fee","amount":2}]
+                """;
+
+        BatchResponseDTO response = accountBatchService.execute(stream(body)).join();
+
+        assertEquals(2, response.total());
+        assertEquals(2, response.succeeded());
+        ArgumentCaptor<Object> commands = ArgumentCaptor.forClass(Object.class);
+        verify(commandGateway, times(2)).send(commands.capture());
+        CreditAccountCommand credit = assertInstanceOf(CreditAccountCommand.class, commands.getAllValues().get(0));
+        assertEquals(new BigDecimal("1500.50"), credit.getAmount());
+        assertInstanceOf(DebitAccountCommand.class, commands.getAllValues().get(1));
+    }
+
+    @Test
+    void testExecuteNdjsonReportsEveryItem() {
+        when(commandGateway.send(any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new InsufficientBalanceException("Balance not sufficient")));
+        String body = """
+                {"type":"CREDIT","id":"a","description":"salary","amount":10}
+                {"type":"DEBIT","id":"b","description":"fee","amount":20}
+                {"type":"DEBIT","description":"missing id","amount":20}
+                """;
+
+        BatchResponseDTO response = accountBatchService.execute(stream(body)).join();
+
+        assertEquals(3, response.total());
+        assertEquals(1, response.succeeded());
+        assertEquals(2, response.failed());
+        BatchCommandResultDTO failed = response.results().get(1);
+        assertEquals("b", failed.id());
+        assertEquals("Balance not sufficient", failed.error());
+        assertFalse(response.results().get(2).success());
+        verify(commandGateway, times(2)).send(any());
+    }
+
+    @Test
+    void testExecuteReportsUnreadableInput() {
+        when(commandGateway.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        String body = """
+                {"type":"CREDIT","id":"a","description":"salary","amount":10}
+                {"type":"CREDIT","id":
+                """;
+
+        BatchResponseDTO response = accountBatchService.execute(stream(body)).join();
+
+        assertEquals(2, response.total());
+        assertTrue(response.results().get(0).success());
+        assertFalse(response.results().get(1).success());
+    }
+
+    @Test
+    void testDispatcherBoundsCommandsInFlight() throws InterruptedException {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        when(commandGateway.send(any())).thenReturn(pending);
+        BoundedCommandDispatcher dispatcher = new BoundedCommandDispatcher(commandGateway, 1);
+        dispatcher.dispatch(new Object());
+        assertEquals(1, dispatcher.inFlight());
+
+        Thread blocked = new Thread(() -> dispatcher.dispatch(new Object()));
+        blocked.start();
+        blocked.join(200);
+        assertTrue(blocked.isAlive());
+        verify(commandGateway, times(1)).send(any());
+
+        pending.complete(null);
+        blocked.join(1_000);
+        assertFalse(blocked.isAlive());
+        verify(commandGateway, times(2)).send(any());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
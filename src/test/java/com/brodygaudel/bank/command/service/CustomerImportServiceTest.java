@@ -0,0 +1,155 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.command.customer.CreateCustomerCommand;
+import com.brodygaudel.bank.common.dto.CustomerImportStatusDTO;
+import com.brodygaudel.bank.common.enums.ImportFormat;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.common.exception.ImportLimitExceededException;
+import com.brodygaudel.bank.common.exception.NicAlreadyExistException;
+import com.brodygaudel.bank.common.util.implementation.UuidV7IdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CustomerImportServiceTest {
+
+    @Mock
+    private CommandGateway commandGateway;
+
+    @TempDir
+    Path resultDirectory;
+
+    private CustomerImportService customerImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        customerImportService = new CustomerImportService(
+                new BoundedCommandDispatcher(commandGateway, 2),
+                new ObjectMapper().findAndRegisterModules(),
+                resultDirectory.toString(),
+                10,
+                1,
+                new UuidV7IdGenerator()
+        );
+    }
+
+    @Test
+    void testImportCsv() throws IOException {
+        when(commandGateway.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        String body = """
+                nic,firstname,name,placeOfBirth,dateOfBirth,nationality,sex
+                123,John,Doe,Libreville,1990-01-31,Gabon,M
+                456,"Jane, Ann",Doe,Paris,1992-05-01,France,F
+                """;
+
+        CustomerImportStatusDTO status = importAndWait(body, ImportFormat.CSV);
+
+        assertTrue(status.finished());
+        assertEquals(2, status.read());
+        assertEquals(2, status.succeeded());
+        ArgumentCaptor<CreateCustomerCommand> commands = ArgumentCaptor.forClass(CreateCustomerCommand.class);
+        verify(commandGateway, times(2)).send(commands.capture());
+        CreateCustomerCommand first = commands.getAllValues().get(0);
+        assertEquals(LocalDate.of(1990, 1, 31), first.getDateOfBirth());
+        assertEquals(Sex.M, first.getSex());
+        assertEquals("Jane, Ann", commands.getAllValues().get(1).getFirstname());
+    }
+
+    @Test
+    void testImportNdjsonRecordsFailures() throws IOException {
+        when(commandGateway.send(any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new NicAlreadyExistException("Nic already exist")));
+        String body = """
+                {"nic":"123","firstname":"John","name":"Doe","dateOfBirth":"1990-01-31","sex":"M"}
+                {"nic":"456","firstname":"Jane","name":"Doe","dateOfBirth":"1992-05-01","sex":"F"}
+                {"nic":"789","name":"Doe"}
+                """;
+
+        CustomerImportStatusDTO status = importAndWait(body, ImportFormat.NDJSON);
+
+        assertEquals(3, status.read());
+        assertEquals(1, status.succeeded());
+        assertEquals(2, status.failed());
+        List<String> result = Files.readAllLines(Path.of(status.resultFile()));
+        assertEquals("row,nic,error", result.get(0));
+        assertTrue(result.contains("2,\"456\",\"Nic already exist\""));
+        assertTrue(result.contains("3,\"789\",\"nic, firstname and name are required\""));
+        assertEquals(status, customerImportService.getStatus(status.id()).orElseThrow());
+    }
+
+    @Test
+    void testStatusReportsProgressWhileCommandsArePending() throws IOException {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        when(commandGateway.send(any())).thenReturn(pending);
+        String body = """
+                {"nic":"123","firstname":"John","name":"Doe"}
+                """;
+
+        CustomerImportStatusDTO started = customerImportService.importCustomers(stream(body), ImportFormat.NDJSON,
+                () -> {});
+        CompletableFuture<CustomerImportStatusDTO> done = customerImportService.getCompletion(started.id()).orElseThrow();
+
+        assertFalse(started.finished());
+        verify(commandGateway, timeout(5_000)).send(any());
+        CustomerImportStatusDTO running = customerImportService.getStatus(started.id()).orElseThrow();
+        assertFalse(running.finished());
+        assertEquals(1, running.read());
+        assertEquals(0, running.succeeded());
+        pending.complete(null);
+        assertTrue(done.join().finished());
+        assertEquals(1, done.join().succeeded());
+    }
+
+    @Test
+    void testImportBeyondTheLimitIsRefusedWhileAnotherIsRead() throws Exception {
+        when(commandGateway.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        PipedOutputStream upload = new PipedOutputStream();
+        InputStream input = new PipedInputStream(upload);
+        CountDownLatch read = new CountDownLatch(1);
+
+        CustomerImportStatusDTO first = customerImportService.importCustomers(input, ImportFormat.NDJSON,
+                read::countDown);
+
+        assertThrows(ImportLimitExceededException.class,
+                () -> customerImportService.importCustomers(stream(""), ImportFormat.NDJSON, () -> {}));
+        assertEquals(1, customerImportService.getStatuses().size());
+        upload.write("{\"nic\":\"123\",\"firstname\":\"John\",\"name\":\"Doe\"}\n".getBytes(StandardCharsets.UTF_8));
+        upload.close();
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        assertEquals(1, customerImportService.getCompletion(first.id()).orElseThrow().join().succeeded());
+    }
+
+    private CustomerImportStatusDTO importAndWait(String body, ImportFormat format) throws IOException {
+        String id = customerImportService.importCustomers(stream(body), format, () -> {}).id();
+        return customerImportService.getCompletion(id).orElseThrow().join();
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,115 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.command.entity.CustomerLookup;
+import com.brodygaudel.bank.command.repository.CustomerLookupRepository;
+import com.brodygaudel.bank.common.exception.CustomerAlreadyHaveAccountException;
+import com.brodygaudel.bank.common.exception.CustomerNotFoundException;
+import com.brodygaudel.bank.common.exception.NicAlreadyExistException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CustomerLookupServiceTest {
+
+    @Mock
+    private CustomerLookupRepository customerLookupRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CustomerLookupService customerLookupService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        customerLookupService = new CustomerLookupService(customerLookupRepository, transactionTemplate, 1_000, 0.01);
+    }
+
+    @Test
+    void testUnknownNicIsAcceptedWithoutQuery() {
+        customerLookupService.checkNicAvailable("NIC", "id");
+
+        verify(customerLookupRepository, never()).findByNic(anyString());
+        assertEquals(1.0, customerLookupService.filteredRatio());
+    }
+
+    @Test
+    void testNicOfAnotherCustomerIsRejected() {
+        customerLookupService.register("other", "NIC");
+        when(customerLookupRepository.findByNic("NIC")).thenReturn(Optional.of(new CustomerLookup("other", "NIC", null)));
+
+        assertThrows(NicAlreadyExistException.class, () -> customerLookupService.checkNicAvailable("NIC", "id"));
+        assertDoesNotThrow(() -> customerLookupService.checkNicAvailable("NIC", "other"));
+    }
+
+    @Test
+    void testNicReleasedByADeletedCustomerIsAccepted() {
+        customerLookupService.register("other", "NIC");
+        customerLookupService.unregister("other");
+        when(customerLookupRepository.findByNic("NIC")).thenReturn(Optional.empty());
+
+        assertDoesNotThrow(() -> customerLookupService.checkNicAvailable("NIC", "id"));
+        verify(customerLookupRepository).deleteById("other");
+    }
+
+    @Test
+    void testLoadFillsTheFilterFromTheTable() {
+        when(customerLookupRepository.count()).thenReturn(2L);
+        when(customerLookupRepository.findNicsAfter(eq(""), any(Pageable.class))).thenReturn(List.of("A", "B"));
+        when(customerLookupRepository.findByNic("A")).thenReturn(Optional.of(new CustomerLookup("a", "A", null)));
+
+        customerLookupService.load();
+
+        assertThrows(NicAlreadyExistException.class, () -> customerLookupService.checkNicAvailable("A", "id"));
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    void testLoadBackfillsAnEmptyTable() {
+        when(customerLookupRepository.count()).thenReturn(0L);
+        when(customerLookupRepository.findNicsAfter(anyString(), any(Pageable.class))).thenReturn(List.of());
+
+        customerLookupService.load();
+
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void testUpdatedNicKeepsTheAccount() {
+        when(customerLookupRepository.findById("id")).thenReturn(Optional.of(new CustomerLookup("id", "OLD", "account")));
+
+        customerLookupService.register("id", "NEW");
+
+        verify(customerLookupRepository).save(argThat(lookup -> "NEW".equals(lookup.getNic())
+                && "account".equals(lookup.getAccountId())));
+    }
+
+    @Test
+    void testCustomerCanOpenASingleAccount() {
+        when(customerLookupRepository.findById("id")).thenReturn(Optional.of(new CustomerLookup("id", "NIC", null)));
+        when(customerLookupRepository.findById("owner")).thenReturn(Optional.of(new CustomerLookup("owner", "NIC2", "account")));
+
+        assertDoesNotThrow(() -> customerLookupService.checkCanOpenAccount("id"));
+        assertThrows(CustomerAlreadyHaveAccountException.class, () -> customerLookupService.checkCanOpenAccount("owner"));
+        assertThrows(CustomerNotFoundException.class, () -> customerLookupService.checkCanOpenAccount("unknown"));
+    }
+
+    @Test
+    void testSecondAccountIsNotRecorded() {
+        when(customerLookupRepository.assignAccount("id", "first")).thenReturn(1);
+        when(customerLookupRepository.assignAccount("id", "second")).thenReturn(0);
+
+        assertDoesNotThrow(() -> customerLookupService.registerAccount("id", "first"));
+        assertThrows(CustomerAlreadyHaveAccountException.class, () -> customerLookupService.registerAccount("id", "second"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.command.account.CreateAccountCommand;
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.command.customer.CreateCustomerCommand;
+import com.brodygaudel.bank.common.dto.EventArchiveReportDTO;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bank-archive;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS bank",
+        "snapshot.account.threshold=5",
+        "event-archive.min-age=0s"
+})
+@ActiveProfiles("embedded")
+class EventArchiveJobTest {
+
+    private static final int CREDITS = 12;
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private EventStore eventStore;
+
+    @Autowired
+    private EventArchiveJob eventArchiveJob;
+
+    @Autowired
+    private EventStreamService eventStreamService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("bank-event-archive").toString();
+        registry.add("event-archive.directory", () -> directory);
+    }
+
+    @Test
+    void testEventsBeforeTheSnapshotAreMovedToTheArchive() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        commandGateway.sendAndWait(new CreateCustomerCommand("customer-1", "nic-1", "John", "Doe", "Paris",
+                LocalDate.of(1990, 1, 1), "French", Sex.M, now));
+        commandGateway.sendAndWait(new CreateAccountCommand("account-1", BigDecimal.ZERO, AccountStatus.ACTIVATED,
+                now, "customer-1"));
+        for (int i = 0; i < CREDITS; i++) {
+            commandGateway.sendAndWait(new CreditAccountCommand("account-1", BigDecimal.TEN, "credit", now));
+        }
+        long events = CREDITS + 2;
+        long snapshot = awaitSnapshot("account-1");
+
+        EventArchiveReportDTO report = eventArchiveJob.archive();
+
+        assertEquals(1, report.aggregates());
+        assertEquals(snapshot, report.events());
+        assertTrue(report.reclaimedBytes() > 0);
+        assertTrue(report.archivedBytes() > 0);
+        assertEquals(snapshot, jdbcTemplate.queryForObject(
+                "select min(sequence_number) from domain_event_entry where aggregate_identifier = 'account-1'",
+                Long.class));
+        assertEquals(events - snapshot, eventStore.readEvents("account-1").asStream().count());
+        assertEquals(List.of(0L), auditSequenceNumbers("customer-1"));
+        List<Long> audited = auditSequenceNumbers("account-1");
+        assertEquals(events, audited.size());
+        for (int i = 0; i < audited.size(); i++) {
+            assertEquals(i, audited.get(i));
+        }
+        assertEquals(0, eventArchiveJob.archive().events());
+    }
+
+    @Test
+    void testEventsBehindASnapshotOfAnOlderRevisionAreKept() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        commandGateway.sendAndWait(new CreateCustomerCommand("customer-2", "nic-2", "Jane", "Doe", "Lyon",
+                LocalDate.of(1990, 1, 1), "French", Sex.F, now));
+        commandGateway.sendAndWait(new CreateAccountCommand("account-2", BigDecimal.ZERO, AccountStatus.ACTIVATED,
+                now, "customer-2"));
+        for (int i = 0; i < CREDITS; i++) {
+            commandGateway.sendAndWait(new CreditAccountCommand("account-2", BigDecimal.TEN, "credit", now));
+        }
+        awaitSnapshot("account-2");
+        jdbcTemplate.update("update snapshot_event_entry set payload_revision = '0' where aggregate_identifier = ?",
+                "account-2");
+
+        eventArchiveJob.archive();
+
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "select min(sequence_number) from domain_event_entry where aggregate_identifier = 'account-2'",
+                Long.class));
+        assertEquals(CREDITS + 2, eventStore.readEvents("account-2").asStream().count());
+    }
+
+    private long awaitSnapshot(String aggregateId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            Long sequenceNumber = jdbcTemplate.queryForObject(
+                    "select max(sequence_number) from snapshot_event_entry where aggregate_identifier = ?",
+                    Long.class, aggregateId);
+            if (sequenceNumber != null) {
+                return sequenceNumber;
+            }
+            Thread.sleep(100);
+        }
+        return fail("no snapshot was taken of " + aggregateId);
+    }
+
+    private List<Long> auditSequenceNumbers(String aggregateId) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        eventStreamService.writeAudit(aggregateId, output);
+        return output.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line).get("sequenceNumber").asLong();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.config.Configuration;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.jpa.DomainEventEntry;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.upcasting.event.EventUpcasterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventArchiveTest {
+
+    @TempDir
+    private Path directory;
+
+    private JacksonSerializer serializer;
+    private EventArchive eventArchive;
+
+    @BeforeEach
+    void setUp() {
+        serializer = JacksonSerializer.builder()
+                .objectMapper(new ObjectMapper().findAndRegisterModules())
+                .build();
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.upcasterChain()).thenReturn(new EventUpcasterChain());
+        eventArchive = new EventArchive(directory, serializer, configuration, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Test
+    void testArchivedEventsAreReadBackInSequenceOrder() throws IOException {
+        List<DomainEventEntry> events = entries("account/1", 0, 5);
+        eventArchive.write("account/1", events.subList(0, 3));
+        eventArchive.write("account/1", events.subList(3, 5));
+
+        DomainEventStream archived = eventArchive.read("account/1");
+        List<? extends DomainEventMessage<?>> messages = archived.asStream().toList();
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), messages.stream().map(DomainEventMessage::getSequenceNumber).toList());
+        assertEquals(4L, archived.getLastSequenceNumber());
+        DomainEventMessage<?> first = messages.get(0);
+        assertEquals(events.get(0).getEventIdentifier(), first.getIdentifier());
+        assertEquals(events.get(0).getTimestamp(), first.getTimestamp());
+        assertEquals("AccountAggregate", first.getType());
+        assertEquals(0L, ((AccountCreditedEvent) first.getPayload()).getAmountInMinorUnits());
+        assertEquals(400L, ((AccountCreditedEvent) messages.get(4).getPayload()).getAmountInMinorUnits());
+    }
+
+    @Test
+    void testEventsArchivedAgainAreNotDuplicated() throws IOException {
+        List<DomainEventEntry> events = entries("account-1", 0, 5);
+        eventArchive.write("account-1", events.subList(0, 3));
+        eventArchive.write("account-1", events);
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), eventArchive.read("account-1").asStream()
+                .map(DomainEventMessage::getSequenceNumber)
+                .toList());
+    }
+
+    @Test
+    void testAggregateWithoutArchiveHasNoArchivedEvents() {
+        DomainEventStream archived = eventArchive.read("unknown");
+
+        assertEquals(0, archived.asStream().count());
+        assertNull(archived.getLastSequenceNumber());
+    }
+
+    private List<DomainEventEntry> entries(String aggregateId, long from, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        return LongStream.range(from, from + count)
+                .mapToObj(sequence -> new DomainEventEntry(new GenericDomainEventMessage<>("AccountAggregate",
+                        aggregateId, sequence, new AccountCreditedEvent(aggregateId, BigDecimal.valueOf(sequence),
+                        "credit", now)), serializer))
+                .toList();
+    }
+}
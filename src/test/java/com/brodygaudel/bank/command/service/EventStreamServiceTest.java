@@ -0,0 +1,115 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventStreamServiceTest {
+
+    @Mock
+    private EventStore eventStore;
+
+    @Mock
+    private EventArchive eventArchive;
+
+    private ObjectMapper objectMapper;
+    private EventStreamService eventStreamService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        eventStreamService = new EventStreamService(eventStore, eventArchive, objectMapper);
+    }
+
+    @Test
+    void testEventsAreWrittenOnePerLine() throws IOException {
+        when(eventStore.readEvents("id", 2L)).thenReturn(history(2, 3));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = eventStreamService.write("id", 2, Long.MAX_VALUE, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, written);
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(2, first.get("sequenceNumber").asLong());
+        assertEquals("id", first.get("aggregateId").asText());
+        assertEquals(AccountCreditedEvent.class.getName(), first.get("payloadType").asText());
+        assertEquals(200, first.get("payload").get("amountInMinorUnits").asLong());
+        assertEquals(4, objectMapper.readTree(lines[2]).get("sequenceNumber").asLong());
+    }
+
+    @Test
+    void testLimitStopsTheStream() throws IOException {
+        when(eventStore.readEvents("id", 0L)).thenReturn(history(0, 1_000));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = eventStreamService.write("id", 0, 10, output);
+
+        assertEquals(10, written);
+        assertEquals(10, output.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    void testUnknownAggregateWritesNothing() throws IOException {
+        when(eventStore.readEvents("unknown", 0L)).thenReturn(DomainEventStream.empty());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(0, eventStreamService.write("unknown", 0, Long.MAX_VALUE, output));
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void testAuditWritesArchivedEventsThenStoredEvents() throws IOException {
+        when(eventArchive.read("id")).thenReturn(history(0, 3));
+        when(eventStore.readEvents("id", 3L)).thenReturn(history(3, 2));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = eventStreamService.writeAudit("id", output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, written);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(i, objectMapper.readTree(lines[i]).get("sequenceNumber").asLong());
+        }
+    }
+
+    @Test
+    void testAuditWithoutArchiveWritesStoredEvents() throws IOException {
+        when(eventArchive.read("id")).thenReturn(DomainEventStream.empty());
+        when(eventStore.readEvents("id", 0L)).thenReturn(history(0, 4));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(4, eventStreamService.writeAudit("id", output));
+        assertEquals(4, output.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    private static DomainEventStream history(long from, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        Stream<? extends DomainEventMessage<?>> events = Stream.iterate(from, sequence -> sequence + 1)
+                .limit(count)
+                .map(sequence -> new GenericDomainEventMessage<>("AccountAggregate", "id", sequence,
+                        new AccountCreditedEvent("id", BigDecimal.valueOf(sequence), "credit", now)));
+        return DomainEventStream.of(events);
+    }
+}
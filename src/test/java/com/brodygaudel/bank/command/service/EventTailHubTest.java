@@ -0,0 +1,205 @@
+package com.brodygaudel.bank.command.service;
+
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventTailHubTest {
+
+    private static final int BUFFER_SIZE = 16;
+
+    private EmbeddedEventStore eventStore;
+    private EventTailHub eventTailHub;
+    private long sequence;
+
+    @BeforeEach
+    void setUp() {
+        eventStore = EmbeddedEventStore.builder().storageEngine(new InMemoryEventStorageEngine()).build();
+        eventTailHub = new EventTailHub(eventStore, Jackson2ObjectMapperBuilder.json().build(),
+                BUFFER_SIZE, 2, 2, 1, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventTailHub.stop();
+        eventStore.shutDown();
+    }
+
+    @Test
+    void testLiveSubscriberReceivesTheNewEventsInOrder() {
+        publish(3);
+        CapturingEmitter emitter = new CapturingEmitter();
+        eventTailHub.subscribe(null, emitter);
+
+        publish(5);
+
+        await(() -> emitter.ids.size() == 5);
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), emitter.ids);
+        assertEquals(1, eventTailHub.subscribers());
+    }
+
+    @Test
+    void testSubscriberResumesAfterTheGivenIndex() {
+        CapturingEmitter live = new CapturingEmitter();
+        eventTailHub.subscribe(null, live);
+        publish(6);
+        await(() -> live.ids.size() == 6);
+
+        CapturingEmitter resumed = new CapturingEmitter();
+        eventTailHub.subscribe(2L, resumed);
+        publish(1);
+
+        await(() -> resumed.ids.size() == 4);
+        assertEquals(List.of(3L, 4L, 5L, 6L), resumed.ids);
+    }
+
+    @Test
+    void testSubscriberBehindTheRingCatchesUpFromTheEventStore() {
+        publish(BUFFER_SIZE * 3);
+        CapturingEmitter late = new CapturingEmitter();
+        eventTailHub.subscribe(4L, late);
+        publish(3);
+
+        long last = BUFFER_SIZE * 3 + 2;
+        await(() -> late.ids.size() == last - 4);
+        assertEquals(LongStream.rangeClosed(5, last).boxed().toList(), late.ids);
+        await(() -> eventTailHub.subscribers() == 1);
+    }
+
+    @Test
+    void testSlowSubscriberIsDroppedWithoutDelayingTheOthers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingEmitter slow = new CapturingEmitter(release);
+        CapturingEmitter fast = new CapturingEmitter();
+        eventTailHub.subscribe(null, slow);
+        eventTailHub.subscribe(null, fast);
+
+        for (int round = 1; round <= 8; round++) {
+            publish(BUFFER_SIZE / 2);
+            int expected = round * BUFFER_SIZE / 2;
+            await(() -> fast.ids.size() == expected);
+        }
+        release.countDown();
+        await(() -> slow.completed);
+        assertEquals(1, eventTailHub.dropped());
+        assertEquals(1, eventTailHub.subscribers());
+        assertTrue(slow.ids.size() < BUFFER_SIZE * 4);
+        assertFalse(fast.completed);
+    }
+
+    @Test
+    void testStalledSubscribersAreDroppedWithoutStarvingTheOthers() {
+        eventTailHub.stop();
+        eventTailHub = new EventTailHub(eventStore, Jackson2ObjectMapperBuilder.json().build(),
+                BUFFER_SIZE, 2, 2, 1, Duration.ofMinutes(1), Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        List<CapturingEmitter> stalled = List.of(new CapturingEmitter(release), new CapturingEmitter(release),
+                new CapturingEmitter(release), new CapturingEmitter(release));
+        stalled.forEach(emitter -> eventTailHub.subscribe(null, emitter));
+        CapturingEmitter fast = new CapturingEmitter();
+        eventTailHub.subscribe(null, fast);
+
+        publish(BUFFER_SIZE / 2);
+
+        await(() -> fast.ids.size() == BUFFER_SIZE / 2);
+        await(() -> eventTailHub.dropped() == stalled.size());
+        assertEquals(1, eventTailHub.subscribers());
+        release.countDown();
+        stalled.forEach(emitter -> await(() -> emitter.completed));
+        assertTrue(stalled.stream().allMatch(emitter -> emitter.ids.size() <= 1));
+        assertFalse(fast.completed);
+    }
+
+    @Test
+    void testSenderDoesNotWaitForAStalledClient() {
+        eventTailHub.stop();
+        eventTailHub = new EventTailHub(eventStore, Jackson2ObjectMapperBuilder.json().build(),
+                BUFFER_SIZE, 1, 2, 1, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingEmitter stalled = new CapturingEmitter(release);
+        CapturingEmitter fast = new CapturingEmitter();
+        eventTailHub.subscribe(null, stalled);
+        eventTailHub.subscribe(null, fast);
+
+        for (int round = 1; round <= 4; round++) {
+            publish(BUFFER_SIZE / 2);
+            int expected = round * BUFFER_SIZE / 2;
+            await(() -> fast.ids.size() == expected);
+        }
+        assertEquals(0, eventTailHub.dropped());
+        release.countDown();
+        await(() -> stalled.completed);
+        assertEquals(1, eventTailHub.dropped());
+        assertFalse(fast.completed);
+    }
+
+    private void publish(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            eventStore.publish(new GenericDomainEventMessage<>("AccountAggregate", "id", sequence++,
+                    new AccountCreditedEvent("id", BigDecimal.ONE, "credit", now)));
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Emitter recording the ids of the sent events, optionally blocking on its first event until released.
+     */
+    private static class CapturingEmitter extends SseEmitter {
+
+        private final List<Long> ids = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private volatile boolean completed;
+
+        CapturingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        CapturingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String frame = builder.build().iterator().next().getData().toString();
+            ids.add(Long.parseLong(frame.substring(frame.indexOf(':') + 1, frame.indexOf('\n'))));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
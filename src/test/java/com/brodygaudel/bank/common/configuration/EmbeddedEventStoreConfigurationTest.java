@@ -0,0 +1,103 @@
+package com.brodygaudel.bank.common.configuration;
+
+import com.brodygaudel.bank.common.command.account.CreateAccountCommand;
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.command.customer.CreateCustomerCommand;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.query.entity.Account;
+import com.brodygaudel.bank.query.repository.AccountRepository;
+import com.brodygaudel.bank.query.service.account.AccountEventHandlerService;
+import com.brodygaudel.bank.query.service.customer.CustomerEventHandlerService;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.eventsourcing.eventstore.jpa.JpaEventStorageEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:bank-embedded;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS bank")
+@ActiveProfiles("embedded")
+class EmbeddedEventStoreConfigurationTest {
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private EventStorageEngine eventStorageEngine;
+
+    @Autowired
+    private EventStore eventStore;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventProcessingConfiguration eventProcessingConfiguration;
+
+    @Autowired
+    private TokenStore tokenStore;
+
+    @Test
+    void testCommandsAreStoredAndProjectedWithoutAxonServer() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        commandGateway.sendAndWait(new CreateCustomerCommand("customer-1", "nic-1", "John", "Doe", "Paris",
+                LocalDate.of(1990, 1, 1), "French", Sex.M, now));
+        commandGateway.sendAndWait(new CreateAccountCommand("account-1", BigDecimal.ZERO, AccountStatus.ACTIVATED,
+                now, "customer-1"));
+        for (int i = 0; i < 10; i++) {
+            commandGateway.sendAndWait(new CreditAccountCommand("account-1", BigDecimal.TEN, "credit", now));
+        }
+
+        assertInstanceOf(JpaEventStorageEngine.class, eventStorageEngine);
+        assertEquals(12, eventStore.readEvents("account-1").asStream().count());
+        Account account = awaitBalance("account-1", new BigDecimal("100"));
+        assertEquals("customer-1", account.getCustomer().getId());
+    }
+
+    @Test
+    void testTimestampIndexIsCreated() {
+        Integer indexes = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.indexes where index_name = 'DOMAIN_EVENT_ENTRY_TIME_STAMP'",
+                Integer.class);
+        assertEquals(1, indexes);
+    }
+
+    @Test
+    void testProjectionsRunInSegmentedPooledProcessors() {
+        assertTrue(eventProcessingConfiguration.eventProcessor(AccountEventHandlerService.PROCESSING_GROUP,
+                PooledStreamingEventProcessor.class).isPresent());
+        assertTrue(eventProcessingConfiguration.eventProcessor(CustomerEventHandlerService.PROCESSING_GROUP,
+                PooledStreamingEventProcessor.class).isPresent());
+        assertEquals(4, tokenStore.fetchSegments(AccountEventHandlerService.PROCESSING_GROUP).length);
+        assertEquals(2, tokenStore.fetchSegments(CustomerEventHandlerService.PROCESSING_GROUP).length);
+    }
+
+    private Account awaitBalance(String accountId, BigDecimal balance) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            Account account = accountRepository.findById(accountId).orElse(null);
+            if (account != null && account.getBalance().compareTo(balance) == 0) {
+                return account;
+            }
+            Thread.sleep(100);
+        }
+        return fail("the account was not projected with a balance of " + balance);
+    }
+}
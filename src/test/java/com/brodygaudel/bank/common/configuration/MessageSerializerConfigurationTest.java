@@ -0,0 +1,107 @@
+package com.brodygaudel.bank.common.configuration;
+
+import com.brodygaudel.bank.common.command.BaseCommand;
+import com.brodygaudel.bank.common.command.account.*;
+import com.brodygaudel.bank.common.command.customer.CreateCustomerCommand;
+import com.brodygaudel.bank.common.command.customer.DeleteCustomerCommand;
+import com.brodygaudel.bank.common.command.customer.UpdateCustomerCommand;
+import com.brodygaudel.bank.common.command.transfer.CompleteTransferCommand;
+import com.brodygaudel.bank.common.command.transfer.FailTransferCommand;
+import com.brodygaudel.bank.common.command.transfer.RecordTransferDebitCommand;
+import com.brodygaudel.bank.common.command.transfer.RejectTransferCreditCommand;
+import com.brodygaudel.bank.common.command.transfer.RequestTransferCommand;
+import com.brodygaudel.bank.common.dto.AccountResponseDTO;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.common.query.*;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.serialization.AnnotationRevisionResolver;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageSerializerConfigurationTest {
+
+    private Serializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        serializer = new MessageSerializerConfiguration()
+                .messageSerializer(Jackson2ObjectMapperBuilder.json().build(), new AnnotationRevisionResolver());
+    }
+
+    @Test
+    void everyCommandAndQueryRoundTrips() {
+        Map<Class<?>, Object> samples = samples().collect(Collectors.toMap(Object::getClass, sample -> sample));
+        List<Class<?>> types = MessageSerializerConfiguration.messageTypes().stream()
+                .filter(type -> type != BaseCommand.class)
+                .toList();
+
+        assertFalse(types.isEmpty());
+        for (Class<?> type : types) {
+            Object sample = samples.get(type);
+            assertNotNull(sample, "no sample message for " + type.getName());
+            SerializedObject<byte[]> serialized = serializer.serialize(sample, byte[].class);
+            Object deserialized = serializer.deserialize(serialized);
+            assertEquals(type, deserialized.getClass());
+            assertArrayEquals(serialized.getData(), serializer.serialize(deserialized, byte[].class).getData(),
+                    type.getSimpleName() + " changed through serialization");
+        }
+    }
+
+    @Test
+    void listOfResponsesKeepsItsElementType() {
+        List<AccountResponseDTO> accounts = new ArrayList<>(List.of(AccountResponseDTO.builder()
+                .id("id").balance(new BigDecimal("12.50")).status(AccountStatus.ACTIVATED)
+                .customerId("customerId").creation(LocalDateTime.now()).build()));
+
+        Object deserialized = serializer.deserialize(serializer.serialize(accounts, byte[].class));
+        List<AccountResponseDTO> converted = ResponseTypes.multipleInstancesOf(AccountResponseDTO.class)
+                .convert(deserialized);
+
+        assertEquals(1, converted.size());
+        assertEquals(new BigDecimal("12.50"), converted.get(0).getBalance());
+        assertEquals(AccountStatus.ACTIVATED, converted.get(0).getStatus());
+    }
+
+    private static Stream<Object> samples() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate birth = LocalDate.of(1990, 1, 1);
+        return Stream.of(
+                new CreateAccountCommand("id", BigDecimal.ZERO, AccountStatus.CREATED, now, "customerId"),
+                new ActiveAccountCommand("id", AccountStatus.ACTIVATED, now),
+                new SuspendAccountCommand("id", AccountStatus.SUSPENDED, now),
+                new CreditAccountCommand("id", new BigDecimal("10.25"), "credit", now),
+                new DebitAccountCommand("id", new BigDecimal("3.50"), "debit", now),
+                new CreateCustomerCommand("id", "NIC", "John", "Doe", "Libreville", birth, "Gabon", Sex.M, now),
+                new UpdateCustomerCommand("id", "NIC", "John", "Doe", "Libreville", birth, "Gabon", Sex.M, now),
+                new DeleteCustomerCommand("id"),
+                new RequestTransferCommand("t", "from", "to", new BigDecimal("40.00"), "rent", now),
+                new RecordTransferDebitCommand("t", now),
+                new RejectTransferCreditCommand("t", "account not found", now),
+                new CompleteTransferCommand("t", now),
+                new FailTransferCommand("t", "insufficient balance", now),
+                new GetAccountByIdQuery("id"),
+                new GetAccountByCustomerIdQuery("customerId"),
+                new GetAllAccountsQuery(),
+                new GetAllCustomersQuery(),
+                new GetCustomerByIdQuery("id"),
+                new GetOperationByAccountIdQuery("id", 0, 10),
+                new GetOperationByIdQuery("id"),
+                new SearchCustomersQuery("doe", 0, 10)
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package com.brodygaudel.bank.common.event;
+
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountDebitedEvent;
+import com.brodygaudel.bank.common.event.customer.CustomerCreatedEvent;
+import com.brodygaudel.bank.common.event.transfer.TransferRequestedEvent;
+import com.brodygaudel.bank.common.upcaster.AccountAmountMinorUnitsUpcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.upcasting.event.InitialEventRepresentation;
+import org.axonframework.serialization.upcasting.event.IntermediateEventRepresentation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborEventSerializationTest {
+
+    private CBORMapper mapper;
+    private JacksonSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        mapper = (CBORMapper) new CBORMapper().findAndRegisterModules();
+        serializer = JacksonSerializer.builder().objectMapper(mapper).build();
+    }
+
+    @Test
+    void accountEventsRoundTrip() {
+        LocalDateTime now = LocalDateTime.now();
+        AccountCreatedEvent created = roundTrip(new AccountCreatedEvent("id", 125075L, AccountStatus.CREATED, now, "c"));
+        AccountDebitedEvent debited = roundTrip(new AccountDebitedEvent("id", new BigDecimal("12.50"), "debit", now));
+
+        assertEquals(125075L, created.getBalanceInMinorUnits());
+        assertEquals(AccountStatus.CREATED, created.getStatus());
+        assertEquals(now, created.getCreation());
+        assertEquals("c", created.getCustomerId());
+        assertEquals(1250L, debited.getAmountInMinorUnits());
+        assertEquals("debit", debited.getDescription());
+        assertEquals(now, debited.getLastUpdate());
+    }
+
+    @Test
+    void customerAndTransferEventsRoundTrip() {
+        LocalDateTime now = LocalDateTime.now();
+        CustomerCreatedEvent customer = roundTrip(new CustomerCreatedEvent("id", "NIC", "John", "Doe", "Libreville",
+                LocalDate.of(1990, 1, 1), "Gabon", Sex.M, now));
+        TransferRequestedEvent transfer = roundTrip(new TransferRequestedEvent("t", "from", "to",
+                new BigDecimal("40.00"), "rent", now));
+
+        assertEquals("NIC", customer.getNic());
+        assertEquals(LocalDate.of(1990, 1, 1), customer.getDateOfBirth());
+        assertEquals(Sex.M, customer.getSex());
+        assertEquals("from", transfer.getIdFrom());
+        assertEquals(new BigDecimal("40.00"), transfer.getAmount());
+    }
+
+    @Test
+    void cborIsSmallerThanJson() throws Exception {
+        AccountDebitedEvent event = new AccountDebitedEvent("01HZX3V8Q0K7", 1250L, "debit", LocalDateTime.now());
+        byte[] json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(event);
+        byte[] cbor = serializer.serialize(event, byte[].class).getData();
+
+        assertTrue(cbor.length < json.length, cbor.length + " CBOR bytes against " + json.length + " JSON bytes");
+    }
+
+    @Test
+    void legacyEventIsUpcastFromCbor() throws Exception {
+        byte[] legacy = mapper.writeValueAsBytes(new ObjectMapper().readTree(
+                "{\"id\":\"id\",\"amount\":3.25,\"description\":\"debit\",\"lastUpdate\":\"2024-01-01T10:00:00\"}"));
+        GenericDomainEventEntry<byte[]> entry = new GenericDomainEventEntry<>(
+                "AccountAggregate", "id", 0, "eventId", Instant.now(), AccountDebitedEvent.class.getName(), null,
+                legacy, mapper.writeValueAsBytes(mapper.createObjectNode())
+        );
+        IntermediateEventRepresentation upcasted = new AccountAmountMinorUnitsUpcaster()
+                .upcast(Stream.of(new InitialEventRepresentation(entry, serializer)))
+                .findFirst()
+                .orElseThrow();
+
+        AccountDebitedEvent event = serializer.deserialize(upcasted.getData());
+        assertEquals(325L, event.getAmountInMinorUnits());
+    }
+
+    private <T> T roundTrip(T event) {
+        SerializedObject<byte[]> serialized = serializer.serialize(event, byte[].class);
+        T deserialized = serializer.deserialize(serialized);
+        assertEquals(event.getClass(), deserialized.getClass());
+        return deserialized;
+    }
+}
@@ -0,0 +1,77 @@
+package com.brodygaudel.bank.common.upcaster;
+
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.brodygaudel.bank.common.event.account.AccountDebitedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.upcasting.event.InitialEventRepresentation;
+import org.axonframework.serialization.upcasting.event.IntermediateEventRepresentation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountAmountMinorUnitsUpcasterTest {
+
+    private JacksonSerializer serializer;
+    private AccountAmountMinorUnitsUpcaster upcaster;
+
+    @BeforeEach
+    void setUp() {
+        serializer = JacksonSerializer.builder()
+                .objectMapper(new ObjectMapper().findAndRegisterModules())
+                .build();
+        upcaster = new AccountAmountMinorUnitsUpcaster();
+    }
+
+    @Test
+    void upcastsLegacyCreditedEvent() {
+        String json = "{\"id\":\"id\",\"amount\":1250.75,\"description\":\"credit\",\"lastUpdate\":\"2024-01-01T10:00:00\"}";
+        AccountCreditedEvent event = upcastAndDeserialize(AccountCreditedEvent.class.getName(), null, json);
+        assertEquals(125075L, event.getAmountInMinorUnits());
+        assertEquals(new BigDecimal("1250.75"), event.getAmount());
+        assertEquals("credit", event.getDescription());
+    }
+
+    @Test
+    void upcastsLegacyDebitedEvent() {
+        String json = "{\"id\":\"id\",\"amount\":3,\"description\":\"debit\",\"lastUpdate\":\"2024-01-01T10:00:00\"}";
+        AccountDebitedEvent event = upcastAndDeserialize(AccountDebitedEvent.class.getName(), null, json);
+        assertEquals(300L, event.getAmountInMinorUnits());
+    }
+
+    @Test
+    void upcastsLegacyCreatedEvent() {
+        String json = "{\"id\":\"id\",\"balance\":0,\"status\":\"CREATED\",\"creation\":\"2024-01-01T10:00:00\",\"customerId\":\"c\"}";
+        AccountCreatedEvent event = upcastAndDeserialize(AccountCreatedEvent.class.getName(), null, json);
+        assertEquals(0L, event.getBalanceInMinorUnits());
+        assertEquals("c", event.getCustomerId());
+    }
+
+    @Test
+    void leavesCurrentRevisionUntouched() {
+        String json = "{\"id\":\"id\",\"amountInMinorUnits\":42,\"description\":\"credit\",\"lastUpdate\":\"2024-01-01T10:00:00\"}";
+        AccountCreditedEvent event = upcastAndDeserialize(AccountCreditedEvent.class.getName(), "1", json);
+        assertEquals(42L, event.getAmountInMinorUnits());
+    }
+
+    private <T> T upcastAndDeserialize(String type, String revision, String json) {
+        GenericDomainEventEntry<byte[]> entry = new GenericDomainEventEntry<>(
+                "AccountAggregate", "id", 0, "eventId", Instant.now(), type, revision,
+                json.getBytes(StandardCharsets.UTF_8), "{}".getBytes(StandardCharsets.UTF_8)
+        );
+        IntermediateEventRepresentation upcasted = upcaster
+                .upcast(Stream.of(new InitialEventRepresentation(entry, serializer)))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("1", upcasted.getType().getRevision());
+        return serializer.deserialize(upcasted.getData());
+    }
+}
@@ -0,0 +1,111 @@
+package com.brodygaudel.bank.common.upcaster;
+
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.brodygaudel.bank.common.event.account.AccountDebitedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.upcasting.event.EventUpcasterChain;
+import org.axonframework.serialization.upcasting.event.InitialEventRepresentation;
+import org.axonframework.serialization.upcasting.event.IntermediateEventRepresentation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonEventUpcasterTest {
+
+    private JacksonSerializer serializer;
+    private AtomicInteger upcasts;
+    private EventUpcasterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        serializer = JacksonSerializer.builder()
+                .objectMapper(new ObjectMapper().findAndRegisterModules())
+                .build();
+        upcasts = new AtomicInteger();
+        chain = new EventUpcasterChain(
+                new RenameUpcaster(null, "0.1", "label", "description"),
+                new RenameUpcaster("0.1", "1", "cents", "amountInMinorUnits")
+        );
+    }
+
+    @Test
+    void chainAppliesEveryFollowingStep() {
+        IntermediateEventRepresentation upcasted = upcast(AccountDebitedEvent.class, null,
+                "{\"id\":\"id\",\"cents\":1250,\"label\":\"debit\",\"lastUpdate\":\"2024-01-01T10:00:00\"}");
+
+        assertEquals("1", upcasted.getType().getRevision());
+        AccountDebitedEvent event = serializer.deserialize(upcasted.getData());
+        assertEquals(1250L, event.getAmountInMinorUnits());
+        assertEquals("debit", event.getDescription());
+        assertEquals(2, upcasts.get());
+    }
+
+    @Test
+    void chainStartsAtTheStoredRevision() {
+        IntermediateEventRepresentation upcasted = upcast(AccountDebitedEvent.class, "0.1",
+                "{\"id\":\"id\",\"cents\":300,\"description\":\"debit\",\"lastUpdate\":\"2024-01-01T10:00:00\"}");
+
+        AccountDebitedEvent event = serializer.deserialize(upcasted.getData());
+        assertEquals(300L, event.getAmountInMinorUnits());
+        assertEquals(1, upcasts.get());
+    }
+
+    @Test
+    void payloadIsOnlyUpcastWhenRead() {
+        IntermediateEventRepresentation upcasted = upcast(AccountDebitedEvent.class, null,
+                "{\"id\":\"id\",\"cents\":1,\"label\":\"debit\",\"lastUpdate\":\"2024-01-01T10:00:00\"}");
+
+        assertEquals("1", upcasted.getType().getRevision());
+        assertEquals(0, upcasts.get());
+        upcasted.getData();
+        assertEquals(2, upcasts.get());
+    }
+
+    @Test
+    void otherEventTypesAreLeftUntouched() {
+        IntermediateEventRepresentation upcasted = upcast(AccountCreditedEvent.class, null, "{\"id\":\"id\"}");
+
+        assertNull(upcasted.getType().getRevision());
+        assertEquals(0, upcasts.get());
+    }
+
+    private IntermediateEventRepresentation upcast(Class<?> type, String revision, String json) {
+        GenericDomainEventEntry<byte[]> entry = new GenericDomainEventEntry<>(
+                "AccountAggregate", "id", 0, "eventId", Instant.now(), type.getName(), revision,
+                json.getBytes(StandardCharsets.UTF_8), "{}".getBytes(StandardCharsets.UTF_8)
+        );
+        List<IntermediateEventRepresentation> upcasted = chain
+                .upcast(Stream.of(new InitialEventRepresentation(entry, serializer)))
+                .toList();
+        assertEquals(1, upcasted.size());
+        return upcasted.get(0);
+    }
+
+    private class RenameUpcaster extends JsonEventUpcaster {
+
+        private final String from;
+        private final String to;
+
+        RenameUpcaster(String sourceRevision, String targetRevision, String from, String to) {
+            super(sourceRevision, targetRevision, AccountDebitedEvent.class);
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void upcast(String type, ObjectNode event) {
+            upcasts.incrementAndGet();
+            event.set(to, event.remove(from));
+        }
+    }
+}
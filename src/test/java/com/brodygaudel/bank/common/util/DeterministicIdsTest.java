@@ -0,0 +1,45 @@
+package com.brodygaudel.bank.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeterministicIdsTest {
+
+    private static final Instant NOW = Instant.ofEpochMilli(1_717_171_717_171L);
+
+    @Test
+    void testSameEventYieldsSameId() {
+        assertEquals(DeterministicIds.of("message", 3, NOW), DeterministicIds.of("message", 3, NOW));
+    }
+
+    @Test
+    void testVersionVariantAndTimestamp() {
+        UUID uuid = UUID.fromString(DeterministicIds.of("message", 3, NOW));
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(NOW.toEpochMilli(), uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void testDistinctEventsYieldDistinctIds() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(ids.add(DeterministicIds.of("message-" + i % 100, i / 100, NOW)));
+        }
+    }
+
+    @Test
+    void testLaterEventsSortAfterEarlierOnes() {
+        String earlier = DeterministicIds.of("message-2", 2, NOW);
+        String later = DeterministicIds.of("message-1", 1, NOW.plusMillis(1));
+
+        assertTrue(later.compareTo(earlier) > 0, later + " <= " + earlier);
+    }
+}
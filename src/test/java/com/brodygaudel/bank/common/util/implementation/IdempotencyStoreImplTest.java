@@ -0,0 +1,190 @@
+package com.brodygaudel.bank.common.util.implementation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreImplTest {
+
+    @TempDir
+    Path directory;
+
+    private MutableClock clock;
+    private Path logFile;
+    private IdempotencyStoreImpl store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        logFile = directory.resolve("idempotency.log");
+        store = new IdempotencyStoreImpl(Duration.ofMinutes(10), 100, logFile, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void testDuplicateReturnsTheFirstResult() {
+        AtomicInteger executions = new AtomicInteger();
+
+        String first = store.execute("debit:key", () -> completed("result-" + executions.incrementAndGet())).join();
+        String second = store.execute("debit:key", () -> completed("result-" + executions.incrementAndGet())).join();
+
+        assertEquals("result-1", first);
+        assertEquals("result-1", second);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testDuplicateWaitsForTheRunningExecution() {
+        CompletableFuture<String> running = new CompletableFuture<>();
+        CompletableFuture<String> first = store.execute("key", () -> running);
+        CompletableFuture<String> second = store.execute("key", () -> completed("other"));
+
+        assertFalse(second.isDone());
+        running.complete("result");
+        assertEquals("result", first.join());
+        assertEquals("result", second.join());
+    }
+
+    @Test
+    void testFailureIsNotRemembered() {
+        CompletableFuture<String> failed = store.execute("key", () -> CompletableFuture.failedFuture(new IllegalStateException()));
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals("retried", store.execute("key", () -> completed("retried")).join());
+    }
+
+    @Test
+    void testKeyExpires() {
+        store.execute("key", () -> completed("first")).join();
+        clock.advance(Duration.ofMinutes(11));
+
+        assertEquals("second", store.execute("key", () -> completed("second")).join());
+    }
+
+    @Test
+    void testOldestKeysAreEvicted() {
+        for (int i = 0; i < 150; i++) {
+            String value = "value-" + i;
+            store.execute("key-" + i, () -> completed(value)).join();
+        }
+
+        assertEquals(100, store.size());
+        assertEquals("again", store.execute("key-0", () -> completed("again")).join());
+        assertEquals("value-149", store.execute("key-149", () -> completed("again")).join());
+    }
+
+    @Test
+    void testRunningKeysAreNeverEvicted() {
+        List<CompletableFuture<String>> running = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            CompletableFuture<String> command = new CompletableFuture<>();
+            running.add(command);
+            store.execute("key-" + i, () -> command);
+        }
+
+        CompletableFuture<String> refused = store.execute("key-100", () -> completed("refused"));
+        ExecutionException exception = assertThrows(ExecutionException.class, refused::get);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                ((ResponseStatusException) exception.getCause()).getStatusCode());
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<String> retry = store.execute("key-0",
+                () -> completed("again-" + executions.incrementAndGet()));
+        running.get(0).complete("first");
+        assertEquals("first", retry.join());
+        assertEquals(0, executions.get());
+
+        assertEquals("accepted", store.execute("key-100", () -> completed("accepted")).join());
+        assertFalse(running.get(1).isDone());
+        assertFalse(store.execute("key-1", () -> completed("again")).isDone());
+    }
+
+    @Test
+    void testKeysSurviveRestart() {
+        store.execute("credit:a b\tc", () -> completed("result")).join();
+        store.execute("credit:null", () -> completed(null)).join();
+        clock.advance(Duration.ofMinutes(5));
+        store.execute("credit:late", () -> completed("late")).join();
+        store.close();
+
+        clock.advance(Duration.ofMinutes(6));
+        store = new IdempotencyStoreImpl(Duration.ofMinutes(10), 100, logFile, clock);
+
+        assertEquals(1, store.size());
+        assertEquals("late", store.execute("credit:late", () -> completed("other")).join());
+        assertEquals("other", store.execute("credit:a b\tc", () -> completed("other")).join());
+    }
+
+    @Test
+    void testNullResultSurvivesRestart() {
+        store.execute("key", () -> completed(null)).join();
+        store.close();
+
+        store = new IdempotencyStoreImpl(Duration.ofMinutes(10), 100, logFile, clock);
+
+        assertNull(store.execute("key", () -> completed("other")).join());
+    }
+
+    @Test
+    void testLogIsCompacted() throws IOException {
+        for (int i = 0; i < 5_000; i++) {
+            store.execute("key-" + i, () -> completed("value")).join();
+        }
+
+        long lines;
+        try (var stream = Files.lines(logFile)) {
+            lines = stream.count();
+        }
+        assertTrue(lines <= 1_024 + 1, "log holds " + lines + " lines");
+    }
+
+    private static CompletableFuture<String> completed(String value) {
+        return CompletableFuture.completedFuture(value);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.brodygaudel.bank.common.util.implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7IdGeneratorTest {
+
+    private static final long NOW = 1_717_171_717_171L;
+
+    @Test
+    void testVersionVariantAndTimestamp() {
+        UUID uuid = new UuidV7IdGenerator(() -> NOW).nextUuid();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(NOW, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void testIdsAreUniqueAndSortAsStrings() {
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(() -> NOW);
+        Set<String> ids = new HashSet<>();
+        String previous = "";
+        for (int i = 0; i < 10_000; i++) {
+            String id = generator.autoGenerate();
+            assertEquals(36, id.length());
+            assertTrue(id.compareTo(previous) > 0, id + " <= " + previous);
+            assertTrue(ids.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void testLaterIdsSortAfterEarlierOnes() {
+        long[] clock = {NOW};
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(() -> clock[0]);
+        String earlier = generator.autoGenerate();
+        clock[0] += 1;
+
+        assertTrue(generator.autoGenerate().compareTo(earlier) > 0);
+    }
+}
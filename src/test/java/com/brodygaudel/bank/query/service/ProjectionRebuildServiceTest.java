@@ -0,0 +1,186 @@
+package com.brodygaudel.bank.query.service;
+
+import com.brodygaudel.bank.common.command.account.CreateAccountCommand;
+import com.brodygaudel.bank.common.command.account.CreditAccountCommand;
+import com.brodygaudel.bank.common.command.account.DebitAccountCommand;
+import com.brodygaudel.bank.common.command.customer.CreateCustomerCommand;
+import com.brodygaudel.bank.common.command.customer.DeleteCustomerCommand;
+import com.brodygaudel.bank.common.command.customer.UpdateCustomerCommand;
+import com.brodygaudel.bank.common.dto.ProjectionRebuildStatusDTO;
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.ProjectionRebuildPhase;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.common.enums.OperationType;
+import com.brodygaudel.bank.query.entity.Account;
+import com.brodygaudel.bank.query.entity.Operation;
+import com.brodygaudel.bank.query.repository.AccountRepository;
+import com.brodygaudel.bank.query.repository.CustomerRepository;
+import com.brodygaudel.bank.query.repository.OperationRepository;
+import com.brodygaudel.bank.query.service.account.AccountEventHandlerService;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.common.jpa.EntityManagerProvider;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventhandling.tokenstore.jpa.JpaTokenStore;
+import org.axonframework.serialization.Serializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bank-projection-rebuild;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS bank",
+        "projection-rebuild.chunk-size=3",
+        "projection-rebuild.idle-timeout=1s"
+})
+@ActiveProfiles("embedded")
+class ProjectionRebuildServiceTest {
+
+    @Autowired
+    private CommandGateway commandGateway;
+
+    @Autowired
+    private ProjectionRebuildService projectionRebuildService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @Autowired
+    private EventProcessingConfiguration eventProcessingConfiguration;
+
+    @Autowired
+    private EntityManagerProvider entityManagerProvider;
+
+    @Autowired
+    private Serializer serializer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("bank-rebuild-archive").toString();
+        registry.add("event-archive.directory", () -> directory);
+    }
+
+    @Test
+    void testRebuildReplacesTheTablesAndResumesTheProjections() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        createCustomer("customer-1", "nic-1");
+        createCustomer("customer-2", "nic-2");
+        commandGateway.sendAndWait(new UpdateCustomerCommand("customer-1", "nic-1", "Jane", "Doe", "Paris",
+                LocalDate.of(1990, 1, 1), "French", Sex.F, now));
+        commandGateway.sendAndWait(new CreateAccountCommand("account-1", BigDecimal.ZERO, AccountStatus.ACTIVATED,
+                now, "customer-1"));
+        for (int i = 0; i < 4; i++) {
+            commandGateway.sendAndWait(new CreditAccountCommand("account-1", BigDecimal.TEN, "credit", now));
+        }
+        commandGateway.sendAndWait(new DebitAccountCommand("account-1", BigDecimal.ONE, "debit", now));
+        commandGateway.sendAndWait(new DeleteCustomerCommand("customer-2"));
+        await(() -> operationRepository.count() == 5 && customerRepository.count() == 1);
+        Set<String> operationIds = operationIds();
+        operationRepository.deleteAll();
+        Account account = accountRepository.findById("account-1").orElseThrow();
+        account.setBalance(BigDecimal.ZERO);
+        accountRepository.save(account);
+
+        ProjectionRebuildStatusDTO status = projectionRebuildService.start().get(60, TimeUnit.SECONDS);
+
+        assertEquals(ProjectionRebuildPhase.COMPLETED, status.phase(), status.error());
+        assertEquals(1, status.customers());
+        assertEquals(1, status.accounts());
+        assertEquals(5, status.operations());
+        assertEquals(1.0, status.progress());
+        assertEquals(status.headPosition(), status.position());
+        assertEquals("Jane", customerRepository.findById("customer-1").orElseThrow().getFirstname());
+        assertEquals(0, new BigDecimal("39").compareTo(balance()));
+        assertEquals(4, operations(OperationType.CREDIT));
+        assertEquals(1, operations(OperationType.DEBIT));
+        assertEquals(operationIds, operationIds());
+        assertEquals(status, projectionRebuildService.getStatus().orElseThrow());
+
+        commandGateway.sendAndWait(new CreditAccountCommand("account-1", BigDecimal.ONE, "credit", now));
+        await(() -> operationRepository.count() == 6);
+        assertEquals(0, new BigDecimal("40").compareTo(balance()));
+    }
+
+    @Test
+    void testRebuildIsRefusedWhileAnotherNodeClaimsASegment() throws Exception {
+        String group = AccountEventHandlerService.PROCESSING_GROUP;
+        StreamingEventProcessor processor = eventProcessingConfiguration
+                .eventProcessor(group, StreamingEventProcessor.class).orElseThrow();
+        TokenStore otherNode = JpaTokenStore.builder()
+                .entityManagerProvider(entityManagerProvider)
+                .serializer(serializer)
+                .nodeId("other-node")
+                .build();
+        Segment segment = Segment.computeSegment(0, transactionTemplate.execute(
+                status -> otherNode.fetchSegments(group)));
+        processor.shutdownAsync().join();
+        transactionTemplate.executeWithoutResult(status -> otherNode.fetchToken(group, segment));
+        processor.start();
+        try {
+            ProjectionRebuildStatusDTO status = projectionRebuildService.start().get(60, TimeUnit.SECONDS);
+
+            assertEquals(ProjectionRebuildPhase.FAILED, status.phase());
+            assertTrue(status.error().contains(group), status.error());
+            assertTrue(processor.isRunning());
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> otherNode.releaseClaim(group, 0));
+        }
+    }
+
+    private void createCustomer(String id, String nic) {
+        commandGateway.sendAndWait(new CreateCustomerCommand(id, nic, "John", "Doe", "Paris",
+                LocalDate.of(1990, 1, 1), "French", Sex.M, LocalDateTime.now()));
+    }
+
+    private long operations(OperationType type) {
+        return operationRepository.findAllByAccountId("account-1", Pageable.unpaged()).stream()
+                .map(Operation::getType)
+                .filter(type::equals)
+                .count();
+    }
+
+    private Set<String> operationIds() {
+        return operationRepository.findAll().stream().map(Operation::getId).collect(Collectors.toSet());
+    }
+
+    private BigDecimal balance() {
+        return accountRepository.findById("account-1").orElseThrow().getBalance();
+    }
+
+    private static void await(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.get()) {
+            if (System.nanoTime() > deadline) {
+                fail("the projections did not catch up");
+            }
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.brodygaudel.bank.query.service.account;
+
+import com.brodygaudel.bank.common.enums.AccountStatus;
+import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.common.event.account.AccountCreatedEvent;
+import com.brodygaudel.bank.common.event.account.AccountCreditedEvent;
+import com.brodygaudel.bank.common.event.account.AccountDebitedEvent;
+import com.brodygaudel.bank.common.util.DeterministicIds;
+import com.brodygaudel.bank.query.entity.Account;
+import com.brodygaudel.bank.query.entity.Customer;
+import com.brodygaudel.bank.query.entity.Operation;
+import com.brodygaudel.bank.query.repository.AccountRepository;
+import com.brodygaudel.bank.query.repository.CustomerRepository;
+import com.brodygaudel.bank.query.repository.OperationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.axonframework.eventhandling.ReplayStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bank-projection-batch;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS bank",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("embedded")
+class AccountEventHandlerBatchTest {
+
+    private static final Instant NOW = Instant.now();
+
+    @Autowired
+    private AccountEventHandlerService accountEventHandlerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @Autowired
+    private AccountBalanceCache accountBalanceCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testBatchWritesTheCachedBalanceOnceAndInsertsEveryOperation() {
+        LocalDateTime now = LocalDateTime.now();
+        createAccount("b", now);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 1; i <= 10; i++) {
+                accountEventHandlerService.on(new AccountCreditedEvent("account-b", BigDecimal.TEN, "credit", now),
+                        "credit-b-" + i, i, NOW);
+            }
+            accountEventHandlerService.on(new AccountDebitedEvent("account-b", BigDecimal.ONE, "debit", now),
+                    "debit-b", 11, NOW);
+        });
+
+        assertEquals(0, statistics.getEntityStatistics(Account.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(Account.class.getName()).getUpdateCount());
+        assertEquals(11, statistics.getEntityStatistics(Operation.class.getName()).getInsertCount());
+        assertEquals(0, statistics.getEntityStatistics(Operation.class.getName()).getLoadCount());
+        assertEquals(0, new BigDecimal("99").compareTo(accountRepository.findById("account-b").orElseThrow().getBalance()));
+        assertEquals(11, operationRepository.findAllByAccountId("account-b", Pageable.unpaged()).getTotalElements());
+    }
+
+    @Test
+    void testBalanceChangedOutsideTheCacheIsReadAgain() {
+        LocalDateTime now = LocalDateTime.now();
+        createAccount("c", now);
+        transactionTemplate.executeWithoutResult(status -> accountRepository.updateBalance("account-c",
+                new BigDecimal("50"), AccountStatus.ACTIVATED, now, 0, BigDecimal.ZERO, 0));
+        AccountCreditedEvent credit = new AccountCreditedEvent("account-c", BigDecimal.TEN, "credit", now);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(
+                status -> accountEventHandlerService.on(credit, "credit-c", 1, NOW)));
+        transactionTemplate.executeWithoutResult(status -> accountEventHandlerService.on(credit, "credit-c", 1, NOW));
+
+        assertEquals(0, new BigDecimal("60").compareTo(accountRepository.findById("account-c").orElseThrow().getBalance()));
+        assertEquals(1, operationRepository.findAllByAccountId("account-c", Pageable.unpaged()).getTotalElements());
+    }
+
+    @Test
+    void testRedeliveredEventsAreIgnored() {
+        LocalDateTime now = LocalDateTime.now();
+        createAccount("d", now);
+        AccountCreditedEvent credit = new AccountCreditedEvent("account-d", BigDecimal.TEN, "credit", now);
+        transactionTemplate.executeWithoutResult(status -> {
+            accountEventHandlerService.on(credit, "credit-d-1", 1, NOW);
+            accountEventHandlerService.on(credit, "credit-d-2", 2, NOW);
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            accountEventHandlerService.on(credit, "credit-d-1", 1, NOW);
+            accountEventHandlerService.on(credit, "credit-d-2", 2, NOW);
+        });
+        accountBalanceCache.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            accountEventHandlerService.on(credit, "credit-d-2", 2, NOW);
+            accountEventHandlerService.on(credit, "credit-d-3", 3, NOW);
+        });
+        accountEventHandlerService.on(new AccountCreatedEvent("account-d", BigDecimal.ZERO, AccountStatus.ACTIVATED,
+                now, "customer-d"), 0, ReplayStatus.REPLAY);
+
+        Account account = accountRepository.findById("account-d").orElseThrow();
+        assertEquals(0, new BigDecimal("30").compareTo(account.getBalance()));
+        assertEquals(3, account.getLastSequence());
+        assertEquals(Set.of(DeterministicIds.of("credit-d-1", 1, NOW), DeterministicIds.of("credit-d-2", 2, NOW),
+                        DeterministicIds.of("credit-d-3", 3, NOW)),
+                operationRepository.findAllByAccountId("account-d", Pageable.unpaged()).stream()
+                        .map(Operation::getId)
+                        .collect(Collectors.toSet()));
+    }
+
+    private void createAccount(String suffix, LocalDateTime now) {
+        customerRepository.save(Customer.builder().id("customer-" + suffix).nic("nic-" + suffix).firstname("John")
+                .name("Doe").placeOfBirth("Paris").dateOfBirth(LocalDate.of(1990, 1, 1)).nationality("French")
+                .sex(Sex.M).creation(now).build());
+        accountEventHandlerService.on(new AccountCreatedEvent("account-" + suffix, BigDecimal.ZERO,
+                AccountStatus.ACTIVATED, now, "customer-" + suffix), 0, ReplayStatus.REGULAR);
+    }
+}
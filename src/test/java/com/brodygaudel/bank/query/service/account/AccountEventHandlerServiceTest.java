@@ -7,27 +7,37 @@ import com.brodygaudel.bank.query.entity.Operation;
 import com.brodygaudel.bank.common.enums.AccountStatus;
 import com.brodygaudel.bank.common.enums.OperationType;
 import com.brodygaudel.bank.common.enums.Sex;
+import com.brodygaudel.bank.common.util.DeterministicIds;
 import com.brodygaudel.bank.query.repository.AccountRepository;
 import com.brodygaudel.bank.query.repository.CustomerRepository;
 import com.brodygaudel.bank.query.repository.OperationRepository;
+import org.axonframework.eventhandling.ReplayStatus;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
 class AccountEventHandlerServiceTest {
 
+    private static final Instant NOW = Instant.now();
+
     @Mock
     private AccountRepository accountRepository;
 
@@ -42,7 +52,22 @@ class AccountEventHandlerServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new AccountEventHandlerService(accountRepository, operationRepository, customerRepository);
+        service = new AccountEventHandlerService(accountRepository, operationRepository, customerRepository,
+                new AccountBalanceCache(accountRepository, 16));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    private void commit() {
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+    }
+
+    private static BigDecimal amount(long value) {
+        return argThat(amount -> amount != null && amount.compareTo(BigDecimal.valueOf(value)) == 0);
     }
 
     @Test
@@ -58,11 +83,11 @@ class AccountEventHandlerServiceTest {
                 .status(event.getStatus()).lastUpdate(null).customer(customer)
                 .build();
 
-        when(customerRepository.findById(event.getCustomerId())).thenReturn(Optional.of(customer));
+        when(customerRepository.getReferenceById(event.getCustomerId())).thenReturn(customer);
         when(accountRepository.save(any())).thenReturn(account);
-        service.on(event);
-        verify(customerRepository, times(1)).findById(anyString());
-        verify(accountRepository, times(1)).save(any());
+        service.on(event, 0, ReplayStatus.REGULAR);
+        verify(customerRepository, never()).findById(anyString());
+        verify(accountRepository, times(1)).save(argThat(saved -> saved.isNew() && saved.getLastSequence() == 0));
     }
 
     @Test
@@ -74,11 +99,14 @@ class AccountEventHandlerServiceTest {
                 .status(event.getStatus()).lastUpdate(null).customer(new Customer())
                 .build();
         when(accountRepository.findById(event.getId())).thenReturn(Optional.of(account));
-        when(accountRepository.save(any())).thenReturn(account);
+        when(accountRepository.updateBalance(any(), any(), any(), any(), anyLong(), any(), anyLong())).thenReturn(1);
 
-        service.on(event);
+        service.on(event, 1);
+        commit();
         verify(accountRepository, times(1)).findById(anyString());
-        verify(accountRepository, times(1)).save(any());
+        verify(accountRepository, never()).save(any());
+        verify(accountRepository, times(1)).updateBalance(eq("id"), any(), eq(event.getStatus()),
+                eq(event.getLastUpdate()), eq(1L), any(), eq(-1L));
     }
 
     @Test
@@ -90,11 +118,14 @@ class AccountEventHandlerServiceTest {
                 .status(event.getStatus()).lastUpdate(null).customer(new Customer())
                 .build();
         when(accountRepository.findById(event.getId())).thenReturn(Optional.of(account));
-        when(accountRepository.save(any())).thenReturn(account);
+        when(accountRepository.updateBalance(any(), any(), any(), any(), anyLong(), any(), anyLong())).thenReturn(1);
 
-        service.on(event);
+        service.on(event, 1);
+        commit();
         verify(accountRepository, times(1)).findById(anyString());
-        verify(accountRepository, times(1)).save(any());
+        verify(accountRepository, never()).save(any());
+        verify(accountRepository, times(1)).updateBalance(eq("id"), any(), eq(event.getStatus()),
+                eq(event.getLastUpdate()), eq(1L), any(), eq(-1L));
     }
 
     @Test
@@ -110,11 +141,17 @@ class AccountEventHandlerServiceTest {
                 .build();
         when(accountRepository.findById(event.getId())).thenReturn(Optional.of(account));
         when(operationRepository.save(any())).thenReturn(operation);
-        when(accountRepository.save(any())).thenReturn(account);
-        service.on(event);
+        when(accountRepository.updateBalance(any(), any(), any(), any(), anyLong(), any(), anyLong())).thenReturn(1);
+        service.on(event, "message-1", 1, NOW);
+        service.on(event, "message-2", 2, NOW);
+        commit();
         verify(accountRepository, times(1)).findById(anyString());
-        verify(operationRepository, times(1)).save(any());
-        verify(accountRepository, times(1)).save(any());
+        verify(operationRepository, times(2)).save(argThat(Operation::isNew));
+        verify(operationRepository, times(1)).save(
+                argThat(saved -> saved.getId().equals(DeterministicIds.of("message-2", 2, NOW))));
+        verify(accountRepository, never()).save(any());
+        verify(accountRepository, times(1)).updateBalance(eq("id"), amount(1221), eq(AccountStatus.ACTIVATED),
+                eq(event.getLastUpdate()), eq(2L), amount(333), eq(-1L));
     }
 
     @Test
@@ -130,10 +167,43 @@ class AccountEventHandlerServiceTest {
                 .build();
         when(accountRepository.findById(event.getId())).thenReturn(Optional.of(account));
         when(operationRepository.save(any())).thenReturn(operation);
-        when(accountRepository.save(any())).thenReturn(account);
-        service.on(event);
+        when(accountRepository.updateBalance(any(), any(), any(), any(), anyLong(), any(), anyLong())).thenReturn(1);
+        service.on(event, "message-1", 1, NOW);
+        commit();
         verify(accountRepository, times(1)).findById(anyString());
-        verify(operationRepository, times(1)).save(any());
-        verify(accountRepository, times(1)).save(any());
+        verify(operationRepository, times(1)).save(argThat(Operation::isNew));
+        verify(accountRepository, never()).save(any());
+        verify(accountRepository, times(1)).updateBalance(eq("id"), amount(222), eq(AccountStatus.ACTIVATED),
+                eq(event.getLastUpdate()), eq(1L), amount(333), eq(-1L));
+    }
+
+    @Test
+    void onRedeliveredAccountCreditedEvent() {
+        AccountCreditedEvent event =  new AccountCreditedEvent(
+                "id", BigDecimal.valueOf(444), "credit", LocalDateTime.now()
+        );
+        Account account = Account.builder().id(event.getId()).balance(BigDecimal.valueOf(777)).creation(LocalDateTime.now())
+                .status(AccountStatus.ACTIVATED).lastUpdate(LocalDateTime.now()).lastSequence(3L)
+                .customer(new Customer())
+                .build();
+        when(accountRepository.findById(event.getId())).thenReturn(Optional.of(account));
+        service.on(event, "message-3", 3, NOW);
+        service.on(event, "message-2", 2, NOW);
+        commit();
+        verify(operationRepository, never()).save(any());
+        verify(accountRepository, never()).updateBalance(any(), any(), any(), any(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void onRedeliveredAccountCreatedEvent() {
+        AccountCreatedEvent event = new AccountCreatedEvent(
+                "id", BigDecimal.valueOf(888), AccountStatus.ACTIVATED, LocalDateTime.now(), "customerId"
+        );
+        Account account = Account.builder().id(event.getId()).balance(event.getBalance()).creation(event.getCreation())
+                .status(event.getStatus()).lastSequence(0L).customer(new Customer())
+                .build();
+        when(accountRepository.findById(event.getId())).thenReturn(Optional.of(account));
+        service.on(event, 0, ReplayStatus.REPLAY);
+        verify(accountRepository, never()).save(any());
     }
 }
\ No newline at end of file